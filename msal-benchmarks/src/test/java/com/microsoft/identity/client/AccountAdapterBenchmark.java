@@ -0,0 +1,90 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import com.microsoft.identity.common.java.cache.ICacheRecord;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adaptation of the token cache records to {@link IAccount}s, done by getAccounts and by every
+ * result, and the identifiers read from the adapted accounts on each request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class AccountAdapterBenchmark {
+
+    @Param({"1", "50", "500"})
+    public int accountCount;
+
+    @Param({"0", "3"})
+    public int guestTenantsPerAccount;
+
+    private List<ICacheRecord> mCacheRecords;
+
+    private List<IAccount> mAccounts;
+
+    @Setup
+    public void setUp() {
+        mCacheRecords = BenchmarkFixtures.createCacheRecords(accountCount, guestTenantsPerAccount);
+        mAccounts = AccountAdapter.adapt(mCacheRecords);
+    }
+
+    @Benchmark
+    public List<IAccount> adapt() {
+        return AccountAdapter.adapt(mCacheRecords);
+    }
+
+    @Benchmark
+    public void getIdOfAdaptedAccounts(final Blackhole blackhole) {
+        for (final IAccount account : mAccounts) {
+            blackhole.consume(account.getId());
+        }
+    }
+
+    @Benchmark
+    public void adaptAndGetIds(final Blackhole blackhole) {
+        for (final IAccount account : AccountAdapter.adapt(mCacheRecords)) {
+            blackhole.consume(account.getId());
+            blackhole.consume(account.getUsername());
+        }
+    }
+}
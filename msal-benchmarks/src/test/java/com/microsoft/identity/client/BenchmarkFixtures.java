@@ -0,0 +1,205 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import com.microsoft.identity.client.claims.ClaimsRequest;
+import com.microsoft.identity.client.claims.RequestedClaimAdditionalInformation;
+import com.microsoft.identity.common.java.cache.CacheRecord;
+import com.microsoft.identity.common.java.cache.ICacheRecord;
+import com.microsoft.identity.common.java.dto.AccountRecord;
+import com.microsoft.identity.common.java.dto.IdTokenRecord;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Realistic inputs shared by the benchmarks: multi-tenant account caches, large claims requests
+ * and scope lists. Everything is deterministic, so that results can be compared between runs.
+ */
+final class BenchmarkFixtures {
+
+    static final String ENVIRONMENT = "login.microsoftonline.com";
+    static final String HOME_TENANT_ID = "72f988bf-86f1-41af-91ab-2d7cd011db47";
+    static final String CLIENT_CAPABILITIES = "CP1,ProtApp";
+    static final String CLIENT_ID = "4b0db8c2-9f26-4417-8bde-3f0e3656f8e0";
+    static final String AUTHORITY = "https://" + ENVIRONMENT + "/common";
+
+    private static final String[] GRAPH_SCOPES = {
+            "User.Read", "User.ReadBasic.All", "Mail.Read", "Mail.Send", "Calendars.ReadWrite",
+            "Files.ReadWrite.All", "Sites.Read.All", "Contacts.Read", "Tasks.ReadWrite",
+            "Notes.Read", "Presence.Read", "Chat.ReadWrite", "Team.ReadBasic.All",
+            "Group.Read.All", "People.Read", "offline_access", "openid", "profile"
+    };
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * @param accountCount           The number of home accounts.
+     * @param guestTenantsPerAccount The number of guest tenants each account is also signed into.
+     * @return The cache records of the accounts, as returned by the token cache.
+     */
+    static List<ICacheRecord> createCacheRecords(final int accountCount, final int guestTenantsPerAccount) {
+        final List<ICacheRecord> cacheRecords = new ArrayList<>();
+
+        for (int i = 0; i < accountCount; i++) {
+            final String oid = uuid(i, 0);
+            final String homeAccountId = oid + "." + HOME_TENANT_ID;
+
+            cacheRecords.add(createCacheRecord(homeAccountId, oid, HOME_TENANT_ID, "user" + i + "@contoso.com"));
+
+            for (int j = 0; j < guestTenantsPerAccount; j++) {
+                cacheRecords.add(createCacheRecord(
+                        homeAccountId,
+                        uuid(i, j + 1),
+                        uuid(0xFFFF, j + 1),
+                        "user" + i + "@contoso.com"
+                ));
+            }
+        }
+
+        return cacheRecords;
+    }
+
+    private static ICacheRecord createCacheRecord(final String homeAccountId,
+                                                  final String localAccountId,
+                                                  final String realm,
+                                                  final String username) {
+        final String homeOid = homeAccountId.substring(0, homeAccountId.indexOf('.'));
+
+        final AccountRecord accountRecord = new AccountRecord();
+        accountRecord.setHomeAccountId(homeAccountId);
+        accountRecord.setLocalAccountId(localAccountId);
+        accountRecord.setRealm(realm);
+        accountRecord.setEnvironment(ENVIRONMENT);
+        accountRecord.setUsername(username);
+        accountRecord.setClientInfo(createClientInfo(homeOid, HOME_TENANT_ID));
+
+        final IdTokenRecord idTokenRecord = new IdTokenRecord();
+        idTokenRecord.setSecret(createIdToken(localAccountId, realm, username));
+
+        return CacheRecord.builder()
+                .account(accountRecord)
+                .idToken(idTokenRecord)
+                .build();
+    }
+
+    /**
+     * @return An unsigned id token with the claims of a typical v2 id token.
+     */
+    static String createIdToken(final String oid, final String tenantId, final String username) {
+        final String header = "{\"alg\":\"none\",\"typ\":\"JWT\"}";
+        final String payload = "{"
+                + "\"aud\":\"" + CLIENT_ID + "\","
+                + "\"iss\":\"https://" + ENVIRONMENT + "/" + tenantId + "/v2.0\","
+                + "\"iat\":1700000000,\"nbf\":1700000000,\"exp\":1700003600,"
+                + "\"name\":\"Benchmark User\","
+                + "\"oid\":\"" + oid + "\","
+                + "\"preferred_username\":\"" + username + "\","
+                + "\"sub\":\"" + oid.replace("-", "") + "\","
+                + "\"tid\":\"" + tenantId + "\","
+                + "\"ver\":\"2.0\""
+                + "}";
+
+        return base64Url(header) + "." + base64Url(payload) + ".";
+    }
+
+    /**
+     * @return The configuration of a multiple account application requesting client capabilities.
+     */
+    static String createConfigurationJson() {
+        return "{"
+                + "\"client_id\":\"" + CLIENT_ID + "\","
+                + "\"authorization_user_agent\":\"DEFAULT\","
+                + "\"redirect_uri\":\"msauth://com.microsoft.identity.client.benchmarks/1wIqXSqBj7w%2Bh11ZifsnqwgyKrY%3D\","
+                + "\"broker_redirect_uri_registered\":true,"
+                + "\"account_mode\":\"MULTIPLE\","
+                + "\"client_capabilities\":\"" + CLIENT_CAPABILITIES + "\","
+                + "\"authorities\":[{\"type\":\"AAD\",\"audience\":{\"type\":\"AzureADandPersonalMicrosoftAccount\"}}]"
+                + "}";
+    }
+
+    static String createClientInfo(final String uid, final String utid) {
+        return base64Url("{\"uid\":\"" + uid + "\",\"utid\":\"" + utid + "\"}");
+    }
+
+    /**
+     * @param claimCount The number of claims requested in each of the access token and id token.
+     * @return A claims request, half of whose claims are essential and carry values.
+     */
+    static ClaimsRequest createClaimsRequest(final int claimCount) {
+        final ClaimsRequest claimsRequest = new ClaimsRequest();
+
+        for (int i = 0; i < claimCount; i++) {
+            RequestedClaimAdditionalInformation additionalInformation = null;
+
+            if (i % 2 == 0) {
+                additionalInformation = new RequestedClaimAdditionalInformation();
+                additionalInformation.setEssential(true);
+                additionalInformation.setValues(new ArrayList<Object>(Arrays.asList("value" + i, "other" + i)));
+            }
+
+            claimsRequest.requestClaimInAccessToken("claim_" + i, additionalInformation);
+            claimsRequest.requestClaimInIdToken("id_claim_" + i, additionalInformation);
+        }
+
+        return claimsRequest;
+    }
+
+    /**
+     * @return The value of a WWW-Authenticate header carrying a claims challenge, as returned by
+     * resources enforcing conditional access.
+     */
+    static String createWWWAuthenticateHeader(final String claimsJson) {
+        return "Bearer realm=\"\", authorization_uri=\"https://" + ENVIRONMENT + "/common/oauth2/authorize\", "
+                + "client_id=\"00000003-0000-0000-c000-000000000000\", error=\"insufficient_claims\", "
+                + "claims=\"" + claimsJson + "\"";
+    }
+
+    /**
+     * @return The first scopes of a typical Microsoft Graph client, cycling if more are requested.
+     */
+    static List<String> createScopes(final int scopeCount) {
+        final List<String> scopes = new ArrayList<>(scopeCount);
+
+        for (int i = 0; i < scopeCount; i++) {
+            final String scope = GRAPH_SCOPES[i % GRAPH_SCOPES.length];
+            scopes.add(i < GRAPH_SCOPES.length ? scope : scope + "." + i);
+        }
+
+        return scopes;
+    }
+
+    private static String uuid(final int high, final int low) {
+        return String.format("%08x-0000-4000-8000-%012x", high, low);
+    }
+
+    private static String base64Url(final String value) {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
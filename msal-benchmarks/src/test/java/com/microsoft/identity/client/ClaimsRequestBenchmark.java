@@ -0,0 +1,101 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import com.microsoft.identity.client.claims.ClaimsRequest;
+import com.microsoft.identity.client.claims.WWWAuthenticateHeader;
+import com.microsoft.identity.client.internal.CommandParametersAdapter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Claims handling on the request path: serialization of the claims request into the command
+ * parameters, merging of the client capabilities, and parsing of claims challenges returned in
+ * WWW-Authenticate headers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ClaimsRequestBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int claimCount;
+
+    private ClaimsRequest mClaimsRequest;
+
+    private String mClaimsJson;
+
+    private String mWWWAuthenticateHeader;
+
+    @Setup
+    public void setUp() {
+        mClaimsRequest = BenchmarkFixtures.createClaimsRequest(claimCount);
+        mClaimsJson = ClaimsRequest.getJsonStringFromClaimsRequest(mClaimsRequest);
+        mWWWAuthenticateHeader = BenchmarkFixtures.createWWWAuthenticateHeader(mClaimsJson);
+    }
+
+    @Benchmark
+    public String serialize() {
+        return ClaimsRequest.getJsonStringFromClaimsRequest(mClaimsRequest);
+    }
+
+    @Benchmark
+    public ClaimsRequest deserialize() {
+        return ClaimsRequest.getClaimsRequestFromJsonString(mClaimsJson);
+    }
+
+    @Benchmark
+    public String addClientCapabilitiesAndSerialize() {
+        return ClaimsRequest.getJsonStringFromClaimsRequest(
+                CommandParametersAdapter.addClientCapabilitiesToClaimsRequest(
+                        mClaimsRequest,
+                        BenchmarkFixtures.CLIENT_CAPABILITIES
+                )
+        );
+    }
+
+    @Benchmark
+    public Boolean hasClaimsDirective() {
+        return WWWAuthenticateHeader.hasClaimsDirective(mWWWAuthenticateHeader);
+    }
+
+    @Benchmark
+    public ClaimsRequest parseWWWAuthenticateHeader() {
+        return WWWAuthenticateHeader.getClaimsRequestFromWWWAuthenticateHeaderValue(mWWWAuthenticateHeader);
+    }
+}
@@ -0,0 +1,160 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import android.app.Activity;
+import android.content.Context;
+import android.content.ContextWrapper;
+
+import com.microsoft.identity.client.internal.CommandParametersAdapter;
+import com.microsoft.identity.common.java.commands.parameters.InteractiveTokenCommandParameters;
+import com.microsoft.identity.common.java.commands.parameters.SilentTokenCommandParameters;
+import com.microsoft.identity.common.java.exception.ClientException;
+import com.microsoft.identity.common.java.providers.oauth2.OAuth2TokenCache;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion of the public token parameters into command parameters, which every silent and
+ * interactive request goes through, on a configuration loaded from a Robolectric application
+ * context.
+ * <p>
+ * With {@code applicationRequestContext=perRequest}, every request comes with a new application
+ * context, so the {@link com.microsoft.identity.client.internal.ApplicationRequestContext}
+ * snapshot is rebuilt each time: the platform components are created and the package version is
+ * read on every request, like before the snapshot was introduced.
+ * <p>
+ * Run by {@link RobolectricBenchmarkRunner}, in-process, rather than by the forked JMH tasks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CommandParametersAdapterBenchmark {
+
+    private static final UUID CORRELATION_ID = UUID.fromString("5f8b1a2c-3d4e-4f60-8a7b-9c0d1e2f3a4b");
+
+    @Param({"snapshot", "perRequest"})
+    public String applicationRequestContext;
+
+    private Context mApplicationContext;
+
+    private boolean mPerRequest;
+
+    private PublicClientApplicationConfiguration mConfiguration;
+
+    private OAuth2TokenCache mTokenCache;
+
+    private AcquireTokenSilentParameters mSilentParameters;
+
+    private AcquireTokenParameters mInteractiveParameters;
+
+    @Setup
+    public void setUp() throws IOException {
+        mApplicationContext = RobolectricBenchmarkRunner.getApplicationContext();
+        mPerRequest = "perRequest".equals(applicationRequestContext);
+
+        final Activity activity = RobolectricBenchmarkRunner.getActivity();
+
+        final File configFile = File.createTempFile("msal_benchmark_config", ".json");
+        configFile.deleteOnExit();
+
+        try (final OutputStream outputStream = new FileOutputStream(configFile)) {
+            outputStream.write(BenchmarkFixtures.createConfigurationJson().getBytes(StandardCharsets.UTF_8));
+        }
+
+        mConfiguration = PublicClientApplicationConfigurationFactory.initializeConfiguration(mApplicationContext, configFile);
+        mTokenCache = mConfiguration.getOAuth2TokenCache();
+
+        mSilentParameters = new AcquireTokenSilentParameters.Builder()
+                .withScopes(BenchmarkFixtures.createScopes(5))
+                .fromAuthority(BenchmarkFixtures.AUTHORITY)
+                .withCorrelationId(CORRELATION_ID)
+                .build();
+
+        mInteractiveParameters = new AcquireTokenParameters.Builder()
+                .withScopes(BenchmarkFixtures.createScopes(5))
+                .startAuthorizationFromActivity(activity)
+                .withCorrelationId(CORRELATION_ID)
+                .build();
+    }
+
+    @Benchmark
+    public SilentTokenCommandParameters createSilentTokenCommandParameters() throws ClientException {
+        return CommandParametersAdapter.createSilentTokenCommandParameters(
+                getConfiguration(),
+                mTokenCache,
+                mSilentParameters
+        );
+    }
+
+    @Benchmark
+    public InteractiveTokenCommandParameters createInteractiveTokenCommandParameters() throws ClientException {
+        return CommandParametersAdapter.createInteractiveTokenCommandParameters(
+                getConfiguration(),
+                mTokenCache,
+                mInteractiveParameters
+        );
+    }
+
+    private PublicClientApplicationConfiguration getConfiguration() {
+        if (mPerRequest) {
+            mConfiguration.setAppContext(new RequestApplicationContext(mApplicationContext));
+        }
+
+        return mConfiguration;
+    }
+
+    /**
+     * An application context which is only used by one request.
+     */
+    private static final class RequestApplicationContext extends ContextWrapper {
+
+        RequestApplicationContext(final Context base) {
+            super(base);
+        }
+
+        @Override
+        public Context getApplicationContext() {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import android.app.Activity;
+import android.content.Context;
+
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+/**
+ * Runs the benchmarks which need an application context, such as
+ * {@link CommandParametersAdapterBenchmark}, inside a Robolectric environment.
+ * <p>
+ * Robolectric only exists in the JVM which runs this test, so JMH runs in-process (no forks).
+ * This is started by the jmhRobolectric&lt;Variant&gt; tasks, which pass the results file with the
+ * jmh.results system property; it is skipped when the unit tests are run.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class RobolectricBenchmarkRunner {
+
+    private static volatile Context sApplicationContext;
+
+    private static volatile Activity sActivity;
+
+    @Test
+    public void runBenchmarks() throws RunnerException {
+        final String results = System.getProperty("jmh.results");
+        Assume.assumeTrue("Run by the jmhRobolectric<Variant> tasks", results != null);
+
+        sApplicationContext = RuntimeEnvironment.getApplication();
+        sActivity = Robolectric.buildActivity(Activity.class).create().get();
+
+        final ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(CommandParametersAdapterBenchmark.class.getName())
+                .forks(0)
+                // Reports the allocations per operation next to the latency.
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(results);
+
+        if (Boolean.getBoolean("jmh.quick")) {
+            // Smoke run, e.g. on PR builds: numbers are only indicative.
+            options.warmupIterations(1)
+                    .warmupTime(TimeValue.seconds(1))
+                    .measurementIterations(2)
+                    .measurementTime(TimeValue.seconds(1));
+        }
+
+        new Runner(options.build()).run();
+    }
+
+    /**
+     * @return The Robolectric application context.
+     * @throws IllegalStateException if the benchmark is not run by this runner.
+     */
+    static Context getApplicationContext() {
+        return checkRunning(sApplicationContext);
+    }
+
+    /**
+     * @return A created Robolectric activity, to start interactive requests from.
+     * @throws IllegalStateException if the benchmark is not run by this runner.
+     */
+    static Activity getActivity() {
+        return checkRunning(sActivity);
+    }
+
+    private static <T> T checkRunning(final T value) {
+        if (value == null) {
+            throw new IllegalStateException("Needs Robolectric, run with the jmhRobolectric<Variant> tasks.");
+        }
+
+        return value;
+    }
+}
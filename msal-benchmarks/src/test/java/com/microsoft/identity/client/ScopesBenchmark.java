@@ -0,0 +1,92 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import com.microsoft.identity.client.internal.MsalUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scope handling done for every result: parsing of the granted scopes, the declined-scope check,
+ * and the canonical scope set of the request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ScopesBenchmark {
+
+    @Param({"3", "18", "100"})
+    public int scopeCount;
+
+    private List<String> mRequestedScopes;
+
+    private List<String> mGrantedScopes;
+
+    private String mGrantedTarget;
+
+    @Setup
+    public void setUp() {
+        mRequestedScopes = BenchmarkFixtures.createScopes(scopeCount);
+
+        // The service returns the scopes lower-cased, and without one of them.
+        mGrantedScopes = new ArrayList<>();
+        for (int i = 1; i < mRequestedScopes.size(); i++) {
+            mGrantedScopes.add(mRequestedScopes.get(i).toLowerCase());
+        }
+
+        mGrantedTarget = String.join(" ", mGrantedScopes);
+    }
+
+    @Benchmark
+    public Set<String> getScopesAsSet() {
+        return MsalUtils.getScopesAsSet(mGrantedTarget);
+    }
+
+    @Benchmark
+    public List<String> getDeclinedScopes() {
+        return AuthenticationResultAdapter.getDeclinedScopes(mGrantedScopes, mRequestedScopes);
+    }
+
+    @Benchmark
+    public ScopeSet scopeSetOf() {
+        return ScopeSet.of(mRequestedScopes);
+    }
+}
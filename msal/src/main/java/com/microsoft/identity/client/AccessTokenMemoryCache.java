@@ -0,0 +1,235 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.common.java.authscheme.BearerAuthenticationSchemeInternal;
+import com.microsoft.identity.common.logging.Logger;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory, size-bounded cache of the {@link IAuthenticationResult}s returned by silent
+ * requests. Lets a {@link PublicClientApplication} answer a repeated silent request for the same
+ * account, realm, scopes and authentication scheme without dispatching a command.
+ * <p>
+ * Entries are dropped once their access token is within {@link #EXPIRY_BUFFER_MILLIS} of its
+ * expiry (or past its refresh_on time), so a cache miss always falls through to the regular
+ * silent flow, which is responsible for refreshing the token.
+ */
+final class AccessTokenMemoryCache {
+
+    private static final String TAG = AccessTokenMemoryCache.class.getSimpleName();
+
+    /**
+     * Default number of entries held before the least recently used one is evicted.
+     */
+    static final int DEFAULT_MAX_ENTRIES = 64;
+
+    /**
+     * Tokens expiring within this window are not served from memory.
+     */
+    static final long EXPIRY_BUFFER_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private static final String KEY_DELIMITER = "|";
+
+    private final Map<String, Entry> mEntries;
+
+    AccessTokenMemoryCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    AccessTokenMemoryCache(final int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive.");
+        }
+
+        mEntries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Builds the lookup key for a request.
+     *
+     * @param homeAccountId The home account id of the account the token is for.
+     * @param authority     The request authority, which carries the cloud and realm.
+     * @param scopes        The requested scopes. Ordering and casing are ignored.
+     * @param schemeName    The authentication scheme name, or null for Bearer.
+     * @return The cache key.
+     */
+    @NonNull
+    static String createKey(@NonNull final String homeAccountId,
+                            @NonNull final String authority,
+                            @NonNull final Collection<String> scopes,
+                            @Nullable final String schemeName) {
+        return createKey(homeAccountId, authority, ScopeSet.of(scopes), schemeName);
+    }
+
+    /**
+     * Builds the lookup key for a request whose scopes are already canonical.
+     *
+     * @param homeAccountId The home account id of the account the token is for.
+     * @param authority     The request authority, which carries the cloud and realm.
+     * @param scopeSet      The canonical requested scopes.
+     * @param schemeName    The authentication scheme name, or null for Bearer.
+     * @return The cache key.
+     */
+    @NonNull
+    static String createKey(@NonNull final String homeAccountId,
+                            @NonNull final String authority,
+                            @NonNull final ScopeSet scopeSet,
+                            @Nullable final String schemeName) {
+        return homeAccountId
+                + KEY_DELIMITER
+                + normalizeAuthority(authority)
+                + KEY_DELIMITER
+                + scopeSet
+                + KEY_DELIMITER
+                + (null == schemeName ? BearerAuthenticationSchemeInternal.SCHEME_BEARER : schemeName);
+    }
+
+    /**
+     * Returns the cached result for the given key, or null if there is none or it is about to
+     * expire.
+     */
+    @Nullable
+    IAuthenticationResult get(@NonNull final String key) {
+        final String methodTag = TAG + ":get";
+
+        synchronized (mEntries) {
+            final Entry entry = mEntries.get(key);
+
+            if (null == entry) {
+                return null;
+            }
+
+            if (entry.mValidUntilMillis <= System.currentTimeMillis()) {
+                Logger.verbose(methodTag, "In-memory access token is about to expire, evicting.");
+                mEntries.remove(key);
+                return null;
+            }
+
+            return entry.mResult;
+        }
+    }
+
+    /**
+     * Caches a result returned for a silent request.
+     */
+    void put(@NonNull final String key,
+             @NonNull final String homeAccountId,
+             @NonNull final IAuthenticationResult result) {
+        final long validUntilMillis = getValidUntilMillis(result);
+
+        if (validUntilMillis <= System.currentTimeMillis()) {
+            return;
+        }
+
+        synchronized (mEntries) {
+            mEntries.put(key, new Entry(homeAccountId, result, validUntilMillis));
+        }
+    }
+
+    /**
+     * Removes every entry belonging to the supplied home account id.
+     */
+    void remove(@NonNull final String homeAccountId) {
+        synchronized (mEntries) {
+            final Iterator<Entry> iterator = mEntries.values().iterator();
+
+            while (iterator.hasNext()) {
+                if (homeAccountId.equalsIgnoreCase(iterator.next().mHomeAccountId)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    void clear() {
+        synchronized (mEntries) {
+            mEntries.clear();
+        }
+    }
+
+    int size() {
+        synchronized (mEntries) {
+            return mEntries.size();
+        }
+    }
+
+    /**
+     * @return The time until which the given result may be answered from memory.
+     */
+    static long getValidUntilMillis(@NonNull final IAuthenticationResult result) {
+        long validUntilMillis = result.getExpiresOn().getTime() - EXPIRY_BUFFER_MILLIS;
+
+        if (result instanceof AuthenticationResult) {
+            // Once refresh_on has passed the silent flow proactively refreshes the token,
+            // so stop answering from memory at that point.
+            final Date refreshOn = ((AuthenticationResult) result).getRefreshOn();
+
+            if (null != refreshOn) {
+                validUntilMillis = Math.min(validUntilMillis, refreshOn.getTime());
+            }
+        }
+
+        return validUntilMillis;
+    }
+
+    @NonNull
+    private static String normalizeAuthority(@NonNull final String authority) {
+        String normalized = authority.trim().toLowerCase(Locale.ROOT);
+
+        while (normalized.endsWith("/")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+
+        return normalized;
+    }
+
+    private static final class Entry {
+        private final String mHomeAccountId;
+        private final IAuthenticationResult mResult;
+        private final long mValidUntilMillis;
+
+        Entry(@NonNull final String homeAccountId,
+              @NonNull final IAuthenticationResult result,
+              final long validUntilMillis) {
+            mHomeAccountId = homeAccountId;
+            mResult = result;
+            mValidUntilMillis = validUntilMillis;
+        }
+    }
+}
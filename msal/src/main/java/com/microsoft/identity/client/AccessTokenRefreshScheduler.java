@@ -0,0 +1,337 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.client.exception.MsalException;
+import com.microsoft.identity.common.logging.Logger;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Refresh-ahead scheduler for access tokens handed out by silent requests. Each tracked token is
+ * refreshed in the background (through a forced silent request) once a configured fraction of
+ * its remaining lifetime has elapsed, so that silent requests made close to its expiry are still
+ * served from the cache instead of paying a network round trip.
+ * <p>
+ * A token refreshed ahead of time is only scheduled for another refresh if the app requested it
+ * since the previous refresh, and at most {@link #MAX_CONSECUTIVE_REFRESHES} times in a row before
+ * a result requested by the app resets the count, so tokens the app stopped using are not kept
+ * alive in the background.
+ * <p>
+ * A random jitter of up to {@link #JITTER_FRACTION} of the delay is applied so that tokens
+ * acquired together are not all refreshed at the same instant.
+ */
+final class AccessTokenRefreshScheduler {
+
+    private static final String TAG = AccessTokenRefreshScheduler.class.getSimpleName();
+
+    /**
+     * Fraction of the remaining lifetime used when the configured value is missing or invalid.
+     */
+    static final double DEFAULT_LIFETIME_FRACTION = 0.75;
+
+    /**
+     * Maximum jitter applied to a refresh delay, as a fraction of that delay.
+     */
+    static final double JITTER_FRACTION = 0.1;
+
+    /**
+     * Tokens with less remaining lifetime than this are left to the regular silent flow.
+     */
+    static final long MIN_REMAINING_LIFETIME_MILLIS = TimeUnit.MINUTES.toMillis(2);
+
+    /**
+     * Number of refreshes chained from one result requested by the app.
+     */
+    static final int MAX_CONSECUTIVE_REFRESHES = 3;
+
+    /**
+     * Performs the refresh of a tracked token.
+     */
+    interface RefreshAction {
+        void refresh(@NonNull AcquireTokenSilentParameters parameters);
+    }
+
+    private final double mLifetimeFraction;
+    private final RefreshAction mRefreshAction;
+    private final ScheduledExecutorService mScheduler;
+    private final Random mRandom;
+    private final Map<String, ScheduledRefresh> mScheduledRefreshes = new ConcurrentHashMap<>();
+    private final Map<String, ScheduledRefresh> mRunningRefreshes = new ConcurrentHashMap<>();
+
+    AccessTokenRefreshScheduler(@Nullable final Double lifetimeFraction,
+                                @NonNull final RefreshAction refreshAction) {
+        this(lifetimeFraction, refreshAction, SharedScheduler.INSTANCE, new Random());
+    }
+
+    AccessTokenRefreshScheduler(@Nullable final Double lifetimeFraction,
+                                @NonNull final RefreshAction refreshAction,
+                                @NonNull final ScheduledExecutorService scheduler,
+                                @NonNull final Random random) {
+        final String methodTag = TAG + ":AccessTokenRefreshScheduler";
+
+        if (lifetimeFraction == null || lifetimeFraction <= 0 || lifetimeFraction >= 1) {
+            if (lifetimeFraction != null) {
+                Logger.warn(methodTag, "Invalid refresh-ahead lifetime fraction " + lifetimeFraction
+                        + ", using " + DEFAULT_LIFETIME_FRACTION);
+            }
+            mLifetimeFraction = DEFAULT_LIFETIME_FRACTION;
+        } else {
+            mLifetimeFraction = lifetimeFraction;
+        }
+
+        mRefreshAction = refreshAction;
+        mScheduler = scheduler;
+        mRandom = random;
+    }
+
+    /**
+     * Schedules the refresh of a token returned for a silent request, replacing any refresh
+     * already scheduled for an identical request. Results of refreshes started by this scheduler
+     * are only scheduled again if the app requested the token since, up to
+     * {@link #MAX_CONSECUTIVE_REFRESHES} times.
+     */
+    void schedule(@NonNull final TokenParameters parameters,
+                  @NonNull final IAuthenticationResult result) {
+        final String methodTag = TAG + ":schedule";
+
+        if (!(parameters.getAccount() instanceof Account)
+                || parameters.getAuthenticationScheme() instanceof PoPAuthenticationScheme) {
+            return;
+        }
+
+        final String key = SilentTokenRequestCoalescer.createKey(parameters, false);
+        if (key == null) {
+            return;
+        }
+
+        int refreshCount = 0;
+        final ScheduledRefresh completedRefresh = mRunningRefreshes.get(key);
+
+        if (completedRefresh != null && completedRefresh.mRefreshParameters == parameters) {
+            mRunningRefreshes.remove(key, completedRefresh);
+
+            if (!completedRefresh.mAccessed) {
+                Logger.verbose(methodTag, "Access token was not requested since the last refresh, not scheduling another.");
+                return;
+            }
+
+            refreshCount = completedRefresh.mRefreshCount + 1;
+
+            if (refreshCount >= MAX_CONSECUTIVE_REFRESHES) {
+                Logger.verbose(methodTag, "Reached the maximum number of consecutive refreshes.");
+                return;
+            }
+        }
+
+        final long delayMillis = getRefreshDelayMillis(
+                System.currentTimeMillis(),
+                result.getExpiresOn().getTime()
+        );
+
+        if (delayMillis < 0) {
+            Logger.verbose(methodTag, "Access token is too close to expiry, not scheduling a refresh.");
+            return;
+        }
+
+        final ScheduledRefresh scheduledRefresh = new ScheduledRefresh(
+                key,
+                ((Account) parameters.getAccount()).getHomeAccountId(),
+                parameters,
+                refreshCount
+        );
+
+        final ScheduledRefresh previous = mScheduledRefreshes.put(key, scheduledRefresh);
+        if (previous != null) {
+            previous.cancel();
+        }
+
+        scheduledRefresh.mFuture = mScheduler.schedule(scheduledRefresh, delayMillis, TimeUnit.MILLISECONDS);
+        Logger.verbose(methodTag, "Scheduled access token refresh in " + delayMillis + " ms.");
+    }
+
+    /**
+     * Records that the app requested the token of a silent request, which lets its next refresh
+     * be scheduled. Refreshes started by this scheduler are not counted.
+     */
+    void recordAccess(@NonNull final TokenParameters parameters) {
+        final String key = SilentTokenRequestCoalescer.createKey(parameters, false);
+        if (key == null) {
+            return;
+        }
+
+        markAccessed(mScheduledRefreshes.get(key), parameters);
+        markAccessed(mRunningRefreshes.get(key), parameters);
+    }
+
+    /**
+     * Cancels the refreshes scheduled for the given account, or all of them if homeAccountId is null.
+     */
+    void cancel(@Nullable final String homeAccountId) {
+        cancel(mScheduledRefreshes, homeAccountId);
+        cancel(mRunningRefreshes, homeAccountId);
+    }
+
+    /**
+     * @return The number of refreshes currently scheduled.
+     */
+    int getScheduledRefreshCount() {
+        return mScheduledRefreshes.size();
+    }
+
+    /**
+     * Computes how long to wait before refreshing a token, or returns -1 if it should not be
+     * refreshed ahead of time.
+     */
+    long getRefreshDelayMillis(final long nowMillis, final long expiresOnMillis) {
+        final long remainingLifetimeMillis = expiresOnMillis - nowMillis;
+
+        if (remainingLifetimeMillis < MIN_REMAINING_LIFETIME_MILLIS) {
+            return -1;
+        }
+
+        final double delayMillis = remainingLifetimeMillis * mLifetimeFraction;
+        final double jitterMillis = delayMillis * JITTER_FRACTION * (2 * mRandom.nextDouble() - 1);
+
+        return Math.min((long) (delayMillis + jitterMillis), remainingLifetimeMillis - 1);
+    }
+
+    private static void markAccessed(@Nullable final ScheduledRefresh refresh,
+                                     @NonNull final TokenParameters parameters) {
+        if (refresh != null && refresh.mRefreshParameters != parameters) {
+            refresh.mAccessed = true;
+        }
+    }
+
+    private static void cancel(@NonNull final Map<String, ScheduledRefresh> refreshes,
+                               @Nullable final String homeAccountId) {
+        final Iterator<ScheduledRefresh> iterator = refreshes.values().iterator();
+
+        while (iterator.hasNext()) {
+            final ScheduledRefresh scheduledRefresh = iterator.next();
+
+            if (homeAccountId == null || homeAccountId.equalsIgnoreCase(scheduledRefresh.mHomeAccountId)) {
+                iterator.remove();
+                scheduledRefresh.cancel();
+            }
+        }
+    }
+
+    private final class ScheduledRefresh implements Runnable {
+        private final String mKey;
+        private final String mHomeAccountId;
+        private final int mRefreshCount;
+        private final AcquireTokenSilentParameters mRefreshParameters;
+        private volatile ScheduledFuture<?> mFuture;
+        private volatile boolean mAccessed;
+
+        ScheduledRefresh(@NonNull final String key,
+                         @NonNull final String homeAccountId,
+                         @NonNull final TokenParameters parameters,
+                         final int refreshCount) {
+            mKey = key;
+            mHomeAccountId = homeAccountId;
+            mRefreshCount = refreshCount;
+            mRefreshParameters = buildRefreshParameters(parameters);
+        }
+
+        @Override
+        public void run() {
+            if (mScheduledRefreshes.remove(mKey, this)) {
+                // Kept until the refresh completes, so that its result is recognized by schedule().
+                mRunningRefreshes.put(mKey, this);
+                mRefreshAction.refresh(mRefreshParameters);
+            }
+        }
+
+        void cancel() {
+            final ScheduledFuture<?> future = mFuture;
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+
+        @NonNull
+        private AcquireTokenSilentParameters buildRefreshParameters(@NonNull final TokenParameters parameters) {
+            final AcquireTokenSilentParameters.Builder builder = new AcquireTokenSilentParameters.Builder()
+                    .forAccount(parameters.getAccount())
+                    .withScopes(parameters.getScopes())
+                    .fromAuthority(parameters.getAuthority())
+                    .withClaims(parameters.getClaimsRequest())
+                    .forceRefresh(true)
+                    .withCallback(new SilentAuthenticationCallback() {
+                        @Override
+                        public void onSuccess(final IAuthenticationResult authenticationResult) {
+                            Logger.verbose(TAG + ":onSuccess", "Access token refreshed ahead of expiry.");
+                        }
+
+                        @Override
+                        public void onError(final MsalException exception) {
+                            mRunningRefreshes.remove(mKey, ScheduledRefresh.this);
+                            // The next silent request will go through the regular flow and surface the error.
+                            Logger.warn(TAG + ":onError", "Failed to refresh access token ahead of expiry: "
+                                    + exception.getErrorCode());
+                        }
+                    });
+
+            if (parameters.getAuthenticationScheme() != null) {
+                builder.withAuthenticationScheme(parameters.getAuthenticationScheme());
+            }
+
+            return builder.build();
+        }
+    }
+
+    /**
+     * Timer thread shared by the schedulers of every {@link PublicClientApplication}. It only
+     * starts refreshes, which run on the background executor of their application.
+     */
+    private static final class SharedScheduler {
+        private static final ScheduledThreadPoolExecutor INSTANCE = createScheduler();
+
+        private static ScheduledThreadPoolExecutor createScheduler() {
+            final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+                @Override
+                public Thread newThread(@NonNull final Runnable runnable) {
+                    final Thread thread = new Thread(runnable, TAG);
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            // Tokens are rescheduled on every silent result, so drop cancelled refreshes right away.
+            scheduler.setRemoveOnCancelPolicy(true);
+            return scheduler;
+        }
+    }
+}
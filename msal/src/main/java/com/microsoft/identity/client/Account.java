@@ -49,6 +49,12 @@ public class Account implements IAccount {
     private String mEnvironment;
     private String mHomeAccountId;
 
+    // Identifiers derived from the client info and id token claims, computed on first use.
+    // Cleared whenever one of their inputs is set.
+    private volatile String mCachedId;
+    private volatile String mCachedHomeAccountId;
+    private volatile String mCachedUsername;
+
     public Account(
             @Nullable final String clientInfo,
             @Nullable final IDToken homeTenantIdToken) {
@@ -65,12 +71,25 @@ public class Account implements IAccount {
 
     void setId(@Nullable final String id) {
         mHomeOid = id;
+        clearCachedIds();
     }
 
     @NonNull
     @Override
     public String getId() {
-        final String methodTag = TAG + ":getId";
+        String id = mCachedId;
+
+        if (null == id) {
+            id = computeId();
+            mCachedId = id;
+        }
+
+        return id;
+    }
+
+    @NonNull
+    private String computeId() {
+        final String methodTag = TAG + ":computeId";
         String id;
 
         ClientInfo clientInfo = null;
@@ -120,6 +139,7 @@ public class Account implements IAccount {
 
     void setTenantId(@NonNull final String tenantId) {
         mHomeTenantId = tenantId;
+        mCachedHomeAccountId = null;
     }
 
     @NonNull
@@ -130,7 +150,14 @@ public class Account implements IAccount {
 
     @NonNull
     String getHomeAccountId() {
-        return getId() + "." + mHomeTenantId;
+        String homeAccountId = mCachedHomeAccountId;
+
+        if (null == homeAccountId) {
+            homeAccountId = getId() + "." + mHomeTenantId;
+            mCachedHomeAccountId = homeAccountId;
+        }
+
+        return homeAccountId;
     }
 
     void setEnvironment(@NonNull final String environment) {
@@ -163,11 +190,16 @@ public class Account implements IAccount {
     @NonNull
     @Override
     public String getUsername() {
-        if (null != getClaims()) {
-            return SchemaUtil.getDisplayableId(getClaims());
+        String username = mCachedUsername;
+
+        if (null == username) {
+            username = null != getClaims()
+                    ? SchemaUtil.getDisplayableId(getClaims())
+                    : MISSING_FROM_THE_TOKEN_RESPONSE;
+            mCachedUsername = username;
         }
 
-        return MISSING_FROM_THE_TOKEN_RESPONSE;
+        return username;
     }
 
     @Override
@@ -192,5 +224,11 @@ public class Account implements IAccount {
 
     public void setHomeAccountId(@NonNull final String homeAccountId) {
         mHomeAccountId = homeAccountId;
+        clearCachedIds();
+    }
+
+    private void clearCachedIds() {
+        mCachedId = null;
+        mCachedHomeAccountId = null;
     }
 }
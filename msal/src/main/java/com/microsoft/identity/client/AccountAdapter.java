@@ -35,229 +35,102 @@ import com.microsoft.identity.common.logging.Logger;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 class AccountAdapter {
 
     private static final String TAG = AccountAdapter.class.getSimpleName();
 
-    /**
-     * Abstract class representing a filter for ICacheRecords.
-     */
-    private interface CacheRecordFilter {
-
-        List<ICacheRecord> filter(@NonNull final List<ICacheRecord> records);
-    }
-
-    private static class GuestAccountFilter implements CacheRecordFilter {
-
-        @Override
-        public List<ICacheRecord> filter(@NonNull List<ICacheRecord> records) {
-            final List<ICacheRecord> result = new ArrayList<>();
-
-            for (final ICacheRecord cacheRecord : records) {
-                final String acctHomeAccountId = cacheRecord.getAccount().getHomeAccountId();
-                final String acctLocalAccountId = cacheRecord.getAccount().getLocalAccountId();
-
-                if (!acctHomeAccountId.contains(acctLocalAccountId)) {
-                    result.add(cacheRecord);
-                }
-            }
-
-            return result;
-        }
-    }
-
-    /**
-     * A filter for ICacheRecords that filters out home or guest accounts, based on its
-     * constructor initialization.
-     */
-    private static class HomeAccountFilter implements CacheRecordFilter {
-
-        @Override
-        public List<ICacheRecord> filter(@NonNull final List<ICacheRecord> records) {
-            final List<ICacheRecord> result = new ArrayList<>();
-
-            for (final ICacheRecord cacheRecord : records) {
-                final String acctHomeAccountId = cacheRecord.getAccount().getHomeAccountId();
-                final String acctLocalAccountId = cacheRecord.getAccount().getLocalAccountId();
-                if (acctLocalAccountId != null && acctHomeAccountId.contains(acctLocalAccountId)) {
-                    result.add(cacheRecord);
-                }
-            }
-
-            return result;
-        }
-    }
-
-    /**
-     * A filter which finds guest accounts which have no corresponding home tenant account.
-     */
-    private static final CacheRecordFilter guestAccountsWithNoHomeTenantAccountFilter = new CacheRecordFilter() {
-
-        private boolean hasNoCorrespondingHomeAccount(@NonNull final ICacheRecord guestRecord,
-                                                      @NonNull final List<ICacheRecord> homeRecords) {
-            // Init our sought value
-            final String guestAccountHomeAccountId = guestRecord.getAccount().getHomeAccountId();
-
-            // Create a List of home_account_ids from the homeRecords...
-            final List<String> homeAccountIds = new ArrayList<String>() {{
-                for (final ICacheRecord cacheRecord : homeRecords) {
-                    add(cacheRecord.getAccount().getHomeAccountId());
-                }
-            }};
-
-            return !homeAccountIds.contains(guestAccountHomeAccountId);
-        }
-
-        @Override
-        public List<ICacheRecord> filter(@NonNull final List<ICacheRecord> records) {
-            final List<ICacheRecord> result = new ArrayList<>();
-
-            // First, get the home accounts....
-            final List<ICacheRecord> homeRecords =
-                    filterCacheRecords(
-                            records,
-                            new HomeAccountFilter()
-                    );
-
-            // Then, get the guest accounts...
-            final List<ICacheRecord> guestRecords =
-                    filterCacheRecords(
-                            records,
-                            new GuestAccountFilter()
-                    );
-
-            // Iterate over the guest accounts and find those which have no associated home account
-            for (final ICacheRecord guestRecord : guestRecords) {
-                if (hasNoCorrespondingHomeAccount(guestRecord, homeRecords)) {
-                    result.add(guestRecord);
-                }
-            }
-
-            return result;
-        }
-    };
-
     /**
      * For a supplied List of ICacheRecords, create each root IAccount based on the home
      * account and then add child-nodes based on any authorized tenants.
+     * <p>
+     * The records are visited once: home records become root accounts, while guest records are
+     * bucketed by home_account_id and attached to the root with that home_account_id, or boxed
+     * into a 'rootless' IAccount if the home tenant was never signed into. Each id token is
+     * parsed once.
      *
      * @param allCacheRecords
      * @return
      */
     @NonNull
     static List<IAccount> adapt(@NonNull final List<ICacheRecord> allCacheRecords) {
-        // First, get all of the ICacheRecords for home accounts...
-        final List<ICacheRecord> homeCacheRecords = filterCacheRecords(
-                allCacheRecords,
-                new HomeAccountFilter()
-        );
-
-        // Then, get all of the guest accounts...
-        // Note that the guestCacheRecordsWithNoHomeAccount (see below) will be *removed* from this
-        // List.
-        final List<ICacheRecord> guestCacheRecords = filterCacheRecords(
-                allCacheRecords,
-                new GuestAccountFilter()
-        );
-
-        // Get the guest cache records which have no homeAccount
-        final List<ICacheRecord> guestCacheRecordsWithNoHomeAccount = filterCacheRecords(
-                allCacheRecords,
-                guestAccountsWithNoHomeTenantAccountFilter
-        );
-
-        // Remove the guest records that have no corresponding home account from the complete list of
-        // guest records...
-        guestCacheRecords.removeAll(guestCacheRecordsWithNoHomeAccount);
-
-        final List<IAccount> rootAccounts = createRootAccounts(homeCacheRecords);
-        appendChildren(rootAccounts, guestCacheRecords);
-        rootAccounts.addAll(
-                createIAccountsForGuestsNotSignedIntoHomeTenant(guestCacheRecordsWithNoHomeAccount)
-        );
-
-        return rootAccounts;
-    }
-
-    @NonNull
-    private static List<IAccount> createIAccountsForGuestsNotSignedIntoHomeTenant(
-            @NonNull final List<ICacheRecord> guestCacheRecords) {
-        // First, bucket the records by homeAccountId to create affinities
-        final Map<String, List<ICacheRecord>> bucketedRecords = new HashMap<>();
-
-        for (final ICacheRecord cacheRecord : guestCacheRecords) {
-            final String cacheRecordHomeAccountId = cacheRecord.getAccount().getHomeAccountId();
+        final List<ICacheRecord> homeCacheRecords = new ArrayList<>();
+        final Map<String, GuestRecords> guestRecordsByHomeAccountId = new LinkedHashMap<>();
+
+        for (final ICacheRecord cacheRecord : allCacheRecords) {
+            if (isHomeAccountRecord(cacheRecord)) {
+                homeCacheRecords.add(cacheRecord);
+            } else {
+                final String homeAccountId = cacheRecord.getAccount().getHomeAccountId();
+                GuestRecords guestRecords = guestRecordsByHomeAccountId.get(homeAccountId);
+
+                if (null == guestRecords) {
+                    guestRecords = new GuestRecords();
+                    guestRecordsByHomeAccountId.put(homeAccountId, guestRecords);
+                }
 
-            // Initialize the multi-map
-            if (null == bucketedRecords.get(cacheRecordHomeAccountId)) {
-                bucketedRecords.put(cacheRecordHomeAccountId, new ArrayList<ICacheRecord>());
+                guestRecords.mRecords.add(cacheRecord);
             }
-
-            // Add the record to the multi-map
-            bucketedRecords.get(cacheRecordHomeAccountId).add(cacheRecord);
         }
 
-        // Declare our result holder...
-        final List<IAccount> result = new ArrayList<>();
+        final List<IAccount> rootAccounts = new ArrayList<>(homeCacheRecords.size());
+        final Set<String> homeAccountIds = new HashSet<>();
 
-        // Now that all of the tokens have been bucketed by an account affinity
-        // box those into a 'rootless' IAccount
-        for (final Map.Entry<String, List<ICacheRecord>> entry : bucketedRecords.entrySet()) {
-            // Create our empty root...
-            final MultiTenantAccount emptyRoot = new MultiTenantAccount(
-                    null,
-                    null // home tenant IdToken.... doesn't exist!
-            );
+        for (final ICacheRecord homeCacheRecord : homeCacheRecords) {
+            final String homeAccountId = homeCacheRecord.getAccount().getHomeAccountId();
+            final MultiTenantAccount rootAccount = createRootAccount(homeCacheRecord);
+            final GuestRecords guestRecords = guestRecordsByHomeAccountId.get(homeAccountId);
 
-            // Set the home oid & home tid of the root, even though we don't have the IdToken...
-            // hooray for client_info
-            emptyRoot.setId(StringUtil.getTenantInfo(entry.getKey()).getKey());
-            emptyRoot.setTenantId(StringUtil.getTenantInfo(entry.getKey()).getValue());
-            emptyRoot.setEnvironment( // Look ahead into our CacheRecords to determine the environment
-                    entry
-                            .getValue()
-                            .get(0)
-                            .getAccount()
-                            .getEnvironment()
+            rootAccount.setTenantProfiles(
+                    null == guestRecords
+                            ? new HashMap<String, ITenantProfile>()
+                            : new HashMap<>(guestRecords.getTenantProfiles())
             );
 
-            // Create the Map of TenantProfiles to set...
-            final Map<String, ITenantProfile> tenantProfileMap = new HashMap<>();
-
-            for (final ICacheRecord cacheRecord : entry.getValue()) {
-                final String tenantId = cacheRecord.getAccount().getRealm();
-                final TenantProfile profile = new TenantProfile(
-                        // Intentionally do NOT supply the client info here.
-                        // If client info is present, getId() will return the home tenant OID
-                        // instead of the OID from the guest tenant.
-                        null,
-                        getIdToken(cacheRecord)
-                );
+            homeAccountIds.add(homeAccountId);
+            rootAccounts.add(rootAccount);
+        }
 
-                tenantProfileMap.put(tenantId, profile);
+        // Guest records which have no corresponding home account
+        for (final Map.Entry<String, GuestRecords> entry : guestRecordsByHomeAccountId.entrySet()) {
+            if (!homeAccountIds.contains(entry.getKey())) {
+                rootAccounts.add(createRootlessAccount(entry.getKey(), entry.getValue()));
             }
-
-            emptyRoot.setTenantProfiles(tenantProfileMap);
-            result.add(emptyRoot);
         }
 
-        return result;
+        return rootAccounts;
+    }
+
+    /**
+     * A record belongs to the home tenant if its local_account_id is part of its home_account_id.
+     */
+    private static boolean isHomeAccountRecord(@NonNull final ICacheRecord cacheRecord) {
+        final String acctHomeAccountId = cacheRecord.getAccount().getHomeAccountId();
+        final String acctLocalAccountId = cacheRecord.getAccount().getLocalAccountId();
+
+        return acctLocalAccountId != null && acctHomeAccountId.contains(acctLocalAccountId);
     }
 
-    private static void appendChildren(@NonNull final List<IAccount> rootAccounts,
-                                       @NonNull final List<ICacheRecord> guestCacheRecords) {
-        // Iterate over the roots, adding the children as we go...
-        for (final IAccount account : rootAccounts) {
-            // Iterate over the potential children, adding them if they match
-            final Map<String, ITenantProfile> tenantProfiles = new HashMap<>();
+    /**
+     * The guest records sharing a home_account_id, and the TenantProfiles built from them.
+     */
+    private static final class GuestRecords {
+
+        private final List<ICacheRecord> mRecords = new ArrayList<>();
 
-            for (final ICacheRecord guestRecord : guestCacheRecords) {
-                final String guestRecordHomeAccountId = guestRecord.getAccount().getHomeAccountId();
+        private Map<String, ITenantProfile> mTenantProfiles;
 
-                if (guestRecordHomeAccountId.contains(account.getId())) {
+        @NonNull
+        Map<String, ITenantProfile> getTenantProfiles() {
+            if (null == mTenantProfiles) {
+                mTenantProfiles = new HashMap<>();
+
+                for (final ICacheRecord guestRecord : mRecords) {
                     final TenantProfile profile = new TenantProfile(
                             // Intentionally do NOT supply the client info here.
                             // If client info is present, getId() will return the home tenant OID
@@ -266,57 +139,74 @@ class AccountAdapter {
                             getIdToken(guestRecord)
                     );
                     profile.setEnvironment(guestRecord.getAccount().getEnvironment());
-                    tenantProfiles.put(guestRecord.getAccount().getRealm(), profile);
+                    mTenantProfiles.put(guestRecord.getAccount().getRealm(), profile);
                 }
             }
 
-            // Cast the root account for initialization...
-            final MultiTenantAccount multiTenantAccount = (MultiTenantAccount) account;
-            multiTenantAccount.setTenantProfiles(tenantProfiles);
+            return mTenantProfiles;
         }
     }
 
     @NonNull
-    private static List<IAccount> createRootAccounts(
-            @NonNull final List<ICacheRecord> homeCacheRecords) {
-        final List<IAccount> result = new ArrayList<>();
-
-        for (ICacheRecord homeCacheRecord : homeCacheRecords) {
-            // Each IAccount will be initialized as a MultiTenantAccount whether it really is or not...
-            // This allows us to cast the results however the caller sees fit...
-            final IAccount rootAccount;
-            rootAccount = new MultiTenantAccount(
-                    // Because this is a home account, we'll supply the client info
-                    // the uid value is the "id" of the account.
-                    // For B2C, this value will contain the policy name appended to the OID.
-                    homeCacheRecord.getAccount().getClientInfo(),
-                    getIdToken(homeCacheRecord)
-            );
+    private static IAccount createRootlessAccount(@NonNull final String homeAccountId,
+                                                  @NonNull final GuestRecords guestRecords) {
+        // Create our empty root...
+        final MultiTenantAccount emptyRoot = new MultiTenantAccount(
+                null,
+                null // home tenant IdToken.... doesn't exist!
+        );
 
-            ((MultiTenantAccount) rootAccount).setHomeAccountId(
-                    homeCacheRecord.getAccount().getHomeAccountId()
-            );
+        // Set the home oid & home tid of the root, even though we don't have the IdToken...
+        // hooray for client_info
+        final Map.Entry<String, String> tenantInfo = StringUtil.getTenantInfo(homeAccountId);
+        emptyRoot.setId(tenantInfo.getKey());
+        emptyRoot.setTenantId(tenantInfo.getValue());
+        emptyRoot.setEnvironment( // Look ahead into our CacheRecords to determine the environment
+                guestRecords
+                        .mRecords
+                        .get(0)
+                        .getAccount()
+                        .getEnvironment()
+        );
 
-            // Set the tenant_id
-            ((MultiTenantAccount) rootAccount).setTenantId(
-                    StringUtil.getTenantInfo(
-                            homeCacheRecord
-                                    .getAccount()
-                                    .getHomeAccountId()
-                    ).getValue()
-            );
+        emptyRoot.setTenantProfiles(guestRecords.getTenantProfiles());
 
-            // Set the environment...
-            ((MultiTenantAccount) rootAccount).setEnvironment(
-                    homeCacheRecord
-                            .getAccount()
-                            .getEnvironment()
-            );
+        return emptyRoot;
+    }
 
-            result.add(rootAccount);
-        }
+    @NonNull
+    private static MultiTenantAccount createRootAccount(@NonNull final ICacheRecord homeCacheRecord) {
+        // Each IAccount will be initialized as a MultiTenantAccount whether it really is or not...
+        // This allows us to cast the results however the caller sees fit...
+        final MultiTenantAccount rootAccount = new MultiTenantAccount(
+                // Because this is a home account, we'll supply the client info
+                // the uid value is the "id" of the account.
+                // For B2C, this value will contain the policy name appended to the OID.
+                homeCacheRecord.getAccount().getClientInfo(),
+                getIdToken(homeCacheRecord)
+        );
 
-        return result;
+        rootAccount.setHomeAccountId(
+                homeCacheRecord.getAccount().getHomeAccountId()
+        );
+
+        // Set the tenant_id
+        rootAccount.setTenantId(
+                StringUtil.getTenantInfo(
+                        homeCacheRecord
+                                .getAccount()
+                                .getHomeAccountId()
+                ).getValue()
+        );
+
+        // Set the environment...
+        rootAccount.setEnvironment(
+                homeCacheRecord
+                        .getAccount()
+                        .getEnvironment()
+        );
+
+        return rootAccount;
     }
 
     @Nullable
@@ -341,21 +231,6 @@ class AccountAdapter {
         }
     }
 
-    /**
-     * Filters ICacheRecords based on the criteria specified by the {@link CacheRecordFilter}.
-     * Results may be empty, but never null.
-     *
-     * @param allCacheRecords The ICacheRecords to inspect.
-     * @param filter          The CacheRecordFilter to consult.
-     * @return A List of ICacheRecords matching the supplied filter criteria.
-     */
-    @NonNull
-    private static List<ICacheRecord> filterCacheRecords(
-            @NonNull final List<ICacheRecord> allCacheRecords,
-            @NonNull final CacheRecordFilter filter) {
-        return filter.filter(allCacheRecords);
-    }
-
     @Nullable
     static AccountRecord getAccountInternal(@NonNull final String clientId,
                                             @NonNull OAuth2TokenCache oAuth2TokenCache,
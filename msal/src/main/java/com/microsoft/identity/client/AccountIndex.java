@@ -0,0 +1,183 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.common.java.util.SchemaUtil;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static com.microsoft.identity.common.java.util.SchemaUtil.MISSING_FROM_THE_TOKEN_RESPONSE;
+
+/**
+ * In-memory index of the accounts returned by the last full account load, keyed by home account
+ * id, local account id and lower-cased username, so that looking up an account by identifier is
+ * a hash lookup instead of a cache scan.
+ * <p>
+ * The index only answers once it has been populated by a full load ({@link #replaceAll(List)});
+ * entries of an account are evicted whenever its tokens are saved or it is removed, so the next
+ * lookup for it goes back to the cache.
+ */
+final class AccountIndex {
+
+    private final Map<String, IAccount> mByHomeAccountId = new HashMap<>();
+    private final Map<String, IAccount> mByLocalAccountId = new HashMap<>();
+    private final Map<String, IAccount> mByUsername = new HashMap<>();
+
+    private boolean mPopulated;
+
+    /**
+     * Replaces the content of the index with the result of a full account load.
+     */
+    synchronized void replaceAll(@NonNull final List<IAccount> accounts) {
+        clearMaps();
+
+        for (final IAccount account : accounts) {
+            add(account);
+        }
+
+        mPopulated = true;
+    }
+
+    /**
+     * Looks an account up, applying the precedence of
+     * {@link MultipleAccountPublicClientApplication#getAccount(String)}: home account id, then
+     * local account id, then username.
+     *
+     * @return The account, or null if there is no match or the index is not populated.
+     */
+    @Nullable
+    synchronized IAccount lookup(@NonNull final String identifier) {
+        if (!mPopulated) {
+            return null;
+        }
+
+        final String key = normalize(identifier);
+
+        IAccount account = mByHomeAccountId.get(key);
+
+        if (null == account) {
+            account = mByLocalAccountId.get(key);
+        }
+
+        if (null == account) {
+            account = mByUsername.get(key);
+        }
+
+        return account;
+    }
+
+    /**
+     * Evicts every entry of the account with the given home account id.
+     */
+    synchronized void evict(@NonNull final String homeAccountId) {
+        final String key = normalize(homeAccountId);
+        final IAccount account = mByHomeAccountId.get(key);
+
+        if (null != account) {
+            evictValue(mByHomeAccountId, account);
+            evictValue(mByLocalAccountId, account);
+            evictValue(mByUsername, account);
+        }
+    }
+
+    /**
+     * Empties the index; lookups miss until the next full load.
+     */
+    synchronized void clear() {
+        clearMaps();
+        mPopulated = false;
+    }
+
+    synchronized boolean isPopulated() {
+        return mPopulated;
+    }
+
+    private void add(@NonNull final IAccount account) {
+        putIfAbsent(mByHomeAccountId, account.getId(), account);
+
+        if (account instanceof Account) {
+            putIfAbsent(mByHomeAccountId, ((Account) account).getHomeAccountId(), account);
+        }
+
+        putIfAbsent(mByUsername, getUsername(account), account);
+
+        if (account instanceof MultiTenantAccount) {
+            for (final ITenantProfile tenantProfile : ((MultiTenantAccount) account).getTenantProfiles().values()) {
+                putIfAbsent(mByLocalAccountId, tenantProfile.getId(), account);
+                putIfAbsent(mByUsername, getUsername(tenantProfile), account);
+            }
+        }
+    }
+
+    @Nullable
+    private static String getUsername(@NonNull final IClaimable claimable) {
+        final Map<String, ?> claims = claimable.getClaims();
+        return null == claims ? null : SchemaUtil.getDisplayableId(claims);
+    }
+
+    private static void putIfAbsent(@NonNull final Map<String, IAccount> map,
+                                    @Nullable final String identifier,
+                                    @NonNull final IAccount account) {
+        if (null == identifier
+                || identifier.trim().isEmpty()
+                || MISSING_FROM_THE_TOKEN_RESPONSE.equals(identifier)) {
+            return;
+        }
+
+        final String key = normalize(identifier);
+
+        // Keep the first account, as the linear matchers would.
+        if (!map.containsKey(key)) {
+            map.put(key, account);
+        }
+    }
+
+    private static void evictValue(@NonNull final Map<String, IAccount> map,
+                                   @NonNull final IAccount account) {
+        final Iterator<IAccount> iterator = map.values().iterator();
+
+        while (iterator.hasNext()) {
+            if (iterator.next() == account) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private void clearMaps() {
+        mByHomeAccountId.clear();
+        mByLocalAccountId.clear();
+        mByUsername.clear();
+    }
+
+    @NonNull
+    private static String normalize(@NonNull final String identifier) {
+        return identifier.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,61 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable view of the accounts of a multiple account {@link PublicClientApplication}.
+ * <p>
+ * The version increases every time the set of accounts changes (an account or one of its tenant
+ * profiles is added or removed), so two snapshots with the same version contain the same accounts.
+ */
+public final class AccountsSnapshot {
+
+    private final long mVersion;
+    private final List<IAccount> mAccounts;
+
+    AccountsSnapshot(final long version, @NonNull final List<IAccount> accounts) {
+        mVersion = version;
+        mAccounts = Collections.unmodifiableList(new ArrayList<>(accounts));
+    }
+
+    /**
+     * @return The version of the set of accounts in this snapshot.
+     */
+    public long getVersion() {
+        return mVersion;
+    }
+
+    /**
+     * @return The accounts, as an unmodifiable List.
+     */
+    @NonNull
+    public List<IAccount> getAccounts() {
+        return mAccounts;
+    }
+}
@@ -0,0 +1,163 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds the latest {@link AccountsSnapshot} of a {@link MultipleAccountPublicClientApplication}
+ * and the {@link IAccountsChangedListener}s to notify when it changes.
+ * <p>
+ * Every known token cache mutation bumps a generation counter ({@link #markStale()}). A snapshot
+ * is only served ({@link #getCurrent()}) while no mutation happened since the load that produced
+ * it started, so a load racing with a mutation never masks it.
+ */
+final class AccountsSnapshotHolder {
+
+    private final AtomicLong mGeneration = new AtomicLong();
+    private final AtomicBoolean mRefreshInFlight = new AtomicBoolean();
+    private final List<IAccountsChangedListener> mListeners = new CopyOnWriteArrayList<>();
+
+    private AccountsSnapshot mSnapshot;
+    private List<String> mSnapshotSignature;
+    private long mSnapshotGeneration = -1;
+
+    /**
+     * @return The generation to pass to {@link #publish(long, List)} once a load started now completes.
+     */
+    long getGeneration() {
+        return mGeneration.get();
+    }
+
+    /**
+     * Records that the token cache was (or may have been) mutated.
+     */
+    void markStale() {
+        mGeneration.incrementAndGet();
+    }
+
+    /**
+     * @return The latest snapshot, or null if there is none or the cache mutated since it was loaded.
+     */
+    @Nullable
+    synchronized AccountsSnapshot getCurrent() {
+        return mSnapshotGeneration == mGeneration.get() ? mSnapshot : null;
+    }
+
+    /**
+     * Publishes the result of a full account load.
+     *
+     * @param generation The value of {@link #getGeneration()} when the load started.
+     * @param accounts   The loaded accounts.
+     * @return The new snapshot if the set of accounts changed, null otherwise.
+     */
+    @Nullable
+    synchronized AccountsSnapshot publish(final long generation, @NonNull final List<IAccount> accounts) {
+        final List<String> signature = getSignature(accounts);
+        final boolean changed = null == mSnapshot || !signature.equals(mSnapshotSignature);
+        final long version = null == mSnapshot ? 1 : mSnapshot.getVersion() + (changed ? 1 : 0);
+
+        // Even when the set of accounts is unchanged the account objects are replaced, as their
+        // id token claims may have been refreshed.
+        mSnapshot = new AccountsSnapshot(version, accounts);
+        mSnapshotSignature = signature;
+        mSnapshotGeneration = generation;
+
+        return changed ? mSnapshot : null;
+    }
+
+    void addListener(@NonNull final IAccountsChangedListener listener) {
+        if (!mListeners.contains(listener)) {
+            mListeners.add(listener);
+        }
+    }
+
+    void removeListener(@NonNull final IAccountsChangedListener listener) {
+        mListeners.remove(listener);
+    }
+
+    boolean hasListeners() {
+        return !mListeners.isEmpty();
+    }
+
+    @NonNull
+    List<IAccountsChangedListener> getListeners() {
+        return mListeners;
+    }
+
+    /**
+     * @return True if the caller should start a background refresh, false if one is in flight.
+     */
+    boolean beginRefresh() {
+        return mRefreshInFlight.compareAndSet(false, true);
+    }
+
+    void endRefresh() {
+        mRefreshInFlight.set(false);
+    }
+
+    /**
+     * Describes the identity of each account and tenant profile, ignoring claims which change
+     * whenever an id token is refreshed.
+     */
+    @NonNull
+    private static List<String> getSignature(@NonNull final List<IAccount> accounts) {
+        final List<String> signature = new ArrayList<>(accounts.size());
+
+        for (final IAccount account : accounts) {
+            final StringBuilder builder = new StringBuilder()
+                    .append(account.getId())
+                    .append('|')
+                    .append(account.getTenantId())
+                    .append('|')
+                    .append(account.getUsername());
+
+            if (account instanceof IMultiTenantAccount
+                    && null != ((IMultiTenantAccount) account).getTenantProfiles()) {
+                final Map<String, ITenantProfile> profiles = new TreeMap<>(
+                        ((IMultiTenantAccount) account).getTenantProfiles()
+                );
+
+                for (final Map.Entry<String, ITenantProfile> profile : profiles.entrySet()) {
+                    builder.append('|')
+                            .append(profile.getKey())
+                            .append(':')
+                            .append(profile.getValue().getId());
+                }
+            }
+
+            signature.add(builder.toString());
+        }
+
+        return signature;
+    }
+}
@@ -0,0 +1,208 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.client.claims.ClaimsRequest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Parameters of a silent request for several scope sets of one account, typically the tokens of
+ * several resources needed right after launch.
+ * <p>
+ * The account, authority, claims, authentication scheme and correlation id apply to every scope
+ * set, each of which is requested like an {@link AcquireTokenSilentParameters} of its own.
+ */
+public class AcquireTokenSilentBatchParameters {
+
+    /**
+     * The number of scope sets refreshed at the same time, unless specified otherwise.
+     */
+    public static final int DEFAULT_MAX_CONCURRENCY = 4;
+
+    private final IAccount mAccount;
+    private final String mAuthority;
+    private final ClaimsRequest mClaimsRequest;
+    private final AuthenticationScheme mAuthenticationScheme;
+    private final UUID mCorrelationId;
+    private final List<List<String>> mScopeSets;
+    private final boolean mForceRefresh;
+    private final int mMaxConcurrency;
+    private final SilentBatchAuthenticationCallback mCallback;
+
+    public AcquireTokenSilentBatchParameters(@NonNull final AcquireTokenSilentBatchParameters.Builder builder) {
+        mAccount = builder.mAccount;
+        mAuthority = builder.mAuthority;
+        mClaimsRequest = builder.mClaimsRequest;
+        mAuthenticationScheme = builder.mAuthenticationScheme;
+        mCorrelationId = builder.mCorrelationId;
+        mScopeSets = builder.mScopeSets;
+        mForceRefresh = builder.mForceRefresh;
+        mMaxConcurrency = builder.mMaxConcurrency;
+        mCallback = builder.mCallback;
+    }
+
+    /**
+     * @return The account to acquire the tokens for.
+     */
+    public IAccount getAccount() {
+        return mAccount;
+    }
+
+    /**
+     * @return The authority to acquire the tokens from, or null for the default authority.
+     */
+    @Nullable
+    public String getAuthority() {
+        return mAuthority;
+    }
+
+    /**
+     * @return The claims requested in every access token, or null.
+     */
+    @Nullable
+    public ClaimsRequest getClaimsRequest() {
+        return mClaimsRequest;
+    }
+
+    /**
+     * @return The authentication scheme of every access token, or null for bearer tokens.
+     */
+    @Nullable
+    public AuthenticationScheme getAuthenticationScheme() {
+        return mAuthenticationScheme;
+    }
+
+    /**
+     * @return The correlation id shared by the requests of the batch, or null to generate one per
+     * request.
+     */
+    @Nullable
+    public UUID getCorrelationId() {
+        return mCorrelationId;
+    }
+
+    /**
+     * @return The scope sets to acquire a token for.
+     */
+    public List<List<String>> getScopeSets() {
+        return mScopeSets;
+    }
+
+    /**
+     * Boolean.  Indicates whether MSAL should refresh the access tokens.  Default is false and
+     * unless you have good reason to.  You should not use this parameter.
+     *
+     * @return boolean
+     */
+    public boolean getForceRefresh() {
+        return mForceRefresh;
+    }
+
+    /**
+     * @return The maximum number of scope sets which are refreshed at the same time.
+     */
+    public int getMaxConcurrency() {
+        return mMaxConcurrency;
+    }
+
+    /**
+     * @return The callback receiving one result per scope set.
+     */
+    public SilentBatchAuthenticationCallback getCallback() {
+        return mCallback;
+    }
+
+    public static class Builder {
+
+        private IAccount mAccount;
+        private String mAuthority;
+        private ClaimsRequest mClaimsRequest;
+        private AuthenticationScheme mAuthenticationScheme;
+        private UUID mCorrelationId;
+        private List<List<String>> mScopeSets = Collections.emptyList();
+        private boolean mForceRefresh;
+        private int mMaxConcurrency = DEFAULT_MAX_CONCURRENCY;
+        private SilentBatchAuthenticationCallback mCallback;
+
+        public AcquireTokenSilentBatchParameters.Builder forAccount(final IAccount account) {
+            mAccount = account;
+            return this;
+        }
+
+        public AcquireTokenSilentBatchParameters.Builder fromAuthority(final String authorityUrl) {
+            mAuthority = authorityUrl;
+            return this;
+        }
+
+        public AcquireTokenSilentBatchParameters.Builder withClaims(final ClaimsRequest claimsRequest) {
+            mClaimsRequest = claimsRequest;
+            return this;
+        }
+
+        public AcquireTokenSilentBatchParameters.Builder withAuthenticationScheme(@NonNull final AuthenticationScheme scheme) {
+            mAuthenticationScheme = scheme;
+            return this;
+        }
+
+        public AcquireTokenSilentBatchParameters.Builder withCorrelationId(@NonNull final UUID correlationId) {
+            mCorrelationId = correlationId;
+            return this;
+        }
+
+        public AcquireTokenSilentBatchParameters.Builder withScopeSets(final List<List<String>> scopeSets) {
+            mScopeSets = Collections.unmodifiableList(new ArrayList<>(scopeSets));
+            return this;
+        }
+
+        public AcquireTokenSilentBatchParameters.Builder forceRefresh(final boolean forceRefresh) {
+            mForceRefresh = forceRefresh;
+            return this;
+        }
+
+        public AcquireTokenSilentBatchParameters.Builder withMaxConcurrency(final int maxConcurrency) {
+            if (maxConcurrency <= 0) {
+                throw new IllegalArgumentException("maxConcurrency must be positive.");
+            }
+
+            mMaxConcurrency = maxConcurrency;
+            return this;
+        }
+
+        public AcquireTokenSilentBatchParameters.Builder withCallback(
+                final SilentBatchAuthenticationCallback callback) {
+            mCallback = callback;
+            return this;
+        }
+
+        public AcquireTokenSilentBatchParameters build() {
+            return new AcquireTokenSilentBatchParameters(this);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+
+import com.microsoft.identity.common.internal.migration.TokenMigrationCallback;
+import com.microsoft.identity.common.logging.Logger;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Process-wide, lock-free latch around the ADAL token migration.
+ * <p>
+ * Once a migration has finished, every later call completes immediately without touching storage.
+ * Calls made while a migration is running join it and are completed with its result, so
+ * concurrent first calls share a single migration run.
+ */
+final class AdalMigrationLatch {
+
+    private static final String TAG = AdalMigrationLatch.class.getSimpleName();
+
+    /**
+     * Performs the actual migration, completing the supplied callback once done.
+     */
+    interface Migration {
+        void run(@NonNull final TokenMigrationCallback callback);
+    }
+
+    private static volatile boolean sMigrationDone;
+
+    private static final AtomicReference<MigrationRun> sInFlightRun = new AtomicReference<>();
+
+    private AdalMigrationLatch() {
+        // Utility class.
+    }
+
+    /**
+     * Runs the migration unless it already completed in this process, or joins the run in flight.
+     *
+     * @param migration The migration to run.
+     * @param callback  Completed once the migration has finished.
+     */
+    static void runOnce(@NonNull final Migration migration,
+                        @NonNull final TokenMigrationCallback callback) {
+        final String methodTag = TAG + ":runOnce";
+
+        while (true) {
+            if (sMigrationDone) {
+                callback.onMigrationFinished(0);
+                return;
+            }
+
+            final MigrationRun inFlightRun = sInFlightRun.get();
+
+            if (null != inFlightRun) {
+                if (inFlightRun.join(callback)) {
+                    Logger.verbose(methodTag, "Joined the ADAL migration in flight.");
+                    return;
+                }
+
+                // The run completed in between; sMigrationDone is already set (or it failed).
+                sInFlightRun.compareAndSet(inFlightRun, null);
+                continue;
+            }
+
+            final MigrationRun newRun = new MigrationRun();
+
+            if (!sInFlightRun.compareAndSet(null, newRun)) {
+                continue;
+            }
+
+            newRun.join(callback);
+            start(migration, newRun);
+            return;
+        }
+    }
+
+    private static void start(@NonNull final Migration migration,
+                              @NonNull final MigrationRun run) {
+        final String methodTag = TAG + ":start";
+
+        try {
+            migration.run(new TokenMigrationCallback() {
+                @Override
+                public void onMigrationFinished(final int numberOfAccountsMigrated) {
+                    sMigrationDone = true;
+                    sInFlightRun.compareAndSet(run, null);
+                    run.complete(numberOfAccountsMigrated);
+                }
+            });
+        } catch (final RuntimeException e) {
+            // Leave the latch open so that the next call retries, but do not strand the callers.
+            Logger.error(methodTag, "ADAL migration failed.", e);
+            sInFlightRun.compareAndSet(run, null);
+            run.complete(0);
+        }
+    }
+
+    @VisibleForTesting
+    static boolean isMigrationDone() {
+        return sMigrationDone;
+    }
+
+    @VisibleForTesting
+    static void reset() {
+        sMigrationDone = false;
+        sInFlightRun.set(null);
+    }
+
+    /**
+     * A migration run and the callbacks waiting on it, kept as a lock-free stack.
+     */
+    private static final class MigrationRun {
+
+        private static final Waiter NO_WAITERS = new Waiter(null, null);
+        private static final Waiter COMPLETED = new Waiter(null, null);
+
+        private final AtomicReference<Waiter> mWaiters = new AtomicReference<>(NO_WAITERS);
+
+        /**
+         * @return False if the run already completed, in which case the callback was not added.
+         */
+        boolean join(@NonNull final TokenMigrationCallback callback) {
+            while (true) {
+                final Waiter head = mWaiters.get();
+
+                if (head == COMPLETED) {
+                    return false;
+                }
+
+                if (mWaiters.compareAndSet(head, new Waiter(callback, head))) {
+                    return true;
+                }
+            }
+        }
+
+        void complete(final int numberOfAccountsMigrated) {
+            Waiter waiter = mWaiters.getAndSet(COMPLETED);
+
+            while (waiter != NO_WAITERS && waiter != COMPLETED) {
+                waiter.mCallback.onMigrationFinished(numberOfAccountsMigrated);
+                waiter = waiter.mNext;
+            }
+        }
+    }
+
+    private static final class Waiter {
+        private final TokenMigrationCallback mCallback;
+        private final Waiter mNext;
+
+        Waiter(final TokenMigrationCallback callback, final Waiter next) {
+            mCallback = callback;
+            mNext = next;
+        }
+    }
+}
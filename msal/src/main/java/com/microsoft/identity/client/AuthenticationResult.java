@@ -49,6 +49,9 @@ public final class AuthenticationResult implements IAuthenticationResult {
     private final AccessTokenRecord mAccessToken;
     private final IAccount mAccount;
     private final UUID mCorrelationId;
+    private volatile String[] mScope;
+    private final RequestTimings mRequestTimings;
+    private final String mSignedAccessToken;
 
     AuthenticationResult(@NonNull final List<ICacheRecord> cacheRecords,
                          @Nullable final String correlationId) {
@@ -57,12 +60,49 @@ public final class AuthenticationResult implements IAuthenticationResult {
         mTenantId = mostRecentlyAuthorized.getAccount().getRealm();
         mAccount = AccountAdapter.adapt(cacheRecords).get(0);
         mCorrelationId = sanitizeCorrelationId(correlationId);
+        mRequestTimings = null;
+        mSignedAccessToken = null;
+    }
+
+    private AuthenticationResult(@NonNull final AuthenticationResult result,
+                                 @Nullable final RequestTimings requestTimings,
+                                 @Nullable final String signedAccessToken) {
+        mAccessToken = result.mAccessToken;
+        mTenantId = result.mTenantId;
+        mAccount = result.mAccount;
+        mCorrelationId = result.mCorrelationId;
+        mScope = result.mScope;
+        mRequestTimings = requestTimings;
+        mSignedAccessToken = signedAccessToken;
+    }
+
+    /**
+     * Results may be shared between requests, e.g. through the in-memory access token cache, so
+     * the timings of a request are attached to a copy.
+     *
+     * @return A copy of this result, carrying the given timings.
+     */
+    @NonNull
+    AuthenticationResult withRequestTimings(@Nullable final RequestTimings requestTimings) {
+        return new AuthenticationResult(this, requestTimings, mSignedAccessToken);
+    }
+
+    /**
+     * PoP results carry a SignedHttpRequest bound to one URL and method; the PoP access token
+     * cache answers later requests with a copy holding a newly signed one.
+     *
+     * @return A copy of this result without timings, whose access token is the given
+     * SignedHttpRequest.
+     */
+    @NonNull
+    AuthenticationResult withSignedAccessToken(@NonNull final String signedAccessToken) {
+        return new AuthenticationResult(this, null, signedAccessToken);
     }
 
     @Override
     @NonNull
     public String getAccessToken() {
-        return mAccessToken.getSecret();
+        return getSecret();
     }
 
     @NonNull
@@ -72,7 +112,7 @@ public final class AuthenticationResult implements IAuthenticationResult {
 
         return scheme
                 + TokenAuthenticationScheme.SCHEME_DELIMITER
-                + mAccessToken.getSecret();
+                + getSecret();
     }
 
     @NonNull
@@ -100,6 +140,21 @@ public final class AuthenticationResult implements IAuthenticationResult {
         return expiresOn;
     }
 
+    /**
+     * @return The time after which the access token should be proactively refreshed, or null
+     * if the service did not supply a refresh_in value.
+     */
+    @Nullable
+    Date getRefreshOn() {
+        final String refreshOn = mAccessToken.getRefreshOn();
+
+        if (TextUtils.isEmpty(refreshOn)) {
+            return null;
+        }
+
+        return new Date(TimeUnit.SECONDS.toMillis(Long.parseLong(refreshOn)));
+    }
+
     @Override
     @Nullable
     public String getTenantId() {
@@ -115,7 +170,15 @@ public final class AuthenticationResult implements IAuthenticationResult {
     @Override
     @NonNull
     public String[] getScope() {
-        return mAccessToken.getTarget().split("\\s");
+        String[] scope = mScope;
+
+        if (scope == null) {
+            scope = mAccessToken.getTarget().split("\\s");
+            mScope = scope;
+        }
+
+        // Callers may modify the returned array, so the parsed one is never handed out.
+        return scope.clone();
     }
 
     @Nullable
@@ -124,6 +187,17 @@ public final class AuthenticationResult implements IAuthenticationResult {
         return mCorrelationId;
     }
 
+    @Nullable
+    @Override
+    public RequestTimings getRequestTimings() {
+        return mRequestTimings;
+    }
+
+    @NonNull
+    private String getSecret() {
+        return null == mSignedAccessToken ? mAccessToken.getSecret() : mSignedAccessToken;
+    }
+
     @Nullable
     private UUID sanitizeCorrelationId(@Nullable final String correlationId) {
         final String methodTag = TAG + ":sanitizeCorrelationId";
@@ -28,12 +28,8 @@ import com.microsoft.identity.client.exception.MsalDeclinedScopeException;
 import com.microsoft.identity.common.java.result.ILocalAuthenticationResult;
 import com.microsoft.identity.common.logging.Logger;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
-import java.util.Set;
 
 class AuthenticationResultAdapter {
 
@@ -84,29 +80,6 @@ class AuthenticationResultAdapter {
 
     static List<String> getDeclinedScopes(@NonNull final List<String> grantedScopes,
                                           @NonNull final List<String> requestedScopes) {
-        final Set<String> grantedScopesSet = new HashSet<>();
-
-        // Add each granted scope to the Set
-        for (final String grantedScope : grantedScopes) {
-            grantedScopesSet.add(grantedScope.toLowerCase(Locale.ROOT));
-        }
-
-        final Set<String> requestedScopesSet = new HashSet<>();
-
-        // Add each requested scope to the Set
-        for (final String requestedScope : requestedScopes) {
-            requestedScopesSet.add(requestedScope.toLowerCase(Locale.ROOT));
-        }
-
-        final List<String> declinedScopes = new ArrayList<>();
-
-        // Iterate over the requested scopes, determining which were declined
-        for (final String requestedScope : requestedScopesSet) {
-            if (!grantedScopesSet.contains(requestedScope)) {
-                declinedScopes.add(requestedScope);
-            }
-        }
-
-        return declinedScopes;
+        return ScopeSet.of(requestedScopes).minus(ScopeSet.of(grantedScopes));
     }
 }
@@ -0,0 +1,136 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+
+import com.microsoft.identity.common.logging.Logger;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded executor used for the background hops of {@link PublicClientApplication}.
+ * <p>
+ * At most {@code maxThreads} threads are kept (idle threads time out), and at most
+ * {@code queueCapacity} tasks are queued. When the queue is full the task is run on the
+ * submitting thread to apply back-pressure, unless that thread is the main thread, in which case
+ * it is handed to a dedicated overflow thread so that the UI is never blocked.
+ */
+final class BackgroundExecutor implements Executor {
+
+    private static final String TAG = BackgroundExecutor.class.getSimpleName();
+
+    static final int DEFAULT_MAX_THREADS = 8;
+
+    static final int DEFAULT_QUEUE_CAPACITY = 128;
+
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private final ThreadPoolExecutor mThreadPoolExecutor;
+
+    private final AtomicInteger mOverflowThreadCount = new AtomicInteger();
+
+    BackgroundExecutor() {
+        this(DEFAULT_MAX_THREADS, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    BackgroundExecutor(final int maxThreads, final int queueCapacity) {
+        if (maxThreads <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("maxThreads and queueCapacity must be positive.");
+        }
+
+        final AtomicInteger threadCount = new AtomicInteger();
+
+        mThreadPoolExecutor = new ThreadPoolExecutor(
+                maxThreads,
+                maxThreads,
+                KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(queueCapacity),
+                new ThreadFactory() {
+                    @Override
+                    public Thread newThread(@NonNull final Runnable runnable) {
+                        return new Thread(runnable, "msal-background-" + threadCount.incrementAndGet());
+                    }
+                },
+                new RejectedExecutionHandler() {
+                    @Override
+                    public void rejectedExecution(@NonNull final Runnable runnable,
+                                                  @NonNull final ThreadPoolExecutor executor) {
+                        onQueueFull(runnable);
+                    }
+                }
+        );
+        mThreadPoolExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void execute(@NonNull final Runnable runnable) {
+        mThreadPoolExecutor.execute(runnable);
+    }
+
+    /**
+     * @return The number of tasks waiting for a thread.
+     */
+    int getQueueDepth() {
+        return mThreadPoolExecutor.getQueue().size();
+    }
+
+    /**
+     * @return The approximate number of threads actively running tasks, including overflow threads.
+     */
+    int getActiveThreadCount() {
+        return mThreadPoolExecutor.getActiveCount() + mOverflowThreadCount.get();
+    }
+
+    private void onQueueFull(@NonNull final Runnable runnable) {
+        final String methodTag = TAG + ":onQueueFull";
+
+        if (Looper.myLooper() != Looper.getMainLooper()) {
+            Logger.warn(methodTag, "Background queue is full, running task on the calling thread.");
+            runnable.run();
+            return;
+        }
+
+        Logger.warn(methodTag, "Background queue is full, running task on an overflow thread.");
+        mOverflowThreadCount.incrementAndGet();
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    runnable.run();
+                } finally {
+                    mOverflowThreadCount.decrementAndGet();
+                }
+            }
+        }).start();
+    }
+}
@@ -0,0 +1,164 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.common.java.opentelemetry.OtelContextExtension;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Collects the results of a batch of independent requests, and limits how many of them are
+ * dispatched at the same time. All results are delivered together on the main thread, in the
+ * order of the batch.
+ * <p>
+ * Requests are dispatched on the supplied executor, as the next request is usually started from
+ * the completion callback of a previous one, which runs on the main thread.
+ *
+ * @param <R> The type of the result of one request.
+ */
+final class BoundedBatch<R> {
+
+    /**
+     * Starts the request at the supplied index; its outcome must be passed to {@link #complete}.
+     */
+    interface Dispatcher {
+        void dispatch(int index);
+    }
+
+    /**
+     * Receives the results of the whole batch.
+     */
+    interface Listener<R> {
+        void onCompleted(@NonNull List<R> results);
+    }
+
+    /**
+     * Creates the result of the request at the supplied index.
+     */
+    interface ResultFactory<R> {
+        @NonNull
+        R create(int index);
+    }
+
+    private final List<R> mResults;
+
+    private final Listener<R> mListener;
+
+    private final Executor mExecutor;
+
+    private final AtomicInteger mRemaining;
+
+    private final Queue<Integer> mPending = new ConcurrentLinkedQueue<>();
+
+    private volatile Dispatcher mDispatcher;
+
+    BoundedBatch(final int size,
+                 @NonNull final Listener<R> listener,
+                 @NonNull final Executor executor) {
+        mResults = new ArrayList<>(Collections.<R>nCopies(size, null));
+        mListener = listener;
+        mExecutor = executor;
+        mRemaining = new AtomicInteger(size);
+    }
+
+    /**
+     * Records the result of the request at the supplied index, and dispatches the next one.
+     */
+    void complete(final int index, @Nullable final R result) {
+        // Each index is only set once, so concurrent completions do not need a lock.
+        mResults.set(index, result);
+
+        if (mRemaining.decrementAndGet() == 0) {
+            deliver();
+        } else {
+            dispatchNext();
+        }
+    }
+
+    /**
+     * Completes every request of the batch, e.g. with the same error.
+     */
+    void completeAll(@NonNull final ResultFactory<R> factory) {
+        if (mResults.isEmpty()) {
+            deliver();
+            return;
+        }
+
+        for (int i = 0; i < mResults.size(); i++) {
+            complete(i, factory.create(i));
+        }
+    }
+
+    /**
+     * Dispatches the requests at the supplied indexes, at most maxConcurrency at a time.
+     */
+    void dispatch(@NonNull final List<Integer> indexes,
+                  final int maxConcurrency,
+                  @NonNull final Dispatcher dispatcher) {
+        mPending.addAll(indexes);
+        mDispatcher = dispatcher;
+
+        for (int i = 0; i < Math.min(maxConcurrency, indexes.size()); i++) {
+            dispatchNext();
+        }
+    }
+
+    private void dispatchNext() {
+        final Dispatcher dispatcher = mDispatcher;
+        final Integer index = dispatcher == null ? null : mPending.poll();
+
+        if (index == null) {
+            return;
+        }
+
+        mExecutor.execute(OtelContextExtension.wrap(new Runnable() {
+            @Override
+            public void run() {
+                dispatcher.dispatch(index);
+            }
+        }));
+    }
+
+    private void deliver() {
+        final List<R> results = Collections.unmodifiableList(new ArrayList<>(mResults));
+
+        new Handler(Looper.getMainLooper()).post(new Runnable() {
+            @Override
+            public void run() {
+                mListener.onCompleted(results);
+            }
+        });
+    }
+}
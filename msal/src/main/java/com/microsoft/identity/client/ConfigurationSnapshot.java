@@ -0,0 +1,120 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.common.logging.Logger;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Persisted outcome of the broker redirect URI validation of a configuration, stored in a small
+ * binary file so that later cold starts of the same app version with the same configuration can
+ * skip the package signature lookup and hashing. Only checks depending on this app alone are
+ * persisted; the check that no other app listens for the redirect URI always runs.
+ * <p>
+ * A snapshot is keyed by the app's version code and a hash of the configuration resources (see
+ * {@link PublicClientApplicationConfiguration#getConfigurationSnapshotKey()}); any other key is
+ * treated as a miss.
+ */
+final class ConfigurationSnapshot {
+
+    private static final String TAG = ConfigurationSnapshot.class.getSimpleName();
+
+    private static final String FILE_NAME = "com.microsoft.identity.client.configuration_snapshot";
+
+    private static final int MAGIC = 0x4D53414C; // "MSAL"
+    private static final int FORMAT_VERSION = 1;
+
+    private final boolean mUseBroker;
+
+    private ConfigurationSnapshot(final boolean useBroker) {
+        mUseBroker = useBroker;
+    }
+
+    /**
+     * @return Whether brokered authentication remained enabled after validation.
+     */
+    boolean getUseBroker() {
+        return mUseBroker;
+    }
+
+    /**
+     * @return The snapshot stored for the supplied key, or null if there is none.
+     */
+    @Nullable
+    static ConfigurationSnapshot load(@NonNull final Context context, @NonNull final String key) {
+        final String methodTag = TAG + ":load";
+
+        try (final DataInputStream input = new DataInputStream(new FileInputStream(getFile(context)))) {
+            if (input.readInt() != MAGIC
+                    || input.readInt() != FORMAT_VERSION
+                    || !key.equals(input.readUTF())) {
+                Logger.verbose(methodTag, "Configuration snapshot is stale.");
+                return null;
+            }
+
+            return new ConfigurationSnapshot(input.readBoolean());
+        } catch (final FileNotFoundException e) {
+            return null;
+        } catch (final IOException e) {
+            Logger.warn(methodTag, "Unable to read the configuration snapshot: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Stores the outcome of a successful validation under the supplied key, replacing any other
+     * snapshot.
+     */
+    static void save(@NonNull final Context context,
+                     @NonNull final String key,
+                     final boolean useBroker) {
+        final String methodTag = TAG + ":save";
+
+        try (final DataOutputStream output = new DataOutputStream(new FileOutputStream(getFile(context)))) {
+            output.writeInt(MAGIC);
+            output.writeInt(FORMAT_VERSION);
+            output.writeUTF(key);
+            output.writeBoolean(useBroker);
+        } catch (final IOException e) {
+            Logger.warn(methodTag, "Unable to write the configuration snapshot: " + e.getMessage());
+        }
+    }
+
+    @NonNull
+    private static File getFile(@NonNull final Context context) {
+        // The cache directory is neither backed up nor restored onto other devices.
+        return new File(context.getCacheDir(), FILE_NAME);
+    }
+}
@@ -0,0 +1,198 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import android.text.TextUtils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.common.adal.internal.util.JsonExtensions;
+import com.microsoft.identity.common.java.cache.CacheRecord;
+import com.microsoft.identity.common.java.cache.ICacheRecord;
+import com.microsoft.identity.common.java.dto.AccountRecord;
+import com.microsoft.identity.common.java.dto.IdTokenRecord;
+import com.microsoft.identity.common.logging.Logger;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serialization of the current account of a {@link SingleAccountPublicClientApplication}.
+ * <p>
+ * Only the fields read by {@link AccountAdapter} are kept: the account record identifiers and the
+ * id tokens. Tokens other than id tokens are never persisted.
+ * <p>
+ * The current account is written in the legacy Gson format (see {@link #serializeLegacy}), which
+ * every release can read. The compact, reflection-free format is only read (see
+ * {@link #deserialize}), so that a later release can start writing it without breaking a
+ * downgrade to this one.
+ */
+final class CurrentAccountSerializer {
+
+    private static final String TAG = CurrentAccountSerializer.class.getSimpleName();
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final String VERSION = "v";
+    private static final String RECORDS = "r";
+    private static final String HOME_ACCOUNT_ID = "h";
+    private static final String LOCAL_ACCOUNT_ID = "l";
+    private static final String REALM = "t";
+    private static final String ENVIRONMENT = "e";
+    private static final String CLIENT_INFO = "c";
+    private static final String USERNAME = "u";
+    private static final String AUTHORITY_TYPE = "a";
+    private static final String ID_TOKEN = "i";
+    private static final String V1_ID_TOKEN = "i1";
+
+    private CurrentAccountSerializer() {
+        // Utility class.
+    }
+
+    /**
+     * @return The account in the legacy format, a JSON array of cache records, holding only the
+     * account record and id tokens of each record.
+     */
+    @NonNull
+    static String serializeLegacy(@NonNull final List<ICacheRecord> cacheRecords) {
+        final List<ICacheRecord> accountRecords = new ArrayList<>(cacheRecords.size());
+
+        for (final ICacheRecord cacheRecord : cacheRecords) {
+            accountRecords.add(
+                    CacheRecord.builder()
+                            .account(cacheRecord.getAccount())
+                            .idToken(cacheRecord.getIdToken())
+                            .v1IdToken(cacheRecord.getV1IdToken())
+                            .build()
+            );
+        }
+
+        return JsonExtensions.getJsonStringFromICacheRecordList(accountRecords);
+    }
+
+    /**
+     * @return True if both lists hold the same accounts, with the same id tokens, in the same
+     * order. Such lists serialize to the same value, so it does not need to be persisted again.
+     */
+    static boolean isSameAccount(@Nullable final List<ICacheRecord> persistedRecords,
+                                 @NonNull final List<ICacheRecord> cacheRecords) {
+        if (persistedRecords == null || persistedRecords.size() != cacheRecords.size()) {
+            return false;
+        }
+
+        for (int i = 0; i < cacheRecords.size(); i++) {
+            final ICacheRecord persisted = persistedRecords.get(i);
+            final ICacheRecord cacheRecord = cacheRecords.get(i);
+
+            if (persisted.getAccount() == null
+                    || cacheRecord.getAccount() == null
+                    || !TextUtils.equals(persisted.getAccount().getHomeAccountId(), cacheRecord.getAccount().getHomeAccountId())
+                    || !TextUtils.equals(getSecret(persisted.getIdToken()), getSecret(cacheRecord.getIdToken()))
+                    || !TextUtils.equals(getSecret(persisted.getV1IdToken()), getSecret(cacheRecord.getV1IdToken()))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Nullable
+    private static String getSecret(@Nullable final IdTokenRecord idTokenRecord) {
+        return idTokenRecord == null ? null : idTokenRecord.getSecret();
+    }
+
+    /**
+     * @return False if the value was written in the legacy format, a JSON array of cache records.
+     */
+    static boolean isSerialized(@NonNull final String value) {
+        return value.trim().startsWith("{");
+    }
+
+    /**
+     * @return The deserialized records, or null if the value is corrupt.
+     */
+    @Nullable
+    static List<ICacheRecord> deserialize(@NonNull final String value) {
+        final String methodTag = TAG + ":deserialize";
+
+        try {
+            final JSONObject root = new JSONObject(value);
+
+            if (root.optInt(VERSION) != FORMAT_VERSION) {
+                Logger.warn(methodTag, "Unknown current account format version.");
+                return null;
+            }
+
+            final JSONArray records = root.getJSONArray(RECORDS);
+            final List<ICacheRecord> cacheRecords = new ArrayList<>(records.length());
+
+            for (int i = 0; i < records.length(); i++) {
+                final JSONObject record = records.getJSONObject(i);
+
+                final AccountRecord account = new AccountRecord();
+                account.setHomeAccountId(optString(record, HOME_ACCOUNT_ID));
+                account.setLocalAccountId(optString(record, LOCAL_ACCOUNT_ID));
+                account.setRealm(optString(record, REALM));
+                account.setEnvironment(optString(record, ENVIRONMENT));
+                account.setClientInfo(optString(record, CLIENT_INFO));
+                account.setUsername(optString(record, USERNAME));
+                account.setAuthorityType(optString(record, AUTHORITY_TYPE));
+
+                cacheRecords.add(
+                        CacheRecord.builder()
+                                .account(account)
+                                .idToken(createIdTokenRecord(optString(record, ID_TOKEN)))
+                                .v1IdToken(createIdTokenRecord(optString(record, V1_ID_TOKEN)))
+                                .build()
+                );
+            }
+
+            return cacheRecords;
+        } catch (final JSONException e) {
+            Logger.error(methodTag, "Failed to parse the current account.", e);
+            return null;
+        }
+    }
+
+    @Nullable
+    private static String optString(@NonNull final JSONObject record, @NonNull final String name) {
+        // JSONObject#optString returns "" rather than null for absent values.
+        return record.isNull(name) ? null : record.optString(name);
+    }
+
+    @Nullable
+    private static IdTokenRecord createIdTokenRecord(@Nullable final String secret) {
+        if (null == secret) {
+            return null;
+        }
+
+        final IdTokenRecord idTokenRecord = new IdTokenRecord();
+        idTokenRecord.setSecret(secret);
+        return idTokenRecord;
+    }
+}
@@ -0,0 +1,146 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import android.content.ComponentName;
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.WorkerThread;
+import androidx.browser.customtabs.CustomTabsClient;
+import androidx.browser.customtabs.CustomTabsServiceConnection;
+
+import com.microsoft.identity.client.internal.MsalUtils;
+import com.microsoft.identity.common.logging.Logger;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binds the custom tabs service of the browser used for interactive requests and asks it to warm
+ * up, so that the first sign-in page opens faster.
+ * <p>
+ * The service is unbound as soon as the browser was asked to warm up, or once the connection
+ * timed out. A browser warmed up once is not bound again; a timed out warm-up may be retried.
+ */
+final class CustomTabsWarmer {
+
+    private static final String TAG = CustomTabsWarmer.class.getSimpleName();
+
+    private static final long CUSTOM_TABS_MAX_CONNECTION_TIMEOUT = 1L;
+
+    private static WarmUpConnection sConnection;
+
+    private CustomTabsWarmer() {
+    }
+
+    /**
+     * Warms up the browser, waiting at most {@link #CUSTOM_TABS_MAX_CONNECTION_TIMEOUT} seconds
+     * for its service to connect.
+     *
+     * @return Whether the browser was warmed up.
+     */
+    @WorkerThread
+    static boolean warmUp(@NonNull final Context context) throws InterruptedException {
+        final String methodTag = TAG + ":warmUp";
+        final WarmUpConnection connection;
+
+        synchronized (CustomTabsWarmer.class) {
+            if (sConnection == null) {
+                final Context appContext = context.getApplicationContext();
+                final String browserPackage = MsalUtils.getChromePackageWithCustomTabSupport(appContext);
+
+                if (browserPackage == null) {
+                    Logger.info(methodTag, "No browser with custom tabs support.");
+                    return false;
+                }
+
+                final WarmUpConnection newConnection = new WarmUpConnection(appContext);
+                if (!CustomTabsClient.bindCustomTabsService(appContext, browserPackage, newConnection)) {
+                    Logger.warn(methodTag, "Unable to bind the custom tabs service.");
+                    newConnection.unbind();
+                    return false;
+                }
+
+                sConnection = newConnection;
+            }
+
+            connection = sConnection;
+        }
+
+        if (connection.mWarmedUp.await(CUSTOM_TABS_MAX_CONNECTION_TIMEOUT, TimeUnit.SECONDS)) {
+            return true;
+        }
+
+        Logger.warn(methodTag, "Timed out connecting to the custom tabs service.");
+        connection.unbind();
+
+        synchronized (CustomTabsWarmer.class) {
+            if (sConnection == connection) {
+                sConnection = null;
+            }
+        }
+
+        return false;
+    }
+
+    private static final class WarmUpConnection extends CustomTabsServiceConnection {
+
+        private final Context mContext;
+        private final CountDownLatch mWarmedUp = new CountDownLatch(1);
+        private boolean mUnbound;
+
+        WarmUpConnection(@NonNull final Context context) {
+            mContext = context;
+        }
+
+        @Override
+        public void onCustomTabsServiceConnected(@NonNull final ComponentName name,
+                                                 @NonNull final CustomTabsClient client) {
+            client.warmup(0L);
+            mWarmedUp.countDown();
+            // The browser keeps its warmed up state, the connection is no longer needed.
+            unbind();
+        }
+
+        @Override
+        public void onServiceDisconnected(final ComponentName name) {
+            // Nothing to release, the connection is unbound once the browser was warmed up.
+        }
+
+        synchronized void unbind() {
+            if (mUnbound) {
+                return;
+            }
+
+            mUnbound = true;
+
+            try {
+                mContext.unbindService(this);
+            } catch (final IllegalArgumentException e) {
+                // Not bound, e.g. the binding failed.
+                Logger.verbose(TAG + ":unbind", "Custom tabs service was not bound.");
+            }
+        }
+    }
+}
@@ -0,0 +1,227 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.SharedPreferences;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.microsoft.identity.common.internal.broker.BrokerData;
+import com.microsoft.identity.common.logging.Logger;
+
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Caches whether the device is in shared mode, so that creating a PublicClientApplication does not
+ * have to wait for a round trip to the broker.
+ * <p>
+ * The mode is kept in memory and in {@link SharedPreferences}, together with the time it was
+ * read from the broker and a fingerprint of the installed broker apps. An entry is only served
+ * while it is younger than the configured time to live and, when read back after a process
+ * restart, while the broker apps are unchanged. Broker installs, updates and removals seen while
+ * the process runs drop the in-memory entry.
+ */
+final class DeviceModeCache {
+
+    private static final String TAG = DeviceModeCache.class.getSimpleName();
+
+    private static final String SHARED_PREFERENCES_NAME = "com.microsoft.identity.client.device_mode";
+    private static final String KEY_IS_SHARED_DEVICE = "is_shared_device";
+    private static final String KEY_TIMESTAMP = "timestamp";
+    private static final String KEY_BROKER_FINGERPRINT = "broker_fingerprint";
+
+    private static volatile DeviceModeCache sInstance;
+
+    private final Context mContext;
+
+    private final SharedPreferences mSharedPreferences;
+
+    private volatile Entry mEntry;
+
+    private static final class Entry {
+        private final boolean mIsSharedDevice;
+        private final long mTimestamp;
+
+        private Entry(final boolean isSharedDevice, final long timestamp) {
+            mIsSharedDevice = isSharedDevice;
+            mTimestamp = timestamp;
+        }
+    }
+
+    private final BroadcastReceiver mBrokerPackageReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(final Context context, final Intent intent) {
+            final Uri data = intent.getData();
+
+            if (data != null && isBrokerPackage(data.getSchemeSpecificPart())) {
+                Logger.info(TAG + ":onReceive", "Broker package changed, invalidating the device mode.");
+                invalidate();
+            }
+        }
+    };
+
+    @VisibleForTesting
+    DeviceModeCache(@NonNull final Context context) {
+        mContext = context.getApplicationContext();
+        mSharedPreferences = mContext.getSharedPreferences(SHARED_PREFERENCES_NAME, Context.MODE_PRIVATE);
+    }
+
+    @NonNull
+    static DeviceModeCache get(@NonNull final Context context) {
+        if (sInstance == null) {
+            synchronized (DeviceModeCache.class) {
+                if (sInstance == null) {
+                    final DeviceModeCache instance = new DeviceModeCache(context);
+                    instance.registerBrokerPackageReceiver();
+                    sInstance = instance;
+                }
+            }
+        }
+
+        return sInstance;
+    }
+
+    /**
+     * @param timeToLiveMillis How long a device mode read from the broker may be served.
+     * @return Whether the device is shared, or null if there is no fresh cached device mode.
+     */
+    @Nullable
+    Boolean getIsSharedDevice(final long timeToLiveMillis) {
+        final String methodTag = TAG + ":getIsSharedDevice";
+        Entry entry = mEntry;
+
+        if (entry == null) {
+            entry = loadPersistedEntry();
+            mEntry = entry;
+        }
+
+        if (entry == null) {
+            return null;
+        }
+
+        final long age = System.currentTimeMillis() - entry.mTimestamp;
+
+        if (age < 0 || age >= timeToLiveMillis) {
+            Logger.verbose(methodTag, "Cached device mode expired.");
+            return null;
+        }
+
+        return entry.mIsSharedDevice;
+    }
+
+    /**
+     * Caches the device mode just read from the broker.
+     */
+    void put(final boolean isSharedDevice) {
+        final Entry entry = new Entry(isSharedDevice, System.currentTimeMillis());
+        mEntry = entry;
+        mSharedPreferences.edit()
+                .putBoolean(KEY_IS_SHARED_DEVICE, entry.mIsSharedDevice)
+                .putLong(KEY_TIMESTAMP, entry.mTimestamp)
+                .putString(KEY_BROKER_FINGERPRINT, getBrokerFingerprint())
+                .apply();
+    }
+
+    void invalidate() {
+        mEntry = null;
+        mSharedPreferences.edit().clear().apply();
+    }
+
+    @Nullable
+    private Entry loadPersistedEntry() {
+        final String methodTag = TAG + ":loadPersistedEntry";
+
+        if (!mSharedPreferences.contains(KEY_TIMESTAMP)) {
+            return null;
+        }
+
+        // The broker may have been installed, updated or removed while this process was not
+        // running to observe it.
+        if (!getBrokerFingerprint().equals(mSharedPreferences.getString(KEY_BROKER_FINGERPRINT, null))) {
+            Logger.info(methodTag, "Broker apps changed since the device mode was cached.");
+            return null;
+        }
+
+        return new Entry(
+                mSharedPreferences.getBoolean(KEY_IS_SHARED_DEVICE, false),
+                mSharedPreferences.getLong(KEY_TIMESTAMP, 0)
+        );
+    }
+
+    @NonNull
+    private String getBrokerFingerprint() {
+        final PackageManager packageManager = mContext.getPackageManager();
+        final StringBuilder fingerprint = new StringBuilder();
+
+        for (final String packageName : getBrokerPackageNames()) {
+            try {
+                final PackageInfo packageInfo = packageManager.getPackageInfo(packageName, 0);
+                fingerprint.append(packageName).append(':').append(packageInfo.lastUpdateTime);
+            } catch (final PackageManager.NameNotFoundException e) {
+                fingerprint.append(packageName).append(":-");
+            }
+            fingerprint.append(';');
+        }
+
+        return fingerprint.toString();
+    }
+
+    private void registerBrokerPackageReceiver() {
+        final IntentFilter filter = new IntentFilter();
+        filter.addAction(Intent.ACTION_PACKAGE_ADDED);
+        filter.addAction(Intent.ACTION_PACKAGE_REPLACED);
+        filter.addAction(Intent.ACTION_PACKAGE_CHANGED);
+        filter.addAction(Intent.ACTION_PACKAGE_REMOVED);
+        filter.addDataScheme("package");
+        mContext.registerReceiver(mBrokerPackageReceiver, filter);
+    }
+
+    private static boolean isBrokerPackage(@Nullable final String packageName) {
+        return getBrokerPackageNames().contains(packageName);
+    }
+
+    /**
+     * @return The package names of every app which may host the broker, as defined by common, in
+     * a stable order.
+     */
+    @NonNull
+    private static SortedSet<String> getBrokerPackageNames() {
+        final SortedSet<String> packageNames = new TreeSet<>();
+
+        for (final BrokerData brokerData : BrokerData.getKnownBrokerApps()) {
+            packageNames.add(brokerData.getPackageName());
+        }
+
+        return packageNames;
+    }
+}
@@ -0,0 +1,82 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.client.internal.ApplicationRequestContext;
+import com.microsoft.identity.common.java.crypto.IDevicePopManager;
+import com.microsoft.identity.common.java.exception.ClientException;
+
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signs the SignedHttpRequests of the {@link PopAccessTokenCache} with the same device key as
+ * the PoP requests of the app's {@link PublicClientApplication}.
+ */
+final class DevicePopSigner implements PopAccessTokenCache.Signer {
+
+    private final PublicClientApplicationConfiguration mConfiguration;
+
+    DevicePopSigner(@NonNull final PublicClientApplicationConfiguration configuration) {
+        mConfiguration = configuration;
+    }
+
+    @Nullable
+    @Override
+    public String getKeyThumbprint() throws ClientException {
+        final IDevicePopManager devicePopManager = getDevicePopManager();
+
+        if (!devicePopManager.asymmetricKeyExists()) {
+            return null;
+        }
+
+        return devicePopManager.getAsymmetricKeyThumbprint();
+    }
+
+    @NonNull
+    @Override
+    public String sign(@Nullable final String httpMethod,
+                       @NonNull final URL url,
+                       @NonNull final String accessToken,
+                       @Nullable final String nonce,
+                       @Nullable final String clientClaims) throws ClientException {
+        return getDevicePopManager().mintSignedAccessToken(
+                httpMethod,
+                TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()),
+                url,
+                accessToken,
+                nonce,
+                clientClaims
+        );
+    }
+
+    @NonNull
+    private IDevicePopManager getDevicePopManager() throws ClientException {
+        return ApplicationRequestContext.get(mConfiguration)
+                .getPlatformComponents()
+                .getDefaultDevicePopManager();
+    }
+}
@@ -92,4 +92,15 @@ public interface IAuthenticationResult {
      */
     @Nullable
     UUID getCorrelationId(); // this should never actually be null for MSAL
+
+    /**
+     * Gets the latency breakdown of the request which returned this result.
+     *
+     * @return The timings of the request, or null if request_timings_enabled is not set or the
+     * request was not a silent one.
+     */
+    @Nullable
+    default RequestTimings getRequestTimings() {
+        return null;
+    }
 }
@@ -76,6 +76,24 @@ public interface IMultipleAccountPublicClientApplication extends IPublicClientAp
     @WorkerThread
     IAccount getAccount(@NonNull final String identifier) throws InterruptedException, MsalException;
 
+    /**
+     * Registers a listener to be notified on the main thread whenever an account, or one of its
+     * tenant profiles, is added to or removed from this application, so the set of accounts does
+     * not need to be polled with getAccounts(). Changes made outside of this application (e.g. by
+     * the broker) are only observed on the next getAccounts() or getAccount() call.
+     *
+     * @param listener The listener to register.
+     */
+    void registerAccountsChangedListener(@NonNull final IAccountsChangedListener listener);
+
+    /**
+     * Unregisters a listener registered with
+     * {@link #registerAccountsChangedListener(IAccountsChangedListener)}.
+     *
+     * @param listener The listener to unregister.
+     */
+    void unregisterAccountsChangedListener(@NonNull final IAccountsChangedListener listener);
+
     /**
      * Removes the Account and Credentials (tokens) for the supplied IAccount.
      *
@@ -82,6 +82,18 @@ public interface IPublicClientApplication {
      */
     void acquireTokenSilentAsync(@NonNull final AcquireTokenSilentParameters acquireTokenSilentParameters);
 
+    /**
+     * Perform acquire token silent calls for several scope sets of one account, e.g. the tokens of
+     * all the resources an app needs after launch. The account and authority are resolved once,
+     * the scope sets whose access token is cached are answered together, and the others are
+     * refreshed in parallel, at most {@link AcquireTokenSilentBatchParameters#getMaxConcurrency()}
+     * at a time.
+     *
+     * @param acquireTokenSilentBatchParameters The parameters, including one callback receiving
+     *                                          a result per scope set.
+     */
+    void acquireTokenSilentBatchAsync(@NonNull final AcquireTokenSilentBatchParameters acquireTokenSilentBatchParameters);
+
     /**
      * Perform acquire token silent call. If there is a valid access token in the cache, the sdk will return the access token; If
      * no valid access token exists, the sdk will try to find a refresh token and use the refresh token to get a new access token. If refresh token does not exist
@@ -144,6 +156,36 @@ public interface IPublicClientApplication {
      */
     boolean isSharedDevice();
 
+    /**
+     * Registers a listener notified when the device mode this application was created with, which
+     * may come from the device mode cache (see device_mode_cache_ttl_seconds), turns out to have
+     * changed. If the change was reported before the listener is registered, the listener is
+     * notified right away.
+     *
+     * @param listener The listener, invoked on the main thread.
+     */
+    void registerDeviceModeChangedListener(@NonNull final IDeviceModeChangedListener listener);
+
+    /**
+     * Unregisters a listener previously registered with
+     * {@link #registerDeviceModeChangedListener(IDeviceModeChangedListener)}.
+     *
+     * @param listener The listener to remove.
+     */
+    void unregisterDeviceModeChangedListener(@NonNull final IDeviceModeChangedListener listener);
+
+    /**
+     * Runs the startup work otherwise paid for by the first token request, such as loading the
+     * token cache, discovering the broker, fetching the cloud discovery metadata and warming up
+     * the browser, in parallel on background threads. Apps may call it from
+     * {@link android.app.Application#onCreate()} once the application has been created.
+     *
+     * @param callback Invoked on the main thread with the timing of each phase.
+     * @return The operation, which may be cancelled.
+     */
+    @NonNull
+    PrewarmOperation prewarm(@NonNull final PrewarmCallback callback);
+
     /**
      * Signs the provided {@link PoPAuthenticationScheme} parameters into a JWT on behalf of the
      * provided {@link IAccount}.
@@ -177,6 +219,40 @@ public interface IPublicClientApplication {
                                    @NonNull final SignedHttpRequestRequestCallback callback
     );
 
+    /**
+     * Signs each of the provided {@link PoPAuthenticationScheme} parameters into a JWT on behalf
+     * of the provided {@link IAccount}, and returns all the results together.
+     * <p>
+     * The account, the controllers and, for accounts of the local cache, the device key are
+     * resolved once for the whole batch, and the requests are signed in parallel with bounded
+     * concurrency. A failure to sign one of the parameters does not fail the others.
+     * <p>
+     * Important: Use of this API requires setting the minimum_required_broker_protocol_version to
+     * "6.0" or higher.
+     *
+     * @param account       The account for whom signing shall occur.
+     * @param popParameters The input parameters of each signed request.
+     * @param callback      The callback receiving the results, in the order of popParameters.
+     */
+    void generateSignedHttpRequests(@NonNull final IAccount account,
+                                    @NonNull final List<PoPAuthenticationScheme> popParameters,
+                                    @NonNull final SignedHttpRequestsCallback callback
+    );
+
+    /**
+     * Callback used to receive the results of
+     * {@link #generateSignedHttpRequests(IAccount, List, SignedHttpRequestsCallback)}.
+     */
+    interface SignedHttpRequestsCallback {
+
+        /**
+         * Invoked on the main thread once all the parameters of the batch were signed or failed.
+         *
+         * @param results One result per {@link PoPAuthenticationScheme}, in the order they were supplied.
+         */
+        void onCompleted(@NonNull final List<SignedHttpRequestResult> results);
+    }
+
     /**
      * Callback used to receive the result of {@link #generateSignedHttpRequest(IAccount, PoPAuthenticationScheme)}.
      */
@@ -214,6 +290,18 @@ public interface IPublicClientApplication {
     }
 
 
+    /**
+     * Callback used to receive the result of {@link #prewarm(PrewarmCallback)}.
+     */
+    interface PrewarmCallback {
+        /**
+         * Called once every phase has completed, or once the prewarm was cancelled.
+         *
+         * @param report The timing of each phase.
+         */
+        void onPrewarmCompleted(@NonNull final PrewarmReport report);
+    }
+
     /**
      * Listener callback for asynchronous initialization of IPublicClientApplication object.
      */
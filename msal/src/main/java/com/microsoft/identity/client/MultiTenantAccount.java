@@ -33,7 +33,9 @@ import java.util.Map;
 
 public class MultiTenantAccount extends Account implements IMultiTenantAccount {
 
-    private Map<String, ITenantProfile> mTenantProfiles = new HashMap<>();
+    private Map<String, ITenantProfile> mTenantProfiles = Collections.unmodifiableMap(
+            new HashMap<String, ITenantProfile>()
+    );
 
     MultiTenantAccount(
             @Nullable final String clientInfo,
@@ -42,12 +44,13 @@ public class MultiTenantAccount extends Account implements IMultiTenantAccount {
     }
 
     void setTenantProfiles(@NonNull final Map<String, ITenantProfile> profiles) {
-        mTenantProfiles = profiles;
+        // Wrapped once here rather than on every getTenantProfiles() call.
+        mTenantProfiles = Collections.unmodifiableMap(profiles);
     }
 
     @NonNull
     @Override
     public Map<String, ITenantProfile> getTenantProfiles() {
-        return Collections.unmodifiableMap(mTenantProfiles);
+        return mTenantProfiles;
     }
 }
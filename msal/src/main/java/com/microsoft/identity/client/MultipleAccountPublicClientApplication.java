@@ -45,26 +45,49 @@ import com.microsoft.identity.common.internal.commands.RemoveAccountCommand;
 import com.microsoft.identity.common.java.commands.parameters.CommandParameters;
 import com.microsoft.identity.common.java.commands.parameters.RemoveAccountCommandParameters;
 import com.microsoft.identity.common.java.controllers.CommandDispatcher;
+import com.microsoft.identity.common.java.result.ILocalAuthenticationResult;
 import com.microsoft.identity.common.java.dto.AccountRecord;
 import com.microsoft.identity.common.java.eststelemetry.PublicApiId;
 import com.microsoft.identity.common.internal.migration.TokenMigrationCallback;
 import com.microsoft.identity.common.java.util.ResultFuture;
 import com.microsoft.identity.common.logging.Logger;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 
 import static com.microsoft.identity.client.exception.MsalClientException.UNKNOWN_ERROR;
 import static com.microsoft.identity.client.internal.MsalUtils.throwOnMainThread;
 import static com.microsoft.identity.client.internal.MsalUtils.validateNonNullArg;
+import static com.microsoft.identity.client.internal.MsalUtils.validateNonNullArgument;
 
 public class MultipleAccountPublicClientApplication extends PublicClientApplication
         implements IMultipleAccountPublicClientApplication {
     private static final String TAG = MultipleAccountPublicClientApplication.class.getSimpleName();
 
+    /**
+     * Index of the loaded accounts. Null unless enabled through
+     * {@link PublicClientApplicationConfiguration#isAccountIndexEnabled()}.
+     */
+    private final AccountIndex mAccountIndex;
+
+    /**
+     * Latest accounts snapshot and its change listeners.
+     */
+    private final AccountsSnapshotHolder mAccountsSnapshots = new AccountsSnapshotHolder();
+
+    /**
+     * Whether getAccounts() is answered from {@link #mAccountsSnapshots}, see
+     * {@link PublicClientApplicationConfiguration#isAccountsSnapshotEnabled()}.
+     */
+    private final boolean mServeAccountsFromSnapshot;
+
     protected MultipleAccountPublicClientApplication(@NonNull PublicClientApplicationConfiguration config) throws MsalClientException {
         super(config);
+        mAccountIndex = config.isAccountIndexEnabled() ? new AccountIndex() : null;
+        mServeAccountsFromSnapshot = config.isAccountsSnapshotEnabled();
     }
 
     @Override
@@ -119,6 +142,33 @@ public class MultipleAccountPublicClientApplication extends PublicClientApplicat
      */
     private void getAccountsInternal(@NonNull final LoadAccountsCallback callback,
                                      @NonNull final String publicApiId) {
+        final String methodTag = TAG + ":getAccountsInternal";
+        final AccountsSnapshot snapshot = mServeAccountsFromSnapshot
+                ? mAccountsSnapshots.getCurrent()
+                : null;
+
+        if (null != snapshot) {
+            Logger.verbose(methodTag, "Returning accounts from snapshot version " + snapshot.getVersion());
+            new Handler(Looper.getMainLooper()).post(new Runnable() {
+                @Override
+                public void run() {
+                    // Callers have always received a List they own.
+                    callback.onTaskCompleted(new ArrayList<>(snapshot.getAccounts()));
+                }
+            });
+            return;
+        }
+
+        loadAccounts(callback, publicApiId);
+    }
+
+    /**
+     * Loads the accounts from the cache and publishes them as the new accounts snapshot.
+     */
+    private void loadAccounts(@NonNull final LoadAccountsCallback callback,
+                              @NonNull final String publicApiId) {
+        final long generation = mAccountsSnapshots.getGeneration();
+
         TokenMigrationCallback migrationCallback = new TokenMigrationCallback() {
             @Override
             public void onMigrationFinished(int numberOfAccountsMigrated) {
@@ -128,7 +178,7 @@ public class MultipleAccountPublicClientApplication extends PublicClientApplicat
                         new MSALControllerFactory(mPublicClientConfiguration).getAllControllers(
                                 mPublicClientConfiguration.getDefaultAuthority()
                         ),
-                        getLoadAccountsCallback(callback),
+                        getLoadAccountsCallback(publishAccounts(generation, indexAccounts(callback))),
                         publicApiId
                 );
 
@@ -210,6 +260,23 @@ public class MultipleAccountPublicClientApplication extends PublicClientApplicat
             callback.onError(e);
         }
 
+        final IAccount indexedAccount = null == mAccountIndex || null == identifier
+                ? null
+                : mAccountIndex.lookup(identifier);
+
+        if (null != indexedAccount) {
+            Logger.verbose(methodTag, "Account found in the account index.");
+            new Handler(Looper.getMainLooper()).post(new Runnable() {
+                @Override
+                public void run() {
+                    callback.onTaskCompleted(indexedAccount);
+                }
+            });
+            return;
+        }
+
+        final long generation = mAccountsSnapshots.getGeneration();
+
         TokenMigrationCallback migrationCallback = new TokenMigrationCallback() {
             @Override
             public void onMigrationFinished(int numberOfAccountsMigrated) {
@@ -227,12 +294,21 @@ public class MultipleAccountPublicClientApplication extends PublicClientApplicat
                             public void onTaskCompleted(final List<ICacheRecord> result) {
                                 if (null == result || result.size() == 0) {
                                     Logger.verbose(methodTag, "No account found.");
+                                    if (null != mAccountIndex) {
+                                        mAccountIndex.replaceAll(Collections.<IAccount>emptyList());
+                                    }
+                                    publishAccountsSnapshot(generation, Collections.<IAccount>emptyList());
                                     callback.onTaskCompleted(null);
                                 } else {
                                     // First, transform the result into IAccount + TenantProfile form
                                     final List<IAccount>
                                             accounts = AccountAdapter.adapt(result);
 
+                                    if (null != mAccountIndex) {
+                                        mAccountIndex.replaceAll(accounts);
+                                    }
+                                    publishAccountsSnapshot(generation, accounts);
+
                                     final String trimmedIdentifier = identifier.trim();
 
                                     // Evaluation precedence...
@@ -315,6 +391,173 @@ public class MultipleAccountPublicClientApplication extends PublicClientApplicat
         }
     }
 
+    /**
+     * Wraps a {@link LoadAccountsCallback} so that the loaded accounts also repopulate the account
+     * index, if enabled.
+     */
+    @NonNull
+    private LoadAccountsCallback indexAccounts(@NonNull final LoadAccountsCallback callback) {
+        if (null == mAccountIndex) {
+            return callback;
+        }
+
+        return new LoadAccountsCallback() {
+            @Override
+            public void onTaskCompleted(final List<IAccount> result) {
+                mAccountIndex.replaceAll(
+                        null == result ? Collections.<IAccount>emptyList() : result
+                );
+                callback.onTaskCompleted(result);
+            }
+
+            @Override
+            public void onError(final MsalException exception) {
+                callback.onError(exception);
+            }
+        };
+    }
+
+    /**
+     * Wraps a {@link LoadAccountsCallback} so that the loaded accounts are also published as the
+     * accounts snapshot.
+     *
+     * @param generation The snapshot generation when the load was started.
+     */
+    @NonNull
+    private LoadAccountsCallback publishAccounts(final long generation,
+                                                 @NonNull final LoadAccountsCallback callback) {
+        return new LoadAccountsCallback() {
+            @Override
+            public void onTaskCompleted(final List<IAccount> result) {
+                publishAccountsSnapshot(
+                        generation,
+                        null == result ? Collections.<IAccount>emptyList() : result
+                );
+                callback.onTaskCompleted(result);
+            }
+
+            @Override
+            public void onError(final MsalException exception) {
+                callback.onError(exception);
+            }
+        };
+    }
+
+    private void publishAccountsSnapshot(final long generation,
+                                         @NonNull final List<IAccount> accounts) {
+        final AccountsSnapshot changedSnapshot = mAccountsSnapshots.publish(generation, accounts);
+
+        if (null == changedSnapshot) {
+            return;
+        }
+
+        for (final IAccountsChangedListener listener : mAccountsSnapshots.getListeners()) {
+            new Handler(Looper.getMainLooper()).post(new Runnable() {
+                @Override
+                public void run() {
+                    listener.onAccountsChanged(changedSnapshot);
+                }
+            });
+        }
+    }
+
+    /**
+     * Marks the accounts snapshot stale after a token cache mutation and, if anyone is listening,
+     * reloads it in the background so that listeners learn about the change.
+     */
+    private void onTokenCacheMutated() {
+        mAccountsSnapshots.markStale();
+        refreshAccountsSnapshot();
+    }
+
+    private void refreshAccountsSnapshot() {
+        final String methodTag = TAG + ":refreshAccountsSnapshot";
+
+        if (!mAccountsSnapshots.hasListeners() || !mAccountsSnapshots.beginRefresh()) {
+            return;
+        }
+
+        final long generation = mAccountsSnapshots.getGeneration();
+
+        loadAccounts(new LoadAccountsCallback() {
+            @Override
+            public void onTaskCompleted(final List<IAccount> result) {
+                onRefreshFinished(generation);
+            }
+
+            @Override
+            public void onError(final MsalException exception) {
+                Logger.warn(methodTag, "Failed to refresh the accounts snapshot: " + exception.getMessage());
+                onRefreshFinished(generation);
+            }
+        }, PublicApiId.MULTIPLE_ACCOUNT_PCA_GET_ACCOUNTS_WITH_CALLBACK);
+    }
+
+    private void onRefreshFinished(final long generation) {
+        mAccountsSnapshots.endRefresh();
+
+        // The cache mutated again while loading, so the published snapshot is already stale.
+        if (generation != mAccountsSnapshots.getGeneration()) {
+            refreshAccountsSnapshot();
+        }
+    }
+
+    @Override
+    public void registerAccountsChangedListener(@NonNull final IAccountsChangedListener listener) {
+        validateNonNullArgument(listener, NONNULL_CONSTANTS.LISTENER);
+        mAccountsSnapshots.addListener(listener);
+    }
+
+    @Override
+    public void unregisterAccountsChangedListener(@NonNull final IAccountsChangedListener listener) {
+        mAccountsSnapshots.removeListener(listener);
+    }
+
+    @Override
+    protected void postAuthResult(@NonNull final ILocalAuthenticationResult localAuthenticationResult,
+                                  @NonNull final TokenParameters requestParameters,
+                                  @NonNull final SilentAuthenticationCallback authenticationCallback,
+                                  final long popCacheGeneration) {
+        final boolean tokensSaved = !localAuthenticationResult.isServicedFromCache();
+
+        // Freshly minted tokens may come with a new id token (or a new account), so the indexed
+        // account is reloaded from the cache on its next lookup.
+        if (null != mAccountIndex && tokensSaved) {
+            final List<ICacheRecord> cacheRecords = localAuthenticationResult.getCacheRecordWithTenantProfileData();
+
+            if (null != cacheRecords && !cacheRecords.isEmpty() && null != cacheRecords.get(0).getAccount()) {
+                mAccountIndex.evict(cacheRecords.get(0).getAccount().getHomeAccountId());
+            } else {
+                mAccountIndex.clear();
+            }
+        }
+
+        if (tokensSaved) {
+            mAccountsSnapshots.markStale();
+        }
+
+        super.postAuthResult(localAuthenticationResult, requestParameters, authenticationCallback, popCacheGeneration);
+
+        if (tokensSaved) {
+            refreshAccountsSnapshot();
+        }
+    }
+
+    @Override
+    void invalidateInMemoryTokens(@Nullable final String homeAccountId) {
+        super.invalidateInMemoryTokens(homeAccountId);
+
+        if (null != mAccountIndex) {
+            if (null == homeAccountId) {
+                mAccountIndex.clear();
+            } else {
+                mAccountIndex.evict(homeAccountId);
+            }
+        }
+
+        onTokenCacheMutated();
+    }
+
     @Override
     public void removeAccount(@Nullable final IAccount account,
                               @NonNull final RemoveAccountCallback callback) {
@@ -366,6 +609,7 @@ public class MultipleAccountPublicClientApplication extends PublicClientApplicat
 
                     @Override
                     public void onTaskCompleted(Boolean success) {
+                        invalidateInMemoryTokens(multiTenantAccount.getHomeAccountId());
                         callback.onRemoved();
                     }
 
@@ -0,0 +1,390 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import android.text.TextUtils;
+import android.util.Base64;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.common.logging.Logger;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * In-memory, size-bounded cache of the access tokens behind the SignedHttpRequests (SHRs)
+ * returned by silent PoP requests.
+ * <p>
+ * A PoP result is only valid for the URL and method it was signed for, so unlike
+ * {@link AccessTokenMemoryCache} this cache keeps the raw access token, and answers a request for
+ * the same account, authority and scopes by signing a new SHR for the request's URL, method,
+ * nonce and client claims with the device key. Only tokens bound to the local device key are
+ * cached; tokens minted by the broker are bound to its key and always go through a command.
+ * <p>
+ * Entries are keyed by the thumbprint of the key they are bound to, so a rotated device key
+ * invalidates them, and are valid for as long as {@link AccessTokenMemoryCache} would keep the
+ * same result.
+ * <p>
+ * Every removal starts a new generation. A result is only cached if no removal happened since
+ * its request started, so a request still running when its account was signed out cannot bring
+ * its token back.
+ */
+final class PopAccessTokenCache {
+
+    private static final String TAG = PopAccessTokenCache.class.getSimpleName();
+
+    /**
+     * Default number of access tokens held before the least recently used one is evicted.
+     */
+    static final int DEFAULT_MAX_ENTRIES = 32;
+
+    /**
+     * Number of SHRs kept per access token for reuse within the reuse window.
+     */
+    static final int MAX_SIGNED_REQUESTS_PER_ENTRY = 16;
+
+    private static final String KEY_DELIMITER = "|";
+
+    private static final String SHR_HEADER_KEY_ID = "kid";
+    private static final String SHR_CLAIM_ACCESS_TOKEN = "at";
+
+    private static final int BASE64_FLAGS = Base64.URL_SAFE | Base64.NO_WRAP | Base64.NO_PADDING;
+
+    /**
+     * Signs SHRs with the device PoP key.
+     */
+    interface Signer {
+
+        /**
+         * @return The thumbprint of the device key, or null if it does not exist.
+         */
+        @Nullable
+        String getKeyThumbprint() throws Exception;
+
+        /**
+         * @return An SHR for the given request, wrapping the given access token.
+         */
+        @NonNull
+        String sign(@Nullable String httpMethod,
+                    @NonNull URL url,
+                    @NonNull String accessToken,
+                    @Nullable String nonce,
+                    @Nullable String clientClaims) throws Exception;
+    }
+
+    private final Signer mSigner;
+    private final long mReuseWindowMillis;
+    private final Map<String, Entry> mEntries;
+
+    // Guarded by mEntries.
+    private long mGeneration;
+
+    PopAccessTokenCache(@NonNull final Signer signer, final long reuseWindowMillis) {
+        this(signer, reuseWindowMillis, DEFAULT_MAX_ENTRIES);
+    }
+
+    PopAccessTokenCache(@NonNull final Signer signer,
+                        final long reuseWindowMillis,
+                        final int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive.");
+        }
+
+        if (reuseWindowMillis < 0) {
+            throw new IllegalArgumentException("reuseWindowMillis must not be negative.");
+        }
+
+        mSigner = signer;
+        mReuseWindowMillis = reuseWindowMillis;
+        mEntries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns a result for the given request, holding a newly signed (or, within the reuse
+     * window, recently signed) SHR, or null if no valid access token is cached.
+     * <p>
+     * Signing uses the device key, so this must not be called on the main thread.
+     *
+     * @param key       The request key, see {@link AccessTokenMemoryCache#createKey}.
+     * @param popParams The URL, method, nonce and client claims of the request.
+     */
+    @Nullable
+    IAuthenticationResult get(@NonNull final String key,
+                              @NonNull final PoPAuthenticationScheme popParams) {
+        final String methodTag = TAG + ":get";
+
+        final String thumbprint;
+
+        try {
+            thumbprint = mSigner.getKeyThumbprint();
+        } catch (final Exception e) {
+            Logger.warn(methodTag, "Unable to read the device key thumbprint: " + e.getMessage());
+            return null;
+        }
+
+        if (TextUtils.isEmpty(thumbprint)) {
+            return null;
+        }
+
+        final String entryKey = key + KEY_DELIMITER + thumbprint;
+        final String requestKey = createRequestKey(popParams);
+        final Entry entry;
+
+        synchronized (mEntries) {
+            entry = mEntries.get(entryKey);
+
+            if (null == entry) {
+                return null;
+            }
+
+            if (entry.mValidUntilMillis <= System.currentTimeMillis()) {
+                Logger.verbose(methodTag, "PoP access token is about to expire, evicting.");
+                mEntries.remove(entryKey);
+                return null;
+            }
+
+            final SignedRequest signedRequest = entry.mSignedRequests.get(requestKey);
+
+            if (null != signedRequest
+                    && signedRequest.mSignedAtMillis + mReuseWindowMillis > System.currentTimeMillis()) {
+                return entry.mResult.withSignedAccessToken(signedRequest.mSignedAccessToken);
+            }
+        }
+
+        final String signedAccessToken;
+
+        try {
+            signedAccessToken = mSigner.sign(
+                    popParams.getHttpMethod(),
+                    popParams.getUrl(),
+                    entry.mAccessToken,
+                    popParams.getNonce(),
+                    popParams.getClientClaims()
+            );
+        } catch (final Exception e) {
+            Logger.warn(methodTag, "Unable to sign a request with the cached PoP access token: " + e.getMessage());
+            return null;
+        }
+
+        synchronized (mEntries) {
+            // The entry may have been evicted or removed while signing, e.g. on sign-out.
+            if (mEntries.get(entryKey) != entry) {
+                Logger.verbose(methodTag, "PoP access token was removed while signing, not returning it.");
+                return null;
+            }
+
+            if (mReuseWindowMillis > 0) {
+                entry.mSignedRequests.put(
+                        requestKey,
+                        new SignedRequest(signedAccessToken, System.currentTimeMillis())
+                );
+            }
+        }
+
+        return entry.mResult.withSignedAccessToken(signedAccessToken);
+    }
+
+    /**
+     * Caches the access token of a result returned for a silent PoP request, if it is bound to
+     * the device key.
+     * <p>
+     * Reads the device key, so this must not be called on the main thread.
+     *
+     * @param generation The generation of the cache when the request started, see
+     *                   {@link #getGeneration()}.
+     */
+    void put(@NonNull final String key,
+             @NonNull final String homeAccountId,
+             @NonNull final AuthenticationResult result,
+             final long generation) {
+        final String methodTag = TAG + ":put";
+
+        final long validUntilMillis = AccessTokenMemoryCache.getValidUntilMillis(result);
+
+        if (validUntilMillis <= System.currentTimeMillis()) {
+            return;
+        }
+
+        final String signedAccessToken = result.getAccessToken();
+        final String keyId = getKeyId(signedAccessToken);
+        final String accessToken = getAccessToken(signedAccessToken);
+
+        if (TextUtils.isEmpty(keyId) || TextUtils.isEmpty(accessToken)) {
+            Logger.verbose(methodTag, "Result is not a SignedHttpRequest, not caching.");
+            return;
+        }
+
+        try {
+            if (!keyId.equals(mSigner.getKeyThumbprint())) {
+                Logger.verbose(methodTag, "PoP access token is not bound to the device key, not caching.");
+                return;
+            }
+        } catch (final Exception e) {
+            Logger.warn(methodTag, "Unable to read the device key thumbprint: " + e.getMessage());
+            return;
+        }
+
+        synchronized (mEntries) {
+            if (generation != mGeneration) {
+                Logger.verbose(methodTag, "Tokens were invalidated since the request started, not caching.");
+                return;
+            }
+
+            mEntries.put(
+                    key + KEY_DELIMITER + keyId,
+                    new Entry(homeAccountId, accessToken, result, validUntilMillis)
+            );
+        }
+    }
+
+    /**
+     * @return The current generation, to pass to {@link #put} once the request completes.
+     */
+    long getGeneration() {
+        synchronized (mEntries) {
+            return mGeneration;
+        }
+    }
+
+    /**
+     * Removes every entry belonging to the supplied home account id. Results of requests started
+     * before are no longer cached, whatever their account.
+     */
+    void remove(@NonNull final String homeAccountId) {
+        synchronized (mEntries) {
+            mGeneration++;
+            final Iterator<Entry> iterator = mEntries.values().iterator();
+
+            while (iterator.hasNext()) {
+                if (homeAccountId.equalsIgnoreCase(iterator.next().mHomeAccountId)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    void clear() {
+        synchronized (mEntries) {
+            mGeneration++;
+            mEntries.clear();
+        }
+    }
+
+    int size() {
+        synchronized (mEntries) {
+            return mEntries.size();
+        }
+    }
+
+    /**
+     * @return The key id in the header of the given SHR, or null if it is not an SHR.
+     */
+    @Nullable
+    static String getKeyId(@NonNull final String signedAccessToken) {
+        return getClaim(signedAccessToken, 0, SHR_HEADER_KEY_ID);
+    }
+
+    /**
+     * @return The access token wrapped by the given SHR, or null if it is not an SHR.
+     */
+    @Nullable
+    static String getAccessToken(@NonNull final String signedAccessToken) {
+        return getClaim(signedAccessToken, 1, SHR_CLAIM_ACCESS_TOKEN);
+    }
+
+    @Nullable
+    private static String getClaim(@NonNull final String jws,
+                                   final int part,
+                                   @NonNull final String claim) {
+        final String[] parts = jws.split("\\.");
+
+        if (parts.length != 3) {
+            return null;
+        }
+
+        try {
+            final String json = new String(Base64.decode(parts[part], BASE64_FLAGS), StandardCharsets.UTF_8);
+            return new JSONObject(json).optString(claim, null);
+        } catch (final IllegalArgumentException | JSONException e) {
+            return null;
+        }
+    }
+
+    @NonNull
+    private static String createRequestKey(@NonNull final PoPAuthenticationScheme popParams) {
+        return popParams.getHttpMethod()
+                + KEY_DELIMITER
+                + popParams.getUrl()
+                + KEY_DELIMITER
+                + popParams.getNonce()
+                + KEY_DELIMITER
+                + popParams.getClientClaims();
+    }
+
+    private static final class Entry {
+        private final String mHomeAccountId;
+        private final String mAccessToken;
+        private final AuthenticationResult mResult;
+        private final long mValidUntilMillis;
+        private final Map<String, SignedRequest> mSignedRequests =
+                new LinkedHashMap<String, SignedRequest>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(final Map.Entry<String, SignedRequest> eldest) {
+                        return size() > MAX_SIGNED_REQUESTS_PER_ENTRY;
+                    }
+                };
+
+        Entry(@NonNull final String homeAccountId,
+              @NonNull final String accessToken,
+              @NonNull final AuthenticationResult result,
+              final long validUntilMillis) {
+            mHomeAccountId = homeAccountId;
+            mAccessToken = accessToken;
+            mResult = result;
+            mValidUntilMillis = validUntilMillis;
+        }
+    }
+
+    private static final class SignedRequest {
+        private final String mSignedAccessToken;
+        private final long mSignedAtMillis;
+
+        SignedRequest(@NonNull final String signedAccessToken, final long signedAtMillis) {
+            mSignedAccessToken = signedAccessToken;
+            mSignedAtMillis = signedAtMillis;
+        }
+    }
+}
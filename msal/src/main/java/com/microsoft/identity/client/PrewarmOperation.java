@@ -0,0 +1,163 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+
+import com.microsoft.identity.common.logging.Logger;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A running {@link IPublicClientApplication#prewarm(IPublicClientApplication.PrewarmCallback)}.
+ * <p>
+ * Each phase runs as its own background task. The callback is invoked once, on the main thread,
+ * when the last phase completes or when the operation is cancelled.
+ */
+public final class PrewarmOperation {
+
+    private static final String TAG = PrewarmOperation.class.getSimpleName();
+
+    /**
+     * The work of a single phase.
+     */
+    interface PhaseTask {
+        void run() throws Exception;
+    }
+
+    private final IPublicClientApplication.PrewarmCallback mCallback;
+
+    private final long mStartNanos = System.nanoTime();
+
+    private final Map<PrewarmReport.Phase, Long> mPhaseDurationsMillis = new ConcurrentHashMap<>();
+
+    private final Map<PrewarmReport.Phase, Exception> mPhaseErrors = new ConcurrentHashMap<>();
+
+    private final AtomicInteger mRemainingPhases = new AtomicInteger();
+
+    private final AtomicBoolean mCompleted = new AtomicBoolean();
+
+    private volatile boolean mCancelled;
+
+    PrewarmOperation(@NonNull final IPublicClientApplication.PrewarmCallback callback) {
+        mCallback = callback;
+    }
+
+    /**
+     * Submits every phase to the executor.
+     */
+    void start(@NonNull final Map<PrewarmReport.Phase, PhaseTask> phases,
+               @NonNull final Executor executor) {
+        mRemainingPhases.set(phases.size());
+
+        if (phases.isEmpty()) {
+            complete();
+            return;
+        }
+
+        for (final Map.Entry<PrewarmReport.Phase, PhaseTask> phase : phases.entrySet()) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    runPhase(phase.getKey(), phase.getValue());
+                }
+            });
+        }
+    }
+
+    /**
+     * Cancels the phases which have not started yet and reports right away. Phases already
+     * running are not interrupted, as they leave the caches they fill consistent, but their
+     * outcome is no longer reported.
+     */
+    public void cancel() {
+        mCancelled = true;
+        complete();
+    }
+
+    /**
+     * @return Whether the report has been, or is being, delivered.
+     */
+    public boolean isDone() {
+        return mCompleted.get();
+    }
+
+    private void runPhase(@NonNull final PrewarmReport.Phase phase,
+                          @NonNull final PhaseTask task) {
+        final String methodTag = TAG + ":runPhase";
+
+        if (!mCancelled) {
+            final long startNanos = System.nanoTime();
+
+            try {
+                task.run();
+                mPhaseDurationsMillis.put(phase, elapsedMillis(startNanos));
+            } catch (final Exception e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+
+                Logger.warn(methodTag, "Prewarm phase " + phase + " failed: " + e.getMessage());
+                mPhaseErrors.put(phase, e);
+            }
+        }
+
+        if (mRemainingPhases.decrementAndGet() == 0) {
+            complete();
+        }
+    }
+
+    private void complete() {
+        if (!mCompleted.compareAndSet(false, true)) {
+            return;
+        }
+
+        final PrewarmReport report = new PrewarmReport(
+                mPhaseDurationsMillis,
+                mPhaseErrors,
+                elapsedMillis(mStartNanos),
+                mCancelled
+        );
+
+        Logger.info(TAG + ":complete", report.toString());
+
+        new Handler(Looper.getMainLooper()).post(new Runnable() {
+            @Override
+            public void run() {
+                mCallback.onPrewarmCompleted(report);
+            }
+        });
+    }
+
+    private static long elapsedMillis(final long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
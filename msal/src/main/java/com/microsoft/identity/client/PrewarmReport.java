@@ -0,0 +1,137 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Outcome of {@link IPublicClientApplication#prewarm(IPublicClientApplication.PrewarmCallback)}:
+ * how long each phase took and which phases failed.
+ */
+public final class PrewarmReport {
+
+    /**
+     * The startup work run by prewarm(), in parallel.
+     */
+    public enum Phase {
+        /**
+         * Loads the accounts of the token cache, opening its storage and encryption keys.
+         */
+        TOKEN_CACHE,
+
+        /**
+         * Looks up the active broker app, if any.
+         */
+        BROKER_DISCOVERY,
+
+        /**
+         * Fetches the instance discovery metadata used to resolve AAD authorities and aliases.
+         */
+        CLOUD_DISCOVERY,
+
+        /**
+         * Binds and warms up the custom tabs service of the browser used for interactive requests.
+         */
+        CUSTOM_TABS
+    }
+
+    private final Map<Phase, Long> mPhaseDurationsMillis;
+
+    private final Map<Phase, Exception> mPhaseErrors;
+
+    private final long mTotalDurationMillis;
+
+    private final boolean mCancelled;
+
+    PrewarmReport(@NonNull final Map<Phase, Long> phaseDurationsMillis,
+                  @NonNull final Map<Phase, Exception> phaseErrors,
+                  final long totalDurationMillis,
+                  final boolean cancelled) {
+        mPhaseDurationsMillis = copy(phaseDurationsMillis);
+        mPhaseErrors = copy(phaseErrors);
+        mTotalDurationMillis = totalDurationMillis;
+        mCancelled = cancelled;
+    }
+
+    /**
+     * @return How long each completed phase took, in milliseconds. Phases which were skipped,
+     * cancelled or still running are absent.
+     */
+    @NonNull
+    public Map<Phase, Long> getPhaseDurationsMillis() {
+        return mPhaseDurationsMillis;
+    }
+
+    /**
+     * @return How long the phase took, in milliseconds, or null if it did not complete.
+     */
+    @Nullable
+    public Long getPhaseDurationMillis(@NonNull final Phase phase) {
+        return mPhaseDurationsMillis.get(phase);
+    }
+
+    /**
+     * @return The error of each phase which failed. A failed phase only means that its work will
+     * be done again by the first request which needs it.
+     */
+    @NonNull
+    public Map<Phase, Exception> getPhaseErrors() {
+        return mPhaseErrors;
+    }
+
+    /**
+     * @return The wall clock time from the call to prewarm() until completion or cancellation.
+     */
+    public long getTotalDurationMillis() {
+        return mTotalDurationMillis;
+    }
+
+    /**
+     * @return Whether the prewarm was cancelled before all of its phases completed.
+     */
+    public boolean isCancelled() {
+        return mCancelled;
+    }
+
+    @Override
+    public String toString() {
+        return "PrewarmReport{"
+                + "phaseDurationsMillis=" + mPhaseDurationsMillis
+                + ", failedPhases=" + mPhaseErrors.keySet()
+                + ", totalDurationMillis=" + mTotalDurationMillis
+                + ", cancelled=" + mCancelled
+                + '}';
+    }
+
+    @NonNull
+    private static <V> Map<Phase, V> copy(@NonNull final Map<Phase, V> map) {
+        return map.isEmpty()
+                ? Collections.<Phase, V>emptyMap()
+                : Collections.unmodifiableMap(new EnumMap<>(map));
+    }
+}
@@ -71,13 +71,14 @@ import com.microsoft.identity.client.exception.MsalDeclinedScopeException;
 import com.microsoft.identity.client.exception.MsalException;
 import com.microsoft.identity.client.exception.MsalUiRequiredException;
 import com.microsoft.identity.client.helper.BrokerHelperActivity;
+import com.microsoft.identity.client.internal.ApplicationRequestContext;
 import com.microsoft.identity.client.internal.AsyncResult;
+import com.microsoft.identity.client.internal.AuthorityCache;
 import com.microsoft.identity.client.internal.CommandParametersAdapter;
 import com.microsoft.identity.client.internal.controllers.MSALControllerFactory;
 import com.microsoft.identity.client.internal.controllers.MsalExceptionAdapter;
 import com.microsoft.identity.common.adal.internal.tokensharing.ITokenShareResultInternal;
 import com.microsoft.identity.common.adal.internal.tokensharing.TokenShareUtility;
-import com.microsoft.identity.common.components.AndroidPlatformComponentsFactory;
 import com.microsoft.identity.common.crypto.AndroidAuthSdkStorageEncryptionManager;
 import com.microsoft.identity.common.internal.activebrokerdiscovery.BrokerDiscoveryClientFactory;
 import com.microsoft.identity.common.internal.broker.BrokerData;
@@ -109,8 +110,10 @@ import com.microsoft.identity.common.java.commands.parameters.DeviceCodeFlowComm
 import com.microsoft.identity.common.java.commands.parameters.GenerateShrCommandParameters;
 import com.microsoft.identity.common.java.commands.parameters.InteractiveTokenCommandParameters;
 import com.microsoft.identity.common.java.commands.parameters.SilentTokenCommandParameters;
+import com.microsoft.identity.common.java.controllers.BaseController;
 import com.microsoft.identity.common.java.controllers.CommandDispatcher;
 import com.microsoft.identity.common.java.controllers.ExceptionAdapter;
+import com.microsoft.identity.common.java.crypto.IDevicePopManager;
 import com.microsoft.identity.common.java.dto.AccountRecord;
 import com.microsoft.identity.common.java.eststelemetry.PublicApiId;
 import com.microsoft.identity.common.java.exception.BaseException;
@@ -129,6 +132,7 @@ import com.microsoft.identity.common.java.providers.oauth2.OAuth2TokenCache;
 import com.microsoft.identity.common.java.result.GenerateShrResult;
 import com.microsoft.identity.common.java.result.ILocalAuthenticationResult;
 import com.microsoft.identity.common.java.result.LocalAuthenticationResult;
+import com.microsoft.identity.common.java.ui.AuthorizationAgent;
 import com.microsoft.identity.common.java.util.ResultFuture;
 import com.microsoft.identity.common.java.util.SchemaUtil;
 import com.microsoft.identity.common.logging.Logger;
@@ -137,14 +141,18 @@ import com.microsoft.identity.msal.BuildConfig;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.StatusCode;
@@ -215,7 +223,14 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
     private static final String INTERNET_PERMISSION = "android.permission.INTERNET";
     private static final String ACCESS_NETWORK_STATE_PERMISSION = "android.permission.ACCESS_NETWORK_STATE";
     private static final String ERR_UNSUPPORTED_OPERATION = "This method is unsupported.";
-    private static final ExecutorService sBackgroundExecutor = Executors.newCachedThreadPool();
+
+    /**
+     * Executor shared by every PublicClientApplication whose configuration keeps the default
+     * background executor settings. Also used while creating PublicClientApplications.
+     */
+    private static final BackgroundExecutor sDefaultBackgroundExecutor = new BackgroundExecutor();
+
+    private static volatile IRequestTimingsListener sRequestTimingsListener;
 
     static class NONNULL_CONSTANTS {
         static final String CONTEXT = "context";
@@ -228,6 +243,7 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
         static final String ACTIVITY = "activity";
         static final String SCOPES = "scopes";
         static final String ACCOUNT = "account";
+        static final String POP_PARAMETERS = "pop_parameters";
         static final String NULL_ERROR_SUFFIX = " cannot be null or empty";
     }
 
@@ -245,6 +261,48 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
     protected PublicClientApplicationConfiguration mPublicClientConfiguration;
     protected TokenShareUtility mTokenShareUtility;
 
+    /**
+     * In-memory cache of silent results. Null unless enabled through
+     * {@link PublicClientApplicationConfiguration#isAccessTokenMemoryCacheEnabled()}.
+     */
+    private AccessTokenMemoryCache mAccessTokenMemoryCache;
+
+    /**
+     * In-memory cache of the access tokens of silent PoP results. Null unless enabled through
+     * {@link PublicClientApplicationConfiguration#isPopAccessTokenCacheEnabled()}.
+     */
+    private PopAccessTokenCache mPopAccessTokenCache;
+
+    /**
+     * Background refresher of silent results. Null unless enabled through
+     * {@link PublicClientApplicationConfiguration#isTokenRefreshAheadEnabled()}.
+     */
+    private AccessTokenRefreshScheduler mAccessTokenRefreshScheduler;
+
+    /**
+     * Executor of the background hops, unless a caller-supplied one is configured through
+     * {@link PublicClientApplicationConfiguration#setBackgroundExecutor(Executor)}.
+     */
+    private BackgroundExecutor mBackgroundExecutor = sDefaultBackgroundExecutor;
+
+    /**
+     * Attaches concurrent identical silent requests to a single dispatched command.
+     */
+    private final SilentTokenRequestCoalescer mSilentTokenRequestCoalescer = new SilentTokenRequestCoalescer();
+
+    /**
+     * Notified if this application was created from a cached device mode that turned out stale.
+     * Guards the device mode of the configuration as well, so that a listener registered while
+     * the mode changes is notified exactly once.
+     */
+    private final List<IDeviceModeChangedListener> mDeviceModeChangedListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * The device mode this application was created with. The latest known device mode is kept
+     * by the configuration.
+     */
+    private final boolean mCreatedWithSharedDevice;
+
     //region PCA factory methods
 
     /**
@@ -921,6 +979,19 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
             return;
         }
 
+        final Integer deviceModeCacheTtlSeconds = config.getDeviceModeCacheTtlSeconds();
+        final DeviceModeCache deviceModeCache = deviceModeCacheTtlSeconds != null && deviceModeCacheTtlSeconds > 0
+                ? DeviceModeCache.get(config.getAppContext())
+                : null;
+        final Boolean cachedIsSharedDevice = deviceModeCache == null
+                ? null
+                : deviceModeCache.getIsSharedDevice(TimeUnit.SECONDS.toMillis(deviceModeCacheTtlSeconds));
+
+        if (cachedIsSharedDevice != null) {
+            createFromCachedDeviceMode(config, deviceModeCache, cachedIsSharedDevice, listener);
+            return;
+        }
+
         final CommandParameters params = CommandParametersAdapter.createCommandParameters(config, config.getOAuth2TokenCache());
 
         final GetDeviceModeCommand command = new GetDeviceModeCommand(
@@ -935,14 +1006,14 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
 
                     @Override
                     public void onTaskCompleted(Boolean isSharedDevice) {
+                        if (deviceModeCache != null) {
+                            deviceModeCache.put(isSharedDevice);
+                        }
+
                         config.setIsSharedDevice(isSharedDevice);
 
                         try {
-                            if (config.getAccountMode() == AccountMode.SINGLE || isSharedDevice) {
-                                listener.onCreated(new SingleAccountPublicClientApplication(config));
-                            } else {
-                                listener.onCreated(new MultipleAccountPublicClientApplication(config));
-                            }
+                            listener.onCreated(createApplication(config, isSharedDevice));
                         } catch (final MsalClientException e) {
                             listener.onError(e);
                         }
@@ -959,6 +1030,78 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
         CommandDispatcher.submitSilent(command);
     }
 
+    /**
+     * Hands out an application created from the cached device mode right away, then asks the
+     * broker for the device mode in the background and notifies the application if it changed.
+     */
+    private static void createFromCachedDeviceMode(@NonNull final PublicClientApplicationConfiguration config,
+                                                   @NonNull final DeviceModeCache deviceModeCache,
+                                                   final boolean cachedIsSharedDevice,
+                                                   @NonNull final ApplicationCreatedListener listener) {
+        final String methodTag = TAG + ":createFromCachedDeviceMode";
+        Logger.info(methodTag, "Creating the application from the cached device mode.");
+
+        config.setIsSharedDevice(cachedIsSharedDevice);
+
+        final PublicClientApplication application;
+        try {
+            application = createApplication(config, cachedIsSharedDevice);
+        } catch (final MsalClientException e) {
+            listener.onError(e);
+            return;
+        }
+
+        // Callbacks of the uncached path are delivered on the main thread as well.
+        new Handler(Looper.getMainLooper()).post(new Runnable() {
+            @Override
+            public void run() {
+                listener.onCreated(application);
+            }
+        });
+
+        final CommandParameters params = CommandParametersAdapter.createCommandParameters(config, config.getOAuth2TokenCache());
+
+        final GetDeviceModeCommand command = new GetDeviceModeCommand(
+                params,
+                new MSALControllerFactory(config).getDefaultController(
+                        config.getDefaultAuthority()),
+                new CommandCallback<Boolean, BaseException>() {
+                    @Override
+                    public void onError(BaseException error) {
+                        Logger.warn(methodTag, "Unable to revalidate the device mode: " + error.getMessage());
+                    }
+
+                    @Override
+                    public void onTaskCompleted(Boolean isSharedDevice) {
+                        deviceModeCache.put(isSharedDevice);
+
+                        if (isSharedDevice != cachedIsSharedDevice) {
+                            Logger.info(methodTag, "Device mode changed since it was cached.");
+                            application.onDeviceModeChanged(isSharedDevice);
+                        }
+                    }
+
+                    @Override
+                    public void onCancel() {
+                        // Should not be reached.
+                    }
+                },
+                PublicApiId.PCA_GET_DEVICE_MODE
+        );
+
+        CommandDispatcher.submitSilent(command);
+    }
+
+    @NonNull
+    private static PublicClientApplication createApplication(@NonNull final PublicClientApplicationConfiguration config,
+                                                             final boolean isSharedDevice) throws MsalClientException {
+        if (config.getAccountMode() == AccountMode.SINGLE || isSharedDevice) {
+            return new SingleAccountPublicClientApplication(config);
+        } else {
+            return new MultipleAccountPublicClientApplication(config);
+        }
+    }
+
     private static void validateAccountModeConfiguration(@NonNull final PublicClientApplicationConfiguration config) throws MsalClientException {
         final String methodTag = TAG + ":validateAccountModeConfiguration";
         if (config.getAccountMode() == AccountMode.SINGLE
@@ -1059,6 +1202,7 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
 
     protected PublicClientApplication(@NonNull final PublicClientApplicationConfiguration configFile) throws MsalClientException {
         mPublicClientConfiguration = configFile;
+        mCreatedWithSharedDevice = configFile.getIsSharedDevice();
         initializeApplication();
     }
 
@@ -1075,7 +1219,10 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
 
         initializeTokenSharingLibrary();
 
-        mPublicClientConfiguration.checkIntentFilterAddedToAppManifestForBrokerFlow();
+        final long manifestCheckStartNanos = System.nanoTime();
+        mPublicClientConfiguration.checkAppManifest();
+        Logger.info(methodTag, "Manifest validation took "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - manifestCheckStartNanos) + " ms");
 
         // Since network request is sent from the sdk, if calling app doesn't declare the internet
         // permission in the manifest, we cannot make the network call.
@@ -1084,6 +1231,35 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
         // Init HTTP cache
         HttpCache.initialize(context.getCacheDir());
 
+        mBackgroundExecutor = createBackgroundExecutor(mPublicClientConfiguration);
+
+        if (mPublicClientConfiguration.isAccessTokenMemoryCacheEnabled()) {
+            mAccessTokenMemoryCache = new AccessTokenMemoryCache();
+        }
+
+        if (mPublicClientConfiguration.isPopAccessTokenCacheEnabled()) {
+            final Integer reuseWindowSeconds = mPublicClientConfiguration.getPopShrReuseWindowSeconds();
+            mPopAccessTokenCache = new PopAccessTokenCache(
+                    new DevicePopSigner(mPublicClientConfiguration),
+                    reuseWindowSeconds == null ? 0 : TimeUnit.SECONDS.toMillis(Math.max(0, reuseWindowSeconds))
+            );
+        }
+
+        if (mPublicClientConfiguration.isTokenRefreshAheadEnabled()) {
+            mAccessTokenRefreshScheduler = new AccessTokenRefreshScheduler(
+                    mPublicClientConfiguration.getTokenRefreshAheadLifetimeFraction(),
+                    new AccessTokenRefreshScheduler.RefreshAction() {
+                        @Override
+                        public void refresh(@NonNull final AcquireTokenSilentParameters parameters) {
+                            acquireTokenSilentAsyncInternal(
+                                    parameters,
+                                    PublicApiId.PCA_ACQUIRE_TOKEN_SILENT_ASYNC_WITH_PARAMETERS
+                            );
+                        }
+                    }
+            );
+        }
+
         Logger.info(methodTag, "Create new public client application.");
     }
 
@@ -1251,6 +1427,16 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
         activity.startActivity(BrokerHelperActivity.createStartIntent(activity.getApplicationContext()));
     }
 
+    /**
+     * Sets the listener receiving the {@link RequestTimings} of every request made by a
+     * PublicClientApplication configured with request_timings_enabled.
+     *
+     * @param listener The listener, or null to stop receiving timings.
+     */
+    public static void setRequestTimingsListener(@Nullable final IRequestTimingsListener listener) {
+        sRequestTimingsListener = listener;
+    }
+
     @Override
     public PublicClientApplicationConfiguration getConfiguration() {
         return mPublicClientConfiguration;
@@ -1261,6 +1447,100 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
         return mPublicClientConfiguration.getIsSharedDevice();
     }
 
+    @Override
+    public void registerDeviceModeChangedListener(@NonNull final IDeviceModeChangedListener listener) {
+        validateNonNullArgument(listener, NONNULL_CONSTANTS.LISTENER);
+
+        final boolean isSharedDevice;
+        synchronized (mDeviceModeChangedListeners) {
+            mDeviceModeChangedListeners.add(listener);
+            isSharedDevice = mPublicClientConfiguration.getIsSharedDevice();
+        }
+
+        // The broker may have reported the change before the app could register its listener.
+        if (isSharedDevice != mCreatedWithSharedDevice) {
+            postDeviceModeChanged(listener, isSharedDevice);
+        }
+    }
+
+    @Override
+    public void unregisterDeviceModeChangedListener(@NonNull final IDeviceModeChangedListener listener) {
+        mDeviceModeChangedListeners.remove(listener);
+    }
+
+    @Override
+    @NonNull
+    public PrewarmOperation prewarm(@NonNull final PrewarmCallback callback) {
+        validateNonNullArgument(callback, NONNULL_CONSTANTS.CALLBACK);
+
+        final PublicClientApplicationConfiguration config = mPublicClientConfiguration;
+        final Context context = config.getAppContext();
+        final Map<PrewarmReport.Phase, PrewarmOperation.PhaseTask> phases = new EnumMap<>(PrewarmReport.Phase.class);
+
+        phases.put(PrewarmReport.Phase.TOKEN_CACHE, new PrewarmOperation.PhaseTask() {
+            @Override
+            public void run() {
+                config.getOAuth2TokenCache().getAccounts(null, config.getClientId());
+            }
+        });
+
+        if (Boolean.TRUE.equals(config.getUseBroker())) {
+            phases.put(PrewarmReport.Phase.BROKER_DISCOVERY, new PrewarmOperation.PhaseTask() {
+                @Override
+                public void run() {
+                    getActiveBrokerPackageName(context);
+                }
+            });
+        }
+
+        if (config.getDefaultAuthority() instanceof AzureActiveDirectoryAuthority) {
+            phases.put(PrewarmReport.Phase.CLOUD_DISCOVERY, new PrewarmOperation.PhaseTask() {
+                @Override
+                public void run() throws Exception {
+                    AzureActiveDirectory.performCloudDiscovery();
+                }
+            });
+        }
+
+        if (config.getAuthorizationAgent() != AuthorizationAgent.WEBVIEW) {
+            phases.put(PrewarmReport.Phase.CUSTOM_TABS, new PrewarmOperation.PhaseTask() {
+                @Override
+                public void run() throws Exception {
+                    CustomTabsWarmer.warmUp(context);
+                }
+            });
+        }
+
+        final PrewarmOperation operation = new PrewarmOperation(callback);
+        operation.start(phases, getBackgroundExecutor());
+
+        return operation;
+    }
+
+    /**
+     * Called when the broker reports a device mode other than the cached one this application
+     * was created with. Listeners registered later are notified on registration.
+     */
+    void onDeviceModeChanged(final boolean isSharedDevice) {
+        synchronized (mDeviceModeChangedListeners) {
+            mPublicClientConfiguration.setIsSharedDevice(isSharedDevice);
+
+            for (final IDeviceModeChangedListener listener : mDeviceModeChangedListeners) {
+                postDeviceModeChanged(listener, isSharedDevice);
+            }
+        }
+    }
+
+    private static void postDeviceModeChanged(@NonNull final IDeviceModeChangedListener listener,
+                                              final boolean isSharedDevice) {
+        new Handler(Looper.getMainLooper()).post(new Runnable() {
+            @Override
+            public void run() {
+                listener.onDeviceModeChanged(isSharedDevice);
+            }
+        });
+    }
+
     @Override
     public String generateSignedHttpRequest(@NonNull final IAccount account,
                                             @NonNull final PoPAuthenticationScheme popParameters) throws MsalException {
@@ -1352,22 +1632,172 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
         }
     }
 
+    @Override
+    public void generateSignedHttpRequests(@NonNull final IAccount account,
+                                           @NonNull final List<PoPAuthenticationScheme> popParameters,
+                                           @NonNull final SignedHttpRequestsCallback callback) {
+        validateNonNullArgument(account, NONNULL_CONSTANTS.ACCOUNT);
+        validateNonNullArgument(popParameters, NONNULL_CONSTANTS.POP_PARAMETERS);
+        validateNonNullArgument(callback, NONNULL_CONSTANTS.CALLBACK);
+
+        final List<PoPAuthenticationScheme> popParametersCopy = new ArrayList<>(popParameters);
+
+        if (popParametersCopy.isEmpty()) {
+            new Handler(Looper.getMainLooper()).post(new Runnable() {
+                @Override
+                public void run() {
+                    callback.onCompleted(Collections.<SignedHttpRequestResult>emptyList());
+                }
+            });
+            return;
+        }
+
+        final SignedHttpRequestBatch batch = new SignedHttpRequestBatch(popParametersCopy, callback, getBackgroundExecutor());
+
+        getBackgroundExecutor().execute(OtelContextExtension.wrap(new Runnable() {
+            @Override
+            public void run() {
+                final String homeAccountId;
+                final List<BaseController> controllers;
+                final IDevicePopManager devicePopManager;
+
+                try {
+                    // Resolved once for the whole batch, rather than once per signed request.
+                    homeAccountId = ((Account) account).getHomeAccountId();
+                    controllers = new MSALControllerFactory(mPublicClientConfiguration).getAllControllers(
+                            mPublicClientConfiguration.getDefaultAuthority()
+                    );
+                    devicePopManager = getBatchDevicePopManager(homeAccountId, controllers);
+                } catch (final Exception e) {
+                    batch.completeAll(new MsalClientException(
+                            UNKNOWN_ERROR,
+                            "Unexpected error while generating SHR.",
+                            e
+                    ));
+                    return;
+                }
+
+                if (devicePopManager != null) {
+                    batch.dispatch(SignedHttpRequestBatch.DEFAULT_MAX_CONCURRENCY, new SignedHttpRequestBatch.Dispatcher() {
+                        @Override
+                        public void dispatch(final int index) {
+                            final PoPAuthenticationScheme popParams = popParametersCopy.get(index);
+
+                            try {
+                                batch.complete(index, devicePopManager.mintSignedHttpRequest(
+                                        popParams.getHttpMethod(),
+                                        TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()),
+                                        popParams.getUrl(),
+                                        popParams.getNonce(),
+                                        popParams.getClientClaims()
+                                ), null);
+                            } catch (final ClientException e) {
+                                batch.complete(index, null, baseExceptionToMsalException(e));
+                            }
+                        }
+                    });
+                    return;
+                }
+
+                batch.dispatch(SignedHttpRequestBatch.DEFAULT_MAX_CONCURRENCY, new SignedHttpRequestBatch.Dispatcher() {
+                    @Override
+                    public void dispatch(final int index) {
+                        final GenerateShrCommand generateShrCommand = createGenerateShrCommand(
+                                homeAccountId,
+                                popParametersCopy.get(index),
+                                controllers,
+                                new CommandCallback<GenerateShrResult, BaseException>() {
+                                    @Override
+                                    public void onCancel() {
+                                        // Not cancellable
+                                    }
+
+                                    @Override
+                                    public void onError(@NonNull final BaseException error) {
+                                        batch.complete(index, null, baseExceptionToMsalException(error));
+                                    }
+
+                                    @Override
+                                    public void onTaskCompleted(@NonNull final GenerateShrResult generateShrResult) {
+                                        batch.complete(index, generateShrResult.getShr(), null);
+                                    }
+                                },
+                                PCA_GENERATE_SIGNED_HTTP_REQUEST_ASYNC
+                        );
+
+                        // Execute this command silently...
+                        CommandDispatcher.submitSilent(generateShrCommand);
+                    }
+                });
+            }
+        }));
+    }
+
+    /**
+     * Returns the device PoP manager signing a whole batch of SignedHttpRequests directly, so that
+     * the account and the device key are looked up once rather than by one GenerateShrCommand per
+     * request. Returns null when the requests must go through GenerateShrCommand: when the broker
+     * may hold the account, the account is not in the local cache, or there is no device key yet.
+     */
+    @Nullable
+    private IDevicePopManager getBatchDevicePopManager(@NonNull final String homeAccountId,
+                                                       @NonNull final List<BaseController> controllers)
+            throws ClientException {
+        if (controllers.size() != 1 || !(controllers.get(0) instanceof LocalMSALController)) {
+            return null;
+        }
+
+        boolean hasLocalAccount = false;
+        for (final AccountRecord accountRecord : mPublicClientConfiguration.getOAuth2TokenCache().getAccounts(
+                null,
+                mPublicClientConfiguration.getClientId())) {
+            if (homeAccountId.equals(accountRecord.getHomeAccountId())) {
+                hasLocalAccount = true;
+                break;
+            }
+        }
+
+        if (!hasLocalAccount) {
+            return null;
+        }
+
+        final IDevicePopManager devicePopManager = ApplicationRequestContext.get(mPublicClientConfiguration)
+                .getPlatformComponents()
+                .getDefaultDevicePopManager();
+
+        return devicePopManager.asymmetricKeyExists() ? devicePopManager : null;
+    }
+
     private GenerateShrCommand createGenerateShrCommand(@NonNull final IAccount account,
                                                         @NonNull final PoPAuthenticationScheme popParams,
                                                         @NonNull final CommandCallback<GenerateShrResult, BaseException> cmdCallback,
                                                         @NonNull final String publicApiId) throws MsalClientException {
+        return createGenerateShrCommand(
+                ((Account) account).getHomeAccountId(),
+                popParams,
+                new MSALControllerFactory(mPublicClientConfiguration).getAllControllers(
+                        mPublicClientConfiguration.getDefaultAuthority()
+                ),
+                cmdCallback,
+                publicApiId
+        );
+    }
+
+    private GenerateShrCommand createGenerateShrCommand(@NonNull final String homeAccountId,
+                                                        @NonNull final PoPAuthenticationScheme popParams,
+                                                        @NonNull final List<BaseController> controllers,
+                                                        @NonNull final CommandCallback<GenerateShrResult, BaseException> cmdCallback,
+                                                        @NonNull final String publicApiId) {
         final GenerateShrCommandParameters cmdParams = createGenerateShrCommandParameters(
                 mPublicClientConfiguration,
                 mPublicClientConfiguration.getOAuth2TokenCache(),
-                ((Account) account).getHomeAccountId(),
+                homeAccountId,
                 popParams
         );
 
         return new GenerateShrCommand(
                 cmdParams,
-                new MSALControllerFactory(mPublicClientConfiguration).getAllControllers(
-                        mPublicClientConfiguration.getDefaultAuthority()
-                ),
+                controllers,
                 cmdCallback,
                 publicApiId
         );
@@ -1520,7 +1950,7 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
         // In order to support use of named tenants (such as contoso.onmicrosoft.com), we need
         // to be able to query OpenId Provider Configuration Metadata - for this reason, we will
         // build-up the acquireTokenOperationParams on a background thread.
-        sBackgroundExecutor.submit(OtelContextExtension.wrap(new Runnable() {
+        getBackgroundExecutor().execute(OtelContextExtension.wrap(new Runnable() {
             @Override
             public void run() {
                 final CommandCallback localAuthenticationCallback =
@@ -1601,42 +2031,79 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
     void acquireTokenSilentAsyncInternal(
             @NonNull final AcquireTokenSilentParameters acquireTokenSilentParameters,
             @NonNull final String publicApiId) {
-        sBackgroundExecutor.submit(OtelContextExtension.wrap(new Runnable() {
+        // The timings belong to this call rather than to the parameters, which callers may reuse.
+        final RequestTimings requestTimings = startRequestTimings(publicApiId);
+        final SilentAuthenticationCallback requestCallback =
+                requestTimings == null || acquireTokenSilentParameters.getCallback() == null
+                        ? acquireTokenSilentParameters.getCallback()
+                        : new RequestTimingsCallback(acquireTokenSilentParameters.getCallback(), requestTimings);
+
+        final IAuthenticationResult cachedResult = getAccessTokenFromMemoryCache(acquireTokenSilentParameters);
+        markRequestTimings(requestTimings, RequestTimings.Checkpoint.MEMORY_CACHE_CHECKED);
+
+        if (cachedResult != null) {
+            // Keep delivering results on the main thread, as the dispatched command would.
+            new Handler(Looper.getMainLooper()).post(new Runnable() {
+                @Override
+                public void run() {
+                    requestCallback.onSuccess(cachedResult);
+                }
+            });
+            return;
+        }
+
+        final SilentAuthenticationCallback silentCallback;
+        final String coalescingKey = SilentTokenRequestCoalescer.createKey(
+                acquireTokenSilentParameters,
+                acquireTokenSilentParameters.getForceRefresh()
+        );
+
+        if (coalescingKey == null) {
+            silentCallback = requestCallback;
+        } else {
+            silentCallback = mSilentTokenRequestCoalescer.register(coalescingKey, requestCallback);
+
+            if (silentCallback == null) {
+                // An identical request is already in flight, its result will be delivered to this
+                // callback, together with the timings of this request.
+                return;
+            }
+        }
+
+        getBackgroundExecutor().execute(OtelContextExtension.wrap(new Runnable() {
             @Override
             public void run() {
+                markRequestTimings(requestTimings, RequestTimings.Checkpoint.EXECUTION_STARTED);
+
                 final CommandCallback callback = getCommandCallback(
-                        acquireTokenSilentParameters.getCallback(),
+                        silentCallback,
                         acquireTokenSilentParameters
                 );
 
                 try {
                     validateAcquireTokenSilentParameters(acquireTokenSilentParameters);
 
+                    // Signing a PoP request uses the device key, so it is done off the calling thread.
+                    final IAuthenticationResult popCachedResult = getAccessTokenFromPopCache(acquireTokenSilentParameters);
+                    if (popCachedResult != null) {
+                        new Handler(Looper.getMainLooper()).post(new Runnable() {
+                            @Override
+                            public void run() {
+                                silentCallback.onSuccess(popCachedResult);
+                            }
+                        });
+                        return;
+                    }
+
                     acquireTokenSilentParameters.setAccountRecord(
                             selectAccountRecordForTokenRequest(
                                     mPublicClientConfiguration,
                                     acquireTokenSilentParameters
                             )
                     );
+                    markRequestTimings(requestTimings, RequestTimings.Checkpoint.ACCOUNT_SELECTED);
 
-                    final SilentTokenCommandParameters params =
-                            CommandParametersAdapter.createSilentTokenCommandParameters(
-                                    mPublicClientConfiguration,
-                                    mPublicClientConfiguration.getOAuth2TokenCache(),
-                                    acquireTokenSilentParameters
-                            );
-
-
-                    final SilentTokenCommand silentTokenCommand = new SilentTokenCommand(
-                            params,
-                            new MSALControllerFactory(mPublicClientConfiguration).getAllControllers(
-                                    params.getAuthority()
-                            ),
-                            callback,
-                            publicApiId
-                    );
-
-                    CommandDispatcher.submitSilent(silentTokenCommand);
+                    submitSilentTokenCommand(acquireTokenSilentParameters, callback, publicApiId, requestTimings);
                 } catch (final Exception exception) {
                     // convert exception to BaseException
                     final BaseException baseException = ExceptionAdapter.baseExceptionFromException(exception);
@@ -1653,6 +2120,113 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
         }));
     }
 
+    /**
+     * Dispatches the silent request, whose account record has already been selected.
+     */
+    private void submitSilentTokenCommand(@NonNull final AcquireTokenSilentParameters acquireTokenSilentParameters,
+                                          @NonNull final CommandCallback callback,
+                                          @NonNull final String publicApiId,
+                                          @Nullable final RequestTimings requestTimings) throws Exception {
+        final SilentTokenCommandParameters params =
+                CommandParametersAdapter.createSilentTokenCommandParameters(
+                        mPublicClientConfiguration,
+                        mPublicClientConfiguration.getOAuth2TokenCache(),
+                        acquireTokenSilentParameters
+                );
+        markRequestTimings(requestTimings, RequestTimings.Checkpoint.PARAMETERS_ADAPTED);
+
+        final SilentTokenCommand silentTokenCommand = new SilentTokenCommand(
+                params,
+                new MSALControllerFactory(mPublicClientConfiguration).getAllControllers(
+                        params.getAuthority()
+                ),
+                requestTimings == null ? callback : markingCommandCompleted(callback, requestTimings),
+                publicApiId
+        );
+
+        // Marked before submitting, as the command may complete before submitSilent returns.
+        markRequestTimings(requestTimings, RequestTimings.Checkpoint.COMMAND_DISPATCHED);
+        CommandDispatcher.submitSilent(silentTokenCommand);
+    }
+
+    @Override
+    public void acquireTokenSilentBatchAsync(@NonNull final AcquireTokenSilentBatchParameters parameters) {
+        acquireTokenSilentBatchAsyncInternal(parameters, PublicApiId.PCA_ACQUIRE_TOKEN_SILENT_ASYNC_WITH_PARAMETERS);
+    }
+
+    /**
+     * Sends every scope set through the same path as a single silent request, so that each one is
+     * validated, served from the in-memory and PoP caches and coalesced with identical requests,
+     * and dispatches them with bounded concurrency.
+     */
+    void acquireTokenSilentBatchAsyncInternal(@NonNull final AcquireTokenSilentBatchParameters parameters,
+                                              @NonNull final String publicApiId) {
+        validateNonNullArgument(parameters.getCallback(), NONNULL_CONSTANTS.CALLBACK);
+
+        final List<List<String>> scopeSets = parameters.getScopeSets();
+
+        if (scopeSets.isEmpty()) {
+            new Handler(Looper.getMainLooper()).post(new Runnable() {
+                @Override
+                public void run() {
+                    parameters.getCallback().onCompleted(Collections.<SilentTokenResult>emptyList());
+                }
+            });
+            return;
+        }
+
+        final SilentTokenBatch batch = new SilentTokenBatch(scopeSets, parameters.getCallback(), getBackgroundExecutor());
+
+        final List<Integer> indexes = new ArrayList<>(scopeSets.size());
+        for (int i = 0; i < scopeSets.size(); i++) {
+            indexes.add(i);
+        }
+
+        batch.dispatch(indexes, parameters.getMaxConcurrency(), new SilentTokenBatch.Dispatcher() {
+            @Override
+            public void dispatch(final int index, @NonNull final SilentAuthenticationCallback callback) {
+                final AcquireTokenSilentParameters request;
+
+                try {
+                    final AcquireTokenSilentParameters.Builder builder = new AcquireTokenSilentParameters.Builder()
+                            .withScopes(scopeSets.get(index))
+                            .forAccount(parameters.getAccount())
+                            .fromAuthority(parameters.getAuthority())
+                            .forceRefresh(parameters.getForceRefresh())
+                            .withClaims(parameters.getClaimsRequest())
+                            .withCallback(callback);
+
+                    if (parameters.getAuthenticationScheme() != null) {
+                        builder.withAuthenticationScheme(parameters.getAuthenticationScheme());
+                    }
+
+                    if (parameters.getCorrelationId() != null) {
+                        builder.withCorrelationId(parameters.getCorrelationId());
+                    }
+
+                    request = builder.build();
+                } catch (final Exception exception) {
+                    // e.g. an empty scope set, which the builder rejects.
+                    callback.onError(msalExceptionFromBaseException(
+                            ExceptionAdapter.baseExceptionFromException(exception))
+                    );
+                    return;
+                }
+
+                acquireTokenSilentAsyncInternal(request, publicApiId);
+            }
+        });
+    }
+
+    /**
+     * Fails every scope set of the batch with the supplied error.
+     */
+    void failSilentBatch(@NonNull final AcquireTokenSilentBatchParameters parameters,
+                         @NonNull final MsalException exception) {
+        validateNonNullArgument(parameters.getCallback(), NONNULL_CONSTANTS.CALLBACK);
+        new SilentTokenBatch(parameters.getScopeSets(), parameters.getCallback(), getBackgroundExecutor())
+                .completeAll(exception);
+    }
 
     private AccountRecord selectAccountRecordForTokenRequest(
             @NonNull final PublicClientApplicationConfiguration pcaConfig,
@@ -1678,7 +2252,10 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
         final IAccount rootAccount = tokenParameters.getAccount();
         final MultiTenantAccount multiTenantAccount = (MultiTenantAccount) rootAccount;
         final String requestAuthority = tokenParameters.getAuthority();
-        final Authority authority = Authority.getAuthorityFromAuthorityUrl(requestAuthority);
+        final Authority authority = AuthorityCache.getAuthority(
+                requestAuthority,
+                Boolean.TRUE.equals(pcaConfig.getMultipleCloudsSupported())
+        );
 
         if (authority instanceof AzureActiveDirectoryB2CAuthority || authority instanceof CIAMAuthority) {
             // use home account - b2c and CIAM are not compatible with broker, so no need to construct
@@ -1715,11 +2292,7 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
             final boolean isUuid = isUuid(tenantId);
 
             if (!isUuid && !isHomeTenantAlias(tenantId)) {
-                tenantId = ((AzureActiveDirectoryAuthority) authority)
-                        .getAudience()
-                        .getTenantUuidForAlias(
-                                authority.getAuthorityURL().toString()
-                        );
+                tenantId = getTenantUuidForAlias(pcaConfig, aadAuthority);
             }
             // Set the tenant id obtained for the accountRecord
             accountRecord.setRealm(tenantId);
@@ -1780,6 +2353,31 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
     }
 
 
+    /**
+     * Resolves the tenant id of a named tenant authority, through the tenant alias cache if it
+     * is enabled.
+     */
+    private String getTenantUuidForAlias(@NonNull final PublicClientApplicationConfiguration pcaConfig,
+                                         @NonNull final AzureActiveDirectoryAuthority authority)
+            throws ServiceException, ClientException {
+        final String authorityUrl = authority.getAuthorityURL().toString();
+
+        if (!pcaConfig.isTenantAliasCacheEnabled()) {
+            return authority.getAudience().getTenantUuidForAlias(authorityUrl);
+        }
+
+        return TenantAliasCache.get(pcaConfig.getAppContext()).getTenantId(
+                authorityUrl,
+                new TenantAliasCache.Resolver() {
+                    @Override
+                    public String resolve() throws ServiceException, ClientException {
+                        return authority.getAudience().getTenantUuidForAlias(authorityUrl);
+                    }
+                },
+                getBackgroundExecutor()
+        );
+    }
+
     @Override
     public IAuthenticationResult acquireTokenSilent(
             @NonNull final AcquireTokenSilentParameters acquireTokenSilentParameters)
@@ -1796,6 +2394,11 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
             throw new IllegalArgumentException("Do not provide callback for synchronous methods");
         }
 
+        final IAuthenticationResult cachedResult = getAccessTokenFromMemoryCache(acquireTokenSilentParameters);
+        if (cachedResult != null) {
+            return withNewRequestTimings(cachedResult, publicApiId);
+        }
+
         final ResultFuture<AsyncResult<IAuthenticationResult>> future = new ResultFuture<>();
 
         acquireTokenSilentParameters.setCallback(new SilentAuthenticationCallback() {
@@ -1982,12 +2585,15 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
     protected CommandCallback getCommandCallback(
             @NonNull final SilentAuthenticationCallback authenticationCallback,
             @NonNull final TokenParameters tokenParameters) {
+        // Taken when the request starts, so that its result is not cached if tokens are
+        // invalidated while it runs.
+        final long popCacheGeneration = getPopAccessTokenCacheGeneration();
 
         return new CommandCallback<ILocalAuthenticationResult, BaseException>() {
 
             @Override
             public void onTaskCompleted(ILocalAuthenticationResult localAuthenticationResult) {
-                postAuthResult(localAuthenticationResult, tokenParameters, authenticationCallback);
+                postAuthResult(localAuthenticationResult, tokenParameters, authenticationCallback, popCacheGeneration);
             }
 
             @Override
@@ -1996,7 +2602,7 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
                 if (authenticationCallback == null) {
                     throw new IllegalStateException(NONNULL_CONSTANTS.CALLBACK + NONNULL_CONSTANTS.NULL_ERROR_SUFFIX);
                 } else {
-                    authenticationCallback.onError(msalException);
+                    postAuthError(msalException, tokenParameters, authenticationCallback);
                 }
             }
 
@@ -2027,6 +2633,7 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
                 // Convert tokenResult to an AuthenticationResult object
                 final IAuthenticationResult convertedResult = AuthenticationResultAdapter.adapt(
                         tokenResult);
+                invalidateInMemoryTokens(null);
                 callback.onTokenReceived(convertedResult);
             }
 
@@ -2046,19 +2653,22 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
 
     /**
      * Helper method to post authentication result.
+     *
+     * @param popCacheGeneration The generation of the PoP access token cache when the request
+     *                           started, see {@link #getPopAccessTokenCacheGeneration()}.
      */
     protected void postAuthResult(@NonNull final ILocalAuthenticationResult localAuthenticationResult,
                                   @NonNull final TokenParameters requestParameters,
-                                  @NonNull final SilentAuthenticationCallback authenticationCallback) {
+                                  @NonNull final SilentAuthenticationCallback authenticationCallback,
+                                  final long popCacheGeneration) {
 
         if (authenticationCallback == null) {
             throw new IllegalStateException(NONNULL_CONSTANTS.CALLBACK + NONNULL_CONSTANTS.NULL_ERROR_SUFFIX);
         }
 
         // Check if any of the requested scopes are declined by the server, if yes throw a MsalDeclinedScope exception
-        final List<String> declinedScopes = AuthenticationResultAdapter.getDeclinedScopes(
-                Arrays.asList(localAuthenticationResult.getScope()),
-                requestParameters.getScopes()
+        final List<String> declinedScopes = requestParameters.getScopeSet().minus(
+                ScopeSet.of(Arrays.asList(localAuthenticationResult.getScope()))
         );
 
         if (!declinedScopes.isEmpty()) {
@@ -2068,15 +2678,375 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
                             declinedScopes,
                             requestParameters
                     );
-            authenticationCallback.onError(declinedScopeException);
+            postAuthError(declinedScopeException, requestParameters, authenticationCallback);
         } else {
             IAuthenticationResult authenticationResult = AuthenticationResultAdapter.adapt(localAuthenticationResult);
+            updateAccessTokenMemoryCache(requestParameters, authenticationResult);
+            updatePopAccessTokenCache(requestParameters, authenticationResult, popCacheGeneration);
+            scheduleAccessTokenRefresh(requestParameters, authenticationResult);
             authenticationCallback.onSuccess(authenticationResult);
         }
     }
 
+    /**
+     * Helper method to post an exception.
+     */
+    void postAuthError(@NonNull final MsalException msalException,
+                       @NonNull final TokenParameters requestParameters,
+                       @NonNull final SilentAuthenticationCallback authenticationCallback) {
+        authenticationCallback.onError(msalException);
+    }
+
+    /**
+     * @return The timings of a new request, or null if request_timings_enabled is not set.
+     */
+    @Nullable
+    private RequestTimings startRequestTimings(@NonNull final String publicApiId) {
+        if (!mPublicClientConfiguration.isRequestTimingsEnabled()) {
+            return null;
+        }
+
+        final RequestTimings requestTimings = new RequestTimings(publicApiId);
+        requestTimings.mark(RequestTimings.Checkpoint.SUBMITTED);
+        return requestTimings;
+    }
+
+    static void markRequestTimings(@Nullable final RequestTimings requestTimings,
+                                   @NonNull final RequestTimings.Checkpoint checkpoint) {
+        if (requestTimings != null) {
+            requestTimings.mark(checkpoint);
+        }
+    }
+
+    /**
+     * Marks the end of the command before handing its outcome to the supplied callback.
+     */
+    static CommandCallback markingCommandCompleted(@NonNull final CommandCallback callback,
+                                                   @NonNull final RequestTimings requestTimings) {
+        return new CommandCallback<ILocalAuthenticationResult, BaseException>() {
+            @Override
+            public void onTaskCompleted(final ILocalAuthenticationResult localAuthenticationResult) {
+                requestTimings.mark(RequestTimings.Checkpoint.COMMAND_COMPLETED);
+                callback.onTaskCompleted(localAuthenticationResult);
+            }
+
+            @Override
+            public void onError(final BaseException exception) {
+                requestTimings.mark(RequestTimings.Checkpoint.COMMAND_COMPLETED);
+                callback.onError(exception);
+            }
+
+            @Override
+            public void onCancel() {
+                callback.onCancel();
+            }
+        };
+    }
+
+    /**
+     * Delivers the outcome of one silent request with its own timings attached, whether it was
+     * served from a cache, by its own command, or by the command of an identical request it was
+     * coalesced with.
+     */
+    static final class RequestTimingsCallback implements SilentAuthenticationCallback {
+
+        private final SilentAuthenticationCallback mCallback;
+
+        private final RequestTimings mRequestTimings;
+
+        RequestTimingsCallback(@NonNull final SilentAuthenticationCallback callback,
+                               @NonNull final RequestTimings requestTimings) {
+            mCallback = callback;
+            mRequestTimings = requestTimings;
+        }
+
+        @Override
+        public void onSuccess(final IAuthenticationResult authenticationResult) {
+            mRequestTimings.mark(RequestTimings.Checkpoint.DELIVERED);
+            mCallback.onSuccess(withRequestTimings(authenticationResult, mRequestTimings));
+            notifyRequestTimingsListener(mRequestTimings, true);
+        }
+
+        @Override
+        public void onError(final MsalException exception) {
+            // Coalesced requests share the exception, so the timings are passed next to it.
+            mRequestTimings.mark(RequestTimings.Checkpoint.DELIVERED);
+            mCallback.onError(exception, mRequestTimings);
+            notifyRequestTimingsListener(mRequestTimings, false);
+        }
+    }
+
+    /**
+     * Results may be shared between requests, e.g. through the in-memory access token cache, so
+     * the timings are attached to a copy of the result.
+     */
+    @NonNull
+    private static IAuthenticationResult withRequestTimings(@NonNull final IAuthenticationResult result,
+                                                           @NonNull final RequestTimings requestTimings) {
+        if (result instanceof AuthenticationResult) {
+            return ((AuthenticationResult) result).withRequestTimings(requestTimings);
+        }
+
+        return result;
+    }
+
+    /**
+     * Attaches the timings of a request answered inline from the in-memory cache. The listener
+     * is still notified on the main thread, like for every other request.
+     */
+    @NonNull
+    private IAuthenticationResult withNewRequestTimings(@NonNull final IAuthenticationResult cachedResult,
+                                                        @NonNull final String publicApiId) {
+        final RequestTimings requestTimings = startRequestTimings(publicApiId);
+        if (requestTimings == null) {
+            return cachedResult;
+        }
+
+        requestTimings.mark(RequestTimings.Checkpoint.MEMORY_CACHE_CHECKED);
+        requestTimings.mark(RequestTimings.Checkpoint.DELIVERED);
+        new Handler(Looper.getMainLooper()).post(new Runnable() {
+            @Override
+            public void run() {
+                notifyRequestTimingsListener(requestTimings, true);
+            }
+        });
+        return withRequestTimings(cachedResult, requestTimings);
+    }
+
+    private static void notifyRequestTimingsListener(@NonNull final RequestTimings requestTimings,
+                                                     final boolean succeeded) {
+        final String methodTag = TAG + ":notifyRequestTimingsListener";
+        final IRequestTimingsListener listener = sRequestTimingsListener;
+
+        if (listener == null) {
+            return;
+        }
+
+        try {
+            listener.onRequestCompleted(requestTimings, succeeded);
+        } catch (final RuntimeException e) {
+            Logger.warn(methodTag, "Request timings listener threw: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns a still-valid result previously returned for an equivalent silent request, or null
+     * if the in-memory cache is disabled, the request is not eligible, or there is no entry.
+     * Every silent request is looked up here first, so this also records the request with the
+     * refresh-ahead scheduler, which only keeps refreshing tokens the app still requests.
+     */
+    @Nullable
+    IAuthenticationResult getAccessTokenFromMemoryCache(@NonNull final AcquireTokenSilentParameters parameters) {
+        final String methodTag = TAG + ":getAccessTokenFromMemoryCache";
+
+        if (mAccessTokenRefreshScheduler != null) {
+            mAccessTokenRefreshScheduler.recordAccess(parameters);
+        }
+
+        if (parameters.getForceRefresh()) {
+            return null;
+        }
+
+        final String cacheKey = getAccessTokenMemoryCacheKey(parameters);
+        if (cacheKey == null) {
+            return null;
+        }
+
+        final IAuthenticationResult cachedResult = mAccessTokenMemoryCache.get(cacheKey);
+        if (cachedResult != null) {
+            Logger.verbose(methodTag, "Returning access token from in-memory cache.");
+        }
+
+        return cachedResult;
+    }
+
+    private void updateAccessTokenMemoryCache(@NonNull final TokenParameters requestParameters,
+                                              @NonNull final IAuthenticationResult authenticationResult) {
+        if (mAccessTokenMemoryCache == null) {
+            return;
+        }
+
+        if (requestParameters instanceof AcquireTokenSilentParameters) {
+            final String cacheKey = getAccessTokenMemoryCacheKey(requestParameters);
+            if (cacheKey != null) {
+                mAccessTokenMemoryCache.put(
+                        cacheKey,
+                        ((Account) requestParameters.getAccount()).getHomeAccountId(),
+                        authenticationResult
+                );
+            }
+        } else {
+            // Interactive requests may have changed the account or consented scopes.
+            mAccessTokenMemoryCache.clear();
+        }
+    }
+
+    /**
+     * Returns a result holding a SignedHttpRequest for the URL and method of the given PoP
+     * request, signed with a cached access token, or null if the PoP access token cache is
+     * disabled, the request is not eligible, or there is no entry. Must not be called on the
+     * main thread.
+     */
+    @Nullable
+    IAuthenticationResult getAccessTokenFromPopCache(@NonNull final AcquireTokenSilentParameters parameters) {
+        final String methodTag = TAG + ":getAccessTokenFromPopCache";
+
+        if (parameters.getForceRefresh()) {
+            return null;
+        }
+
+        final String cacheKey = getPopAccessTokenCacheKey(parameters);
+        if (cacheKey == null) {
+            return null;
+        }
+
+        final IAuthenticationResult cachedResult = mPopAccessTokenCache.get(
+                cacheKey,
+                (PoPAuthenticationScheme) parameters.getAuthenticationScheme()
+        );
+        if (cachedResult != null) {
+            Logger.verbose(methodTag, "Returning PoP access token from in-memory cache.");
+        }
+
+        return cachedResult;
+    }
+
+    private void updatePopAccessTokenCache(@NonNull final TokenParameters requestParameters,
+                                           @NonNull final IAuthenticationResult authenticationResult,
+                                           final long popCacheGeneration) {
+        if (mPopAccessTokenCache == null) {
+            return;
+        }
+
+        if (!(requestParameters instanceof AcquireTokenSilentParameters)) {
+            // Interactive requests may have changed the account or consented scopes.
+            mPopAccessTokenCache.clear();
+            return;
+        }
+
+        final String cacheKey = getPopAccessTokenCacheKey(requestParameters);
+        if (cacheKey == null || !(authenticationResult instanceof AuthenticationResult)) {
+            return;
+        }
+
+        final String homeAccountId = ((Account) requestParameters.getAccount()).getHomeAccountId();
+
+        // Checking which key the token is bound to reads the device key, so it is done off the
+        // main thread.
+        getBackgroundExecutor().execute(OtelContextExtension.wrap(new Runnable() {
+            @Override
+            public void run() {
+                mPopAccessTokenCache.put(
+                        cacheKey,
+                        homeAccountId,
+                        (AuthenticationResult) authenticationResult,
+                        popCacheGeneration
+                );
+            }
+        }));
+    }
+
+    /**
+     * @return The current generation of the PoP access token cache, or 0 if it is disabled.
+     */
+    long getPopAccessTokenCacheGeneration() {
+        return mPopAccessTokenCache == null ? 0 : mPopAccessTokenCache.getGeneration();
+    }
+
+    private void scheduleAccessTokenRefresh(@NonNull final TokenParameters requestParameters,
+                                            @NonNull final IAuthenticationResult authenticationResult) {
+        if (mAccessTokenRefreshScheduler != null
+                && requestParameters instanceof AcquireTokenSilentParameters) {
+            mAccessTokenRefreshScheduler.schedule(requestParameters, authenticationResult);
+        }
+    }
+
+    /**
+     * Drops in-memory access tokens and scheduled refreshes of the given account, or all of them
+     * if homeAccountId is null.
+     */
+    void invalidateInMemoryTokens(@Nullable final String homeAccountId) {
+        if (mAccessTokenRefreshScheduler != null) {
+            mAccessTokenRefreshScheduler.cancel(homeAccountId);
+        }
+
+        if (mAccessTokenMemoryCache != null) {
+            if (homeAccountId == null) {
+                mAccessTokenMemoryCache.clear();
+            } else {
+                mAccessTokenMemoryCache.remove(homeAccountId);
+            }
+        }
+
+        if (mPopAccessTokenCache != null) {
+            if (homeAccountId == null) {
+                mPopAccessTokenCache.clear();
+            } else {
+                mPopAccessTokenCache.remove(homeAccountId);
+            }
+        }
+    }
+
+    /**
+     * Computes the in-memory cache key for a request. Requests carrying claims or using PoP are
+     * never cached; requests without an account or authority go through the regular validation.
+     */
+    @Nullable
+    private String getAccessTokenMemoryCacheKey(@NonNull final TokenParameters parameters) {
+        if (mAccessTokenMemoryCache == null
+                || parameters.getClaimsRequest() != null
+                || parameters.getAuthenticationScheme() instanceof PoPAuthenticationScheme
+                || !(parameters.getAccount() instanceof Account)
+                || parameters.getScopes() == null
+                || parameters.getScopes().isEmpty()
+                || TextUtils.isEmpty(parameters.getAuthority())) {
+            return null;
+        }
+
+        return AccessTokenMemoryCache.createKey(
+                ((Account) parameters.getAccount()).getHomeAccountId(),
+                parameters.getAuthority(),
+                parameters.getScopeSet(),
+                parameters.getAuthenticationScheme() == null
+                        ? null
+                        : parameters.getAuthenticationScheme().getName()
+        );
+    }
+
+    /**
+     * Computes the PoP access token cache key for a request. Only PoP requests without claims are
+     * cached; the URL, method and nonce of the request are not part of the key, as they only
+     * affect the SignedHttpRequest signed for it.
+     */
+    @Nullable
+    private String getPopAccessTokenCacheKey(@NonNull final TokenParameters parameters) {
+        if (mPopAccessTokenCache == null
+                || parameters.getClaimsRequest() != null
+                || !(parameters.getAuthenticationScheme() instanceof PoPAuthenticationScheme)
+                || !(parameters.getAccount() instanceof Account)
+                || parameters.getScopes() == null
+                || parameters.getScopes().isEmpty()
+                || TextUtils.isEmpty(parameters.getAuthority())) {
+            return null;
+        }
+
+        return AccessTokenMemoryCache.createKey(
+                ((Account) parameters.getAccount()).getHomeAccountId(),
+                parameters.getAuthority(),
+                parameters.getScopeSet(),
+                parameters.getAuthenticationScheme().getName()
+        );
+    }
+
+    /**
+     * @return The single-flight layer of silent requests, exposing how many requests were coalesced.
+     */
+    SilentTokenRequestCoalescer getSilentTokenRequestCoalescer() {
+        return mSilentTokenRequestCoalescer;
+    }
+
     private OAuth2TokenCache<?, ?, ?> getOAuth2TokenCache() {
-        return MsalOAuth2TokenCache.create(AndroidPlatformComponentsFactory.createFromContext(mPublicClientConfiguration.getAppContext()));
+        return MsalOAuth2TokenCache.create(ApplicationRequestContext.get(mPublicClientConfiguration).getPlatformComponents());
     }
 
     protected class AccountMatcher {
@@ -2209,6 +3179,11 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
                 }
         );
 
+        final IAuthenticationResult cachedResult = getAccessTokenFromMemoryCache(acquireTokenSilentParameters);
+        if (cachedResult != null) {
+            return cachedResult;
+        }
+
         acquireTokenSilentAsyncInternal(acquireTokenSilentParameters, publicApiId);
 
         try {
@@ -2228,7 +3203,19 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
         }
     }
 
+    /**
+     * Migrates the ADAL tokens of this app, at most once per process; see {@link AdalMigrationLatch}.
+     */
     void performMigration(@NonNull final TokenMigrationCallback callback) {
+        AdalMigrationLatch.runOnce(new AdalMigrationLatch.Migration() {
+            @Override
+            public void run(@NonNull final TokenMigrationCallback migrationCallback) {
+                migrateAdalTokens(migrationCallback);
+            }
+        }, callback);
+    }
+
+    private void migrateAdalTokens(@NonNull final TokenMigrationCallback callback) {
         final Map<String, String> redirects = new HashMap<>();
         redirects.put(
                 mPublicClientConfiguration.getClientId(), // Our client id
@@ -2266,7 +3253,73 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
     }
 
     private static void runOnBackground(@NonNull final Runnable runnable) {
-        new Thread(runnable).start();
+        sDefaultBackgroundExecutor.execute(runnable);
+    }
+
+    @NonNull
+    private static BackgroundExecutor createBackgroundExecutor(@NonNull final PublicClientApplicationConfiguration config) {
+        final String methodTag = TAG + ":createBackgroundExecutor";
+
+        final int maxThreads = config.getBackgroundExecutorMaxThreads() == null
+                ? BackgroundExecutor.DEFAULT_MAX_THREADS
+                : config.getBackgroundExecutorMaxThreads();
+        final int queueCapacity = config.getBackgroundExecutorQueueCapacity() == null
+                ? BackgroundExecutor.DEFAULT_QUEUE_CAPACITY
+                : config.getBackgroundExecutorQueueCapacity();
+
+        if (maxThreads == BackgroundExecutor.DEFAULT_MAX_THREADS
+                && queueCapacity == BackgroundExecutor.DEFAULT_QUEUE_CAPACITY) {
+            return sDefaultBackgroundExecutor;
+        }
+
+        if (maxThreads <= 0 || queueCapacity <= 0) {
+            Logger.warn(methodTag, "Invalid background executor settings, using the default executor.");
+            return sDefaultBackgroundExecutor;
+        }
+
+        return new BackgroundExecutor(maxThreads, queueCapacity);
+    }
+
+    @NonNull
+    private Executor getBackgroundExecutor() {
+        final Executor configuredExecutor = mPublicClientConfiguration.getBackgroundExecutor();
+        return configuredExecutor != null ? configuredExecutor : mBackgroundExecutor;
+    }
+
+    /**
+     * Returns the number of background tasks waiting for a thread.
+     *
+     * @return The queue depth, or -1 if it is unknown because a caller-supplied
+     * {@link Executor} which is not a {@link ThreadPoolExecutor} is used.
+     */
+    public int getBackgroundQueueDepth() {
+        final Executor configuredExecutor = mPublicClientConfiguration.getBackgroundExecutor();
+
+        if (configuredExecutor == null) {
+            return mBackgroundExecutor.getQueueDepth();
+        } else if (configuredExecutor instanceof ThreadPoolExecutor) {
+            return ((ThreadPoolExecutor) configuredExecutor).getQueue().size();
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the approximate number of threads actively running background tasks.
+     *
+     * @return The active thread count, or -1 if it is unknown because a caller-supplied
+     * {@link Executor} which is not a {@link ThreadPoolExecutor} is used.
+     */
+    public int getBackgroundActiveThreadCount() {
+        final Executor configuredExecutor = mPublicClientConfiguration.getBackgroundExecutor();
+
+        if (configuredExecutor == null) {
+            return mBackgroundExecutor.getActiveThreadCount();
+        } else if (configuredExecutor instanceof ThreadPoolExecutor) {
+            return ((ThreadPoolExecutor) configuredExecutor).getActiveCount();
+        }
+
+        return -1;
     }
 
     private static boolean isAccountHomeTenant(@Nullable final Map<String, ?> claims,
@@ -2302,7 +3355,7 @@ public class PublicClientApplication implements IPublicClientApplication, IToken
     @Nullable
     public String getActiveBrokerPackageName(@NonNull final Context context) {
         final BrokerData activeBroker = BrokerDiscoveryClientFactory.getInstanceForClientSdk(context,
-                        AndroidPlatformComponentsFactory.createFromContext(context))
+                        ApplicationRequestContext.get(context).getPlatformComponents())
                 .getActiveBroker(false);
 
         return activeBroker != null ? activeBroker.getPackageName() : null;
@@ -35,6 +35,7 @@ import android.text.TextUtils;
 import android.util.Base64;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 
 import com.google.gson.annotations.SerializedName;
@@ -60,26 +61,40 @@ import com.microsoft.identity.common.java.ui.BrowserDescriptor;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import javax.crypto.SecretKey;
 
+import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.ACCESS_TOKEN_MEMORY_CACHE_ENABLED;
+import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.ACCOUNTS_SNAPSHOT_ENABLED;
+import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.ACCOUNT_INDEX_ENABLED;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.ACCOUNT_MODE;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.AUTHORITIES;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.AUTHORIZATION_IN_CURRENT_TASK;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.AUTHORIZATION_USER_AGENT;
+import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.BACKGROUND_EXECUTOR_MAX_THREADS;
+import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.BACKGROUND_EXECUTOR_QUEUE_CAPACITY;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.BROWSER_SAFE_LIST;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.CLIENT_CAPABILITIES;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.CLIENT_ID;
+import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.CONFIGURATION_SNAPSHOT_ENABLED;
+import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.DEVICE_MODE_CACHE_TTL_SECONDS;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.ENVIRONMENT;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.HANDLE_TASKS_WITH_NULL_TASKAFFINITY;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.HTTP;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.LOGGING;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.MULTIPLE_CLOUDS_SUPPORTED;
+import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.POP_ACCESS_TOKEN_CACHE_ENABLED;
+import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.POP_SHR_REUSE_WINDOW_SECONDS;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.POWER_OPT_CHECK_FOR_NETWORK_REQUEST_ENABLED;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.PREFERRED_BROWSER;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.REDIRECT_URI;
+import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.REQUEST_TIMINGS_ENABLED;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.REQUIRED_BROKER_PROTOCOL_VERSION;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.TELEMETRY;
+import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.TENANT_ALIAS_CACHE_ENABLED;
+import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.TOKEN_REFRESH_AHEAD_ENABLED;
+import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.TOKEN_REFRESH_AHEAD_LIFETIME_FRACTION;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.USE_BROKER;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.WEBAUTHN_CAPABLE;
 import static com.microsoft.identity.client.PublicClientApplicationConfiguration.SerializedNames.WEB_VIEW_ZOOM_CONTROLS_ENABLED;
@@ -114,6 +129,19 @@ public class PublicClientApplicationConfiguration {
         static final String HANDLE_TASKS_WITH_NULL_TASKAFFINITY = "handle_null_taskaffinity";
         static final String AUTHORIZATION_IN_CURRENT_TASK = "authorization_in_current_task";
         static final String WEBAUTHN_CAPABLE = "webauthn_capable";
+        static final String ACCESS_TOKEN_MEMORY_CACHE_ENABLED = "access_token_memory_cache_enabled";
+        static final String TOKEN_REFRESH_AHEAD_ENABLED = "token_refresh_ahead_enabled";
+        static final String TOKEN_REFRESH_AHEAD_LIFETIME_FRACTION = "token_refresh_ahead_lifetime_fraction";
+        static final String BACKGROUND_EXECUTOR_MAX_THREADS = "background_executor_max_threads";
+        static final String BACKGROUND_EXECUTOR_QUEUE_CAPACITY = "background_executor_queue_capacity";
+        static final String ACCOUNT_INDEX_ENABLED = "account_index_enabled";
+        static final String ACCOUNTS_SNAPSHOT_ENABLED = "accounts_snapshot_enabled";
+        static final String CONFIGURATION_SNAPSHOT_ENABLED = "configuration_snapshot_enabled";
+        static final String DEVICE_MODE_CACHE_TTL_SECONDS = "device_mode_cache_ttl_seconds";
+        static final String TENANT_ALIAS_CACHE_ENABLED = "tenant_alias_cache_enabled";
+        static final String REQUEST_TIMINGS_ENABLED = "request_timings_enabled";
+        static final String POP_ACCESS_TOKEN_CACHE_ENABLED = "pop_access_token_cache_enabled";
+        static final String POP_SHR_REUSE_WINDOW_SECONDS = "pop_shr_reuse_window_seconds";
     }
 
     @SerializedName(CLIENT_ID)
@@ -187,6 +215,114 @@ public class PublicClientApplicationConfiguration {
     @SerializedName(WEBAUTHN_CAPABLE)
     private Boolean webauthnCapable;
 
+    /**
+     * When set to true, access tokens returned by silent requests are kept in memory and
+     * repeated silent requests for the same account, authority and scopes are answered without
+     * dispatching a command, until the token is about to expire.
+     */
+    @SerializedName(ACCESS_TOKEN_MEMORY_CACHE_ENABLED)
+    private Boolean accessTokenMemoryCacheEnabled;
+
+    /**
+     * When set to true, access tokens returned by silent requests are refreshed in the background
+     * once {@link #tokenRefreshAheadLifetimeFraction} of their remaining lifetime has elapsed.
+     */
+    @SerializedName(TOKEN_REFRESH_AHEAD_ENABLED)
+    private Boolean tokenRefreshAheadEnabled;
+
+    /**
+     * Fraction (between 0 and 1, exclusive) of an access token's remaining lifetime after which
+     * it is refreshed in the background, if {@link #tokenRefreshAheadEnabled} is set.
+     */
+    @SerializedName(TOKEN_REFRESH_AHEAD_LIFETIME_FRACTION)
+    private Double tokenRefreshAheadLifetimeFraction;
+
+    /**
+     * Maximum number of threads used for the background work of the PublicClientApplication.
+     */
+    @SerializedName(BACKGROUND_EXECUTOR_MAX_THREADS)
+    private Integer backgroundExecutorMaxThreads;
+
+    /**
+     * Maximum number of background tasks queued while all threads are busy. Once full, tasks are
+     * run on the submitting thread (or on an extra thread if submitted from the main thread).
+     */
+    @SerializedName(BACKGROUND_EXECUTOR_QUEUE_CAPACITY)
+    private Integer backgroundExecutorQueueCapacity;
+
+    /**
+     * When set to true, accounts loaded by a multiple account PublicClientApplication are indexed
+     * in memory so that getAccount(identifier) can be answered without scanning the cache.
+     * Only enable this if accounts are not added or removed outside of this application.
+     */
+    @SerializedName(ACCOUNT_INDEX_ENABLED)
+    private Boolean accountIndexEnabled;
+
+    /**
+     * When set to true, a multiple account PublicClientApplication answers getAccounts() from the
+     * snapshot of its last account load until it saves or removes tokens.
+     * Only enable this if accounts are not added or removed outside of this application.
+     */
+    @SerializedName(ACCOUNTS_SNAPSHOT_ENABLED)
+    private Boolean accountsSnapshotEnabled;
+
+    /**
+     * When set to true, the outcome of the manifest validation is persisted and reused on later
+     * cold starts of the same app version with the same configuration. This includes the check
+     * that no other app listens for the redirect URI, which then only runs once per app version.
+     */
+    @SerializedName(CONFIGURATION_SNAPSHOT_ENABLED)
+    private Boolean configurationSnapshotEnabled;
+
+    /**
+     * How long, in seconds, the shared device mode read from the broker is cached. While cached,
+     * PublicClientApplications are created right away and the mode is revalidated in the
+     * background. 0 disables the cache.
+     */
+    @SerializedName(DEVICE_MODE_CACHE_TTL_SECONDS)
+    private Integer deviceModeCacheTtlSeconds;
+
+    /**
+     * When set to true, the tenant ids resolved for named tenant authorities (such as
+     * contoso.onmicrosoft.com) are cached across PublicClientApplications and restarts, and
+     * revalidated in the background.
+     */
+    @SerializedName(TENANT_ALIAS_CACHE_ENABLED)
+    private Boolean tenantAliasCacheEnabled;
+
+    /**
+     * When set to true, silent token requests record a {@link RequestTimings} breakdown, which is
+     * attached to their result, passed next to their exception and passed to the
+     * {@link IRequestTimingsListener} set on {@link PublicClientApplication}.
+     */
+    @SerializedName(REQUEST_TIMINGS_ENABLED)
+    private Boolean requestTimingsEnabled;
+
+    /**
+     * When set to true, the access tokens of silent PoP requests are kept in memory, and later
+     * silent requests for the same account, authority and scopes are answered by signing a new
+     * SignedHttpRequest for their URL and method with the device key, without a command.
+     */
+    @SerializedName(POP_ACCESS_TOKEN_CACHE_ENABLED)
+    private Boolean popAccessTokenCacheEnabled;
+
+    /**
+     * Number of seconds during which a SignedHttpRequest signed from the PoP access token cache is
+     * returned again for the same URL, method, nonce and client claims. 0 signs every request.
+     */
+    @SerializedName(POP_SHR_REUSE_WINDOW_SECONDS)
+    private Integer popShrReuseWindowSeconds;
+
+    /**
+     * Identifies the app version and configuration resources this configuration was loaded from.
+     */
+    transient private String mConfigurationSnapshotKey;
+
+    /**
+     * Caller-supplied executor which, if set, replaces the bounded background executor.
+     */
+    transient private Executor mBackgroundExecutor;
+
     transient private OAuth2TokenCache mOAuth2TokenCache;
 
     transient private Context mAppContext;
@@ -421,6 +557,87 @@ public class PublicClientApplicationConfiguration {
         return Boolean.TRUE.equals(webauthnCapable);
     }
 
+    public boolean isAccessTokenMemoryCacheEnabled() {
+        return Boolean.TRUE.equals(accessTokenMemoryCacheEnabled);
+    }
+
+    public boolean isTokenRefreshAheadEnabled() {
+        return Boolean.TRUE.equals(tokenRefreshAheadEnabled);
+    }
+
+    public Double getTokenRefreshAheadLifetimeFraction() {
+        return tokenRefreshAheadLifetimeFraction;
+    }
+
+    public boolean isAccountIndexEnabled() {
+        return Boolean.TRUE.equals(accountIndexEnabled);
+    }
+
+    public boolean isAccountsSnapshotEnabled() {
+        return Boolean.TRUE.equals(accountsSnapshotEnabled);
+    }
+
+    public boolean isConfigurationSnapshotEnabled() {
+        return Boolean.TRUE.equals(configurationSnapshotEnabled);
+    }
+
+    @Nullable
+    String getConfigurationSnapshotKey() {
+        return mConfigurationSnapshotKey;
+    }
+
+    void setConfigurationSnapshotKey(@Nullable final String configurationSnapshotKey) {
+        mConfigurationSnapshotKey = configurationSnapshotKey;
+    }
+
+    public boolean isTenantAliasCacheEnabled() {
+        return Boolean.TRUE.equals(tenantAliasCacheEnabled);
+    }
+
+    public boolean isRequestTimingsEnabled() {
+        return Boolean.TRUE.equals(requestTimingsEnabled);
+    }
+
+    public boolean isPopAccessTokenCacheEnabled() {
+        return Boolean.TRUE.equals(popAccessTokenCacheEnabled);
+    }
+
+    public Integer getPopShrReuseWindowSeconds() {
+        return popShrReuseWindowSeconds;
+    }
+
+    public Integer getDeviceModeCacheTtlSeconds() {
+        return deviceModeCacheTtlSeconds;
+    }
+
+    public Integer getBackgroundExecutorMaxThreads() {
+        return backgroundExecutorMaxThreads;
+    }
+
+    public Integer getBackgroundExecutorQueueCapacity() {
+        return backgroundExecutorQueueCapacity;
+    }
+
+    /**
+     * Gets the caller-supplied {@link Executor} used for background work, if any.
+     *
+     * @return The Executor, or null if the bounded default executor is used.
+     */
+    @Nullable
+    public Executor getBackgroundExecutor() {
+        return mBackgroundExecutor;
+    }
+
+    /**
+     * Sets an {@link Executor} to run the background work of the PublicClientApplication
+     * (e.g. the preparation of token requests) instead of its bounded default executor.
+     *
+     * @param backgroundExecutor The Executor to use, or null to use the default one.
+     */
+    public void setBackgroundExecutor(@Nullable final Executor backgroundExecutor) {
+        mBackgroundExecutor = backgroundExecutor;
+    }
+
     public Authority getDefaultAuthority() {
         if (mAuthorities != null) {
             if (mAuthorities.size() > 1) {
@@ -506,6 +723,20 @@ public class PublicClientApplicationConfiguration {
         this.handleNullTaskAffinity = config.handleNullTaskAffinity == null ? this.handleNullTaskAffinity : config.handleNullTaskAffinity;
         this.isAuthorizationInCurrentTask = config.isAuthorizationInCurrentTask == null ? this.isAuthorizationInCurrentTask : config.isAuthorizationInCurrentTask;
         this.webauthnCapable = config.webauthnCapable == null ? this.webauthnCapable : config.webauthnCapable;
+        this.accessTokenMemoryCacheEnabled = config.accessTokenMemoryCacheEnabled == null ? this.accessTokenMemoryCacheEnabled : config.accessTokenMemoryCacheEnabled;
+        this.tokenRefreshAheadEnabled = config.tokenRefreshAheadEnabled == null ? this.tokenRefreshAheadEnabled : config.tokenRefreshAheadEnabled;
+        this.tokenRefreshAheadLifetimeFraction = config.tokenRefreshAheadLifetimeFraction == null ? this.tokenRefreshAheadLifetimeFraction : config.tokenRefreshAheadLifetimeFraction;
+        this.backgroundExecutorMaxThreads = config.backgroundExecutorMaxThreads == null ? this.backgroundExecutorMaxThreads : config.backgroundExecutorMaxThreads;
+        this.backgroundExecutorQueueCapacity = config.backgroundExecutorQueueCapacity == null ? this.backgroundExecutorQueueCapacity : config.backgroundExecutorQueueCapacity;
+        this.accountIndexEnabled = config.accountIndexEnabled == null ? this.accountIndexEnabled : config.accountIndexEnabled;
+        this.accountsSnapshotEnabled = config.accountsSnapshotEnabled == null ? this.accountsSnapshotEnabled : config.accountsSnapshotEnabled;
+        this.configurationSnapshotEnabled = config.configurationSnapshotEnabled == null ? this.configurationSnapshotEnabled : config.configurationSnapshotEnabled;
+        this.deviceModeCacheTtlSeconds = config.deviceModeCacheTtlSeconds == null ? this.deviceModeCacheTtlSeconds : config.deviceModeCacheTtlSeconds;
+        this.tenantAliasCacheEnabled = config.tenantAliasCacheEnabled == null ? this.tenantAliasCacheEnabled : config.tenantAliasCacheEnabled;
+        this.requestTimingsEnabled = config.requestTimingsEnabled == null ? this.requestTimingsEnabled : config.requestTimingsEnabled;
+        this.popAccessTokenCacheEnabled = config.popAccessTokenCacheEnabled == null ? this.popAccessTokenCacheEnabled : config.popAccessTokenCacheEnabled;
+        this.popShrReuseWindowSeconds = config.popShrReuseWindowSeconds == null ? this.popShrReuseWindowSeconds : config.popShrReuseWindowSeconds;
+        this.mBackgroundExecutor = config.mBackgroundExecutor == null ? this.mBackgroundExecutor : config.mBackgroundExecutor;
     }
 
     void validateConfiguration() {
@@ -680,9 +911,46 @@ public class PublicClientApplicationConfiguration {
         return hasActivity;
     }
 
-    @SuppressWarnings("PMD")
+    /**
+     * Same as {@link #checkIntentFilterAddedToAppManifestForBrokerFlow()}, but reuses the outcome
+     * of the broker redirect URI validation persisted by an earlier cold start if configuration
+     * snapshots are enabled. That outcome only depends on this app's version and configuration,
+     * which key the snapshot.
+     */
+    void checkAppManifest() throws MsalClientException {
+        final String methodTag = TAG + ":checkAppManifest";
+
+        // Other apps may have started listening for the redirect URI since the snapshot was
+        // written, so the redirect activity is always checked.
+        checkBrowserTabRedirectActivity();
+
+        if (!isConfigurationSnapshotEnabled() || mConfigurationSnapshotKey == null) {
+            checkBrokerRedirectUri();
+            return;
+        }
+
+        final ConfigurationSnapshot snapshot = ConfigurationSnapshot.load(mAppContext, mConfigurationSnapshotKey);
+
+        if (snapshot != null) {
+            Logger.verbose(methodTag, "Reusing the validated configuration snapshot.");
+            mUseBroker = snapshot.getUseBroker();
+            return;
+        }
+
+        checkBrokerRedirectUri();
+        ConfigurationSnapshot.save(mAppContext, mConfigurationSnapshotKey, mUseBroker);
+    }
+
     public void checkIntentFilterAddedToAppManifestForBrokerFlow() throws MsalClientException {
-        final String methodTag = TAG + ":checkIntentFilterAddedToAppManifestForBrokerFlow";
+        checkBrowserTabRedirectActivity();
+        checkBrokerRedirectUri();
+    }
+
+    /**
+     * Ensures that the redirect activity is declared, and that no other app listens for the
+     * redirect URI.
+     */
+    private void checkBrowserTabRedirectActivity() throws MsalClientException {
         if ((getAuthorizationAgent() == AuthorizationAgent.DEFAULT
                 || getAuthorizationAgent() == AuthorizationAgent.BROWSER)) {
 
@@ -719,6 +987,15 @@ public class PublicClientApplicationConfiguration {
                                 "</activity>" + "\n");
             }
         }
+    }
+
+    /**
+     * Disables brokered authentication if the redirect URI is not a broker one, and otherwise
+     * verifies it against the app's signature.
+     */
+    @SuppressWarnings("PMD")
+    private void checkBrokerRedirectUri() throws MsalClientException {
+        final String methodTag = TAG + ":checkBrokerRedirectUri";
 
         if (!mUseBroker) {
             return;
@@ -23,6 +23,7 @@
 package com.microsoft.identity.client;
 
 import android.content.Context;
+import android.util.Base64;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -31,8 +32,8 @@ import androidx.annotation.WorkerThread;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.microsoft.identity.client.internal.ApplicationRequestContext;
 import com.microsoft.identity.client.internal.configuration.LogLevelDeserializer;
-import com.microsoft.identity.common.components.AndroidPlatformComponentsFactory;
 import com.microsoft.identity.common.java.authorities.Authority;
 import com.microsoft.identity.common.java.authorities.AuthorityDeserializer;
 import com.microsoft.identity.common.java.authorities.AzureActiveDirectoryAudience;
@@ -47,12 +48,33 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
 
 import static com.microsoft.identity.client.internal.MsalUtils.validateNonNullArgument;
 
 public class PublicClientApplicationConfigurationFactory {
     private static final String TAG = PublicClientApplicationConfigurationFactory.class.getSimpleName();
 
+    /**
+     * Shared, as Gson instances are thread-safe and cache the type adapters they resolve.
+     */
+    private static final Gson CONFIGURATION_GSON = new GsonBuilder()
+            .registerTypeAdapter(
+                    Authority.class,
+                    new AuthorityDeserializer()
+            )
+            .registerTypeAdapter(
+                    AzureActiveDirectoryAudience.class,
+                    new AzureActiveDirectoryAudienceDeserializer()
+            )
+            .registerTypeAdapter(
+                    com.microsoft.identity.client.Logger.LogLevel.class,
+                    new LogLevelDeserializer()
+            )
+            .create();
+
     /**
      * Initializes a default PublicClientApplicationConfiguration object.
      **/
@@ -68,7 +90,7 @@ public class PublicClientApplicationConfigurationFactory {
     @WorkerThread
     public static PublicClientApplicationConfiguration initializeConfiguration(@NonNull final Context context,
                                                                                final int configResourceId) {
-        return initializeConfigurationInternal(context, loadConfiguration(context, configResourceId));
+        return initializeConfigurationInternal(context, readConfiguration(context, configResourceId));
     }
 
     /**
@@ -79,17 +101,21 @@ public class PublicClientApplicationConfigurationFactory {
     public static PublicClientApplicationConfiguration initializeConfiguration(@NonNull final Context context,
                                                                                @NonNull final File configFile) {
         validateNonNullArgument(configFile, "configFile");
-        return initializeConfigurationInternal(context, loadConfiguration(configFile));
+        return initializeConfigurationInternal(context, readConfiguration(configFile));
     }
 
     @WorkerThread
     private static PublicClientApplicationConfiguration initializeConfigurationInternal(@NonNull final Context context,
-                                                                                        @Nullable final PublicClientApplicationConfiguration developerConfig) {
+                                                                                        @Nullable final byte[] developerConfig) {
+        final String methodTag = TAG + ":initializeConfigurationInternal";
+        final long startNanos = System.nanoTime();
+
         validateNonNullArgument(context, "context");
 
-        final PublicClientApplicationConfiguration config = loadDefaultConfiguration(context);
+        final byte[] defaultConfig = readConfiguration(context, R.raw.msal_default_config);
+        final PublicClientApplicationConfiguration config = loadDefaultConfiguration(context, defaultConfig);
         if (developerConfig != null) {
-            config.mergeConfiguration(developerConfig);
+            config.mergeConfiguration(parseConfiguration(developerConfig));
             config.validateConfiguration();
         }
 
@@ -97,15 +123,26 @@ public class PublicClientApplicationConfigurationFactory {
         final LibraryConfiguration libraryConfiguration = LibraryConfiguration.builder().authorizationInCurrentTask((config.authorizationInCurrentTask())).build();
         LibraryConfiguration.intializeLibraryConfiguration(libraryConfiguration);
 
-        config.setOAuth2TokenCache(MsalOAuth2TokenCache.create(AndroidPlatformComponentsFactory.createFromContext(context)));
+        config.setOAuth2TokenCache(MsalOAuth2TokenCache.create(ApplicationRequestContext.get(context).getPlatformComponents()));
+
+        if (config.isConfigurationSnapshotEnabled()) {
+            config.setConfigurationSnapshotKey(
+                    getConfigurationSnapshotKey(context, defaultConfig, developerConfig)
+            );
+        }
+
+        Logger.info(methodTag, "Configuration initialized in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) + " ms");
+
         return config;
     }
 
     @WorkerThread
-    private static PublicClientApplicationConfiguration loadDefaultConfiguration(@NonNull final Context context) {
+    private static PublicClientApplicationConfiguration loadDefaultConfiguration(@NonNull final Context context,
+                                                                                 @NonNull final byte[] defaultConfig) {
         final String methodTag = TAG + ":loadDefaultConfiguration";
         Logger.verbose(methodTag, "Loading default configuration");
-        final PublicClientApplicationConfiguration config = loadConfiguration(context, R.raw.msal_default_config);
+        final PublicClientApplicationConfiguration config = parseConfiguration(defaultConfig);
         config.setAppContext(context);
 
         return config;
@@ -115,25 +152,36 @@ public class PublicClientApplicationConfigurationFactory {
     @WorkerThread
     static PublicClientApplicationConfiguration loadConfiguration(@NonNull final Context context,
                                                                   final int configResourceId) {
-        final InputStream configStream = context.getResources().openRawResource(configResourceId);
-        boolean useDefaultConfigResourceId = configResourceId == R.raw.msal_default_config;
-        return loadConfiguration(configStream, useDefaultConfigResourceId);
+        return parseConfiguration(readConfiguration(context, configResourceId));
     }
 
     @VisibleForTesting
     @WorkerThread
     static PublicClientApplicationConfiguration loadConfiguration(@NonNull final File configFile) {
+        return parseConfiguration(readConfiguration(configFile));
+    }
+
+    @WorkerThread
+    private static byte[] readConfiguration(@NonNull final Context context,
+                                            final int configResourceId) {
+        final InputStream configStream = context.getResources().openRawResource(configResourceId);
+        boolean useDefaultConfigResourceId = configResourceId == R.raw.msal_default_config;
+        return readConfiguration(configStream, useDefaultConfigResourceId);
+    }
+
+    @WorkerThread
+    private static byte[] readConfiguration(@NonNull final File configFile) {
         try {
-            return loadConfiguration(new FileInputStream(configFile), false);
+            return readConfiguration(new FileInputStream(configFile), false);
         } catch (FileNotFoundException e) {
             throw new IllegalArgumentException("Provided configuration file path=" + configFile.getPath() + " not found.");
         }
     }
 
     @WorkerThread
-    private static PublicClientApplicationConfiguration loadConfiguration(final @NonNull InputStream configStream,
-                                                                          final boolean isDefaultConfiguration) {
-        final String methodTag = TAG + ":loadConfiguration";
+    private static byte[] readConfiguration(final @NonNull InputStream configStream,
+                                            final boolean isDefaultConfiguration) {
+        final String methodTag = TAG + ":readConfiguration";
         byte[] buffer;
 
         try {
@@ -163,11 +211,14 @@ public class PublicClientApplicationConfigurationFactory {
             }
         }
 
+        return buffer;
+    }
+
+    private static PublicClientApplicationConfiguration parseConfiguration(@NonNull final byte[] buffer) {
         final String config = new String(buffer);
-        final Gson gson = getGsonForLoadingConfiguration();
 
         try {
-            return gson.fromJson(config, PublicClientApplicationConfiguration.class);
+            return CONFIGURATION_GSON.fromJson(config, PublicClientApplicationConfiguration.class);
         } catch (final Exception e) {
             if (e instanceof InterruptedException) {
                 Thread.currentThread().interrupt();
@@ -176,20 +227,33 @@ public class PublicClientApplicationConfigurationFactory {
         }
     }
 
-    private static Gson getGsonForLoadingConfiguration() {
-        return new GsonBuilder()
-                .registerTypeAdapter(
-                        Authority.class,
-                        new AuthorityDeserializer()
-                )
-                .registerTypeAdapter(
-                        AzureActiveDirectoryAudience.class,
-                        new AzureActiveDirectoryAudienceDeserializer()
-                )
-                .registerTypeAdapter(
-                        com.microsoft.identity.client.Logger.LogLevel.class,
-                        new LogLevelDeserializer()
-                )
-                .create();
+    /**
+     * Builds the key of the configuration snapshot: the app version code and a hash of the
+     * default and developer configurations, so that any change to either invalidates it.
+     */
+    @Nullable
+    private static String getConfigurationSnapshotKey(@NonNull final Context context,
+                                                      @NonNull final byte[] defaultConfig,
+                                                      @Nullable final byte[] developerConfig) {
+        final String methodTag = TAG + ":getConfigurationSnapshotKey";
+        final long versionCode = ApplicationRequestContext.get(context).getApplicationVersionCode();
+
+        if (versionCode == ApplicationRequestContext.UNKNOWN_VERSION_CODE) {
+            return null;
+        }
+
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(defaultConfig);
+
+            if (developerConfig != null) {
+                digest.update(developerConfig);
+            }
+
+            return versionCode + ":" + Base64.encodeToString(digest.digest(), Base64.NO_WRAP);
+        } catch (final NoSuchAlgorithmException e) {
+            Logger.warn(methodTag, "Unable to hash the configuration: " + e.getMessage());
+            return null;
+        }
     }
 }
@@ -0,0 +1,247 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timing record of a single token request, opted into with the request_timings_enabled
+ * configuration value.
+ * <p>
+ * Each {@link Checkpoint} is stamped with {@link System#nanoTime()} when the request reaches it,
+ * so timestamps are only meaningful relative to each other. A checkpoint the request did not go
+ * through (e.g. because it was served by the in-memory access token cache, or failed early) has
+ * no timestamp, and the phases ending or starting at it have no duration.
+ */
+public final class RequestTimings {
+
+    /**
+     * The points a token request goes through, in order.
+     */
+    public enum Checkpoint {
+        /**
+         * The request was handed to MSAL.
+         */
+        SUBMITTED,
+
+        /**
+         * The in-memory access token cache was looked up.
+         */
+        MEMORY_CACHE_CHECKED,
+
+        /**
+         * The request started running on the background executor.
+         */
+        EXECUTION_STARTED,
+
+        /**
+         * The account record the request is for was selected.
+         */
+        ACCOUNT_SELECTED,
+
+        /**
+         * The request was adapted to command parameters.
+         */
+        PARAMETERS_ADAPTED,
+
+        /**
+         * The command was created and is being handed to the command dispatcher.
+         */
+        COMMAND_DISPATCHED,
+
+        /**
+         * The command dispatcher returned the result of the command.
+         */
+        COMMAND_COMPLETED,
+
+        /**
+         * The result was about to be delivered to the callback of the app.
+         */
+        DELIVERED
+    }
+
+    /**
+     * The phases of a token request, each between two {@link Checkpoint}s.
+     */
+    public enum Phase {
+        /**
+         * Lookup in the in-memory access token cache.
+         */
+        MEMORY_CACHE_LOOKUP(Checkpoint.SUBMITTED, Checkpoint.MEMORY_CACHE_CHECKED),
+
+        /**
+         * Wait for a thread of the background executor.
+         */
+        QUEUE_WAIT(Checkpoint.MEMORY_CACHE_CHECKED, Checkpoint.EXECUTION_STARTED),
+
+        /**
+         * Validation of the request and selection of its account record.
+         */
+        ACCOUNT_SELECTION(Checkpoint.EXECUTION_STARTED, Checkpoint.ACCOUNT_SELECTED),
+
+        /**
+         * Adaptation of the request to command parameters.
+         */
+        PARAMETER_ADAPTATION(Checkpoint.ACCOUNT_SELECTED, Checkpoint.PARAMETERS_ADAPTED),
+
+        /**
+         * Creation of the command, including the selection of its controllers.
+         */
+        COMMAND_DISPATCH(Checkpoint.PARAMETERS_ADAPTED, Checkpoint.COMMAND_DISPATCHED),
+
+        /**
+         * Execution of the command: submission to and queueing in the command dispatcher, token
+         * cache lookup, network calls (if any) and the hop back to the main thread.
+         */
+        COMMAND_EXECUTION(Checkpoint.COMMAND_DISPATCHED, Checkpoint.COMMAND_COMPLETED),
+
+        /**
+         * Adaptation of the command result before it is delivered to the app.
+         */
+        DELIVERY(Checkpoint.COMMAND_COMPLETED, Checkpoint.DELIVERED);
+
+        private final Checkpoint mStart;
+        private final Checkpoint mEnd;
+
+        Phase(@NonNull final Checkpoint start, @NonNull final Checkpoint end) {
+            mStart = start;
+            mEnd = end;
+        }
+
+        @NonNull
+        public Checkpoint getStart() {
+            return mStart;
+        }
+
+        @NonNull
+        public Checkpoint getEnd() {
+            return mEnd;
+        }
+    }
+
+    private static final long NOT_REACHED = Long.MIN_VALUE;
+
+    private final String mPublicApiId;
+
+    private final long[] mTimestamps = new long[Checkpoint.values().length];
+
+    RequestTimings(@NonNull final String publicApiId) {
+        mPublicApiId = publicApiId;
+        Arrays.fill(mTimestamps, NOT_REACHED);
+    }
+
+    /**
+     * Stamps a checkpoint with the current time.
+     */
+    void mark(@NonNull final Checkpoint checkpoint) {
+        mark(checkpoint, System.nanoTime());
+    }
+
+    synchronized void mark(@NonNull final Checkpoint checkpoint, final long timestampNanos) {
+        mTimestamps[checkpoint.ordinal()] = timestampNanos;
+    }
+
+    /**
+     * @return The id of the public API the request was made through.
+     */
+    @NonNull
+    public String getPublicApiId() {
+        return mPublicApiId;
+    }
+
+    /**
+     * @return Whether the request went through the given checkpoint.
+     */
+    public synchronized boolean hasReached(@NonNull final Checkpoint checkpoint) {
+        return mTimestamps[checkpoint.ordinal()] != NOT_REACHED;
+    }
+
+    /**
+     * @return The monotonic timestamp of the checkpoint in nanoseconds, or null if the request
+     * did not go through it.
+     */
+    @Nullable
+    public synchronized Long getTimestampNanos(@NonNull final Checkpoint checkpoint) {
+        final long timestamp = mTimestamps[checkpoint.ordinal()];
+        return timestamp == NOT_REACHED ? null : timestamp;
+    }
+
+    /**
+     * @return The duration of the phase in nanoseconds, or -1 if the request did not go through
+     * both of its checkpoints.
+     */
+    public synchronized long getDurationNanos(@NonNull final Phase phase) {
+        return between(phase.getStart(), phase.getEnd());
+    }
+
+    /**
+     * @return The time from {@link Checkpoint#SUBMITTED} to {@link Checkpoint#DELIVERED} in
+     * nanoseconds, or -1 if the result has not been delivered.
+     */
+    public synchronized long getTotalNanos() {
+        return between(Checkpoint.SUBMITTED, Checkpoint.DELIVERED);
+    }
+
+    private long between(@NonNull final Checkpoint start, @NonNull final Checkpoint end) {
+        final long startTimestamp = mTimestamps[start.ordinal()];
+        final long endTimestamp = mTimestamps[end.ordinal()];
+
+        if (startTimestamp == NOT_REACHED || endTimestamp == NOT_REACHED) {
+            return -1;
+        }
+
+        return endTimestamp - startTimestamp;
+    }
+
+    /**
+     * @return A one-line summary of the phase durations in microseconds, suitable for logs.
+     */
+    @NonNull
+    @Override
+    public synchronized String toString() {
+        final StringBuilder builder = new StringBuilder()
+                .append("RequestTimings{api=")
+                .append(mPublicApiId);
+
+        for (final Phase phase : Phase.values()) {
+            final long duration = getDurationNanos(phase);
+
+            if (duration >= 0) {
+                builder.append(", ")
+                        .append(phase.name())
+                        .append('=')
+                        .append(TimeUnit.NANOSECONDS.toMicros(duration))
+                        .append("us");
+            }
+        }
+
+        return builder.append(", TOTAL=")
+                .append(getTotalNanos() < 0 ? "n/a" : TimeUnit.NANOSECONDS.toMicros(getTotalNanos()) + "us")
+                .append('}')
+                .toString();
+    }
+}
@@ -0,0 +1,200 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable, canonical form of the scopes of a request: trimmed, lower-cased, de-duplicated and
+ * sorted, with its string form and hash computed once.
+ * <p>
+ * Requests, cache keys and declined-scope checks compare scopes through this type instead of
+ * normalizing the raw scope list each time. The raw scopes are still what is sent to the server.
+ * Scope sets are interned, so that equal sets requested repeatedly share one instance.
+ */
+final class ScopeSet {
+
+    /**
+     * Number of distinct scope sets kept in the intern pool; further ones are not interned.
+     */
+    static final int MAX_INTERNED = 256;
+
+    private static final char SEPARATOR = ' ';
+
+    private static final ConcurrentHashMap<String, ScopeSet> sInterned = new ConcurrentHashMap<>();
+
+    private static final ScopeSet EMPTY = new ScopeSet(Collections.<String>emptyList(), "");
+
+    private final List<String> mScopes;
+
+    private final String mCanonical;
+
+    private final int mHashCode;
+
+    private ScopeSet(@NonNull final List<String> scopes, @NonNull final String canonical) {
+        mScopes = scopes;
+        mCanonical = canonical;
+        mHashCode = canonical.hashCode();
+    }
+
+    /**
+     * @param scopes Raw scopes; null and blank entries are ignored.
+     * @return The canonical scope set.
+     */
+    @NonNull
+    static ScopeSet of(@Nullable final Collection<String> scopes) {
+        if (scopes == null || scopes.isEmpty()) {
+            return EMPTY;
+        }
+
+        final TreeSet<String> normalized = new TreeSet<>();
+
+        for (final String scope : scopes) {
+            if (scope != null) {
+                final String trimmed = scope.trim();
+
+                if (!trimmed.isEmpty()) {
+                    normalized.add(trimmed.toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+
+        if (normalized.isEmpty()) {
+            return EMPTY;
+        }
+
+        final StringBuilder canonical = new StringBuilder();
+        for (final String scope : normalized) {
+            if (canonical.length() > 0) {
+                canonical.append(SEPARATOR);
+            }
+            canonical.append(scope);
+        }
+
+        final String key = canonical.toString();
+        final ScopeSet interned = sInterned.get(key);
+
+        if (interned != null) {
+            return interned;
+        }
+
+        final ScopeSet scopeSet = new ScopeSet(
+                Collections.unmodifiableList(new ArrayList<>(normalized)),
+                key
+        );
+
+        if (sInterned.size() >= MAX_INTERNED) {
+            return scopeSet;
+        }
+
+        final ScopeSet raced = sInterned.putIfAbsent(key, scopeSet);
+        return raced == null ? scopeSet : raced;
+    }
+
+    /**
+     * @param target A space-separated scope string, such as the target of an access token.
+     * @return The canonical scope set.
+     */
+    @NonNull
+    static ScopeSet fromTarget(@Nullable final String target) {
+        return target == null ? EMPTY : of(Arrays.asList(target.split("\\s+")));
+    }
+
+    /**
+     * @return The normalized scopes, sorted.
+     */
+    @NonNull
+    List<String> getScopes() {
+        return mScopes;
+    }
+
+    boolean isEmpty() {
+        return mScopes.isEmpty();
+    }
+
+    /**
+     * @param scope A raw scope, compared ignoring case and surrounding whitespace.
+     */
+    boolean contains(@Nullable final String scope) {
+        return scope != null
+                && Collections.binarySearch(mScopes, scope.trim().toLowerCase(Locale.ROOT)) >= 0;
+    }
+
+    /**
+     * @return The scopes of this set which are not in the other one.
+     */
+    @NonNull
+    List<String> minus(@NonNull final ScopeSet other) {
+        if (this == other) {
+            return Collections.emptyList();
+        }
+
+        final List<String> missing = new ArrayList<>();
+
+        for (final String scope : mScopes) {
+            if (Collections.binarySearch(other.mScopes, scope) < 0) {
+                missing.add(scope);
+            }
+        }
+
+        return missing;
+    }
+
+    /**
+     * @return The canonical string form: the normalized scopes, separated by single spaces.
+     */
+    @NonNull
+    @Override
+    public String toString() {
+        return mCanonical;
+    }
+
+    @Override
+    public boolean equals(@Nullable final Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (!(o instanceof ScopeSet)) {
+            return false;
+        }
+
+        final ScopeSet other = (ScopeSet) o;
+        return mHashCode == other.mHashCode && mCanonical.equals(other.mCanonical);
+    }
+
+    @Override
+    public int hashCode() {
+        return mHashCode;
+    }
+}
@@ -0,0 +1,113 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.client.exception.MsalException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Collects the results of a batch signed HTTP request, and limits how many of its parameters are
+ * signed at the same time so that a large batch does not hold every thread it runs on, see
+ * {@link BoundedBatch}.
+ */
+final class SignedHttpRequestBatch {
+
+    /**
+     * Default number of parameters of a batch signed at the same time.
+     */
+    static final int DEFAULT_MAX_CONCURRENCY = 4;
+
+    /**
+     * Starts the signing of the parameters at the supplied index; its outcome must be passed to
+     * {@link #complete}.
+     */
+    interface Dispatcher {
+        void dispatch(int index);
+    }
+
+    private final List<PoPAuthenticationScheme> mPopParameters;
+
+    private final BoundedBatch<SignedHttpRequestResult> mBatch;
+
+    SignedHttpRequestBatch(@NonNull final List<PoPAuthenticationScheme> popParameters,
+                           @NonNull final IPublicClientApplication.SignedHttpRequestsCallback callback,
+                           @NonNull final Executor executor) {
+        mPopParameters = popParameters;
+        mBatch = new BoundedBatch<>(
+                popParameters.size(),
+                new BoundedBatch.Listener<SignedHttpRequestResult>() {
+                    @Override
+                    public void onCompleted(@NonNull final List<SignedHttpRequestResult> results) {
+                        callback.onCompleted(results);
+                    }
+                },
+                executor
+        );
+    }
+
+    /**
+     * Records the outcome of the parameters at the supplied index, and dispatches the next ones.
+     */
+    void complete(final int index,
+                  @Nullable final String signedHttpRequest,
+                  @Nullable final MsalException exception) {
+        mBatch.complete(index, new SignedHttpRequestResult(mPopParameters.get(index), signedHttpRequest, exception));
+    }
+
+    /**
+     * Fails the whole batch with the same error before anything was dispatched, e.g. when the
+     * controllers could not be resolved.
+     */
+    void completeAll(@NonNull final MsalException exception) {
+        mBatch.completeAll(new BoundedBatch.ResultFactory<SignedHttpRequestResult>() {
+            @NonNull
+            @Override
+            public SignedHttpRequestResult create(final int index) {
+                return new SignedHttpRequestResult(mPopParameters.get(index), null, exception);
+            }
+        });
+    }
+
+    /**
+     * Dispatches the signing of all the parameters of the batch, at most maxConcurrency at a time.
+     */
+    void dispatch(final int maxConcurrency, @NonNull final Dispatcher dispatcher) {
+        final List<Integer> indexes = new ArrayList<>(mPopParameters.size());
+        for (int i = 0; i < mPopParameters.size(); i++) {
+            indexes.add(i);
+        }
+
+        mBatch.dispatch(indexes, maxConcurrency, new BoundedBatch.Dispatcher() {
+            @Override
+            public void dispatch(final int index) {
+                dispatcher.dispatch(index);
+            }
+        });
+    }
+}
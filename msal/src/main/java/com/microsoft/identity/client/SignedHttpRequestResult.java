@@ -0,0 +1,80 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.client.exception.MsalException;
+
+/**
+ * The outcome of one {@link PoPAuthenticationScheme} of a batch signed HTTP request: either the
+ * resulting SHR or the {@link MsalException} its signing failed with.
+ */
+public final class SignedHttpRequestResult {
+
+    private final PoPAuthenticationScheme mPopParameters;
+
+    private final String mSignedHttpRequest;
+
+    private final MsalException mException;
+
+    SignedHttpRequestResult(@NonNull final PoPAuthenticationScheme popParameters,
+                            @Nullable final String signedHttpRequest,
+                            @Nullable final MsalException exception) {
+        mPopParameters = popParameters;
+        mSignedHttpRequest = signedHttpRequest;
+        mException = exception;
+    }
+
+    /**
+     * @return The parameters this result was signed for.
+     */
+    @NonNull
+    public PoPAuthenticationScheme getPopParameters() {
+        return mPopParameters;
+    }
+
+    /**
+     * @return Whether the parameters were signed.
+     */
+    public boolean isSuccess() {
+        return mSignedHttpRequest != null;
+    }
+
+    /**
+     * @return The resulting SHR, or null if signing failed.
+     */
+    @Nullable
+    public String getSignedHttpRequest() {
+        return mSignedHttpRequest;
+    }
+
+    /**
+     * @return The error, or null if signing succeeded.
+     */
+    @Nullable
+    public MsalException getException() {
+        return mException;
+    }
+}
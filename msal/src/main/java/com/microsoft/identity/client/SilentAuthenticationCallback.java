@@ -22,6 +22,8 @@
 //  THE SOFTWARE.
 package com.microsoft.identity.client;
 
+import androidx.annotation.NonNull;
+
 import com.microsoft.identity.client.exception.MsalClientException;
 import com.microsoft.identity.client.exception.MsalException;
 import com.microsoft.identity.client.exception.MsalServiceException;
@@ -45,5 +47,16 @@ public interface SilentAuthenticationCallback {
      */
     void onError(final MsalException exception);
 
-
+    /**
+     * Error occurs during a silent request recorded with request_timings_enabled. Identical
+     * requests may share the exception, so its timings are passed next to it.
+     * <p>
+     * Calls {@link #onError(MsalException)} unless overridden.
+     *
+     * @param exception      The {@link MsalException}, as in {@link #onError(MsalException)}.
+     * @param requestTimings The timings of the failed request.
+     */
+    default void onError(final MsalException exception, @NonNull final RequestTimings requestTimings) {
+        onError(exception);
+    }
 }
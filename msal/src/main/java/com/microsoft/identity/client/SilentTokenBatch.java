@@ -0,0 +1,111 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.client.exception.MsalException;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Collects the results of a batch silent request and limits how many of its scope sets are
+ * dispatched at the same time, see {@link BoundedBatch}.
+ */
+final class SilentTokenBatch {
+
+    /**
+     * Starts the request of one scope set; its outcome must be delivered to the callback.
+     */
+    interface Dispatcher {
+        void dispatch(int index, @NonNull SilentAuthenticationCallback callback);
+    }
+
+    private final List<List<String>> mScopeSets;
+
+    private final BoundedBatch<SilentTokenResult> mBatch;
+
+    SilentTokenBatch(@NonNull final List<List<String>> scopeSets,
+                     @NonNull final SilentBatchAuthenticationCallback callback,
+                     @NonNull final Executor executor) {
+        mScopeSets = scopeSets;
+        mBatch = new BoundedBatch<>(
+                scopeSets.size(),
+                new BoundedBatch.Listener<SilentTokenResult>() {
+                    @Override
+                    public void onCompleted(@NonNull final List<SilentTokenResult> results) {
+                        callback.onCompleted(results);
+                    }
+                },
+                executor
+        );
+    }
+
+    /**
+     * Records the outcome of the scope set at the supplied index.
+     */
+    void complete(final int index,
+                  @Nullable final IAuthenticationResult result,
+                  @Nullable final MsalException exception) {
+        mBatch.complete(index, new SilentTokenResult(mScopeSets.get(index), result, exception));
+    }
+
+    /**
+     * Fails every scope set with the same error, e.g. when the account could not be resolved.
+     */
+    void completeAll(@NonNull final MsalException exception) {
+        mBatch.completeAll(new BoundedBatch.ResultFactory<SilentTokenResult>() {
+            @NonNull
+            @Override
+            public SilentTokenResult create(final int index) {
+                return new SilentTokenResult(mScopeSets.get(index), null, exception);
+            }
+        });
+    }
+
+    /**
+     * Dispatches the scope sets at the supplied indexes, at most maxConcurrency at a time.
+     */
+    void dispatch(@NonNull final List<Integer> indexes,
+                  final int maxConcurrency,
+                  @NonNull final Dispatcher dispatcher) {
+        mBatch.dispatch(indexes, maxConcurrency, new BoundedBatch.Dispatcher() {
+            @Override
+            public void dispatch(final int index) {
+                dispatcher.dispatch(index, new SilentAuthenticationCallback() {
+                    @Override
+                    public void onSuccess(final IAuthenticationResult authenticationResult) {
+                        complete(index, authenticationResult, null);
+                    }
+
+                    @Override
+                    public void onError(final MsalException exception) {
+                        complete(index, null, exception);
+                    }
+                });
+            }
+        });
+    }
+}
@@ -0,0 +1,237 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.client.claims.ClaimsRequest;
+import com.microsoft.identity.client.exception.MsalException;
+import com.microsoft.identity.common.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-flight layer for silent token requests. While a silent request is in flight, any
+ * identical request (same account, scopes, authority, claims, authentication scheme parameters
+ * and forceRefresh) is attached to it instead of dispatching its own command; the result of the
+ * in-flight request is then delivered to every attached callback.
+ * <p>
+ * Attached callbacks receive the very same {@link IAuthenticationResult} (or exception) as the
+ * request that was dispatched, including its correlation id.
+ */
+final class SilentTokenRequestCoalescer {
+
+    private static final String TAG = SilentTokenRequestCoalescer.class.getSimpleName();
+
+    private static final String KEY_DELIMITER = "|";
+
+    private final Map<String, InFlightRequest> mInFlightRequests = new ConcurrentHashMap<>();
+
+    private final AtomicLong mDispatchedRequestCount = new AtomicLong();
+
+    private final AtomicLong mCoalescedRequestCount = new AtomicLong();
+
+    /**
+     * Registers a silent request.
+     *
+     * @param key      The key computed by {@link #createKey(TokenParameters, boolean)}.
+     * @param callback The callback of the request.
+     * @return The callback to hand to the dispatched command if the caller should dispatch the
+     * request, or null if it was attached to a request which is already in flight.
+     */
+    @Nullable
+    AuthenticationCallback register(@NonNull final String key,
+                                    @NonNull final SilentAuthenticationCallback callback) {
+        final String methodTag = TAG + ":register";
+
+        while (true) {
+            final InFlightRequest existing = mInFlightRequests.get(key);
+
+            if (existing != null) {
+                if (existing.attach(callback)) {
+                    final long coalesced = mCoalescedRequestCount.incrementAndGet();
+                    Logger.verbose(methodTag, "Attached silent request to an in-flight request. "
+                            + "Total coalesced requests: " + coalesced);
+                    return null;
+                }
+
+                // The in-flight request completed in the meantime, remove it and retry.
+                mInFlightRequests.remove(key, existing);
+                continue;
+            }
+
+            final InFlightRequest request = new InFlightRequest(key, callback);
+            if (mInFlightRequests.putIfAbsent(key, request) == null) {
+                mDispatchedRequestCount.incrementAndGet();
+                return request;
+            }
+        }
+    }
+
+    /**
+     * @return The number of silent requests which were dispatched through this coalescer.
+     */
+    long getDispatchedRequestCount() {
+        return mDispatchedRequestCount.get();
+    }
+
+    /**
+     * @return The number of silent requests which were served by another in-flight request.
+     */
+    long getCoalescedRequestCount() {
+        return mCoalescedRequestCount.get();
+    }
+
+    /**
+     * @return The number of distinct silent requests currently in flight.
+     */
+    int getInFlightRequestCount() {
+        return mInFlightRequests.size();
+    }
+
+    /**
+     * Builds the single-flight key of a request, or returns null if the request should not be
+     * coalesced (e.g. because it has no account and will fail validation anyway).
+     */
+    @Nullable
+    static String createKey(@NonNull final TokenParameters parameters, final boolean forceRefresh) {
+        final IAccount account = parameters.getAccount();
+
+        if (account == null || parameters.getScopes() == null) {
+            return null;
+        }
+
+        final StringBuilder keyBuilder = new StringBuilder()
+                .append(account instanceof Account ? ((Account) account).getHomeAccountId() : account.getId())
+                .append(KEY_DELIMITER)
+                .append(parameters.getAuthority() == null ? "" : parameters.getAuthority().toLowerCase(Locale.ROOT))
+                .append(KEY_DELIMITER);
+
+        keyBuilder.append(parameters.getScopeSet())
+                .append(KEY_DELIMITER)
+                .append(forceRefresh)
+                .append(KEY_DELIMITER);
+
+        final ClaimsRequest claimsRequest = parameters.getClaimsRequest();
+        if (claimsRequest != null) {
+            keyBuilder.append(ClaimsRequest.getJsonStringFromClaimsRequest(claimsRequest));
+        }
+
+        keyBuilder.append(KEY_DELIMITER);
+
+        final AuthenticationScheme scheme = parameters.getAuthenticationScheme();
+        if (scheme != null) {
+            keyBuilder.append(scheme.getName());
+
+            if (scheme instanceof PoPAuthenticationScheme) {
+                final PoPAuthenticationScheme popScheme = (PoPAuthenticationScheme) scheme;
+                keyBuilder.append(KEY_DELIMITER)
+                        .append(popScheme.getHttpMethod())
+                        .append(KEY_DELIMITER)
+                        .append(popScheme.getUrl())
+                        .append(KEY_DELIMITER)
+                        .append(popScheme.getNonce())
+                        .append(KEY_DELIMITER)
+                        .append(popScheme.getClientClaims());
+            }
+        }
+
+        return keyBuilder.toString();
+    }
+
+    /**
+     * The callback of a dispatched request, fanning its result out to every attached callback.
+     */
+    private final class InFlightRequest implements AuthenticationCallback {
+
+        private final String mKey;
+
+        private final List<SilentAuthenticationCallback> mCallbacks = new ArrayList<>();
+
+        private boolean mCompleted;
+
+        InFlightRequest(@NonNull final String key,
+                        @NonNull final SilentAuthenticationCallback callback) {
+            mKey = key;
+            mCallbacks.add(callback);
+        }
+
+        synchronized boolean attach(@NonNull final SilentAuthenticationCallback callback) {
+            if (mCompleted) {
+                return false;
+            }
+
+            mCallbacks.add(callback);
+            return true;
+        }
+
+        @NonNull
+        private List<SilentAuthenticationCallback> complete() {
+            final String methodTag = TAG + ":complete";
+
+            mInFlightRequests.remove(mKey, this);
+
+            final List<SilentAuthenticationCallback> callbacks;
+            synchronized (this) {
+                mCompleted = true;
+                callbacks = new ArrayList<>(mCallbacks);
+            }
+
+            if (callbacks.size() > 1) {
+                Logger.info(methodTag, "Delivering silent request result to "
+                        + callbacks.size() + " callbacks.");
+            }
+
+            return callbacks;
+        }
+
+        @Override
+        public void onSuccess(final IAuthenticationResult authenticationResult) {
+            for (final SilentAuthenticationCallback callback : complete()) {
+                callback.onSuccess(authenticationResult);
+            }
+        }
+
+        @Override
+        public void onError(final MsalException exception) {
+            for (final SilentAuthenticationCallback callback : complete()) {
+                callback.onError(exception);
+            }
+        }
+
+        @Override
+        public void onCancel() {
+            for (final SilentAuthenticationCallback callback : complete()) {
+                if (callback instanceof AuthenticationCallback) {
+                    ((AuthenticationCallback) callback).onCancel();
+                }
+            }
+        }
+    }
+}
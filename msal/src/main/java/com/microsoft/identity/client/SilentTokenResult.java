@@ -0,0 +1,82 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.client.exception.MsalException;
+
+import java.util.List;
+
+/**
+ * The outcome of one scope set of an {@link AcquireTokenSilentBatchParameters batch} silent
+ * request: either an {@link IAuthenticationResult} or the {@link MsalException} it failed with.
+ */
+public final class SilentTokenResult {
+
+    private final List<String> mScopes;
+
+    private final IAuthenticationResult mAuthenticationResult;
+
+    private final MsalException mException;
+
+    SilentTokenResult(@NonNull final List<String> scopes,
+                      @Nullable final IAuthenticationResult authenticationResult,
+                      @Nullable final MsalException exception) {
+        mScopes = scopes;
+        mAuthenticationResult = authenticationResult;
+        mException = exception;
+    }
+
+    /**
+     * @return The scope set this result was requested for.
+     */
+    @NonNull
+    public List<String> getScopes() {
+        return mScopes;
+    }
+
+    /**
+     * @return Whether a token was acquired for the scope set.
+     */
+    public boolean isSuccess() {
+        return mAuthenticationResult != null;
+    }
+
+    /**
+     * @return The result, or null if the request failed.
+     */
+    @Nullable
+    public IAuthenticationResult getAuthenticationResult() {
+        return mAuthenticationResult;
+    }
+
+    /**
+     * @return The error, or null if the request succeeded.
+     */
+    @Nullable
+    public MsalException getException() {
+        return mException;
+    }
+}
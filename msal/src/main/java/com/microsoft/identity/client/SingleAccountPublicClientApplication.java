@@ -100,6 +100,11 @@ public class SingleAccountPublicClientApplication
 
     private SharedPreferencesFileManager sharedPreferencesFileManager;
 
+    /**
+     * In-memory copy of the persisted current account. Null until loaded from the shared preference.
+     */
+    private volatile CurrentAccountHolder mCurrentAccount;
+
     protected SingleAccountPublicClientApplication(@NonNull final PublicClientApplicationConfiguration config) throws MsalClientException {
         super(config);
         initializeSharedPreferenceFileManager(config.getAppContext());
@@ -137,8 +142,8 @@ public class SingleAccountPublicClientApplication
                                 // We do not support switching from MULTIPLE to SINGLE.
                                 // See getAccountFromICacheRecordList() for more details.
                                 final MultiTenantAccount oldAccount = getPersistedCurrentAccount();
-                                persistCurrentAccount(result);
-                                checkCurrentAccountNotifyCallback(callback, result, oldAccount);
+                                final MultiTenantAccount newAccount = persistCurrentAccount(result);
+                                checkCurrentAccountNotifyCallback(callback, newAccount, oldAccount);
                             }
 
                             @Override
@@ -219,13 +224,10 @@ public class SingleAccountPublicClientApplication
     }
 
     private void checkCurrentAccountNotifyCallback(@NonNull final CurrentAccountCallback callback,
-                                                   @Nullable final List<ICacheRecord> newAccountRecords,
+                                                   @Nullable final MultiTenantAccount newAccount,
                                                    @Nullable final MultiTenantAccount oldAccount) {
-        final MultiTenantAccount newAccount = newAccountRecords == null
-                ? null
-                : getAccountFromICacheRecordList(newAccountRecords);
-
         if (!isHomeAccountIdMatching(oldAccount, newAccount)) {
+            invalidateInMemoryTokens(null);
             callback.onAccountChanged(oldAccount, newAccount);
         }
 
@@ -416,6 +418,8 @@ public class SingleAccountPublicClientApplication
     protected CommandCallback<ILocalAuthenticationResult, BaseException> getCommandCallback(
             @NonNull final SilentAuthenticationCallback authenticationCallback,
             @NonNull final TokenParameters tokenParameters) {
+        final long popCacheGeneration = getPopAccessTokenCacheGeneration();
+
         return new CommandCallback<ILocalAuthenticationResult, BaseException>() {
 
             @Override
@@ -425,7 +429,7 @@ public class SingleAccountPublicClientApplication
                 }
 
                 persistCurrentAccount(localAuthenticationResult.getCacheRecordWithTenantProfileData());
-                postAuthResult(localAuthenticationResult, tokenParameters, authenticationCallback);
+                postAuthResult(localAuthenticationResult, tokenParameters, authenticationCallback, popCacheGeneration);
             }
 
             @Override
@@ -434,7 +438,7 @@ public class SingleAccountPublicClientApplication
                 if (authenticationCallback == null) {
                     throw new IllegalStateException(NONNULL_CONSTANTS.CALLBACK + NONNULL_CONSTANTS.NULL_ERROR_SUFFIX);
                 } else {
-                    authenticationCallback.onError(msalException);
+                    postAuthError(msalException, tokenParameters, authenticationCallback);
                 }
             }
 
@@ -503,6 +507,7 @@ public class SingleAccountPublicClientApplication
                     @Override
                     public void onTaskCompleted(Boolean result) {
                         persistCurrentAccount(null);
+                        invalidateInMemoryTokens(null);
                         callback.onSignOut();
                     }
 
@@ -559,36 +564,114 @@ public class SingleAccountPublicClientApplication
 
     /**
      * Get current account that is persisted in shared preference.
+     * Only the first call in the process reads the shared preference, later calls are served from memory.
      *
      * @return a persisted MultiTenantAccount. This could be null.
      */
     private MultiTenantAccount getPersistedCurrentAccount() {
-        synchronized (SingleAccountPublicClientApplication.class) {
-            final String currentAccountJsonString = sharedPreferencesFileManager.getString(CURRENT_ACCOUNT_SHARED_PREFERENCE_KEY);
-            if (StringExtensions.isNullOrBlank(currentAccountJsonString)) {
-                return null;
+        return getCurrentAccountHolder().mAccount;
+    }
+
+    @NonNull
+    private CurrentAccountHolder getCurrentAccountHolder() {
+        CurrentAccountHolder currentAccount = mCurrentAccount;
+
+        if (currentAccount == null) {
+            synchronized (SingleAccountPublicClientApplication.class) {
+                currentAccount = mCurrentAccount;
+
+                if (currentAccount == null) {
+                    currentAccount = loadPersistedCurrentAccount();
+                    mCurrentAccount = currentAccount;
+                }
             }
+        }
 
-            final List<ICacheRecord> cacheRecordList = JsonExtensions.getICacheRecordListFromJsonString(currentAccountJsonString);
-            return getAccountFromICacheRecordList(cacheRecordList);
+        return currentAccount;
+    }
+
+    @NonNull
+    private CurrentAccountHolder loadPersistedCurrentAccount() {
+        final String currentAccountString = sharedPreferencesFileManager.getString(CURRENT_ACCOUNT_SHARED_PREFERENCE_KEY);
+        if (StringExtensions.isNullOrBlank(currentAccountString)) {
+            return CurrentAccountHolder.NO_ACCOUNT;
         }
+
+        final List<ICacheRecord> cacheRecordList = CurrentAccountSerializer.isSerialized(currentAccountString)
+                ? CurrentAccountSerializer.deserialize(currentAccountString)
+                : JsonExtensions.getICacheRecordListFromJsonString(currentAccountString);
+
+        return new CurrentAccountHolder(
+                cacheRecordList == null ? null : getAccountFromICacheRecordList(cacheRecordList),
+                cacheRecordList,
+                currentAccountString
+        );
     }
 
     /**
      * Persists current account to shared preference.
+     * The shared preference is only written if the persisted value changed, e.g. because of a new
+     * account or of refreshed id token claims. An account with the same home account id and id
+     * tokens as the current one is kept as is, without serializing it.
      *
      * @param cacheRecords list of cache record that belongs to an account.
      *                     Please note that this layer will not verify if the list belongs to a single account or not.
+     * @return the new current account. This could be null.
      */
-    private void persistCurrentAccount(@Nullable final List<ICacheRecord> cacheRecords) {
+    @Nullable
+    private MultiTenantAccount persistCurrentAccount(@Nullable final List<ICacheRecord> cacheRecords) {
         synchronized (SingleAccountPublicClientApplication.class) {
             if (cacheRecords == null || cacheRecords.size() == 0) {
-                sharedPreferencesFileManager.clear();
-                return;
+                if (getCurrentAccountHolder().mSerializedAccount != null) {
+                    sharedPreferencesFileManager.clear();
+                }
+                mCurrentAccount = CurrentAccountHolder.NO_ACCOUNT;
+                return null;
+            }
+
+            final CurrentAccountHolder currentAccount = getCurrentAccountHolder();
+            if (CurrentAccountSerializer.isSameAccount(currentAccount.mCacheRecords, cacheRecords)) {
+                return currentAccount.mAccount;
+            }
+
+            final MultiTenantAccount newAccount = getAccountFromICacheRecordList(cacheRecords);
+            final String serializedAccount = CurrentAccountSerializer.serializeLegacy(cacheRecords);
+
+            if (!serializedAccount.equals(currentAccount.mSerializedAccount)) {
+                Logger.info(TAG, "persisting cache records with size " + cacheRecords.size());
+                sharedPreferencesFileManager.putString(CURRENT_ACCOUNT_SHARED_PREFERENCE_KEY, serializedAccount);
             }
-            Logger.info(TAG, "persisting cache records with size " + cacheRecords.size());
-            final String currentAccountJsonString = JsonExtensions.getJsonStringFromICacheRecordList(cacheRecords);
-            sharedPreferencesFileManager.putString(CURRENT_ACCOUNT_SHARED_PREFERENCE_KEY, currentAccountJsonString);
+
+            mCurrentAccount = new CurrentAccountHolder(newAccount, cacheRecords, serializedAccount);
+            return newAccount;
+        }
+    }
+
+    /**
+     * Immutable holder of the current account, so that "no account" can be told apart from "not loaded".
+     */
+    private static final class CurrentAccountHolder {
+
+        static final CurrentAccountHolder NO_ACCOUNT = new CurrentAccountHolder(null, null, null);
+
+        final MultiTenantAccount mAccount;
+
+        /**
+         * The records the account was created from, or null if none is stored or they could not be read.
+         */
+        final List<ICacheRecord> mCacheRecords;
+
+        /**
+         * The value of the shared preference, or null if none is stored.
+         */
+        final String mSerializedAccount;
+
+        CurrentAccountHolder(@Nullable final MultiTenantAccount account,
+                             @Nullable final List<ICacheRecord> cacheRecords,
+                             @Nullable final String serializedAccount) {
+            mAccount = account;
+            mCacheRecords = cacheRecords;
+            mSerializedAccount = serializedAccount;
         }
     }
 
@@ -780,6 +863,33 @@ public class SingleAccountPublicClientApplication
         );
     }
 
+    @Override
+    public void acquireTokenSilentBatchAsync(@NonNull final AcquireTokenSilentBatchParameters acquireTokenSilentBatchParameters) {
+        final IAccount persistedAccount = getPersistedCurrentAccount();
+        if (persistedAccount == null) {
+            failSilentBatch(
+                    acquireTokenSilentBatchParameters,
+                    new MsalClientException(MsalClientException.NO_CURRENT_ACCOUNT,
+                            MsalClientException.NO_CURRENT_ACCOUNT_ERROR_MESSAGE)
+            );
+            return;
+        }
+
+        if (!isHomeAccountIdMatching(persistedAccount, acquireTokenSilentBatchParameters.getAccount())) {
+            failSilentBatch(
+                    acquireTokenSilentBatchParameters,
+                    new MsalClientException(MsalClientException.CURRENT_ACCOUNT_MISMATCH,
+                            MsalClientException.CURRENT_ACCOUNT_MISMATCH_ERROR_MESSAGE)
+            );
+            return;
+        }
+
+        acquireTokenSilentBatchAsyncInternal(
+                acquireTokenSilentBatchParameters,
+                SINGLE_ACCOUNT_PCA_ACQUIRE_TOKEN_SILENT_ASYNC_WITH_PARAMETERS
+        );
+    }
+
     @Override
     public IAuthenticationResult acquireTokenSilent(@NonNull final AcquireTokenSilentParameters acquireTokenSilentParameters) throws InterruptedException, MsalException {
         final IAccount persistedAccount = getPersistedCurrentAccount();
@@ -819,6 +929,7 @@ public class SingleAccountPublicClientApplication
 
                 // Persist the account in single account mode
                 persistCurrentAccount(tokenResult.getCacheRecordWithTenantProfileData());
+                invalidateInMemoryTokens(null);
                 callback.onTokenReceived(convertedResult);
             }
 
@@ -0,0 +1,259 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.microsoft.identity.client.exception.MsalClientException;
+import com.microsoft.identity.common.java.exception.ClientException;
+import com.microsoft.identity.common.java.exception.ServiceException;
+import com.microsoft.identity.common.logging.Logger;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the tenant id resolved for a named tenant authority such as
+ * {@code https://login.microsoftonline.com/contoso.onmicrosoft.com}, in memory and in
+ * {@link SharedPreferences}, so that it is shared by every PublicClientApplication of the process
+ * and survives restarts.
+ * <p>
+ * An entry older than {@link #REVALIDATE_AFTER_MILLIS} is still served, and resolved again in the
+ * background. An entry older than {@link #EXPIRE_AFTER_MILLIS} is resolved again before it is
+ * served. Concurrent resolutions of the same authority share a single lookup.
+ */
+final class TenantAliasCache {
+
+    private static final String TAG = TenantAliasCache.class.getSimpleName();
+
+    private static final String SHARED_PREFERENCES_NAME = "com.microsoft.identity.client.tenant_aliases";
+
+    private static final char SEPARATOR = '|';
+
+    static final long REVALIDATE_AFTER_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    static final long EXPIRE_AFTER_MILLIS = TimeUnit.DAYS.toMillis(30);
+
+    /**
+     * Looks up the tenant id of an authority, e.g. through its OpenID provider configuration.
+     */
+    interface Resolver {
+        String resolve() throws ServiceException, ClientException;
+    }
+
+    private static volatile TenantAliasCache sInstance;
+
+    private final SharedPreferences mSharedPreferences;
+
+    private final long mRevalidateAfterMillis;
+
+    private final long mExpireAfterMillis;
+
+    private final ConcurrentHashMap<String, Entry> mEntries = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, FutureTask<String>> mResolutions = new ConcurrentHashMap<>();
+
+    private final Set<String> mRevalidations = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    private static final class Entry {
+        private final String mTenantId;
+        private final long mTimestamp;
+
+        private Entry(@NonNull final String tenantId, final long timestamp) {
+            mTenantId = tenantId;
+            mTimestamp = timestamp;
+        }
+    }
+
+    @VisibleForTesting
+    TenantAliasCache(@NonNull final Context context,
+                     final long revalidateAfterMillis,
+                     final long expireAfterMillis) {
+        mSharedPreferences = context.getApplicationContext()
+                .getSharedPreferences(SHARED_PREFERENCES_NAME, Context.MODE_PRIVATE);
+        mRevalidateAfterMillis = revalidateAfterMillis;
+        mExpireAfterMillis = expireAfterMillis;
+    }
+
+    @NonNull
+    static TenantAliasCache get(@NonNull final Context context) {
+        if (sInstance == null) {
+            synchronized (TenantAliasCache.class) {
+                if (sInstance == null) {
+                    sInstance = new TenantAliasCache(context, REVALIDATE_AFTER_MILLIS, EXPIRE_AFTER_MILLIS);
+                }
+            }
+        }
+
+        return sInstance;
+    }
+
+    /**
+     * @param authority The authority URL of the named tenant.
+     * @param resolver  Resolves the tenant id if it is not cached, or to revalidate it.
+     * @param executor  Runs background revalidations.
+     * @return The tenant id of the authority.
+     */
+    String getTenantId(@NonNull final String authority,
+                       @NonNull final Resolver resolver,
+                       @NonNull final Executor executor) throws ServiceException, ClientException {
+        final String methodTag = TAG + ":getTenantId";
+        final Entry entry = getEntry(authority);
+
+        if (entry != null) {
+            final long age = System.currentTimeMillis() - entry.mTimestamp;
+
+            if (age >= 0 && age < mExpireAfterMillis) {
+                if (age >= mRevalidateAfterMillis) {
+                    revalidate(authority, resolver, executor);
+                }
+
+                return entry.mTenantId;
+            }
+
+            Logger.verbose(methodTag, "Cached tenant id expired.");
+        }
+
+        return resolve(authority, resolver);
+    }
+
+    private void revalidate(@NonNull final String authority,
+                            @NonNull final Resolver resolver,
+                            @NonNull final Executor executor) {
+        final String methodTag = TAG + ":revalidate";
+
+        if (!mRevalidations.add(authority)) {
+            return;
+        }
+
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    resolve(authority, resolver);
+                } catch (final ServiceException | ClientException e) {
+                    Logger.warn(methodTag, "Unable to revalidate the tenant id: " + e.getMessage());
+                } finally {
+                    mRevalidations.remove(authority);
+                }
+            }
+        });
+    }
+
+    /**
+     * Resolves the tenant id, joining the resolution of the same authority already in flight if
+     * there is one.
+     */
+    private String resolve(@NonNull final String authority,
+                           @NonNull final Resolver resolver) throws ServiceException, ClientException {
+        final FutureTask<String> resolution = new FutureTask<>(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                final String tenantId = resolver.resolve();
+                put(authority, tenantId);
+                return tenantId;
+            }
+        });
+
+        FutureTask<String> inFlight = mResolutions.putIfAbsent(authority, resolution);
+
+        if (inFlight == null) {
+            inFlight = resolution;
+
+            try {
+                resolution.run();
+            } finally {
+                mResolutions.remove(authority, resolution);
+            }
+        }
+
+        try {
+            return inFlight.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClientException(MsalClientException.UNKNOWN_ERROR, "Interrupted while resolving the tenant id.", e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+
+            if (cause instanceof ServiceException) {
+                throw (ServiceException) cause;
+            } else if (cause instanceof ClientException) {
+                throw (ClientException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+
+            throw new ClientException(MsalClientException.UNKNOWN_ERROR, "Unable to resolve the tenant id.", cause);
+        }
+    }
+
+    @Nullable
+    private Entry getEntry(@NonNull final String authority) {
+        final Entry entry = mEntries.get(authority);
+
+        if (entry != null) {
+            return entry;
+        }
+
+        final String persisted = mSharedPreferences.getString(authority, null);
+        final int separator = persisted == null ? -1 : persisted.lastIndexOf(SEPARATOR);
+
+        if (separator <= 0) {
+            return null;
+        }
+
+        try {
+            final Entry persistedEntry = new Entry(
+                    persisted.substring(0, separator),
+                    Long.parseLong(persisted.substring(separator + 1))
+            );
+            mEntries.putIfAbsent(authority, persistedEntry);
+            return persistedEntry;
+        } catch (final NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void put(@NonNull final String authority, @Nullable final String tenantId) {
+        if (tenantId == null || tenantId.isEmpty()) {
+            return;
+        }
+
+        final Entry entry = new Entry(tenantId, System.currentTimeMillis());
+        mEntries.put(authority, entry);
+        mSharedPreferences.edit()
+                .putString(authority, entry.mTenantId + SEPARATOR + entry.mTimestamp)
+                .apply();
+    }
+}
@@ -32,6 +32,7 @@ import com.microsoft.identity.common.java.dto.AccountRecord;
 import com.microsoft.identity.common.internal.util.StringUtil;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.UUID;
@@ -48,12 +49,13 @@ public abstract class TokenParameters {
     private AccountRecord mAccountRecord;
     private AuthenticationScheme mAuthenticationScheme;
     private String mCorrelationId;
+    private volatile ScopeSet mScopeSet;
 
     protected TokenParameters(@NonNull final TokenParameters.Builder builder) {
         mAccount = builder.mAccount;
         mAuthority = builder.mAuthority;
         mClaimsRequest = builder.mClaimsRequest;
-        mScopes = builder.mScopes;
+        mScopes = copyOf(builder.mScopes);
         mAuthenticationScheme = builder.mAuthenticationScheme;
         mCorrelationId = builder.mCorrelationId;
     }
@@ -85,7 +87,34 @@ public abstract class TokenParameters {
      * @param scopes
      */
     void setScopes(final List<String> scopes) {
-        mScopes = scopes;
+        mScopes = copyOf(scopes);
+        mScopeSet = null;
+    }
+
+    /**
+     * Scopes are copied so that the memoized {@link #getScopeSet()} cannot go stale when the
+     * caller changes the list it passed in.
+     */
+    @Nullable
+    private static List<String> copyOf(@Nullable final List<String> scopes) {
+        return scopes == null ? null : Collections.unmodifiableList(new ArrayList<>(scopes));
+    }
+
+    /**
+     * The canonical form of {@link #getScopes()}, computed on first use.
+     *
+     * @return The scope set.
+     */
+    @NonNull
+    ScopeSet getScopeSet() {
+        ScopeSet scopeSet = mScopeSet;
+
+        if (scopeSet == null) {
+            scopeSet = ScopeSet.of(mScopes);
+            mScopeSet = scopeSet;
+        }
+
+        return scopeSet;
     }
 
     /**
@@ -24,9 +24,6 @@ package com.microsoft.identity.client.claims;
 
 import androidx.annotation.Nullable;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-
 import java.util.ArrayList;
 import java.util.List;
 
@@ -130,37 +127,11 @@ public class ClaimsRequest {
     }
 
     private static String serializeClaimsRequest(@Nullable final ClaimsRequest claimsRequest) {
-        final GsonBuilder gsonBuilder = new GsonBuilder();
-
-        final ClaimsRequestSerializer claimsRequestSerializer = new ClaimsRequestSerializer();
-        final RequestClaimAdditionalInformationSerializer informationSerializer =
-                new RequestClaimAdditionalInformationSerializer();
-
-        gsonBuilder.registerTypeAdapter(ClaimsRequest.class, claimsRequestSerializer);
-        gsonBuilder.registerTypeAdapter(RequestedClaimAdditionalInformation.class, informationSerializer);
-        //If you omit this... you won't be requesting an claims that don't have additional info specified
-        gsonBuilder.serializeNulls();
-
-        final Gson claimsRequestGson = gsonBuilder.create();
-
-        final String claimsRequestJson = claimsRequest != null ? claimsRequestGson.toJson(claimsRequest) : null;
-
-        return claimsRequestJson;
-
+        return ClaimsRequestCodec.toJson(claimsRequest);
     }
 
     private static ClaimsRequest deserializeClaimsRequest(@Nullable final String claimsRequestJson) {
-        final GsonBuilder gsonBuilder = new GsonBuilder();
-
-        final ClaimsRequestDeserializer deserializer = new ClaimsRequestDeserializer();
-        gsonBuilder.registerTypeAdapter(ClaimsRequest.class, deserializer);
-
-        final Gson claimsRequestGson = gsonBuilder.create();
-
-        final ClaimsRequest claimsRequest = claimsRequestGson.fromJson(claimsRequestJson, ClaimsRequest.class);
-
-        return claimsRequest;
-
+        return ClaimsRequestCodec.fromJson(claimsRequestJson);
     }
 
     /**
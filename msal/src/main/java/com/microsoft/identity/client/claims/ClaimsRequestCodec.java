@@ -0,0 +1,65 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.claims;
+
+import androidx.annotation.Nullable;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Shared {@link Gson} instances for (de)serializing {@link ClaimsRequest}s.
+ * <p>
+ * Gson instances are thread-safe and cache the type adapters they resolve, so building them once
+ * avoids recreating the builder, the adapters and the reflective lookups on every request.
+ */
+final class ClaimsRequestCodec {
+
+    private static final Gson SERIALIZER = new GsonBuilder()
+            .registerTypeAdapter(ClaimsRequest.class, new ClaimsRequestSerializer())
+            .registerTypeAdapter(
+                    RequestedClaimAdditionalInformation.class,
+                    new RequestClaimAdditionalInformationSerializer()
+            )
+            //If you omit this... you won't be requesting an claims that don't have additional info specified
+            .serializeNulls()
+            .create();
+
+    private static final Gson DESERIALIZER = new GsonBuilder()
+            .registerTypeAdapter(ClaimsRequest.class, new ClaimsRequestDeserializer())
+            .create();
+
+    private ClaimsRequestCodec() {
+        // Utility class.
+    }
+
+    @Nullable
+    static String toJson(@Nullable final ClaimsRequest claimsRequest) {
+        return claimsRequest != null ? SERIALIZER.toJson(claimsRequest) : null;
+    }
+
+    @Nullable
+    static ClaimsRequest fromJson(@Nullable final String claimsRequestJson) {
+        return DESERIALIZER.fromJson(claimsRequestJson, ClaimsRequest.class);
+    }
+}
@@ -0,0 +1,138 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal;
+
+import android.content.Context;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.content.pm.PackageInfoCompat;
+
+import com.microsoft.identity.client.PublicClientApplicationConfiguration;
+import com.microsoft.identity.common.components.AndroidPlatformComponentsFactory;
+import com.microsoft.identity.common.java.interfaces.IPlatformComponents;
+import com.microsoft.identity.common.logging.Logger;
+
+/**
+ * Immutable snapshot of the request inputs which only depend on the application context
+ * (platform components, package name and version), so that they are computed once instead of on
+ * every request.
+ * <p>
+ * A snapshot is kept for the most recently used application context. Apps only have one, so in
+ * practice every {@link PublicClientApplicationConfiguration} of the process shares it.
+ */
+public final class ApplicationRequestContext {
+
+    private static final String TAG = ApplicationRequestContext.class.getSimpleName();
+
+    /**
+     * Returned by {@link #getApplicationVersionCode()} if the package could not be read.
+     */
+    public static final long UNKNOWN_VERSION_CODE = -1;
+
+    private static volatile ApplicationRequestContext sRequestContext;
+
+    private final Context mContext;
+    private final IPlatformComponents mPlatformComponents;
+    private final String mApplicationName;
+    private final String mApplicationVersion;
+    private final long mApplicationVersionCode;
+
+    private ApplicationRequestContext(@NonNull final Context context) {
+        mContext = context;
+        mPlatformComponents = AndroidPlatformComponentsFactory.createFromContext(context);
+        mApplicationName = context.getPackageName();
+
+        final PackageInfo packageInfo = readPackageInfo(context);
+        mApplicationVersion = packageInfo == null ? null : packageInfo.versionName;
+        mApplicationVersionCode = packageInfo == null
+                ? UNKNOWN_VERSION_CODE
+                : PackageInfoCompat.getLongVersionCode(packageInfo);
+    }
+
+    /**
+     * Returns the request context of the application context of the supplied configuration.
+     */
+    @NonNull
+    public static ApplicationRequestContext get(@NonNull final PublicClientApplicationConfiguration configuration) {
+        return get(configuration.getAppContext());
+    }
+
+    /**
+     * Returns the request context of the application context of the supplied context.
+     */
+    @NonNull
+    public static ApplicationRequestContext get(@NonNull final Context context) {
+        final Context applicationContext = context.getApplicationContext() != null
+                ? context.getApplicationContext()
+                : context;
+
+        ApplicationRequestContext requestContext = sRequestContext;
+
+        if (requestContext == null || requestContext.mContext != applicationContext) {
+            // Racing threads may each build a snapshot; they are equivalent, so the last one wins.
+            requestContext = new ApplicationRequestContext(applicationContext);
+            sRequestContext = requestContext;
+        }
+
+        return requestContext;
+    }
+
+    @NonNull
+    public IPlatformComponents getPlatformComponents() {
+        return mPlatformComponents;
+    }
+
+    @NonNull
+    public String getApplicationName() {
+        return mApplicationName;
+    }
+
+    @Nullable
+    public String getApplicationVersion() {
+        return mApplicationVersion;
+    }
+
+    /**
+     * @return The version code of the application, or {@link #UNKNOWN_VERSION_CODE}.
+     */
+    public long getApplicationVersionCode() {
+        return mApplicationVersionCode;
+    }
+
+    @Nullable
+    private static PackageInfo readPackageInfo(@NonNull final Context context) {
+        final String methodTag = TAG + ":readPackageInfo";
+        final String packageName = context.getPackageName();
+
+        try {
+            return context.getPackageManager().getPackageInfo(packageName, 0);
+        } catch (PackageManager.NameNotFoundException e) {
+            Logger.error(methodTag, "Unable to read the version of package " + packageName, e);
+        }
+
+        return null;
+    }
+}
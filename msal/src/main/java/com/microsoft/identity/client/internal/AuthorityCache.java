@@ -0,0 +1,117 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.client.internal;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+
+import com.microsoft.identity.common.java.authorities.Authority;
+import com.microsoft.identity.common.java.authorities.AzureActiveDirectoryAuthority;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Process-wide, size-bounded cache of the {@link Authority} parsed from an authority URL, so that
+ * the silent and interactive request paths do not parse the same URL several times per request.
+ * <p>
+ * Instances are configured before they are cached (e.g. multiple clouds support for AAD
+ * authorities) and are shared by every request for the same URL and settings. Callers must
+ * therefore treat them as immutable, as they already do with the default authority of the
+ * configuration.
+ */
+public final class AuthorityCache {
+
+    /**
+     * Number of authorities held before the least recently used one is evicted.
+     */
+    static final int MAX_ENTRIES = 32;
+
+    private static final String KEY_DELIMITER = "|";
+
+    private static final Map<String, Authority> sAuthorities =
+            new LinkedHashMap<String, Authority>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<String, Authority> eldest) {
+                    return size() > MAX_ENTRIES;
+                }
+            };
+
+    private AuthorityCache() {
+    }
+
+    /**
+     * Returns the authority of the supplied URL, parsing it only on the first call.
+     *
+     * @param authorityUrl            The authority URL.
+     * @param multipleCloudsSupported Whether the authority may be redirected to another cloud,
+     *                                only applied to AAD authorities.
+     * @return The shared, configured authority.
+     */
+    @NonNull
+    public static Authority getAuthority(@NonNull final String authorityUrl,
+                                         final boolean multipleCloudsSupported) {
+        final String key = authorityUrl + KEY_DELIMITER + multipleCloudsSupported;
+
+        synchronized (sAuthorities) {
+            final Authority cached = sAuthorities.get(key);
+
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        // Parsed outside of the lock; if two threads parse the same URL, the first one cached wins.
+        final Authority authority = Authority.getAuthorityFromAuthorityUrl(authorityUrl);
+
+        if (authority instanceof AzureActiveDirectoryAuthority) {
+            ((AzureActiveDirectoryAuthority) authority).setMultipleCloudsSupported(multipleCloudsSupported);
+        }
+
+        synchronized (sAuthorities) {
+            final Authority cached = sAuthorities.get(key);
+
+            if (cached != null) {
+                return cached;
+            }
+
+            sAuthorities.put(key, authority);
+        }
+
+        return authority;
+    }
+
+    @VisibleForTesting
+    static void clear() {
+        synchronized (sAuthorities) {
+            sAuthorities.clear();
+        }
+    }
+
+    @VisibleForTesting
+    static int size() {
+        synchronized (sAuthorities) {
+            return sAuthorities.size();
+        }
+    }
+}
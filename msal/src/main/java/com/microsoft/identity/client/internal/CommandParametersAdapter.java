@@ -1,8 +1,6 @@
 package com.microsoft.identity.client.internal;
 
-import android.content.Context;
-import android.content.pm.PackageInfo;
-import android.content.pm.PackageManager;
+import android.text.TextUtils;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -56,14 +54,21 @@ public class CommandParametersAdapter {
     private static final String TAG = CommandParametersAdapter.class.getSimpleName();
     public static final String CLIENT_CAPABILITIES_CLAIM = "xms_cc";
 
+    /**
+     * Claims request JSON of the most recently used client capabilities; applications use a
+     * single configuration, so a single slot is enough.
+     */
+    private static volatile ClientCapabilitiesClaims sClientCapabilitiesClaims;
+
     public static CommandParameters createCommandParameters(
             @NonNull final PublicClientApplicationConfiguration configuration,
             @NonNull final OAuth2TokenCache tokenCache) {
+        final ApplicationRequestContext requestContext = ApplicationRequestContext.get(configuration);
 
         final CommandParameters commandParameters = CommandParameters.builder()
-                .platformComponents(AndroidPlatformComponentsFactory.createFromContext(configuration.getAppContext()))
-                .applicationName(configuration.getAppContext().getPackageName())
-                .applicationVersion(getPackageVersion(configuration.getAppContext()))
+                .platformComponents(requestContext.getPlatformComponents())
+                .applicationName(requestContext.getApplicationName())
+                .applicationVersion(requestContext.getApplicationVersion())
                 .clientId(configuration.getClientId())
                 .isSharedDevice(configuration.getIsSharedDevice())
                 .oAuth2TokenCache(tokenCache)
@@ -81,11 +86,12 @@ public class CommandParametersAdapter {
             @NonNull final PublicClientApplicationConfiguration configuration,
             @NonNull final OAuth2TokenCache tokenCache,
             @NonNull final AccountRecord account) {
+        final ApplicationRequestContext requestContext = ApplicationRequestContext.get(configuration);
 
         final RemoveAccountCommandParameters commandParameters = RemoveAccountCommandParameters.builder()
-                .platformComponents(AndroidPlatformComponentsFactory.createFromContext(configuration.getAppContext()))
-                .applicationName(configuration.getAppContext().getPackageName())
-                .applicationVersion(getPackageVersion(configuration.getAppContext()))
+                .platformComponents(requestContext.getPlatformComponents())
+                .applicationName(requestContext.getApplicationName())
+                .applicationVersion(requestContext.getApplicationVersion())
                 .clientId(configuration.getClientId())
                 .isSharedDevice(configuration.getIsSharedDevice())
                 .oAuth2TokenCache(tokenCache)
@@ -105,6 +111,7 @@ public class CommandParametersAdapter {
             @NonNull final PublicClientApplicationConfiguration configuration,
             @NonNull final OAuth2TokenCache tokenCache,
             @NonNull final AcquireTokenParameters parameters) throws ClientException {
+        final ApplicationRequestContext requestContext = ApplicationRequestContext.get(configuration);
 
         final AbstractAuthenticationScheme authenticationScheme = AuthenticationSchemeFactory.createScheme(
                 AndroidPlatformComponentsFactory.createFromContext(parameters.getActivity()),
@@ -113,12 +120,11 @@ public class CommandParametersAdapter {
 
         final Authority authority = getAuthority(configuration, parameters);
 
-        final String claimsRequestJson = ClaimsRequest.getJsonStringFromClaimsRequest(
-                getClaimsRequest(
-                        parameters.getClaimsRequest(),
-                        configuration,
-                        authority
-                ));
+        final String claimsRequestJson = getClaimsRequestJson(
+                parameters.getClaimsRequest(),
+                configuration,
+                authority
+        );
 
         final InteractiveTokenCommandParameters commandParameters = AndroidActivityInteractiveTokenCommandParameters
                 .builder()
@@ -126,8 +132,8 @@ public class CommandParametersAdapter {
                 .platformComponents(AndroidPlatformComponentsFactory.createFromActivity(
                         parameters.getActivity(),
                         parameters.getFragment()))
-                .applicationName(configuration.getAppContext().getPackageName())
-                .applicationVersion(getPackageVersion(configuration.getAppContext()))
+                .applicationName(requestContext.getApplicationName())
+                .applicationVersion(requestContext.getApplicationVersion())
                 .clientId(configuration.getClientId())
                 .isSharedDevice(configuration.getIsSharedDevice())
                 .oAuth2TokenCache(tokenCache)
@@ -165,31 +171,29 @@ public class CommandParametersAdapter {
             @NonNull final PublicClientApplicationConfiguration configuration,
             @NonNull final OAuth2TokenCache tokenCache,
             @NonNull final AcquireTokenSilentParameters parameters) throws ClientException {
+        final ApplicationRequestContext requestContext = ApplicationRequestContext.get(configuration);
         final Authority authority = getAuthority(configuration, parameters);
 
         final ClaimsRequest claimsRequest = parameters.getClaimsRequest();
 
-        final ClaimsRequest mergedClaimsRequest = getClaimsRequest(
-                parameters.getClaimsRequest(),
+        final String claimsRequestJson = getClaimsRequestJson(
+                claimsRequest,
                 configuration,
-                authority);
-
-        final String claimsRequestJson = ClaimsRequest.getJsonStringFromClaimsRequest(
-                mergedClaimsRequest
+                authority
         );
 
         final boolean forceRefresh = claimsRequest != null || parameters.getForceRefresh();
 
         final AbstractAuthenticationScheme authenticationScheme = AuthenticationSchemeFactory.createScheme(
-                AndroidPlatformComponentsFactory.createFromContext(configuration.getAppContext()),
+                requestContext.getPlatformComponents(),
                 parameters.getAuthenticationScheme()
         );
 
         final SilentTokenCommandParameters commandParameters = SilentTokenCommandParameters
                 .builder()
-                .platformComponents(AndroidPlatformComponentsFactory.createFromContext(configuration.getAppContext()))
-                .applicationName(configuration.getAppContext().getPackageName())
-                .applicationVersion(getPackageVersion(configuration.getAppContext()))
+                .platformComponents(requestContext.getPlatformComponents())
+                .applicationName(requestContext.getApplicationName())
+                .applicationVersion(requestContext.getApplicationVersion())
                 .clientId(configuration.getClientId())
                 .isSharedDevice(configuration.getIsSharedDevice())
                 .oAuth2TokenCache(tokenCache)
@@ -221,6 +225,7 @@ public class CommandParametersAdapter {
             @NonNull final PublicClientApplicationConfiguration configuration,
             @NonNull final OAuth2TokenCache tokenCache,
             @NonNull final DeviceCodeFlowParameters parameters) {
+        final ApplicationRequestContext requestContext = ApplicationRequestContext.get(configuration);
 
         final String claimsRequestJson = ClaimsRequest.getJsonStringFromClaimsRequest(parameters.getClaimsRequest());
 
@@ -229,9 +234,9 @@ public class CommandParametersAdapter {
         final AbstractAuthenticationScheme authenticationScheme = new BearerAuthenticationSchemeInternal();
 
         final DeviceCodeFlowCommandParameters commandParameters = DeviceCodeFlowCommandParameters.builder()
-                .platformComponents(AndroidPlatformComponentsFactory.createFromContext(configuration.getAppContext()))
-                .applicationName(configuration.getAppContext().getPackageName())
-                .applicationVersion(getPackageVersion(configuration.getAppContext()))
+                .platformComponents(requestContext.getPlatformComponents())
+                .applicationName(requestContext.getApplicationName())
+                .applicationVersion(requestContext.getApplicationVersion())
                 .clientId(configuration.getClientId())
                 .isSharedDevice(configuration.getIsSharedDevice())
                 .redirectUri(configuration.getRedirectUri())
@@ -254,6 +259,7 @@ public class CommandParametersAdapter {
             @NonNull final PublicClientApplicationConfiguration configuration,
             @NonNull final OAuth2TokenCache tokenCache,
             @NonNull List<String> scopes) {
+        final ApplicationRequestContext requestContext = ApplicationRequestContext.get(configuration);
 
         // TODO: Consider implementing support for PoP
 
@@ -262,9 +268,9 @@ public class CommandParametersAdapter {
         final AbstractAuthenticationScheme authenticationScheme = new BearerAuthenticationSchemeInternal();
 
         final DeviceCodeFlowCommandParameters commandParameters = DeviceCodeFlowCommandParameters.builder()
-                .platformComponents(AndroidPlatformComponentsFactory.createFromContext(configuration.getAppContext()))
-                .applicationName(configuration.getAppContext().getPackageName())
-                .applicationVersion(getPackageVersion(configuration.getAppContext()))
+                .platformComponents(requestContext.getPlatformComponents())
+                .applicationName(requestContext.getApplicationName())
+                .applicationVersion(requestContext.getApplicationVersion())
                 .clientId(configuration.getClientId())
                 .isSharedDevice(configuration.getIsSharedDevice())
                 .redirectUri(configuration.getRedirectUri())
@@ -281,17 +287,6 @@ public class CommandParametersAdapter {
         return commandParameters;
     }
 
-    private static String getPackageVersion(@NonNull final Context context) {
-        final String packageName = context.getPackageName();
-        try {
-            final PackageInfo packageInfo = context.getPackageManager().getPackageInfo(packageName, 0);
-            return packageInfo.versionName;
-        } catch (PackageManager.NameNotFoundException e) {
-            e.printStackTrace();
-        }
-        return null;
-    }
-
     private static Authority getRequestAuthority(
             @NonNull final PublicClientApplicationConfiguration publicClientApplicationConfiguration) {
 
@@ -309,15 +304,28 @@ public class CommandParametersAdapter {
         if (requestAuthority == null) {
             authority = publicClientApplicationConfiguration.getDefaultAuthority();
         } else {
-            authority = Authority.getAuthorityFromAuthorityUrl(requestAuthority);
+            authority = AuthorityCache.getAuthority(
+                    requestAuthority,
+                    Boolean.TRUE.equals(publicClientApplicationConfiguration.getMultipleCloudsSupported())
+            );
         }
 
         return authority;
     }
 
+    /**
+     * Returns the claims request with the client capabilities claim added. The supplied claims
+     * request is not modified.
+     */
     public static ClaimsRequest addClientCapabilitiesToClaimsRequest(ClaimsRequest cr, String clientCapabilities) {
 
-        final ClaimsRequest mergedClaimsRequest = (cr == null) ? new ClaimsRequest() : cr;
+        final ClaimsRequest mergedClaimsRequest = new ClaimsRequest();
+
+        if (cr != null) {
+            mergedClaimsRequest.getUserInfoClaimsRequested().addAll(cr.getUserInfoClaimsRequested());
+            mergedClaimsRequest.getAccessTokenClaimsRequested().addAll(cr.getAccessTokenClaimsRequested());
+            mergedClaimsRequest.getIdTokenClaimsRequested().addAll(cr.getIdTokenClaimsRequested());
+        }
 
         if (clientCapabilities != null) {
             //Add client capabilities to existing claims request
@@ -370,8 +378,9 @@ public class CommandParametersAdapter {
                 authority = configuration.getDefaultAuthority();
             }
         } else {
-            authority = Authority.getAuthorityFromAuthorityUrl(
-                    parameters.getAuthority()
+            return AuthorityCache.getAuthority(
+                    parameters.getAuthority(),
+                    Boolean.TRUE.equals(configuration.getMultipleCloudsSupported())
             );
         }
 
@@ -390,30 +399,62 @@ public class CommandParametersAdapter {
     private static Authority getAuthority(
             @NonNull final PublicClientApplicationConfiguration configuration,
             @NonNull final AcquireTokenSilentParameters parameters) {
-        final String requestAuthority = parameters.getAuthority();
-        final Authority authority = Authority.getAuthorityFromAuthorityUrl(requestAuthority);
+        return AuthorityCache.getAuthority(
+                parameters.getAuthority(),
+                Boolean.TRUE.equals(configuration.getMultipleCloudsSupported())
+        );
+    }
 
-        if (authority instanceof AzureActiveDirectoryAuthority) {
-            AzureActiveDirectoryAuthority aadAuthority =
-                    (AzureActiveDirectoryAuthority) authority;
+    @Nullable
+    private static String getClaimsRequestJson(
+            @Nullable final ClaimsRequest requestedClaims,
+            @NonNull final PublicClientApplicationConfiguration configuration,
+            @NonNull final Authority authority
+    ) {
+        if (!(authority instanceof AzureActiveDirectoryAuthority)) {
+            return ClaimsRequest.getJsonStringFromClaimsRequest(requestedClaims);
+        }
 
-            aadAuthority.setMultipleCloudsSupported(configuration.getMultipleCloudsSupported());
+        //AzureActiveDirectory supports client capabilities
+        if (requestedClaims == null) {
+            // Without claims from the caller, the merged claims only depend on the configuration.
+            return getClientCapabilitiesClaimsRequestJson(configuration.getClientCapabilities());
         }
 
-        return authority;
+        return ClaimsRequest.getJsonStringFromClaimsRequest(
+                addClientCapabilitiesToClaimsRequest(requestedClaims, configuration.getClientCapabilities())
+        );
     }
 
-    private static ClaimsRequest getClaimsRequest(
-            @NonNull final ClaimsRequest requestedClaims,
-            @NonNull final PublicClientApplicationConfiguration configuration,
-            @NonNull final Authority authority
-    ) {
-        if (authority instanceof AzureActiveDirectoryAuthority) {
-            //AzureActiveDirectory supports client capabilities
-            return addClientCapabilitiesToClaimsRequest(requestedClaims,
-                    configuration.getClientCapabilities());
-        } else {
-            return requestedClaims;
+    /**
+     * Returns the JSON of a claims request holding only the client capabilities claim, computed
+     * once for the configured client capabilities.
+     */
+    @NonNull
+    private static String getClientCapabilitiesClaimsRequestJson(@Nullable final String clientCapabilities) {
+        ClientCapabilitiesClaims claims = sClientCapabilitiesClaims;
+
+        if (claims == null || !TextUtils.equals(claims.mClientCapabilities, clientCapabilities)) {
+            claims = new ClientCapabilitiesClaims(
+                    clientCapabilities,
+                    ClaimsRequest.getJsonStringFromClaimsRequest(
+                            addClientCapabilitiesToClaimsRequest(null, clientCapabilities)
+                    )
+            );
+            sClientCapabilitiesClaims = claims;
+        }
+
+        return claims.mClaimsRequestJson;
+    }
+
+    private static final class ClientCapabilitiesClaims {
+        private final String mClientCapabilities;
+        private final String mClaimsRequestJson;
+
+        ClientCapabilitiesClaims(@Nullable final String clientCapabilities,
+                                 @NonNull final String claimsRequestJson) {
+            mClientCapabilities = clientCapabilities;
+            mClaimsRequestJson = claimsRequestJson;
         }
     }
 
@@ -475,11 +516,11 @@ public class CommandParametersAdapter {
             @NonNull final OAuth2TokenCache oAuth2TokenCache,
             @NonNull final String homeAccountId,
             @NonNull final PoPAuthenticationScheme popParameters) {
-        final Context context = clientConfig.getAppContext();
+        final ApplicationRequestContext requestContext = ApplicationRequestContext.get(clientConfig);
         return GenerateShrCommandParameters.builder()
-                .platformComponents(AndroidPlatformComponentsFactory.createFromContext(context))
-                .applicationName(context.getPackageName())
-                .applicationVersion(getPackageVersion(context))
+                .platformComponents(requestContext.getPlatformComponents())
+                .applicationName(requestContext.getApplicationName())
+                .applicationVersion(requestContext.getApplicationVersion())
                 .clientId(clientConfig.getClientId())
                 .isSharedDevice(clientConfig.getIsSharedDevice())
                 .redirectUri(clientConfig.getRedirectUri())
@@ -34,7 +34,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import com.microsoft.identity.client.exception.MsalClientException;
-import com.microsoft.identity.common.components.AndroidPlatformComponentsFactory;
+import com.microsoft.identity.client.internal.ApplicationRequestContext;
 import com.microsoft.identity.common.internal.broker.BrokerValidator;
 import com.microsoft.identity.common.java.authscheme.BearerAuthenticationSchemeInternal;
 import com.microsoft.identity.common.java.cache.ICacheRecord;
@@ -66,7 +66,9 @@ public final class BrokerClientIdRefreshTokenAccessor {
 
         throwIfNotValidBroker(context);
 
-        final MsalOAuth2TokenCache tokenCache = MsalOAuth2TokenCache.create(AndroidPlatformComponentsFactory.createFromContext(context));
+        final MsalOAuth2TokenCache tokenCache = MsalOAuth2TokenCache.create(
+                ApplicationRequestContext.get(context).getPlatformComponents()
+        );
 
         final String applicationIdentitifier = String.format(APPLICATION_IDENTIFIER_FORMAT, null, null);
         final ICacheRecord cacheRecord = getCacheRecordForIdentifier(tokenCache, accountObjectId, applicationIdentitifier);
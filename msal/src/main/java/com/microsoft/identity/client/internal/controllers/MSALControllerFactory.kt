@@ -27,7 +27,7 @@ import android.os.Build
 import android.os.PowerManager
 import androidx.annotation.VisibleForTesting
 import com.microsoft.identity.client.PublicClientApplicationConfiguration
-import com.microsoft.identity.common.components.AndroidPlatformComponentsFactory
+import com.microsoft.identity.client.internal.ApplicationRequestContext
 import com.microsoft.identity.common.internal.activebrokerdiscovery.BrokerDiscoveryClientFactory
 import com.microsoft.identity.common.internal.controllers.BrokerMsalController
 import com.microsoft.identity.common.internal.controllers.LocalMSALController
@@ -50,7 +50,7 @@ class MSALControllerFactory(
 
     constructor(applicationConfiguration: PublicClientApplicationConfiguration):
         this(applicationConfiguration.appContext,
-             AndroidPlatformComponentsFactory.createFromContext(applicationConfiguration.appContext),
+             ApplicationRequestContext.get(applicationConfiguration).platformComponents,
              applicationConfiguration)
 
     companion object {
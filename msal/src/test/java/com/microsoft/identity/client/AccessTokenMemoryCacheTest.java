@@ -0,0 +1,172 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(RobolectricTestRunner.class)
+public class AccessTokenMemoryCacheTest {
+
+    private static final String HOME_ACCOUNT_ID = "uid.utid";
+    private static final String OTHER_HOME_ACCOUNT_ID = "uid2.utid";
+    private static final String AUTHORITY = "https://login.microsoftonline.com/common";
+
+    private AccessTokenMemoryCache mCache;
+
+    @Before
+    public void setup() {
+        mCache = new AccessTokenMemoryCache(2);
+    }
+
+    @Test
+    public void testKeyIgnoresScopeOrderAndCasing() {
+        final String key1 = AccessTokenMemoryCache.createKey(
+                HOME_ACCOUNT_ID, AUTHORITY, Arrays.asList("User.Read", "Mail.Read"), null);
+        final String key2 = AccessTokenMemoryCache.createKey(
+                HOME_ACCOUNT_ID, AUTHORITY + "/", Arrays.asList(" mail.read", "user.read"), "Bearer");
+
+        Assert.assertEquals(key1, key2);
+    }
+
+    @Test
+    public void testKeyDiffersPerAccount() {
+        final String key1 = AccessTokenMemoryCache.createKey(
+                HOME_ACCOUNT_ID, AUTHORITY, Arrays.asList("User.Read"), null);
+        final String key2 = AccessTokenMemoryCache.createKey(
+                OTHER_HOME_ACCOUNT_ID, AUTHORITY, Arrays.asList("User.Read"), null);
+
+        Assert.assertNotEquals(key1, key2);
+    }
+
+    @Test
+    public void testReturnsValidToken() {
+        final IAuthenticationResult result = resultExpiringIn(TimeUnit.HOURS.toMillis(1));
+        mCache.put("key", HOME_ACCOUNT_ID, result);
+
+        Assert.assertSame(result, mCache.get("key"));
+    }
+
+    @Test
+    public void testDoesNotReturnTokenAboutToExpire() {
+        mCache.put("key", HOME_ACCOUNT_ID, resultExpiringIn(TimeUnit.MINUTES.toMillis(1)));
+
+        Assert.assertNull(mCache.get("key"));
+        Assert.assertEquals(0, mCache.size());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        mCache.put("key1", HOME_ACCOUNT_ID, resultExpiringIn(TimeUnit.HOURS.toMillis(1)));
+        mCache.put("key2", HOME_ACCOUNT_ID, resultExpiringIn(TimeUnit.HOURS.toMillis(1)));
+        Assert.assertNotNull(mCache.get("key1"));
+
+        mCache.put("key3", HOME_ACCOUNT_ID, resultExpiringIn(TimeUnit.HOURS.toMillis(1)));
+
+        Assert.assertNotNull(mCache.get("key1"));
+        Assert.assertNull(mCache.get("key2"));
+        Assert.assertNotNull(mCache.get("key3"));
+    }
+
+    @Test
+    public void testRemoveAccount() {
+        mCache.put("key1", HOME_ACCOUNT_ID, resultExpiringIn(TimeUnit.HOURS.toMillis(1)));
+        mCache.put("key2", OTHER_HOME_ACCOUNT_ID, resultExpiringIn(TimeUnit.HOURS.toMillis(1)));
+
+        mCache.remove(HOME_ACCOUNT_ID);
+
+        Assert.assertNull(mCache.get("key1"));
+        Assert.assertNotNull(mCache.get("key2"));
+    }
+
+    private static IAuthenticationResult resultExpiringIn(final long millis) {
+        final Date expiresOn = new Date(System.currentTimeMillis() + millis);
+
+        return new IAuthenticationResult() {
+            @NonNull
+            @Override
+            public String getAccessToken() {
+                return "access_token";
+            }
+
+            @NonNull
+            @Override
+            public String getAuthorizationHeader() {
+                return "Bearer access_token";
+            }
+
+            @NonNull
+            @Override
+            public String getAuthenticationScheme() {
+                return "Bearer";
+            }
+
+            @NonNull
+            @Override
+            public Date getExpiresOn() {
+                return expiresOn;
+            }
+
+            @Nullable
+            @Override
+            public String getTenantId() {
+                return null;
+            }
+
+            @NonNull
+            @Override
+            public IAccount getAccount() {
+                throw new UnsupportedOperationException();
+            }
+
+            @NonNull
+            @Override
+            public String[] getScope() {
+                return new String[]{"user.read"};
+            }
+
+            @Nullable
+            @Override
+            public UUID getCorrelationId() {
+                return null;
+            }
+
+            @Nullable
+            @Override
+            public RequestTimings getRequestTimings() {
+                return null;
+            }
+        };
+    }
+}
@@ -0,0 +1,297 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.client.exception.MsalException;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(RobolectricTestRunner.class)
+public class AccessTokenRefreshSchedulerTest {
+
+    private static final String AUTHORITY = "https://login.microsoftonline.com/common";
+
+    private ScheduledExecutorService mExecutor;
+    private List<AcquireTokenSilentParameters> mRefreshes;
+
+    @Before
+    public void setup() {
+        mExecutor = Executors.newSingleThreadScheduledExecutor();
+        mRefreshes = Collections.synchronizedList(new ArrayList<AcquireTokenSilentParameters>());
+    }
+
+    @After
+    public void tearDown() {
+        mExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testDelayIsFractionOfRemainingLifetime() {
+        final AccessTokenRefreshScheduler scheduler = createScheduler(0.5, 0.5);
+
+        Assert.assertEquals(TimeUnit.MINUTES.toMillis(30),
+                scheduler.getRefreshDelayMillis(0, TimeUnit.HOURS.toMillis(1)), 1);
+    }
+
+    @Test
+    public void testDelayIsJittered() {
+        final AccessTokenRefreshScheduler low = createScheduler(0.5, 0.0);
+        final AccessTokenRefreshScheduler high = createScheduler(0.5, 1.0);
+
+        Assert.assertEquals(TimeUnit.MINUTES.toMillis(27),
+                low.getRefreshDelayMillis(0, TimeUnit.HOURS.toMillis(1)), 1);
+        Assert.assertEquals(TimeUnit.MINUTES.toMillis(33),
+                high.getRefreshDelayMillis(0, TimeUnit.HOURS.toMillis(1)), 1);
+    }
+
+    @Test
+    public void testInvalidFractionFallsBackToDefault() {
+        final AccessTokenRefreshScheduler scheduler = createScheduler(1.5, 0.5);
+
+        Assert.assertEquals(TimeUnit.MINUTES.toMillis(45),
+                scheduler.getRefreshDelayMillis(0, TimeUnit.HOURS.toMillis(1)), 1);
+    }
+
+    @Test
+    public void testNoRefreshCloseToExpiry() {
+        final AccessTokenRefreshScheduler scheduler = createScheduler(0.5, 0.5);
+
+        Assert.assertEquals(-1, scheduler.getRefreshDelayMillis(0, TimeUnit.MINUTES.toMillis(1)));
+    }
+
+    @Test
+    public void testIdenticalRequestsScheduleOneRefresh() {
+        final AccessTokenRefreshScheduler scheduler = createScheduler(0.5, 0.5);
+
+        scheduler.schedule(buildParameters("uid"), resultExpiringIn(TimeUnit.HOURS.toMillis(1)));
+        scheduler.schedule(buildParameters("uid"), resultExpiringIn(TimeUnit.HOURS.toMillis(1)));
+        scheduler.schedule(buildParameters("uid2"), resultExpiringIn(TimeUnit.HOURS.toMillis(1)));
+
+        Assert.assertEquals(2, scheduler.getScheduledRefreshCount());
+    }
+
+    @Test
+    public void testCancelAccount() {
+        final AccessTokenRefreshScheduler scheduler = createScheduler(0.5, 0.5);
+
+        scheduler.schedule(buildParameters("uid"), resultExpiringIn(TimeUnit.HOURS.toMillis(1)));
+        scheduler.schedule(buildParameters("uid2"), resultExpiringIn(TimeUnit.HOURS.toMillis(1)));
+
+        scheduler.cancel("uid.utid");
+        Assert.assertEquals(1, scheduler.getScheduledRefreshCount());
+
+        scheduler.cancel(null);
+        Assert.assertEquals(0, scheduler.getScheduledRefreshCount());
+    }
+
+    @Test
+    public void testRefreshIsForced() throws InterruptedException {
+        final AccessTokenRefreshScheduler scheduler = createScheduler(0.001, 0.5);
+
+        scheduler.schedule(buildParameters("uid"), resultExpiringIn(TimeUnit.MINUTES.toMillis(3)));
+
+        mExecutor.awaitTermination(1, TimeUnit.SECONDS);
+
+        Assert.assertEquals(1, mRefreshes.size());
+        Assert.assertTrue(mRefreshes.get(0).getForceRefresh());
+        Assert.assertEquals(Arrays.asList("User.Read"), mRefreshes.get(0).getScopes());
+        Assert.assertEquals(0, scheduler.getScheduledRefreshCount());
+    }
+
+    @Test
+    public void testRefreshResultIsNotRescheduledWithoutAccess() throws InterruptedException {
+        final AccessTokenRefreshScheduler scheduler = createScheduler(0.001, 0.5);
+
+        scheduler.schedule(buildParameters("uid"), resultExpiringIn(TimeUnit.MINUTES.toMillis(3)));
+        awaitRefreshes(1);
+
+        scheduler.schedule(mRefreshes.get(0), resultExpiringIn(TimeUnit.HOURS.toMillis(1)));
+
+        Assert.assertEquals(0, scheduler.getScheduledRefreshCount());
+    }
+
+    @Test
+    public void testRefreshResultIsRescheduledAfterAccess() throws InterruptedException {
+        final AccessTokenRefreshScheduler scheduler = createScheduler(0.001, 0.5);
+
+        scheduler.schedule(buildParameters("uid"), resultExpiringIn(TimeUnit.MINUTES.toMillis(3)));
+        awaitRefreshes(1);
+
+        // The refresh itself does not count as an access.
+        scheduler.recordAccess(mRefreshes.get(0));
+        scheduler.schedule(mRefreshes.get(0), resultExpiringIn(TimeUnit.HOURS.toMillis(1)));
+        Assert.assertEquals(0, scheduler.getScheduledRefreshCount());
+
+        scheduler.schedule(buildParameters("uid"), resultExpiringIn(TimeUnit.MINUTES.toMillis(3)));
+        awaitRefreshes(2);
+
+        scheduler.recordAccess(buildParameters("uid"));
+        scheduler.schedule(mRefreshes.get(1), resultExpiringIn(TimeUnit.HOURS.toMillis(1)));
+        Assert.assertEquals(1, scheduler.getScheduledRefreshCount());
+    }
+
+    @Test
+    public void testConsecutiveRefreshesAreCapped() throws InterruptedException {
+        final AccessTokenRefreshScheduler scheduler = createScheduler(0.001, 0.5);
+
+        scheduler.schedule(buildParameters("uid"), resultExpiringIn(TimeUnit.MINUTES.toMillis(3)));
+
+        for (int i = 0; i < AccessTokenRefreshScheduler.MAX_CONSECUTIVE_REFRESHES; i++) {
+            awaitRefreshes(i + 1);
+            scheduler.recordAccess(buildParameters("uid"));
+            scheduler.schedule(mRefreshes.get(i), resultExpiringIn(TimeUnit.MINUTES.toMillis(3)));
+        }
+
+        Assert.assertEquals(0, scheduler.getScheduledRefreshCount());
+        Assert.assertEquals(AccessTokenRefreshScheduler.MAX_CONSECUTIVE_REFRESHES, mRefreshes.size());
+    }
+
+    private void awaitRefreshes(final int count) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+
+        while (mRefreshes.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        Assert.assertEquals(count, mRefreshes.size());
+    }
+
+    private AccessTokenRefreshScheduler createScheduler(final double fraction, final double random) {
+        return new AccessTokenRefreshScheduler(
+                fraction,
+                new AccessTokenRefreshScheduler.RefreshAction() {
+                    @Override
+                    public void refresh(@NonNull final AcquireTokenSilentParameters parameters) {
+                        mRefreshes.add(parameters);
+                    }
+                },
+                mExecutor,
+                new Random() {
+                    @Override
+                    public double nextDouble() {
+                        return random;
+                    }
+                }
+        );
+    }
+
+    private static AcquireTokenSilentParameters buildParameters(final String accountId) {
+        final Account account = new Account(null, null);
+        account.setId(accountId);
+        account.setTenantId("utid");
+
+        return new AcquireTokenSilentParameters.Builder()
+                .withScopes(Arrays.asList("User.Read"))
+                .fromAuthority(AUTHORITY)
+                .forAccount(account)
+                .withCallback(new SilentAuthenticationCallback() {
+                    @Override
+                    public void onSuccess(final IAuthenticationResult authenticationResult) {
+                    }
+
+                    @Override
+                    public void onError(final MsalException exception) {
+                    }
+                })
+                .build();
+    }
+
+    private static IAuthenticationResult resultExpiringIn(final long millis) {
+        final Date expiresOn = new Date(System.currentTimeMillis() + millis);
+
+        return new IAuthenticationResult() {
+            @NonNull
+            @Override
+            public String getAccessToken() {
+                return "access_token";
+            }
+
+            @NonNull
+            @Override
+            public String getAuthorizationHeader() {
+                return "Bearer access_token";
+            }
+
+            @NonNull
+            @Override
+            public String getAuthenticationScheme() {
+                return "Bearer";
+            }
+
+            @NonNull
+            @Override
+            public Date getExpiresOn() {
+                return expiresOn;
+            }
+
+            @Nullable
+            @Override
+            public String getTenantId() {
+                return null;
+            }
+
+            @NonNull
+            @Override
+            public IAccount getAccount() {
+                throw new UnsupportedOperationException();
+            }
+
+            @NonNull
+            @Override
+            public String[] getScope() {
+                return new String[]{"user.read"};
+            }
+
+            @Nullable
+            @Override
+            public UUID getCorrelationId() {
+                return null;
+            }
+
+            @Nullable
+            @Override
+            public RequestTimings getRequestTimings() {
+                return null;
+            }
+        };
+    }
+}
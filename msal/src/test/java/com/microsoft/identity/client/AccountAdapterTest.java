@@ -0,0 +1,139 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import com.microsoft.identity.common.java.cache.CacheRecord;
+import com.microsoft.identity.common.java.cache.ICacheRecord;
+import com.microsoft.identity.common.java.dto.AccountRecord;
+import com.microsoft.identity.common.java.dto.IdTokenRecord;
+import com.microsoft.identity.internal.testutils.mocks.MockTokenCreator;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class AccountAdapterTest {
+
+    private static final String ENVIRONMENT = "login.microsoftonline.com";
+    private static final String HOME_TENANT_ID = "home-tenant";
+    private static final int GUEST_TENANTS_PER_ACCOUNT = 3;
+
+    @Test
+    public void testHomeAccountsBecomeRoots() {
+        final List<IAccount> accounts = AccountAdapter.adapt(createCacheRecords(2, 0, true));
+
+        Assert.assertEquals(2, accounts.size());
+
+        for (final IAccount account : accounts) {
+            final MultiTenantAccount multiTenantAccount = (MultiTenantAccount) account;
+            Assert.assertNotNull(multiTenantAccount.getClaims());
+            Assert.assertEquals(HOME_TENANT_ID, multiTenantAccount.getTenantId());
+            Assert.assertTrue(multiTenantAccount.getTenantProfiles().isEmpty());
+        }
+    }
+
+    @Test
+    public void testGuestsAttachToTheirHomeAccount() {
+        final List<IAccount> accounts = AccountAdapter.adapt(createCacheRecords(2, GUEST_TENANTS_PER_ACCOUNT, true));
+
+        Assert.assertEquals(2, accounts.size());
+
+        for (final IAccount account : accounts) {
+            final MultiTenantAccount multiTenantAccount = (MultiTenantAccount) account;
+            Assert.assertEquals(GUEST_TENANTS_PER_ACCOUNT, multiTenantAccount.getTenantProfiles().size());
+            Assert.assertTrue(multiTenantAccount.getTenantProfiles().containsKey("guest-tenant-0"));
+        }
+    }
+
+    @Test
+    public void testGuestsWithoutHomeAccountBecomeRootlessAccounts() {
+        final List<IAccount> accounts = AccountAdapter.adapt(createCacheRecords(2, GUEST_TENANTS_PER_ACCOUNT, false));
+
+        Assert.assertEquals(2, accounts.size());
+
+        for (final IAccount account : accounts) {
+            final MultiTenantAccount multiTenantAccount = (MultiTenantAccount) account;
+            Assert.assertNull(multiTenantAccount.getClaims());
+            Assert.assertEquals(HOME_TENANT_ID, multiTenantAccount.getTenantId());
+            Assert.assertEquals(ENVIRONMENT, multiTenantAccount.getEnvironment());
+            Assert.assertEquals(GUEST_TENANTS_PER_ACCOUNT, multiTenantAccount.getTenantProfiles().size());
+        }
+    }
+
+    @Test
+    public void testGuestsDoNotAttachToAccountWithSimilarId() {
+        final List<ICacheRecord> cacheRecords = new ArrayList<>();
+        cacheRecords.add(createCacheRecord("uid-1." + HOME_TENANT_ID, "uid-1", HOME_TENANT_ID));
+        cacheRecords.add(createCacheRecord("uid-11." + HOME_TENANT_ID, "guest-oid", "guest-tenant"));
+
+        final List<IAccount> accounts = AccountAdapter.adapt(cacheRecords);
+
+        Assert.assertEquals(2, accounts.size());
+        Assert.assertTrue(((MultiTenantAccount) accounts.get(0)).getTenantProfiles().isEmpty());
+        Assert.assertEquals(1, ((MultiTenantAccount) accounts.get(1)).getTenantProfiles().size());
+    }
+
+    private static List<ICacheRecord> createCacheRecords(final int accountCount,
+                                                         final int guestTenantsPerAccount,
+                                                         final boolean includeHomeRecord) {
+        final List<ICacheRecord> cacheRecords = new ArrayList<>();
+
+        for (int i = 0; i < accountCount; i++) {
+            final String homeAccountId = "uid-" + i + "." + HOME_TENANT_ID;
+
+            if (includeHomeRecord) {
+                cacheRecords.add(createCacheRecord(homeAccountId, "uid-" + i, HOME_TENANT_ID));
+            }
+
+            for (int j = 0; j < guestTenantsPerAccount; j++) {
+                cacheRecords.add(createCacheRecord(homeAccountId, "guest-oid-" + i + "-" + j, "guest-tenant-" + j));
+            }
+        }
+
+        return cacheRecords;
+    }
+
+    private static ICacheRecord createCacheRecord(final String homeAccountId,
+                                                  final String localAccountId,
+                                                  final String realm) {
+        final AccountRecord accountRecord = new AccountRecord();
+        accountRecord.setHomeAccountId(homeAccountId);
+        accountRecord.setLocalAccountId(localAccountId);
+        accountRecord.setRealm(realm);
+        accountRecord.setEnvironment(ENVIRONMENT);
+        accountRecord.setClientInfo(MockTokenCreator.createMockRawClientInfo());
+
+        final IdTokenRecord idTokenRecord = new IdTokenRecord();
+        idTokenRecord.setSecret(MockTokenCreator.createMockIdToken());
+
+        return CacheRecord.builder()
+                .account(accountRecord)
+                .idToken(idTokenRecord)
+                .build();
+    }
+}
@@ -0,0 +1,117 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+@RunWith(RobolectricTestRunner.class)
+public class AccountIndexTest {
+
+    private AccountIndex mIndex;
+    private MultiTenantAccount mAccount;
+    private MultiTenantAccount mOtherAccount;
+
+    @Before
+    public void setup() {
+        mIndex = new AccountIndex();
+        mAccount = createAccount("uid", "utid", "guest-oid", "guest-tid");
+        mOtherAccount = createAccount("uid2", "utid", "guest-oid2", "guest-tid");
+    }
+
+    @Test
+    public void testNoMatchUntilPopulated() {
+        Assert.assertFalse(mIndex.isPopulated());
+        Assert.assertNull(mIndex.lookup("uid.utid"));
+
+        mIndex.replaceAll(Collections.<IAccount>emptyList());
+
+        Assert.assertTrue(mIndex.isPopulated());
+        Assert.assertNull(mIndex.lookup("uid.utid"));
+    }
+
+    @Test
+    public void testLookupByHomeAccountId() {
+        mIndex.replaceAll(Arrays.<IAccount>asList(mAccount, mOtherAccount));
+
+        Assert.assertSame(mAccount, mIndex.lookup("uid.utid"));
+        Assert.assertSame(mAccount, mIndex.lookup(" UID.UTID "));
+        Assert.assertSame(mOtherAccount, mIndex.lookup("uid2"));
+    }
+
+    @Test
+    public void testLookupByLocalAccountId() {
+        mIndex.replaceAll(Arrays.<IAccount>asList(mAccount, mOtherAccount));
+
+        Assert.assertSame(mAccount, mIndex.lookup("guest-oid"));
+        Assert.assertSame(mOtherAccount, mIndex.lookup("guest-oid2"));
+    }
+
+    @Test
+    public void testEvictAccount() {
+        mIndex.replaceAll(Arrays.<IAccount>asList(mAccount, mOtherAccount));
+
+        mIndex.evict("uid.utid");
+
+        Assert.assertNull(mIndex.lookup("uid.utid"));
+        Assert.assertNull(mIndex.lookup("guest-oid"));
+        Assert.assertSame(mOtherAccount, mIndex.lookup("uid2.utid"));
+    }
+
+    @Test
+    public void testClear() {
+        mIndex.replaceAll(Arrays.<IAccount>asList(mAccount));
+
+        mIndex.clear();
+
+        Assert.assertFalse(mIndex.isPopulated());
+        Assert.assertNull(mIndex.lookup("uid.utid"));
+    }
+
+    private static MultiTenantAccount createAccount(final String uid,
+                                                    final String utid,
+                                                    final String guestOid,
+                                                    final String guestTenantId) {
+        final MultiTenantAccount account = new MultiTenantAccount(null, null);
+        account.setId(uid);
+        account.setTenantId(utid);
+
+        final TenantProfile guestProfile = new TenantProfile(null, null);
+        guestProfile.setId(guestOid);
+        guestProfile.setTenantId(guestTenantId);
+
+        final Map<String, ITenantProfile> profiles = new HashMap<>();
+        profiles.put(guestTenantId, guestProfile);
+        account.setTenantProfiles(profiles);
+
+        return account;
+    }
+}
@@ -0,0 +1,83 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import android.util.Base64;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.nio.charset.StandardCharsets;
+
+@RunWith(RobolectricTestRunner.class)
+public class AccountTest {
+
+    private static final String CLIENT_INFO = Base64.encodeToString(
+            "{\"uid\":\"client-info-uid\",\"utid\":\"client-info-utid\"}".getBytes(StandardCharsets.UTF_8),
+            Base64.URL_SAFE | Base64.NO_WRAP
+    );
+
+    @Test
+    public void testIdIsParsedFromClientInfo() {
+        final Account account = new Account(CLIENT_INFO, null);
+        account.setTenantId("utid");
+
+        Assert.assertEquals("client-info-uid", account.getId());
+        Assert.assertSame(account.getId(), account.getId());
+        Assert.assertEquals("client-info-uid.utid", account.getHomeAccountId());
+        Assert.assertSame(account.getHomeAccountId(), account.getHomeAccountId());
+    }
+
+    @Test
+    public void testHomeAccountIdFollowsTenantId() {
+        final Account account = new Account(null, null);
+        account.setId("uid");
+        account.setTenantId("utid");
+        Assert.assertEquals("uid.utid", account.getHomeAccountId());
+
+        account.setTenantId("utid2");
+        Assert.assertEquals("uid.utid2", account.getHomeAccountId());
+    }
+
+    @Test
+    public void testIdFollowsSetters() {
+        final Account account = new Account(null, null);
+        account.setTenantId("utid");
+        account.setId("uid");
+        Assert.assertEquals("uid", account.getId());
+
+        account.setId("uid2");
+        Assert.assertEquals("uid2", account.getId());
+        Assert.assertEquals("uid2.utid", account.getHomeAccountId());
+    }
+
+    @Test
+    public void testIdFallsBackToHomeAccountId() {
+        final Account account = new Account(null, null);
+        account.setHomeAccountId("home-uid.home-utid");
+
+        Assert.assertEquals("home-uid", account.getId());
+    }
+}
@@ -0,0 +1,143 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+@RunWith(RobolectricTestRunner.class)
+public class AccountsSnapshotHolderTest {
+
+    private AccountsSnapshotHolder mHolder;
+
+    @Before
+    public void setup() {
+        mHolder = new AccountsSnapshotHolder();
+    }
+
+    @Test
+    public void testNoSnapshotUntilPublished() {
+        Assert.assertNull(mHolder.getCurrent());
+
+        final AccountsSnapshot snapshot = mHolder.publish(
+                mHolder.getGeneration(),
+                Collections.<IAccount>emptyList()
+        );
+
+        Assert.assertNotNull(snapshot);
+        Assert.assertEquals(1, snapshot.getVersion());
+        Assert.assertSame(snapshot, mHolder.getCurrent());
+    }
+
+    @Test
+    public void testVersionOnlyChangesWithAccountSet() {
+        mHolder.publish(mHolder.getGeneration(), Arrays.<IAccount>asList(createAccount("uid", "guest-tid")));
+
+        Assert.assertNull(mHolder.publish(
+                mHolder.getGeneration(),
+                Arrays.<IAccount>asList(createAccount("uid", "guest-tid"))
+        ));
+        Assert.assertEquals(1, mHolder.getCurrent().getVersion());
+
+        final AccountsSnapshot withNewTenant = mHolder.publish(
+                mHolder.getGeneration(),
+                Arrays.<IAccount>asList(createAccount("uid", "other-guest-tid"))
+        );
+
+        Assert.assertNotNull(withNewTenant);
+        Assert.assertEquals(2, withNewTenant.getVersion());
+
+        final AccountsSnapshot withNewAccount = mHolder.publish(
+                mHolder.getGeneration(),
+                Arrays.<IAccount>asList(createAccount("uid", "other-guest-tid"), createAccount("uid2", "guest-tid"))
+        );
+
+        Assert.assertNotNull(withNewAccount);
+        Assert.assertEquals(3, withNewAccount.getVersion());
+        Assert.assertEquals(2, withNewAccount.getAccounts().size());
+    }
+
+    @Test
+    public void testMutationMakesSnapshotStale() {
+        mHolder.publish(mHolder.getGeneration(), Collections.<IAccount>emptyList());
+
+        mHolder.markStale();
+
+        Assert.assertNull(mHolder.getCurrent());
+    }
+
+    @Test
+    public void testLoadRacingWithMutationIsNotServed() {
+        final long generation = mHolder.getGeneration();
+
+        mHolder.markStale();
+        mHolder.publish(generation, Collections.<IAccount>emptyList());
+
+        Assert.assertNull(mHolder.getCurrent());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSnapshotIsImmutable() {
+        final AccountsSnapshot snapshot = mHolder.publish(
+                mHolder.getGeneration(),
+                Collections.<IAccount>emptyList()
+        );
+
+        snapshot.getAccounts().add(createAccount("uid", "guest-tid"));
+    }
+
+    @Test
+    public void testSingleRefreshInFlight() {
+        Assert.assertTrue(mHolder.beginRefresh());
+        Assert.assertFalse(mHolder.beginRefresh());
+
+        mHolder.endRefresh();
+
+        Assert.assertTrue(mHolder.beginRefresh());
+    }
+
+    private static MultiTenantAccount createAccount(final String uid,
+                                                    final String guestTenantId) {
+        final MultiTenantAccount account = new MultiTenantAccount(null, null);
+        account.setId(uid);
+        account.setTenantId("utid");
+
+        final TenantProfile guestProfile = new TenantProfile(null, null);
+        guestProfile.setId("guest-oid");
+        guestProfile.setTenantId(guestTenantId);
+
+        final Map<String, ITenantProfile> profiles = new HashMap<>();
+        profiles.put(guestTenantId, guestProfile);
+        account.setTenantProfiles(profiles);
+
+        return account;
+    }
+}
@@ -0,0 +1,123 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import androidx.annotation.NonNull;
+
+import com.microsoft.identity.common.internal.migration.TokenMigrationCallback;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(RobolectricTestRunner.class)
+public class AdalMigrationLatchTest {
+
+    private AtomicInteger mRunCount;
+    private List<TokenMigrationCallback> mPendingRuns;
+
+    private final AdalMigrationLatch.Migration mMigration = new AdalMigrationLatch.Migration() {
+        @Override
+        public void run(@NonNull final TokenMigrationCallback callback) {
+            mRunCount.incrementAndGet();
+            mPendingRuns.add(callback);
+        }
+    };
+
+    @Before
+    public void setup() {
+        AdalMigrationLatch.reset();
+        mRunCount = new AtomicInteger();
+        mPendingRuns = new ArrayList<>();
+    }
+
+    @After
+    public void tearDown() {
+        AdalMigrationLatch.reset();
+    }
+
+    @Test
+    public void testConcurrentCallsShareOneRun() {
+        final AtomicInteger first = new AtomicInteger(-1);
+        final AtomicInteger second = new AtomicInteger(-1);
+
+        AdalMigrationLatch.runOnce(mMigration, recordInto(first));
+        AdalMigrationLatch.runOnce(mMigration, recordInto(second));
+
+        Assert.assertEquals(1, mRunCount.get());
+        Assert.assertEquals(-1, first.get());
+
+        mPendingRuns.get(0).onMigrationFinished(3);
+
+        Assert.assertEquals(3, first.get());
+        Assert.assertEquals(3, second.get());
+        Assert.assertTrue(AdalMigrationLatch.isMigrationDone());
+    }
+
+    @Test
+    public void testMigrationSkippedOnceDone() {
+        AdalMigrationLatch.runOnce(mMigration, recordInto(new AtomicInteger()));
+        mPendingRuns.get(0).onMigrationFinished(1);
+
+        final AtomicInteger later = new AtomicInteger(-1);
+        AdalMigrationLatch.runOnce(mMigration, recordInto(later));
+
+        Assert.assertEquals(1, mRunCount.get());
+        Assert.assertEquals(0, later.get());
+    }
+
+    @Test
+    public void testFailedMigrationIsRetried() {
+        final AtomicInteger result = new AtomicInteger(-1);
+
+        AdalMigrationLatch.runOnce(new AdalMigrationLatch.Migration() {
+            @Override
+            public void run(@NonNull final TokenMigrationCallback callback) {
+                throw new IllegalStateException("Storage unavailable");
+            }
+        }, recordInto(result));
+
+        Assert.assertEquals(0, result.get());
+        Assert.assertFalse(AdalMigrationLatch.isMigrationDone());
+
+        AdalMigrationLatch.runOnce(mMigration, recordInto(new AtomicInteger()));
+
+        Assert.assertEquals(1, mRunCount.get());
+    }
+
+    private static TokenMigrationCallback recordInto(final AtomicInteger result) {
+        return new TokenMigrationCallback() {
+            @Override
+            public void onMigrationFinished(final int numberOfAccountsMigrated) {
+                result.set(numberOfAccountsMigrated);
+            }
+        };
+    }
+}
@@ -0,0 +1,67 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import android.content.Context;
+import android.content.pm.PackageManager;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.microsoft.identity.client.internal.ApplicationRequestContext;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class ApplicationRequestContextTest {
+
+    private Context mContext;
+
+    @Before
+    public void setup() {
+        mContext = ApplicationProvider.getApplicationContext();
+    }
+
+    @Test
+    public void testSnapshotIsReused() {
+        final ApplicationRequestContext first = ApplicationRequestContext.get(mContext);
+        final ApplicationRequestContext second = ApplicationRequestContext.get(mContext);
+
+        Assert.assertSame(first, second);
+        Assert.assertSame(first.getPlatformComponents(), second.getPlatformComponents());
+    }
+
+    @Test
+    public void testSnapshotMatchesPackage() throws PackageManager.NameNotFoundException {
+        final ApplicationRequestContext requestContext = ApplicationRequestContext.get(mContext);
+
+        Assert.assertEquals(mContext.getPackageName(), requestContext.getApplicationName());
+        Assert.assertEquals(
+                mContext.getPackageManager().getPackageInfo(mContext.getPackageName(), 0).versionName,
+                requestContext.getApplicationVersion()
+        );
+    }
+}
@@ -0,0 +1,126 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+@RunWith(RobolectricTestRunner.class)
+public class BackgroundExecutorTest {
+
+    private CountDownLatch mRelease;
+    private BackgroundExecutor mExecutor;
+
+    @Before
+    public void setup() {
+        mRelease = new CountDownLatch(1);
+        mExecutor = new BackgroundExecutor(1, 1);
+    }
+
+    @After
+    public void tearDown() {
+        mRelease.countDown();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsInvalidSettings() {
+        new BackgroundExecutor(0, 1);
+    }
+
+    @Test
+    public void testQueuesWhenAllThreadsBusy() throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        mExecutor.execute(blockingTask(started));
+        Assert.assertTrue(started.await(1, TimeUnit.SECONDS));
+
+        mExecutor.execute(blockingTask(null));
+
+        Assert.assertEquals(1, mExecutor.getQueueDepth());
+        Assert.assertEquals(1, mExecutor.getActiveThreadCount());
+    }
+
+    @Test
+    public void testOverflowFromMainThreadDoesNotBlock() throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        mExecutor.execute(blockingTask(started));
+        Assert.assertTrue(started.await(1, TimeUnit.SECONDS));
+        mExecutor.execute(blockingTask(null));
+
+        final CountDownLatch overflowStarted = new CountDownLatch(1);
+        // Robolectric runs tests on the main looper thread.
+        mExecutor.execute(blockingTask(overflowStarted));
+
+        Assert.assertTrue(overflowStarted.await(1, TimeUnit.SECONDS));
+        Assert.assertEquals(2, mExecutor.getActiveThreadCount());
+    }
+
+    @Test
+    public void testOverflowFromBackgroundThreadRunsOnCaller() throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        mExecutor.execute(blockingTask(started));
+        Assert.assertTrue(started.await(1, TimeUnit.SECONDS));
+        mExecutor.execute(blockingTask(null));
+
+        final AtomicReference<Thread> runningThread = new AtomicReference<>();
+        final Thread caller = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                mExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        runningThread.set(Thread.currentThread());
+                    }
+                });
+            }
+        });
+        caller.start();
+        caller.join(TimeUnit.SECONDS.toMillis(1));
+
+        Assert.assertSame(caller, runningThread.get());
+    }
+
+    private Runnable blockingTask(final CountDownLatch started) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                if (started != null) {
+                    started.countDown();
+                }
+
+                try {
+                    mRelease.await(5, TimeUnit.SECONDS);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+    }
+}
@@ -52,6 +52,17 @@ public final class ClientCapabilitiesTest {
         Assert.assertNotEquals(clientCapabilities, getAccessTokenClaimsRequest(CommandParametersAdapter.CLIENT_CAPABILITIES_CLAIM, CP1_CAPABILITY));
     }
 
+    @Test
+    public void testAddClientCapabilitiesDoesNotModifyRequestedClaims() {
+        final ClaimsRequest requestedClaims = getAccessTokenClaimsRequest("deviceid", "value");
+
+        final ClaimsRequest mergedClaims = CommandParametersAdapter.addClientCapabilitiesToClaimsRequest(requestedClaims, CP1_CAPABILITY);
+
+        Assert.assertEquals(1, requestedClaims.getAccessTokenClaimsRequested().size());
+        Assert.assertEquals(2, mergedClaims.getAccessTokenClaimsRequested().size());
+        Assert.assertEquals(getAccessTokenClaimsRequest("deviceid", "value"), requestedClaims);
+    }
+
     private ClaimsRequest getAccessTokenClaimsRequest(@NonNull String claimName, @NonNull String claimValue) {
         ClaimsRequest cp1ClaimsRequest = new ClaimsRequest();
         RequestedClaimAdditionalInformation info = new RequestedClaimAdditionalInformation();
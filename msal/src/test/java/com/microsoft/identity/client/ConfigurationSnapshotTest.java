@@ -0,0 +1,138 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import android.content.Context;
+import android.content.Intent;
+import android.content.pm.ActivityInfo;
+import android.content.pm.ResolveInfo;
+import android.net.Uri;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.microsoft.identity.client.exception.MsalClientException;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.robolectric.Shadows.shadowOf;
+
+@RunWith(RobolectricTestRunner.class)
+public class ConfigurationSnapshotTest {
+
+    private static final String KEY = "42:c2hhMjU2";
+    private static final String REDIRECT_URI = "msauth://com.contoso.app/c2lnbmF0dXJl";
+
+    private Context mContext;
+
+    @Before
+    public void setUp() {
+        mContext = ApplicationProvider.getApplicationContext();
+        for (final File file : mContext.getCacheDir().listFiles()) {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testLoadReturnsNullWithoutSnapshot() {
+        Assert.assertNull(ConfigurationSnapshot.load(mContext, KEY));
+    }
+
+    @Test
+    public void testSaveThenLoadRoundTrips() {
+        ConfigurationSnapshot.save(mContext, KEY, true);
+        final ConfigurationSnapshot snapshot = ConfigurationSnapshot.load(mContext, KEY);
+        Assert.assertNotNull(snapshot);
+        Assert.assertTrue(snapshot.getUseBroker());
+
+        ConfigurationSnapshot.save(mContext, KEY, false);
+        Assert.assertFalse(ConfigurationSnapshot.load(mContext, KEY).getUseBroker());
+    }
+
+    @Test
+    public void testLoadWithDifferentKeyMisses() {
+        ConfigurationSnapshot.save(mContext, KEY, true);
+        Assert.assertNull(ConfigurationSnapshot.load(mContext, "43:c2hhMjU2"));
+    }
+
+    @Test
+    public void testOtherAppListeningForRedirectUriFailsDespiteSnapshot() throws Exception {
+        addRedirectUriResolver(mContext.getPackageName(), BrowserTabActivity.class.getName());
+
+        final PublicClientApplicationConfiguration config = loadConfiguration();
+        config.checkAppManifest();
+        Assert.assertNotNull(ConfigurationSnapshot.load(mContext, KEY));
+
+        addRedirectUriResolver("com.attacker.app", "com.attacker.app.RedirectActivity");
+
+        try {
+            loadConfiguration().checkAppManifest();
+            Assert.fail("Expected the manifest check to fail.");
+        } catch (final MsalClientException e) {
+            Assert.assertEquals(MsalClientException.MULTIPLE_APPS_LISTENING_CUSTOM_URL_SCHEME, e.getErrorCode());
+        }
+    }
+
+    private PublicClientApplicationConfiguration loadConfiguration() throws IOException {
+        final File configFile = new File(mContext.getCacheDir(), "msal_config.json");
+
+        try (final OutputStream output = new FileOutputStream(configFile)) {
+            output.write((
+                    "{\"redirect_uri\":\"" + REDIRECT_URI + "\","
+                            + "\"authorization_user_agent\":\"BROWSER\","
+                            + "\"broker_redirect_uri_registered\":false,"
+                            + "\"configuration_snapshot_enabled\":true}"
+            ).getBytes(StandardCharsets.UTF_8));
+        }
+
+        final PublicClientApplicationConfiguration config =
+                PublicClientApplicationConfigurationFactory.loadConfiguration(configFile);
+        configFile.delete();
+        config.setAppContext(mContext);
+        config.setConfigurationSnapshotKey(KEY);
+        return config;
+    }
+
+    private void addRedirectUriResolver(final String packageName, final String activityName) {
+        final Intent intent = new Intent(Intent.ACTION_VIEW);
+        intent.addCategory(Intent.CATEGORY_DEFAULT);
+        intent.addCategory(Intent.CATEGORY_BROWSABLE);
+        intent.setDataAndNormalize(Uri.parse(REDIRECT_URI));
+
+        final ResolveInfo resolveInfo = new ResolveInfo();
+        resolveInfo.activityInfo = new ActivityInfo();
+        resolveInfo.activityInfo.packageName = packageName;
+        resolveInfo.activityInfo.name = activityName;
+
+        shadowOf(mContext.getPackageManager()).addResolveInfoForIntent(intent, resolveInfo);
+    }
+}
@@ -0,0 +1,172 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import com.microsoft.identity.common.adal.internal.util.JsonExtensions;
+import com.microsoft.identity.common.java.cache.CacheRecord;
+import com.microsoft.identity.common.java.cache.ICacheRecord;
+import com.microsoft.identity.common.java.dto.AccountRecord;
+import com.microsoft.identity.common.java.dto.IdTokenRecord;
+import com.microsoft.identity.common.java.dto.RefreshTokenRecord;
+import com.microsoft.identity.internal.testutils.mocks.MockTokenCreator;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class CurrentAccountSerializerTest {
+
+    @Test
+    public void testCompactFormatIsRead() {
+        final ICacheRecord cacheRecord = createCacheRecord();
+        final AccountRecord expected = cacheRecord.getAccount();
+        final String serialized = "{\"v\":1,\"r\":[{"
+                + "\"h\":\"" + expected.getHomeAccountId() + "\","
+                + "\"l\":\"" + expected.getLocalAccountId() + "\","
+                + "\"t\":\"" + expected.getRealm() + "\","
+                + "\"e\":\"" + expected.getEnvironment() + "\","
+                + "\"c\":\"" + expected.getClientInfo() + "\","
+                + "\"u\":\"" + expected.getUsername() + "\","
+                + "\"i\":\"" + cacheRecord.getIdToken().getSecret() + "\""
+                + "}]}";
+        Assert.assertTrue(CurrentAccountSerializer.isSerialized(serialized));
+
+        final List<ICacheRecord> deserialized = CurrentAccountSerializer.deserialize(serialized);
+        Assert.assertNotNull(deserialized);
+        Assert.assertEquals(1, deserialized.size());
+
+        final AccountRecord actual = deserialized.get(0).getAccount();
+        Assert.assertEquals(expected.getHomeAccountId(), actual.getHomeAccountId());
+        Assert.assertEquals(expected.getLocalAccountId(), actual.getLocalAccountId());
+        Assert.assertEquals(expected.getRealm(), actual.getRealm());
+        Assert.assertEquals(expected.getEnvironment(), actual.getEnvironment());
+        Assert.assertEquals(expected.getClientInfo(), actual.getClientInfo());
+        Assert.assertEquals(expected.getUsername(), actual.getUsername());
+        Assert.assertNull(actual.getAuthorityType());
+        Assert.assertEquals(
+                cacheRecord.getIdToken().getSecret(),
+                deserialized.get(0).getIdToken().getSecret()
+        );
+        Assert.assertNull(deserialized.get(0).getV1IdToken());
+        Assert.assertNull(deserialized.get(0).getRefreshToken());
+
+        final IAccount account = AccountAdapter.adapt(deserialized).get(0);
+        Assert.assertEquals("utid", account.getTenantId());
+        Assert.assertNotNull(account.getClaims());
+    }
+
+    @Test
+    public void testSameAccount() {
+        Assert.assertTrue(CurrentAccountSerializer.isSameAccount(
+                Collections.singletonList(createCacheRecord()),
+                Collections.singletonList(createCacheRecord())
+        ));
+    }
+
+    @Test
+    public void testAccountWithRefreshedIdTokenIsNotSame() {
+        final ICacheRecord refreshed = createCacheRecord();
+        refreshed.getIdToken().setSecret(refreshed.getIdToken().getSecret() + "refreshed");
+
+        Assert.assertFalse(CurrentAccountSerializer.isSameAccount(
+                Collections.singletonList(createCacheRecord()),
+                Collections.singletonList(refreshed)
+        ));
+    }
+
+    @Test
+    public void testOtherAccountIsNotSame() {
+        final ICacheRecord other = createCacheRecord();
+        other.getAccount().setHomeAccountId("uid2.utid");
+
+        Assert.assertFalse(CurrentAccountSerializer.isSameAccount(
+                Collections.singletonList(createCacheRecord()),
+                Collections.singletonList(other)
+        ));
+        Assert.assertFalse(CurrentAccountSerializer.isSameAccount(
+                null,
+                Collections.singletonList(createCacheRecord())
+        ));
+        Assert.assertFalse(CurrentAccountSerializer.isSameAccount(
+                Collections.singletonList(createCacheRecord()),
+                Arrays.asList(createCacheRecord(), createCacheRecord())
+        ));
+    }
+
+    @Test
+    public void testLegacyFormatIsReadableByPreviousRelease() {
+        final ICacheRecord cacheRecord = CacheRecord.builder()
+                .account(createCacheRecord().getAccount())
+                .idToken(createCacheRecord().getIdToken())
+                .refreshToken(new RefreshTokenRecord())
+                .build();
+
+        final String serialized = CurrentAccountSerializer.serializeLegacy(Collections.singletonList(cacheRecord));
+        Assert.assertFalse(CurrentAccountSerializer.isSerialized(serialized));
+
+        // What the previous release reads the current account with.
+        final List<ICacheRecord> deserialized = JsonExtensions.getICacheRecordListFromJsonString(serialized);
+        Assert.assertEquals(1, deserialized.size());
+        Assert.assertEquals("uid.utid", deserialized.get(0).getAccount().getHomeAccountId());
+        Assert.assertEquals(
+                cacheRecord.getIdToken().getSecret(),
+                deserialized.get(0).getIdToken().getSecret()
+        );
+        Assert.assertNull(deserialized.get(0).getRefreshToken());
+    }
+
+    @Test
+    public void testLegacyFormatIsNotSerialized() {
+        Assert.assertFalse(CurrentAccountSerializer.isSerialized("[{\"mAccount\":{}}]"));
+    }
+
+    @Test
+    public void testCorruptValueIsNotDeserialized() {
+        Assert.assertNull(CurrentAccountSerializer.deserialize("{\"v\":1,\"r\":"));
+        Assert.assertNull(CurrentAccountSerializer.deserialize("{\"v\":99,\"r\":[]}"));
+    }
+
+    private static ICacheRecord createCacheRecord() {
+        final AccountRecord accountRecord = new AccountRecord();
+        accountRecord.setHomeAccountId("uid.utid");
+        accountRecord.setLocalAccountId("uid");
+        accountRecord.setRealm("utid");
+        accountRecord.setEnvironment("login.microsoftonline.com");
+        accountRecord.setClientInfo(MockTokenCreator.createMockRawClientInfo());
+        accountRecord.setUsername("user@contoso.com");
+
+        final IdTokenRecord idTokenRecord = new IdTokenRecord();
+        idTokenRecord.setSecret(MockTokenCreator.createMockIdToken());
+
+        return CacheRecord.builder()
+                .account(accountRecord)
+                .idToken(idTokenRecord)
+                .build();
+    }
+}
@@ -0,0 +1,113 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import android.content.Context;
+import android.content.pm.PackageInfo;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.microsoft.identity.common.adal.internal.AuthenticationConstants;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.robolectric.Shadows.shadowOf;
+
+@RunWith(RobolectricTestRunner.class)
+public class DeviceModeCacheTest {
+
+    private static final long TTL_MILLIS = 60_000;
+
+    private Context mContext;
+
+    @Before
+    public void setUp() {
+        mContext = ApplicationProvider.getApplicationContext();
+        new DeviceModeCache(mContext).invalidate();
+    }
+
+    @Test
+    public void testEmptyCacheMisses() {
+        Assert.assertNull(new DeviceModeCache(mContext).getIsSharedDevice(TTL_MILLIS));
+    }
+
+    @Test
+    public void testPutThenGet() {
+        final DeviceModeCache cache = new DeviceModeCache(mContext);
+        cache.put(true);
+        Assert.assertEquals(Boolean.TRUE, cache.getIsSharedDevice(TTL_MILLIS));
+
+        cache.put(false);
+        Assert.assertEquals(Boolean.FALSE, cache.getIsSharedDevice(TTL_MILLIS));
+    }
+
+    @Test
+    public void testExpiredEntryMisses() {
+        final DeviceModeCache cache = new DeviceModeCache(mContext);
+        cache.put(true);
+        Assert.assertNull(cache.getIsSharedDevice(0));
+    }
+
+    @Test
+    public void testInvalidate() {
+        final DeviceModeCache cache = new DeviceModeCache(mContext);
+        cache.put(true);
+        cache.invalidate();
+        Assert.assertNull(cache.getIsSharedDevice(TTL_MILLIS));
+        Assert.assertNull(new DeviceModeCache(mContext).getIsSharedDevice(TTL_MILLIS));
+    }
+
+    @Test
+    public void testPersistedEntryIsReloaded() {
+        new DeviceModeCache(mContext).put(true);
+        Assert.assertEquals(Boolean.TRUE, new DeviceModeCache(mContext).getIsSharedDevice(TTL_MILLIS));
+    }
+
+    @Test
+    public void testPersistedEntryMissesAfterBrokerInstall() {
+        new DeviceModeCache(mContext).put(true);
+
+        final PackageInfo brokerPackage = new PackageInfo();
+        brokerPackage.packageName = AuthenticationConstants.Broker.COMPANY_PORTAL_APP_PACKAGE_NAME;
+        brokerPackage.lastUpdateTime = System.currentTimeMillis();
+        shadowOf(mContext.getPackageManager()).installPackage(brokerPackage);
+
+        Assert.assertNull(new DeviceModeCache(mContext).getIsSharedDevice(TTL_MILLIS));
+    }
+
+    @Test
+    public void testPersistedEntryMissesAfterLinkToWindowsBrokerInstall() {
+        new DeviceModeCache(mContext).put(true);
+
+        final PackageInfo brokerPackage = new PackageInfo();
+        brokerPackage.packageName = AuthenticationConstants.Broker.LTW_APP_PACKAGE_NAME;
+        brokerPackage.lastUpdateTime = System.currentTimeMillis();
+        shadowOf(mContext.getPackageManager()).installPackage(brokerPackage);
+
+        Assert.assertNull(new DeviceModeCache(mContext).getIsSharedDevice(TTL_MILLIS));
+    }
+}
@@ -0,0 +1,88 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import static com.microsoft.identity.client.e2e.utils.RoboTestUtils.flushScheduler;
+import static com.microsoft.identity.internal.testutils.TestConstants.Configurations.MULTIPLE_ACCOUNT_MODE_MOCK_TEST_CONFIG_FILE_PATH;
+
+import com.microsoft.identity.client.e2e.shadows.ShadowAndroidSdkStorageEncryptionManager;
+import com.microsoft.identity.client.e2e.shadows.ShadowPublicClientApplicationConfiguration;
+import com.microsoft.identity.client.e2e.tests.PublicClientApplicationAbstractTest;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(shadows = {
+        ShadowAndroidSdkStorageEncryptionManager.class,
+        ShadowPublicClientApplicationConfiguration.class
+})
+public class DeviceModeChangedListenerTest extends PublicClientApplicationAbstractTest {
+
+    @Override
+    public String getConfigFilePath() {
+        return MULTIPLE_ACCOUNT_MODE_MOCK_TEST_CONFIG_FILE_PATH;
+    }
+
+    @Test
+    public void testChangeReportedBeforeRegistrationIsDelivered() {
+        final PublicClientApplication application = (PublicClientApplication) mApplication;
+        final boolean createdWithSharedDevice = application.isSharedDevice();
+
+        // The broker revalidation finishes before the app registers its listener in onCreated.
+        application.onDeviceModeChanged(!createdWithSharedDevice);
+
+        final IDeviceModeChangedListener listener = Mockito.mock(IDeviceModeChangedListener.class);
+        application.registerDeviceModeChangedListener(listener);
+        flushScheduler();
+
+        Mockito.verify(listener).onDeviceModeChanged(!createdWithSharedDevice);
+        Assert.assertEquals(!createdWithSharedDevice, application.isSharedDevice());
+    }
+
+    @Test
+    public void testChangeReportedAfterRegistrationIsDeliveredOnce() {
+        final PublicClientApplication application = (PublicClientApplication) mApplication;
+        final boolean createdWithSharedDevice = application.isSharedDevice();
+
+        final IDeviceModeChangedListener listener = Mockito.mock(IDeviceModeChangedListener.class);
+        application.registerDeviceModeChangedListener(listener);
+        application.onDeviceModeChanged(!createdWithSharedDevice);
+        flushScheduler();
+
+        Mockito.verify(listener, Mockito.times(1)).onDeviceModeChanged(!createdWithSharedDevice);
+    }
+
+    @Test
+    public void testUnchangedDeviceModeIsNotDelivered() {
+        final IDeviceModeChangedListener listener = Mockito.mock(IDeviceModeChangedListener.class);
+        mApplication.registerDeviceModeChangedListener(listener);
+        flushScheduler();
+
+        Mockito.verify(listener, Mockito.never()).onDeviceModeChanged(Mockito.anyBoolean());
+    }
+}
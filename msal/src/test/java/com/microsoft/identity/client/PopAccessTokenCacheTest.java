@@ -0,0 +1,255 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import android.util.Base64;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.common.java.cache.CacheRecord;
+import com.microsoft.identity.common.java.cache.ICacheRecord;
+import com.microsoft.identity.common.java.dto.AccessTokenRecord;
+import com.microsoft.identity.common.java.dto.AccountRecord;
+import com.microsoft.identity.common.java.dto.IdTokenRecord;
+import com.microsoft.identity.internal.testutils.mocks.MockTokenCreator;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(RobolectricTestRunner.class)
+public class PopAccessTokenCacheTest {
+
+    private static final String HOME_ACCOUNT_ID = "uid.utid";
+    private static final String OTHER_HOME_ACCOUNT_ID = "uid2.utid";
+    private static final String DEVICE_KEY_THUMBPRINT = "device_key";
+    private static final String ACCESS_TOKEN = "access_token";
+
+    private FakeSigner mSigner;
+
+    @Before
+    public void setup() {
+        mSigner = new FakeSigner();
+    }
+
+    @Test
+    public void testParsesSignedHttpRequest() {
+        final String shr = createShr(DEVICE_KEY_THUMBPRINT, ACCESS_TOKEN);
+
+        Assert.assertEquals(DEVICE_KEY_THUMBPRINT, PopAccessTokenCache.getKeyId(shr));
+        Assert.assertEquals(ACCESS_TOKEN, PopAccessTokenCache.getAccessToken(shr));
+        Assert.assertNull(PopAccessTokenCache.getAccessToken("not_a_jws"));
+    }
+
+    @Test
+    public void testSignsNewRequestForEachUrl() throws Exception {
+        final PopAccessTokenCache cache = new PopAccessTokenCache(mSigner, 0);
+        cache.put("key", HOME_ACCOUNT_ID, createResult(DEVICE_KEY_THUMBPRINT, TimeUnit.HOURS.toMillis(1)), cache.getGeneration());
+
+        final IAuthenticationResult result1 = cache.get("key", popParams("https://contoso.com/a"));
+        final IAuthenticationResult result2 = cache.get("key", popParams("https://contoso.com/b"));
+
+        Assert.assertNotNull(result1);
+        Assert.assertNotNull(result2);
+        Assert.assertEquals("GET https://contoso.com/a " + ACCESS_TOKEN + " 1", result1.getAccessToken());
+        Assert.assertEquals("GET https://contoso.com/b " + ACCESS_TOKEN + " 2", result2.getAccessToken());
+        Assert.assertEquals("pop " + result2.getAccessToken(), result2.getAuthorizationHeader());
+        Assert.assertEquals(2, mSigner.mSignCount);
+    }
+
+    @Test
+    public void testSignsEveryRequestWithoutReuseWindow() throws Exception {
+        final PopAccessTokenCache cache = new PopAccessTokenCache(mSigner, 0);
+        cache.put("key", HOME_ACCOUNT_ID, createResult(DEVICE_KEY_THUMBPRINT, TimeUnit.HOURS.toMillis(1)), cache.getGeneration());
+
+        cache.get("key", popParams("https://contoso.com/a"));
+        cache.get("key", popParams("https://contoso.com/a"));
+
+        Assert.assertEquals(2, mSigner.mSignCount);
+    }
+
+    @Test
+    public void testReusesSignedRequestWithinReuseWindow() throws Exception {
+        final PopAccessTokenCache cache = new PopAccessTokenCache(mSigner, TimeUnit.MINUTES.toMillis(1));
+        cache.put("key", HOME_ACCOUNT_ID, createResult(DEVICE_KEY_THUMBPRINT, TimeUnit.HOURS.toMillis(1)), cache.getGeneration());
+
+        final IAuthenticationResult result1 = cache.get("key", popParams("https://contoso.com/a"));
+        final IAuthenticationResult result2 = cache.get("key", popParams("https://contoso.com/a"));
+
+        Assert.assertNotNull(result2);
+        Assert.assertEquals(result1.getAccessToken(), result2.getAccessToken());
+        Assert.assertEquals(1, mSigner.mSignCount);
+    }
+
+    @Test
+    public void testDoesNotCacheTokenBoundToOtherKey() {
+        final PopAccessTokenCache cache = new PopAccessTokenCache(mSigner, 0);
+        cache.put("key", HOME_ACCOUNT_ID, createResult("broker_key", TimeUnit.HOURS.toMillis(1)), cache.getGeneration());
+
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testMissesAfterKeyRotation() throws Exception {
+        final PopAccessTokenCache cache = new PopAccessTokenCache(mSigner, 0);
+        cache.put("key", HOME_ACCOUNT_ID, createResult(DEVICE_KEY_THUMBPRINT, TimeUnit.HOURS.toMillis(1)), cache.getGeneration());
+
+        mSigner.mThumbprint = "rotated_key";
+
+        Assert.assertNull(cache.get("key", popParams("https://contoso.com/a")));
+    }
+
+    @Test
+    public void testDoesNotReturnTokenAboutToExpire() throws Exception {
+        final PopAccessTokenCache cache = new PopAccessTokenCache(mSigner, 0);
+        cache.put("key", HOME_ACCOUNT_ID, createResult(DEVICE_KEY_THUMBPRINT, TimeUnit.MINUTES.toMillis(1)), cache.getGeneration());
+
+        Assert.assertNull(cache.get("key", popParams("https://contoso.com/a")));
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testRemoveAccount() throws Exception {
+        final PopAccessTokenCache cache = new PopAccessTokenCache(mSigner, 0);
+        cache.put("key1", HOME_ACCOUNT_ID, createResult(DEVICE_KEY_THUMBPRINT, TimeUnit.HOURS.toMillis(1)), cache.getGeneration());
+        cache.put("key2", OTHER_HOME_ACCOUNT_ID, createResult(DEVICE_KEY_THUMBPRINT, TimeUnit.HOURS.toMillis(1)), cache.getGeneration());
+
+        cache.remove(HOME_ACCOUNT_ID);
+
+        Assert.assertNull(cache.get("key1", popParams("https://contoso.com/a")));
+        Assert.assertNotNull(cache.get("key2", popParams("https://contoso.com/a")));
+    }
+
+    @Test
+    public void testDoesNotCacheResultOfRequestStartedBeforeInvalidation() throws Exception {
+        final PopAccessTokenCache cache = new PopAccessTokenCache(mSigner, 0);
+        final long generation = cache.getGeneration();
+
+        // e.g. the account is signed out while the request is running.
+        cache.remove(HOME_ACCOUNT_ID);
+        cache.put("key", HOME_ACCOUNT_ID, createResult(DEVICE_KEY_THUMBPRINT, TimeUnit.HOURS.toMillis(1)), generation);
+
+        Assert.assertEquals(0, cache.size());
+        Assert.assertNull(cache.get("key", popParams("https://contoso.com/a")));
+    }
+
+    @Test
+    public void testDoesNotReturnEntryRemovedWhileSigning() throws Exception {
+        final PopAccessTokenCache cache = new PopAccessTokenCache(mSigner, TimeUnit.MINUTES.toMillis(1));
+        cache.put("key", HOME_ACCOUNT_ID, createResult(DEVICE_KEY_THUMBPRINT, TimeUnit.HOURS.toMillis(1)), cache.getGeneration());
+
+        mSigner.mOnSign = new Runnable() {
+            @Override
+            public void run() {
+                cache.remove(HOME_ACCOUNT_ID);
+            }
+        };
+
+        Assert.assertNull(cache.get("key", popParams("https://contoso.com/a")));
+        Assert.assertEquals(1, mSigner.mSignCount);
+        Assert.assertEquals(0, cache.size());
+    }
+
+    private static PoPAuthenticationScheme popParams(@NonNull final String url) throws Exception {
+        return PoPAuthenticationScheme.builder()
+                .withHttpMethod(HttpMethod.GET)
+                .withUrl(new URL(url))
+                .build();
+    }
+
+    private static AuthenticationResult createResult(@NonNull final String keyId, final long expiresInMillis) {
+        final AccountRecord accountRecord = new AccountRecord();
+        accountRecord.setHomeAccountId(HOME_ACCOUNT_ID);
+        accountRecord.setLocalAccountId("");
+
+        final IdTokenRecord idTokenRecord = new IdTokenRecord();
+        idTokenRecord.setSecret(MockTokenCreator.createMockIdToken());
+
+        final AccessTokenRecord accessTokenRecord = new AccessTokenRecord();
+        accessTokenRecord.setSecret(createShr(keyId, ACCESS_TOKEN));
+        accessTokenRecord.setAccessTokenType("pop");
+        accessTokenRecord.setTarget("user.read");
+        accessTokenRecord.setExpiresOn(String.valueOf(
+                TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis() + expiresInMillis)
+        ));
+
+        final CacheRecord.CacheRecordBuilder cacheRecord = CacheRecord.builder();
+        cacheRecord.account(accountRecord);
+        cacheRecord.idToken(idTokenRecord);
+        cacheRecord.accessToken(accessTokenRecord);
+
+        return new AuthenticationResult(
+                Collections.<ICacheRecord>singletonList(cacheRecord.build()),
+                null
+        );
+    }
+
+    private static String createShr(@NonNull final String keyId, @NonNull final String accessToken) {
+        return encode("{\"alg\":\"RS256\",\"kid\":\"" + keyId + "\"}")
+                + "." + encode("{\"at\":\"" + accessToken + "\",\"m\":\"GET\"}")
+                + ".signature";
+    }
+
+    private static String encode(@NonNull final String json) {
+        return Base64.encodeToString(
+                json.getBytes(StandardCharsets.UTF_8),
+                Base64.URL_SAFE | Base64.NO_WRAP | Base64.NO_PADDING
+        );
+    }
+
+    private static final class FakeSigner implements PopAccessTokenCache.Signer {
+        private String mThumbprint = DEVICE_KEY_THUMBPRINT;
+        private int mSignCount;
+        private Runnable mOnSign;
+
+        @Nullable
+        @Override
+        public String getKeyThumbprint() {
+            return mThumbprint;
+        }
+
+        @NonNull
+        @Override
+        public String sign(@Nullable final String httpMethod,
+                           @NonNull final URL url,
+                           @NonNull final String accessToken,
+                           @Nullable final String nonce,
+                           @Nullable final String clientClaims) {
+            mSignCount++;
+
+            if (mOnSign != null) {
+                mOnSign.run();
+            }
+
+            return httpMethod + " " + url + " " + accessToken + " " + mSignCount;
+        }
+    }
+}
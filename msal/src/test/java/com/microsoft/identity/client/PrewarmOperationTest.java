@@ -0,0 +1,137 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import static org.robolectric.Shadows.shadowOf;
+
+@RunWith(RobolectricTestRunner.class)
+public class PrewarmOperationTest {
+
+    private static final Executor DIRECT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(@NonNull final Runnable command) {
+            command.run();
+        }
+    };
+
+    private static class RecordingCallback implements IPublicClientApplication.PrewarmCallback {
+        private final List<PrewarmReport> mReports = new ArrayList<>();
+
+        @Override
+        public void onPrewarmCompleted(@NonNull final PrewarmReport report) {
+            mReports.add(report);
+        }
+    }
+
+    @Test
+    public void testReportsEveryPhase() {
+        final Map<PrewarmReport.Phase, PrewarmOperation.PhaseTask> phases = new EnumMap<>(PrewarmReport.Phase.class);
+        phases.put(PrewarmReport.Phase.TOKEN_CACHE, new PrewarmOperation.PhaseTask() {
+            @Override
+            public void run() {
+            }
+        });
+        phases.put(PrewarmReport.Phase.CLOUD_DISCOVERY, new PrewarmOperation.PhaseTask() {
+            @Override
+            public void run() throws Exception {
+                throw new IOException("offline");
+            }
+        });
+
+        final RecordingCallback callback = new RecordingCallback();
+        final PrewarmOperation operation = new PrewarmOperation(callback);
+        operation.start(phases, DIRECT_EXECUTOR);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        Assert.assertTrue(operation.isDone());
+        Assert.assertEquals(1, callback.mReports.size());
+
+        final PrewarmReport report = callback.mReports.get(0);
+        Assert.assertFalse(report.isCancelled());
+        Assert.assertNotNull(report.getPhaseDurationMillis(PrewarmReport.Phase.TOKEN_CACHE));
+        Assert.assertNull(report.getPhaseDurationMillis(PrewarmReport.Phase.CLOUD_DISCOVERY));
+        Assert.assertTrue(report.getPhaseErrors().get(PrewarmReport.Phase.CLOUD_DISCOVERY) instanceof IOException);
+    }
+
+    @Test
+    public void testNoPhases() {
+        final RecordingCallback callback = new RecordingCallback();
+        new PrewarmOperation(callback).start(
+                new EnumMap<PrewarmReport.Phase, PrewarmOperation.PhaseTask>(PrewarmReport.Phase.class),
+                DIRECT_EXECUTOR
+        );
+        shadowOf(Looper.getMainLooper()).idle();
+
+        Assert.assertEquals(1, callback.mReports.size());
+        Assert.assertTrue(callback.mReports.get(0).getPhaseDurationsMillis().isEmpty());
+    }
+
+    @Test
+    public void testCancelSkipsPendingPhases() {
+        final List<Runnable> queued = new ArrayList<>();
+        final Executor queueingExecutor = new Executor() {
+            @Override
+            public void execute(@NonNull final Runnable command) {
+                queued.add(command);
+            }
+        };
+        final boolean[] ran = new boolean[1];
+        final Map<PrewarmReport.Phase, PrewarmOperation.PhaseTask> phases = new EnumMap<>(PrewarmReport.Phase.class);
+        phases.put(PrewarmReport.Phase.TOKEN_CACHE, new PrewarmOperation.PhaseTask() {
+            @Override
+            public void run() {
+                ran[0] = true;
+            }
+        });
+
+        final RecordingCallback callback = new RecordingCallback();
+        final PrewarmOperation operation = new PrewarmOperation(callback);
+        operation.start(phases, queueingExecutor);
+        operation.cancel();
+
+        for (final Runnable runnable : queued) {
+            runnable.run();
+        }
+        shadowOf(Looper.getMainLooper()).idle();
+
+        Assert.assertFalse(ran[0]);
+        Assert.assertEquals(1, callback.mReports.size());
+        Assert.assertTrue(callback.mReports.get(0).isCancelled());
+    }
+}
@@ -0,0 +1,208 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import com.microsoft.identity.client.exception.MsalClientException;
+import com.microsoft.identity.client.exception.MsalException;
+import com.microsoft.identity.common.java.commands.CommandCallback;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(RobolectricTestRunner.class)
+public class RequestTimingsTest {
+
+    private static final String API_ID = "test_api";
+
+    @Test
+    public void testPhaseDurationsAreComputedFromCheckpoints() {
+        final RequestTimings timings = new RequestTimings(API_ID);
+        long now = 1000;
+
+        for (final RequestTimings.Checkpoint checkpoint : RequestTimings.Checkpoint.values()) {
+            timings.mark(checkpoint, now);
+            now += TimeUnit.MILLISECONDS.toNanos(checkpoint.ordinal() + 1);
+        }
+
+        Assert.assertEquals(API_ID, timings.getPublicApiId());
+        Assert.assertEquals(TimeUnit.MILLISECONDS.toNanos(1), timings.getDurationNanos(RequestTimings.Phase.MEMORY_CACHE_LOOKUP));
+        Assert.assertEquals(TimeUnit.MILLISECONDS.toNanos(2), timings.getDurationNanos(RequestTimings.Phase.QUEUE_WAIT));
+        Assert.assertEquals(TimeUnit.MILLISECONDS.toNanos(6), timings.getDurationNanos(RequestTimings.Phase.COMMAND_EXECUTION));
+        Assert.assertEquals(TimeUnit.MILLISECONDS.toNanos(7), timings.getDurationNanos(RequestTimings.Phase.DELIVERY));
+        Assert.assertEquals(TimeUnit.MILLISECONDS.toNanos(28), timings.getTotalNanos());
+        Assert.assertEquals(Long.valueOf(1000), timings.getTimestampNanos(RequestTimings.Checkpoint.SUBMITTED));
+    }
+
+    @Test
+    public void testPhasesWithoutBothCheckpointsHaveNoDuration() {
+        final RequestTimings timings = new RequestTimings(API_ID);
+
+        // A request served by the in-memory access token cache.
+        timings.mark(RequestTimings.Checkpoint.SUBMITTED, 10);
+        timings.mark(RequestTimings.Checkpoint.MEMORY_CACHE_CHECKED, 20);
+
+        Assert.assertEquals(-1, timings.getTotalNanos());
+
+        timings.mark(RequestTimings.Checkpoint.DELIVERED, 50);
+
+        Assert.assertEquals(10, timings.getDurationNanos(RequestTimings.Phase.MEMORY_CACHE_LOOKUP));
+        Assert.assertEquals(-1, timings.getDurationNanos(RequestTimings.Phase.QUEUE_WAIT));
+        Assert.assertEquals(-1, timings.getDurationNanos(RequestTimings.Phase.DELIVERY));
+        Assert.assertFalse(timings.hasReached(RequestTimings.Checkpoint.COMMAND_DISPATCHED));
+        Assert.assertNull(timings.getTimestampNanos(RequestTimings.Checkpoint.COMMAND_DISPATCHED));
+        Assert.assertEquals(40, timings.getTotalNanos());
+    }
+
+    @Test
+    public void testToStringOnlyListsTimedPhases() {
+        final RequestTimings timings = new RequestTimings(API_ID);
+        timings.mark(RequestTimings.Checkpoint.SUBMITTED, 0);
+        timings.mark(RequestTimings.Checkpoint.MEMORY_CACHE_CHECKED, TimeUnit.MICROSECONDS.toNanos(5));
+
+        final String summary = timings.toString();
+
+        Assert.assertTrue(summary.contains("MEMORY_CACHE_LOOKUP=5us"));
+        Assert.assertFalse(summary.contains("QUEUE_WAIT"));
+        Assert.assertTrue(summary.contains("TOTAL=n/a"));
+    }
+
+    @Test
+    public void testTimingsPassedNextToExceptionDefaultToOnError() {
+        final RequestTimings timings = new RequestTimings(API_ID);
+        final MsalClientException exception = new MsalClientException("error_code");
+        final MsalException[] delivered = new MsalException[1];
+
+        new SilentAuthenticationCallback() {
+            @Override
+            public void onSuccess(final IAuthenticationResult authenticationResult) {
+                Assert.fail();
+            }
+
+            @Override
+            public void onError(final MsalException exception) {
+                delivered[0] = exception;
+            }
+        }.onError(exception, timings);
+
+        Assert.assertSame(exception, delivered[0]);
+    }
+
+    @Test
+    public void testCommandCompletedMarkedBeforeCommandCallback() {
+        final RequestTimings timings = new RequestTimings(API_ID);
+        final CommandCallback delegate = Mockito.mock(CommandCallback.class);
+
+        PublicClientApplication.markingCommandCompleted(delegate, timings).onTaskCompleted(null);
+
+        Assert.assertTrue(timings.hasReached(RequestTimings.Checkpoint.COMMAND_COMPLETED));
+        Mockito.verify(delegate).onTaskCompleted(null);
+    }
+
+    @Test
+    public void testCoalescedCallbacksKeepTheirOwnTimings() {
+        final RequestTimings leaderTimings = new RequestTimings(API_ID);
+        final RequestTimings followerTimings = new RequestTimings(API_ID);
+        final SilentAuthenticationCallback leader = Mockito.mock(SilentAuthenticationCallback.class);
+        final SilentAuthenticationCallback follower = Mockito.mock(SilentAuthenticationCallback.class);
+        final IAuthenticationResult result = Mockito.mock(IAuthenticationResult.class);
+
+        new PublicClientApplication.RequestTimingsCallback(leader, leaderTimings).onSuccess(result);
+        Assert.assertTrue(leaderTimings.hasReached(RequestTimings.Checkpoint.DELIVERED));
+        Assert.assertFalse(followerTimings.hasReached(RequestTimings.Checkpoint.DELIVERED));
+
+        final MsalClientException exception = new MsalClientException("error_code");
+        new PublicClientApplication.RequestTimingsCallback(follower, followerTimings).onError(exception);
+
+        Assert.assertTrue(followerTimings.hasReached(RequestTimings.Checkpoint.DELIVERED));
+        Mockito.verify(leader).onSuccess(result);
+        Mockito.verify(follower).onError(exception, followerTimings);
+    }
+
+    @Test
+    public void testCoalescedCallbacksSharingAnExceptionKeepTheirOwnTimings() {
+        final RequestTimings leaderTimings = new RequestTimings(API_ID);
+        final RequestTimings followerTimings = new RequestTimings(API_ID);
+        final SilentAuthenticationCallback leader = Mockito.mock(SilentAuthenticationCallback.class);
+        final SilentAuthenticationCallback follower = Mockito.mock(SilentAuthenticationCallback.class);
+        final MsalClientException exception = new MsalClientException("error_code");
+
+        new PublicClientApplication.RequestTimingsCallback(leader, leaderTimings).onError(exception);
+        new PublicClientApplication.RequestTimingsCallback(follower, followerTimings).onError(exception);
+
+        Mockito.verify(leader).onError(exception, leaderTimings);
+        Mockito.verify(follower).onError(exception, followerTimings);
+        Mockito.verify(leader, Mockito.never()).onError(exception, followerTimings);
+    }
+
+    @Test
+    public void testResultsWithoutTimingsSupport() {
+        Assert.assertNull(new IAuthenticationResult() {
+            @Override
+            public String getAccessToken() {
+                return null;
+            }
+
+            @Override
+            public String getAuthorizationHeader() {
+                return null;
+            }
+
+            @Override
+            public String getAuthenticationScheme() {
+                return null;
+            }
+
+            @Override
+            public Date getExpiresOn() {
+                return null;
+            }
+
+            @Override
+            public String getTenantId() {
+                return null;
+            }
+
+            @Override
+            public IAccount getAccount() {
+                return null;
+            }
+
+            @Override
+            public String[] getScope() {
+                return new String[0];
+            }
+
+            @Override
+            public UUID getCorrelationId() {
+                return null;
+            }
+        }.getRequestTimings());
+    }
+}
@@ -0,0 +1,112 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class ScopeSetTest {
+
+    @Test
+    public void testNormalizesOrderCaseAndWhitespace() {
+        final ScopeSet first = ScopeSet.of(Arrays.asList("User.Read", " Mail.Read ", "user.read"));
+        final ScopeSet second = ScopeSet.of(Arrays.asList("mail.read", "USER.READ"));
+
+        Assert.assertEquals(first, second);
+        Assert.assertEquals(first.hashCode(), second.hashCode());
+        Assert.assertEquals("mail.read user.read", first.toString());
+        Assert.assertEquals(Arrays.asList("mail.read", "user.read"), first.getScopes());
+    }
+
+    @Test
+    public void testEqualSetsAreInterned() {
+        final ScopeSet first = ScopeSet.of(Arrays.asList("Files.Read", "openid"));
+        final ScopeSet second = ScopeSet.of(Arrays.asList("openid", "files.read"));
+
+        Assert.assertSame(first, second);
+    }
+
+    @Test
+    public void testBlankAndNullScopesAreIgnored() {
+        Assert.assertTrue(ScopeSet.of(null).isEmpty());
+        Assert.assertTrue(ScopeSet.of(Arrays.asList(" ", null, "")).isEmpty());
+        Assert.assertEquals("", ScopeSet.fromTarget(null).toString());
+        Assert.assertEquals(
+                ScopeSet.of(Arrays.asList("a", "b")),
+                ScopeSet.fromTarget("  b   a ")
+        );
+    }
+
+    @Test
+    public void testContains() {
+        final ScopeSet scopeSet = ScopeSet.of(Arrays.asList("User.Read", "Mail.Send"));
+
+        Assert.assertTrue(scopeSet.contains("user.read"));
+        Assert.assertTrue(scopeSet.contains(" MAIL.SEND "));
+        Assert.assertFalse(scopeSet.contains("mail.read"));
+        Assert.assertFalse(scopeSet.contains(null));
+    }
+
+    @Test
+    public void testMinusReturnsScopesMissingFromOtherSet() {
+        final ScopeSet requested = ScopeSet.of(Arrays.asList("User.Read", "Mail.Send", "Files.Read"));
+        final ScopeSet granted = ScopeSet.fromTarget("user.read files.read openid");
+
+        Assert.assertEquals(Collections.singletonList("mail.send"), requested.minus(granted));
+        Assert.assertTrue(requested.minus(requested).isEmpty());
+    }
+
+    @Test
+    public void testDeclinedScopesIgnoreCase() {
+        Assert.assertEquals(
+                Collections.singletonList("mail.send"),
+                AuthenticationResultAdapter.getDeclinedScopes(
+                        Arrays.asList("USER.READ", "openid"),
+                        Arrays.asList("User.Read", "Mail.Send")
+                )
+        );
+    }
+
+    @Test
+    public void testTokenParametersScopeSetIgnoresLaterChangesToCallerList() {
+        final List<String> scopes = new ArrayList<>(Collections.singletonList("User.Read"));
+        final AcquireTokenSilentParameters parameters = new AcquireTokenSilentParameters.Builder()
+                .withScopes(scopes)
+                .build();
+
+        Assert.assertEquals("user.read", parameters.getScopeSet().toString());
+
+        scopes.add("Mail.Read");
+
+        Assert.assertEquals(Collections.singletonList("User.Read"), parameters.getScopes());
+        Assert.assertEquals("user.read", parameters.getScopeSet().toString());
+    }
+}
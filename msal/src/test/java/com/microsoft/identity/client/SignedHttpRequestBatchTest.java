@@ -0,0 +1,201 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+
+import com.microsoft.identity.client.exception.MsalClientException;
+import com.microsoft.identity.client.exception.MsalException;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import static org.robolectric.Shadows.shadowOf;
+
+@RunWith(RobolectricTestRunner.class)
+public class SignedHttpRequestBatchTest {
+
+    private static final Executor DIRECT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(@NonNull final Runnable command) {
+            command.run();
+        }
+    };
+
+    private static final int BATCH_SIZE = 5;
+
+    private static class RecordingCallback implements IPublicClientApplication.SignedHttpRequestsCallback {
+        private List<SignedHttpRequestResult> mResults;
+        private int mInvocations;
+
+        @Override
+        public void onCompleted(@NonNull final List<SignedHttpRequestResult> results) {
+            mResults = results;
+            mInvocations++;
+        }
+    }
+
+    /**
+     * Holds the dispatched indexes until the test completes them.
+     */
+    private static class HoldingDispatcher implements SignedHttpRequestBatch.Dispatcher {
+        private final Set<Integer> mInFlight = new LinkedHashSet<>();
+        private final List<Integer> mDispatched = new ArrayList<>();
+        private int mMaxInFlight;
+
+        @Override
+        public void dispatch(final int index) {
+            mDispatched.add(index);
+            mInFlight.add(index);
+            mMaxInFlight = Math.max(mMaxInFlight, mInFlight.size());
+        }
+
+        int takeFirst() {
+            final Integer index = mInFlight.iterator().next();
+            mInFlight.remove(index);
+            return index;
+        }
+    }
+
+    private static List<PoPAuthenticationScheme> createPopParameters() {
+        final List<PoPAuthenticationScheme> popParameters = new ArrayList<>();
+
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            popParameters.add(Mockito.mock(PoPAuthenticationScheme.class));
+        }
+
+        return popParameters;
+    }
+
+    @Test
+    public void testDispatchIsBoundedAndResultsKeepOrder() {
+        final List<PoPAuthenticationScheme> popParameters = createPopParameters();
+        final RecordingCallback callback = new RecordingCallback();
+        final SignedHttpRequestBatch batch = new SignedHttpRequestBatch(popParameters, callback, DIRECT_EXECUTOR);
+        final HoldingDispatcher dispatcher = new HoldingDispatcher();
+
+        batch.dispatch(2, dispatcher);
+        Assert.assertEquals(Arrays.asList(0, 1), dispatcher.mDispatched);
+
+        while (!dispatcher.mInFlight.isEmpty()) {
+            final int index = dispatcher.takeFirst();
+            batch.complete(index, "shr-" + index, null);
+        }
+        shadowOf(Looper.getMainLooper()).idle();
+
+        Assert.assertEquals(Arrays.asList(0, 1, 2, 3, 4), dispatcher.mDispatched);
+        Assert.assertEquals(2, dispatcher.mMaxInFlight);
+        Assert.assertEquals(1, callback.mInvocations);
+        Assert.assertEquals(BATCH_SIZE, callback.mResults.size());
+
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            Assert.assertSame(popParameters.get(i), callback.mResults.get(i).getPopParameters());
+            Assert.assertTrue(callback.mResults.get(i).isSuccess());
+            Assert.assertEquals("shr-" + i, callback.mResults.get(i).getSignedHttpRequest());
+        }
+    }
+
+    @Test
+    public void testFailureOfOneDoesNotFailOthers() {
+        final MsalException exception = new MsalClientException("signing_failed");
+        final RecordingCallback callback = new RecordingCallback();
+        final SignedHttpRequestBatch batch = new SignedHttpRequestBatch(createPopParameters(), callback, DIRECT_EXECUTOR);
+        final HoldingDispatcher dispatcher = new HoldingDispatcher();
+
+        batch.dispatch(SignedHttpRequestBatch.DEFAULT_MAX_CONCURRENCY, dispatcher);
+
+        while (!dispatcher.mInFlight.isEmpty()) {
+            final int index = dispatcher.takeFirst();
+
+            if (index == 3) {
+                batch.complete(index, null, exception);
+            } else {
+                batch.complete(index, "shr", null);
+            }
+        }
+        shadowOf(Looper.getMainLooper()).idle();
+
+        Assert.assertEquals(1, callback.mInvocations);
+        Assert.assertFalse(callback.mResults.get(3).isSuccess());
+        Assert.assertSame(exception, callback.mResults.get(3).getException());
+        Assert.assertNull(callback.mResults.get(3).getSignedHttpRequest());
+        Assert.assertTrue(callback.mResults.get(4).isSuccess());
+    }
+
+    @Test
+    public void testCompleteAll() {
+        final MsalException exception = new MsalClientException(MsalClientException.UNKNOWN_ERROR);
+        final RecordingCallback callback = new RecordingCallback();
+
+        new SignedHttpRequestBatch(createPopParameters(), callback, DIRECT_EXECUTOR).completeAll(exception);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        Assert.assertEquals(1, callback.mInvocations);
+        for (final SignedHttpRequestResult result : callback.mResults) {
+            Assert.assertSame(exception, result.getException());
+        }
+    }
+
+    @Test
+    public void testNextSigningIsDispatchedOnExecutor() {
+        final List<Runnable> queued = new ArrayList<>();
+        final Executor queuingExecutor = new Executor() {
+            @Override
+            public void execute(@NonNull final Runnable command) {
+                queued.add(command);
+            }
+        };
+        final SignedHttpRequestBatch batch = new SignedHttpRequestBatch(
+                createPopParameters(),
+                new RecordingCallback(),
+                queuingExecutor
+        );
+        final HoldingDispatcher dispatcher = new HoldingDispatcher();
+
+        batch.dispatch(1, dispatcher);
+        Assert.assertTrue(dispatcher.mDispatched.isEmpty());
+
+        queued.remove(0).run();
+        Assert.assertEquals(Arrays.asList(0), dispatcher.mDispatched);
+
+        // Completed from the main thread, the next signing must not start there.
+        batch.complete(dispatcher.takeFirst(), "shr", null);
+        Assert.assertEquals(Arrays.asList(0), dispatcher.mDispatched);
+        Assert.assertEquals(1, queued.size());
+
+        queued.remove(0).run();
+        Assert.assertEquals(Arrays.asList(0, 1), dispatcher.mDispatched);
+    }
+}
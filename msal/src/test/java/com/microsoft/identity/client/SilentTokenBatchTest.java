@@ -0,0 +1,168 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+
+import com.microsoft.identity.client.exception.MsalClientException;
+import com.microsoft.identity.client.exception.MsalException;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import static org.robolectric.Shadows.shadowOf;
+
+@RunWith(RobolectricTestRunner.class)
+public class SilentTokenBatchTest {
+
+    private static final Executor DIRECT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(@NonNull final Runnable command) {
+            command.run();
+        }
+    };
+
+    private static final List<List<String>> SCOPE_SETS = Arrays.asList(
+            Collections.singletonList("User.Read"),
+            Collections.singletonList("Sites.Read.All"),
+            Collections.singletonList("api://a/.default"),
+            Collections.singletonList("api://b/.default"),
+            Collections.singletonList("api://c/.default")
+    );
+
+    private static class RecordingCallback implements SilentBatchAuthenticationCallback {
+        private List<SilentTokenResult> mResults;
+        private int mInvocations;
+
+        @Override
+        public void onCompleted(@NonNull final List<SilentTokenResult> results) {
+            mResults = results;
+            mInvocations++;
+        }
+    }
+
+    /**
+     * Holds the callbacks of the dispatched scope sets until the test completes them.
+     */
+    private static class HoldingDispatcher implements SilentTokenBatch.Dispatcher {
+        private final Map<Integer, SilentAuthenticationCallback> mInFlight = new LinkedHashMap<>();
+        private final List<Integer> mDispatched = new ArrayList<>();
+        private int mMaxInFlight;
+
+        @Override
+        public void dispatch(final int index, @NonNull final SilentAuthenticationCallback callback) {
+            mDispatched.add(index);
+            mInFlight.put(index, callback);
+            mMaxInFlight = Math.max(mMaxInFlight, mInFlight.size());
+        }
+
+        void completeFirst(final IAuthenticationResult result) {
+            final Integer index = mInFlight.keySet().iterator().next();
+            mInFlight.remove(index).onSuccess(result);
+        }
+    }
+
+    @Test
+    public void testDispatchIsBoundedAndResultsKeepOrder() {
+        final IAuthenticationResult result = Mockito.mock(IAuthenticationResult.class);
+        final RecordingCallback callback = new RecordingCallback();
+        final SilentTokenBatch batch = new SilentTokenBatch(SCOPE_SETS, callback, DIRECT_EXECUTOR);
+        final HoldingDispatcher dispatcher = new HoldingDispatcher();
+
+        // Served from the memory cache.
+        batch.complete(1, result, null);
+
+        batch.dispatch(Arrays.asList(0, 2, 3, 4), 2, dispatcher);
+        Assert.assertEquals(Arrays.asList(0, 2), dispatcher.mDispatched);
+
+        while (!dispatcher.mInFlight.isEmpty()) {
+            dispatcher.completeFirst(result);
+        }
+        shadowOf(Looper.getMainLooper()).idle();
+
+        Assert.assertEquals(Arrays.asList(0, 2, 3, 4), dispatcher.mDispatched);
+        Assert.assertEquals(2, dispatcher.mMaxInFlight);
+        Assert.assertEquals(1, callback.mInvocations);
+        Assert.assertEquals(SCOPE_SETS.size(), callback.mResults.size());
+
+        for (int i = 0; i < SCOPE_SETS.size(); i++) {
+            Assert.assertEquals(SCOPE_SETS.get(i), callback.mResults.get(i).getScopes());
+            Assert.assertTrue(callback.mResults.get(i).isSuccess());
+        }
+    }
+
+    @Test
+    public void testAllServedWithoutDispatch() {
+        final IAuthenticationResult result = Mockito.mock(IAuthenticationResult.class);
+        final RecordingCallback callback = new RecordingCallback();
+        final SilentTokenBatch batch = new SilentTokenBatch(SCOPE_SETS, callback, DIRECT_EXECUTOR);
+        final HoldingDispatcher dispatcher = new HoldingDispatcher();
+
+        for (int i = 0; i < SCOPE_SETS.size(); i++) {
+            batch.complete(i, result, null);
+        }
+        batch.dispatch(Collections.<Integer>emptyList(), 2, dispatcher);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        Assert.assertTrue(dispatcher.mDispatched.isEmpty());
+        Assert.assertEquals(1, callback.mInvocations);
+    }
+
+    @Test
+    public void testCompleteAll() {
+        final MsalException exception = new MsalClientException(MsalClientException.NO_CURRENT_ACCOUNT);
+        final RecordingCallback callback = new RecordingCallback();
+        new SilentTokenBatch(SCOPE_SETS, callback, DIRECT_EXECUTOR).completeAll(exception);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        Assert.assertEquals(1, callback.mInvocations);
+        for (final SilentTokenResult result : callback.mResults) {
+            Assert.assertFalse(result.isSuccess());
+            Assert.assertSame(exception, result.getException());
+        }
+    }
+
+    @Test
+    public void testCompleteAllWithoutScopeSets() {
+        final RecordingCallback callback = new RecordingCallback();
+        new SilentTokenBatch(Collections.<List<String>>emptyList(), callback, DIRECT_EXECUTOR)
+                .completeAll(new MsalClientException(MsalClientException.NO_CURRENT_ACCOUNT));
+        shadowOf(Looper.getMainLooper()).idle();
+
+        Assert.assertEquals(1, callback.mInvocations);
+        Assert.assertTrue(callback.mResults.isEmpty());
+    }
+}
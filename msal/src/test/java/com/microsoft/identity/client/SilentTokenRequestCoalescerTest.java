@@ -0,0 +1,129 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import com.microsoft.identity.client.exception.MsalClientException;
+import com.microsoft.identity.client.exception.MsalException;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class SilentTokenRequestCoalescerTest {
+
+    private static final String AUTHORITY = "https://login.microsoftonline.com/common";
+
+    @Test
+    public void testKeyIgnoresScopeOrder() {
+        Assert.assertEquals(
+                SilentTokenRequestCoalescer.createKey(buildParameters("uid", Arrays.asList("User.Read", "Mail.Read")), false),
+                SilentTokenRequestCoalescer.createKey(buildParameters("uid", Arrays.asList("mail.read", "user.read")), false)
+        );
+    }
+
+    @Test
+    public void testKeyDiffersOnForceRefreshAndAccount() {
+        final String key = SilentTokenRequestCoalescer.createKey(buildParameters("uid", Arrays.asList("User.Read")), false);
+
+        Assert.assertNotEquals(key,
+                SilentTokenRequestCoalescer.createKey(buildParameters("uid", Arrays.asList("User.Read")), true));
+        Assert.assertNotEquals(key,
+                SilentTokenRequestCoalescer.createKey(buildParameters("uid2", Arrays.asList("User.Read")), false));
+    }
+
+    @Test
+    public void testNoKeyWithoutAccount() {
+        Assert.assertNull(SilentTokenRequestCoalescer.createKey(buildParameters(null, Arrays.asList("User.Read")), false));
+    }
+
+    @Test
+    public void testIdenticalRequestsAreCoalesced() {
+        final SilentTokenRequestCoalescer coalescer = new SilentTokenRequestCoalescer();
+        final RecordingCallback first = new RecordingCallback();
+        final RecordingCallback second = new RecordingCallback();
+
+        final AuthenticationCallback dispatched = coalescer.register("key", first);
+        Assert.assertNotNull(dispatched);
+        Assert.assertNull(coalescer.register("key", second));
+        Assert.assertEquals(1, coalescer.getInFlightRequestCount());
+
+        final MsalException exception = new MsalClientException("error");
+        dispatched.onError(exception);
+
+        Assert.assertEquals(Arrays.asList(exception), first.mErrors);
+        Assert.assertEquals(Arrays.asList(exception), second.mErrors);
+        Assert.assertEquals(1, coalescer.getDispatchedRequestCount());
+        Assert.assertEquals(1, coalescer.getCoalescedRequestCount());
+        Assert.assertEquals(0, coalescer.getInFlightRequestCount());
+    }
+
+    @Test
+    public void testRequestAfterCompletionIsDispatched() {
+        final SilentTokenRequestCoalescer coalescer = new SilentTokenRequestCoalescer();
+
+        coalescer.register("key", new RecordingCallback()).onError(new MsalClientException("error"));
+
+        Assert.assertNotNull(coalescer.register("key", new RecordingCallback()));
+        Assert.assertEquals(2, coalescer.getDispatchedRequestCount());
+        Assert.assertEquals(0, coalescer.getCoalescedRequestCount());
+    }
+
+    private static AcquireTokenSilentParameters buildParameters(final String accountId,
+                                                                final List<String> scopes) {
+        final AcquireTokenSilentParameters.Builder builder = new AcquireTokenSilentParameters.Builder()
+                .withScopes(scopes)
+                .fromAuthority(AUTHORITY)
+                .withCallback(new RecordingCallback());
+
+        if (accountId != null) {
+            final Account account = new Account(null, null);
+            account.setId(accountId);
+            account.setTenantId("utid");
+            builder.forAccount(account);
+        }
+
+        return builder.build();
+    }
+
+    private static class RecordingCallback implements SilentAuthenticationCallback {
+
+        private final List<IAuthenticationResult> mResults = new ArrayList<>();
+        private final List<MsalException> mErrors = new ArrayList<>();
+
+        @Override
+        public void onSuccess(final IAuthenticationResult authenticationResult) {
+            mResults.add(authenticationResult);
+        }
+
+        @Override
+        public void onError(final MsalException exception) {
+            mErrors.add(exception);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.client;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.microsoft.identity.common.java.exception.ClientException;
+import com.microsoft.identity.common.java.exception.ServiceException;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(RobolectricTestRunner.class)
+public class TenantAliasCacheTest {
+
+    private static final String AUTHORITY = "https://login.microsoftonline.com/contoso.onmicrosoft.com";
+    private static final String TENANT_ID = "72f988bf-86f1-41af-91ab-2d7cd011db47";
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private Context mContext;
+
+    private static class CountingResolver implements TenantAliasCache.Resolver {
+        private final AtomicInteger mCalls = new AtomicInteger();
+
+        @Override
+        public String resolve() {
+            mCalls.incrementAndGet();
+            return TENANT_ID;
+        }
+    }
+
+    private static class QueueingExecutor implements Executor {
+        private final List<Runnable> mQueued = new ArrayList<>();
+
+        @Override
+        public void execute(@NonNull final Runnable command) {
+            mQueued.add(command);
+        }
+    }
+
+    @Before
+    public void setUp() {
+        mContext = ApplicationProvider.getApplicationContext();
+        mContext.getSharedPreferences("com.microsoft.identity.client.tenant_aliases", Context.MODE_PRIVATE)
+                .edit().clear().commit();
+    }
+
+    @Test
+    public void testResolvesOnceAndServesFromCache() throws Exception {
+        final TenantAliasCache cache = new TenantAliasCache(mContext, DAY_MILLIS, DAY_MILLIS);
+        final CountingResolver resolver = new CountingResolver();
+        final QueueingExecutor executor = new QueueingExecutor();
+
+        Assert.assertEquals(TENANT_ID, cache.getTenantId(AUTHORITY, resolver, executor));
+        Assert.assertEquals(TENANT_ID, cache.getTenantId(AUTHORITY, resolver, executor));
+        Assert.assertEquals(1, resolver.mCalls.get());
+        Assert.assertTrue(executor.mQueued.isEmpty());
+    }
+
+    @Test
+    public void testPersistedAcrossInstances() throws Exception {
+        new TenantAliasCache(mContext, DAY_MILLIS, DAY_MILLIS)
+                .getTenantId(AUTHORITY, new CountingResolver(), new QueueingExecutor());
+
+        final CountingResolver resolver = new CountingResolver();
+        Assert.assertEquals(
+                TENANT_ID,
+                new TenantAliasCache(mContext, DAY_MILLIS, DAY_MILLIS).getTenantId(AUTHORITY, resolver, new QueueingExecutor())
+        );
+        Assert.assertEquals(0, resolver.mCalls.get());
+    }
+
+    @Test
+    public void testStaleEntryIsServedAndRevalidatedOnce() throws Exception {
+        final TenantAliasCache cache = new TenantAliasCache(mContext, 0, DAY_MILLIS);
+        final CountingResolver resolver = new CountingResolver();
+        final QueueingExecutor executor = new QueueingExecutor();
+
+        cache.getTenantId(AUTHORITY, resolver, executor);
+        Assert.assertEquals(TENANT_ID, cache.getTenantId(AUTHORITY, resolver, executor));
+        Assert.assertEquals(TENANT_ID, cache.getTenantId(AUTHORITY, resolver, executor));
+        Assert.assertEquals(1, resolver.mCalls.get());
+        Assert.assertEquals(1, executor.mQueued.size());
+
+        executor.mQueued.get(0).run();
+        Assert.assertEquals(2, resolver.mCalls.get());
+    }
+
+    @Test
+    public void testExpiredEntryIsResolvedAgain() throws Exception {
+        final TenantAliasCache cache = new TenantAliasCache(mContext, 0, 0);
+        final CountingResolver resolver = new CountingResolver();
+
+        cache.getTenantId(AUTHORITY, resolver, new QueueingExecutor());
+        cache.getTenantId(AUTHORITY, resolver, new QueueingExecutor());
+        Assert.assertEquals(2, resolver.mCalls.get());
+    }
+
+    @Test
+    public void testConcurrentResolutionsShareOneLookup() throws Exception {
+        final TenantAliasCache cache = new TenantAliasCache(mContext, DAY_MILLIS, DAY_MILLIS);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger calls = new AtomicInteger();
+        final TenantAliasCache.Resolver blockingResolver = new TenantAliasCache.Resolver() {
+            @Override
+            public String resolve() throws ClientException {
+                calls.incrementAndGet();
+                try {
+                    release.await();
+                } catch (final InterruptedException e) {
+                    throw new ClientException("interrupted");
+                }
+                return TENANT_ID;
+            }
+        };
+
+        final ExecutorService threads = Executors.newFixedThreadPool(4);
+        final List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            results.add(threads.submit(new java.util.concurrent.Callable<String>() {
+                @Override
+                public String call() throws ServiceException, ClientException {
+                    return cache.getTenantId(AUTHORITY, blockingResolver, new QueueingExecutor());
+                }
+            }));
+        }
+
+        Thread.sleep(100);
+        release.countDown();
+
+        for (final Future<String> result : results) {
+            Assert.assertEquals(TENANT_ID, result.get(5, TimeUnit.SECONDS));
+        }
+        threads.shutdown();
+
+        Assert.assertEquals(1, calls.get());
+    }
+}
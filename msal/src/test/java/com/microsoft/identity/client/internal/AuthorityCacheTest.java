@@ -0,0 +1,70 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.client.internal;
+
+import com.microsoft.identity.common.java.authorities.Authority;
+import com.microsoft.identity.common.java.authorities.AzureActiveDirectoryAuthority;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class AuthorityCacheTest {
+
+    private static final String AUTHORITY_URL = "https://login.microsoftonline.com/common";
+
+    @Before
+    public void setUp() {
+        AuthorityCache.clear();
+    }
+
+    @Test
+    public void testSameUrlReturnsSameInstance() {
+        final Authority first = AuthorityCache.getAuthority(AUTHORITY_URL, false);
+        final Authority second = AuthorityCache.getAuthority(AUTHORITY_URL, false);
+
+        Assert.assertTrue(first instanceof AzureActiveDirectoryAuthority);
+        Assert.assertSame(first, second);
+    }
+
+    @Test
+    public void testCloudSettingIsPartOfTheKey() {
+        final Authority singleCloud = AuthorityCache.getAuthority(AUTHORITY_URL, false);
+        final Authority multipleClouds = AuthorityCache.getAuthority(AUTHORITY_URL, true);
+
+        Assert.assertNotSame(singleCloud, multipleClouds);
+        Assert.assertSame(multipleClouds, AuthorityCache.getAuthority(AUTHORITY_URL, true));
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        for (int i = 0; i < AuthorityCache.MAX_ENTRIES * 2; i++) {
+            AuthorityCache.getAuthority("https://login.microsoftonline.com/tenant" + i + ".onmicrosoft.com", false);
+        }
+
+        Assert.assertEquals(AuthorityCache.MAX_ENTRIES, AuthorityCache.size());
+    }
+}
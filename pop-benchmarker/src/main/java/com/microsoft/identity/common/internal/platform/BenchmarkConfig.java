@@ -0,0 +1,98 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.platform;
+
+import android.content.Intent;
+
+import androidx.annotation.NonNull;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Settings of a benchmark run. They can be passed as extras of the launch intent, e.g.
+ * <pre>
+ * adb shell am start -n com.microsoft.testing.popbenchmarker/com.microsoft.identity.common.internal.platform.MainActivity \
+ *     --ei warmup 10 --ei iterations 100 --ei threads 4 --ei ops_per_thread 50
+ * </pre>
+ */
+class BenchmarkConfig {
+
+    static final String EXTRA_WARMUP_ROUNDS = "warmup";
+    static final String EXTRA_ITERATIONS = "iterations";
+    static final String EXTRA_THREADS = "threads";
+    static final String EXTRA_OPS_PER_THREAD = "ops_per_thread";
+
+    private static final int DEFAULT_WARMUP_ROUNDS = 5;
+    private static final int DEFAULT_ITERATIONS = 50;
+    private static final int DEFAULT_OPS_PER_THREAD = 25;
+
+    /**
+     * Untimed rounds run before each measurement, to load the keystore service and JIT the code.
+     */
+    final int mWarmupRounds;
+
+    /**
+     * Timed rounds of each single-threaded measurement.
+     */
+    final int mIterations;
+
+    /**
+     * Threads signing concurrently in the throughput measurement.
+     */
+    final int mThreads;
+
+    /**
+     * Timed signatures made by each thread in the throughput measurement.
+     */
+    final int mOpsPerThread;
+
+    BenchmarkConfig(final int warmupRounds,
+                    final int iterations,
+                    final int threads,
+                    final int opsPerThread) {
+        mWarmupRounds = Math.max(0, warmupRounds);
+        mIterations = Math.max(1, iterations);
+        mThreads = Math.max(1, threads);
+        mOpsPerThread = Math.max(1, opsPerThread);
+    }
+
+    @NonNull
+    static BenchmarkConfig fromIntent(@NonNull final Intent intent) {
+        return new BenchmarkConfig(
+                intent.getIntExtra(EXTRA_WARMUP_ROUNDS, DEFAULT_WARMUP_ROUNDS),
+                intent.getIntExtra(EXTRA_ITERATIONS, DEFAULT_ITERATIONS),
+                intent.getIntExtra(EXTRA_THREADS, Runtime.getRuntime().availableProcessors()),
+                intent.getIntExtra(EXTRA_OPS_PER_THREAD, DEFAULT_OPS_PER_THREAD)
+        );
+    }
+
+    @NonNull
+    JSONObject toJson() throws JSONException {
+        return new JSONObject()
+                .put(EXTRA_WARMUP_ROUNDS, mWarmupRounds)
+                .put(EXTRA_ITERATIONS, mIterations)
+                .put(EXTRA_THREADS, mThreads)
+                .put(EXTRA_OPS_PER_THREAD, mOpsPerThread);
+    }
+}
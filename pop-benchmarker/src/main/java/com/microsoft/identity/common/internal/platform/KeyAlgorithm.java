@@ -0,0 +1,91 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.platform;
+
+import android.os.Build;
+import android.security.keystore.KeyGenParameterSpec;
+import android.security.keystore.KeyProperties;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RequiresApi;
+
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+
+/**
+ * The AndroidKeyStore key types compared by the app: the RSA-2048 key the PoP scheme uses today,
+ * and an EC P-256 key as an alternative. Keys are generated directly in the AndroidKeyStore, with
+ * the same purposes and digest as the PoP key, so the comparison does not depend on the key type
+ * supported by {@link DevicePopManager}.
+ */
+@RequiresApi(Build.VERSION_CODES.M)
+enum KeyAlgorithm {
+
+    RSA_2048("rsa_2048", KeyProperties.KEY_ALGORITHM_RSA, "SHA256withRSA") {
+        @Override
+        void initialize(@NonNull final KeyPairGenerator generator,
+                        @NonNull final KeyGenParameterSpec.Builder spec) throws Exception {
+            generator.initialize(spec
+                    .setKeySize(2048)
+                    .setSignaturePaddings(KeyProperties.SIGNATURE_PADDING_RSA_PKCS1)
+                    .build());
+        }
+    },
+
+    EC_P256("ec_p256", KeyProperties.KEY_ALGORITHM_EC, "SHA256withECDSA") {
+        @Override
+        void initialize(@NonNull final KeyPairGenerator generator,
+                        @NonNull final KeyGenParameterSpec.Builder spec) throws Exception {
+            generator.initialize(spec
+                    .setAlgorithmParameterSpec(new ECGenParameterSpec("secp256r1"))
+                    .build());
+        }
+    };
+
+    static final String ANDROID_KEYSTORE = "AndroidKeyStore";
+
+    final String mName;
+    final String mKeyAlgorithm;
+    final String mSignatureAlgorithm;
+
+    KeyAlgorithm(@NonNull final String name,
+                 @NonNull final String keyAlgorithm,
+                 @NonNull final String signatureAlgorithm) {
+        mName = name;
+        mKeyAlgorithm = keyAlgorithm;
+        mSignatureAlgorithm = signatureAlgorithm;
+    }
+
+    /**
+     * Generates a signing key of this type under the given alias.
+     */
+    void generateKey(@NonNull final String alias) throws Exception {
+        final KeyPairGenerator generator = KeyPairGenerator.getInstance(mKeyAlgorithm, ANDROID_KEYSTORE);
+        initialize(generator, new KeyGenParameterSpec.Builder(alias, KeyProperties.PURPOSE_SIGN | KeyProperties.PURPOSE_VERIFY)
+                .setDigests(KeyProperties.DIGEST_SHA256));
+        generator.generateKeyPair();
+    }
+
+    abstract void initialize(@NonNull KeyPairGenerator generator,
+                             @NonNull KeyGenParameterSpec.Builder spec) throws Exception;
+}
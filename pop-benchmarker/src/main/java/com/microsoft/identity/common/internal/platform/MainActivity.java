@@ -24,6 +24,7 @@ package com.microsoft.identity.common.internal.platform;
 
 import android.os.Build;
 import android.os.Bundle;
+import android.util.Log;
 import android.view.View;
 import android.widget.Button;
 import android.widget.TextView;
@@ -31,28 +32,24 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 
+import org.json.JSONException;
+import org.json.JSONObject;
 
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.security.KeyStoreException;
-import java.security.NoSuchAlgorithmException;
-import java.security.cert.CertificateException;
-import java.util.ArrayList;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.UUID;
-import java.util.concurrent.Callable;
-import java.util.concurrent.Semaphore;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Iterator;
+import java.util.Locale;
 
 
 public class MainActivity extends AppCompatActivity {
 
-    private MainThreadMarshaller<String> mThreadMarshaller = new MainThreadMarshaller<>();
+    private static final String TAG = MainActivity.class.getSimpleName();
 
-    private List<Long> mKeyGenerationTimings = new ArrayList<>();
-    private List<Long> mKeyLoadTimings = new ArrayList<>();
-    private List<Long> mSigningTimings = new ArrayList<>();
-
-    private List<IDevicePopManager> mPopMgrs = new ArrayList<>();
+    private BenchmarkConfig mConfig;
 
     private TextView
             mTvManufacturer,
@@ -62,7 +59,11 @@ public class MainActivity extends AppCompatActivity {
             mTvKeyGen,
             mTvKeyLoad,
             mTvSigning,
-            mTvHardwareIsolated;
+            mTvSigningFresh,
+            mTvSigningThroughput,
+            mTvAlgorithmComparison,
+            mTvHardwareIsolated,
+            mTvResultsFile;
 
     private Button mBtn_Restart;
 
@@ -75,46 +76,38 @@ public class MainActivity extends AppCompatActivity {
         setText(mTvModel, Build.MODEL);
         setText(mTvOsVer, Build.VERSION.RELEASE);
         setText(mTvApiLevel, Build.VERSION.SDK_INT);
+        mConfig = BenchmarkConfig.fromIntent(getIntent());
         executeBenchmarks();
     }
 
-    @Override
-    protected void onResume() {
-        super.onResume();
-    }
-
     private void executeBenchmarks() {
+        final PopBenchmarkSuite suite = new PopBenchmarkSuite(this, mConfig, new PopBenchmarkSuite.ProgressListener() {
+            @Override
+            public void onProgress(@NonNull final String measurement, final int done, final int total) {
+                setText(mBtn_Restart, measurement + ": " + done + " of " + total);
+            }
+        });
+
         new Thread(new Runnable() {
             @Override
             public void run() {
-                final int iterations = 20;
-                int thisIteration = iterations;
-
-                while (thisIteration >= 1) {
-                    final int finalThisIteration = thisIteration;
-                    runOnUiThread(new Runnable() {
-                        @Override
-                        public void run() {
-                            mBtn_Restart.setText("Remaining iterations: " + finalThisIteration + " of: " + iterations);
-                        }
-                    });
-                    populateViews();
-                    thisIteration--;
-                }
+                String status = "Restart";
 
-                computeAverages();
+                try {
+                    final JSONObject report = suite.run();
+                    displayReport(report);
+                    setText(mTvResultsFile, exportReport(report).getAbsolutePath());
+                } catch (final Exception e) {
+                    Log.e(TAG, "Benchmark run failed.", e);
+                    status = "Failed: " + e.getMessage() + " - Restart";
+                }
 
+                final String finalStatus = status;
                 runOnUiThread(new Runnable() {
                     @Override
                     public void run() {
-                        // Clean up
-                        for (final IDevicePopManager devicePopManager : mPopMgrs) {
-                            devicePopManager.clearAsymmetricKey();
-                        }
-                        mPopMgrs.clear();
-
                         // Enable our button
-                        mBtn_Restart.setText("Restart");
+                        mBtn_Restart.setText(finalStatus);
                         mBtn_Restart.setEnabled(true);
                     }
                 });
@@ -122,23 +115,88 @@ public class MainActivity extends AppCompatActivity {
         }).start();
     }
 
-    private void computeAverages() {
-        final long avgKeyGen = computeAvg(mKeyGenerationTimings);
-        final long avgKeyLoad = computeAvg(mKeyLoadTimings);
-        final long avgSign = computeAvg(mSigningTimings);
-        setText(mTvKeyGen, String.valueOf(avgKeyGen));
-        setText(mTvKeyLoad, String.valueOf(avgKeyLoad));
-        setText(mTvSigning, String.valueOf(avgSign));
+    private void displayReport(@NonNull final JSONObject report) throws JSONException {
+        final JSONObject results = report.getJSONObject("results");
+        final JSONObject throughput = results.getJSONObject(PopBenchmarkSuite.SIGNING_THROUGHPUT);
+
+        setText(mTvKeyGen, formatStats(results.getJSONObject(PopBenchmarkSuite.KEY_GENERATION)));
+        setText(mTvKeyLoad, formatStats(results.getJSONObject(PopBenchmarkSuite.KEY_LOAD)));
+        setText(mTvSigning, formatStats(results.getJSONObject(PopBenchmarkSuite.SIGNING_REUSED_KEY)));
+        setText(mTvSigningFresh, formatStats(results.getJSONObject(PopBenchmarkSuite.SIGNING_FRESH_KEY)));
+        setText(mTvSigningThroughput, String.format(
+                Locale.US,
+                "%.1f (%d threads)\n%s",
+                throughput.getDouble("ops_per_second"),
+                throughput.getInt("threads"),
+                formatStats(throughput.getJSONObject("latency"))
+        ));
+        setText(mTvAlgorithmComparison, formatAlgorithmComparison(results.getJSONObject(PopBenchmarkSuite.ALGORITHM_COMPARISON)));
+        setText(mTvHardwareIsolated, report.getJSONObject("device").getBoolean("hardware_isolated"));
+    }
+
+    @NonNull
+    private static String formatStats(@NonNull final JSONObject stats) throws JSONException {
+        return String.format(
+                Locale.US,
+                "p50 %.2f  p95 %.2f\np99 %.2f  max %.2f",
+                stats.getDouble("p50"),
+                stats.getDouble("p95"),
+                stats.getDouble("p99"),
+                stats.getDouble("max")
+        );
+    }
+
+    /**
+     * Shows the median key generation, key load and signing time of each compared algorithm.
+     */
+    @NonNull
+    private static String formatAlgorithmComparison(@NonNull final JSONObject comparison) throws JSONException {
+        if (comparison.length() == 0) {
+            return "Requires API 23";
+        }
+
+        final StringBuilder builder = new StringBuilder();
+        final Iterator<String> algorithms = comparison.keys();
+
+        while (algorithms.hasNext()) {
+            final String algorithm = algorithms.next();
+            final JSONObject results = comparison.getJSONObject(algorithm);
+
+            if (builder.length() > 0) {
+                builder.append('\n');
+            }
+
+            builder.append(String.format(
+                    Locale.US,
+                    "%s\ngen %.2f  load %.2f  sign %.2f",
+                    algorithm,
+                    results.getJSONObject(PopBenchmarkSuite.KEY_GENERATION).getDouble("p50"),
+                    results.getJSONObject(PopBenchmarkSuite.KEY_LOAD).getDouble("p50"),
+                    results.getJSONObject(PopBenchmarkSuite.SIGNING).getDouble("p50")
+            ));
+        }
+
+        return builder.toString();
     }
 
-    private long computeAvg(List<Long> list) {
-        long sum = 0L;
+    /**
+     * Writes the report to the app's external files directory, from which it can be pulled with
+     * adb to compare devices, and logs it.
+     */
+    @NonNull
+    private File exportReport(@NonNull final JSONObject report) throws IOException, JSONException {
+        final File directory = getExternalFilesDir(null) == null ? getFilesDir() : getExternalFilesDir(null);
+        final File file = new File(
+                directory,
+                String.format(Locale.US, "pop-benchmark-%s-%d.json", Build.MODEL.replaceAll("\\W", "_"), System.currentTimeMillis())
+        );
 
-        for (final Long value : list) {
-            sum += value;
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), Charset.forName("UTF-8"))) {
+            writer.write(report.toString(2));
         }
 
-        return sum / list.size();
+        Log.i(TAG, "Benchmark results written to " + file.getAbsolutePath() + ": " + report);
+        return file;
     }
 
     private void initializeViews() {
@@ -149,7 +207,11 @@ public class MainActivity extends AppCompatActivity {
         mTvKeyGen = findViewById(R.id.disp_key_gen);
         mTvKeyLoad = findViewById(R.id.disp_key_load);
         mTvSigning = findViewById(R.id.disp_signing);
+        mTvSigningFresh = findViewById(R.id.disp_signing_fresh);
+        mTvSigningThroughput = findViewById(R.id.disp_signing_throughput);
+        mTvAlgorithmComparison = findViewById(R.id.disp_algorithm_comparison);
         mTvHardwareIsolated = findViewById(R.id.disp_hardware_iso);
+        mTvResultsFile = findViewById(R.id.disp_results_file);
         mBtn_Restart = findViewById(R.id.btn_restart);
         mBtn_Restart.setEnabled(false);
         mBtn_Restart.setOnClickListener(new View.OnClickListener() {
@@ -165,165 +227,19 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void restartBenchmarks() {
-        mKeyGenerationTimings.clear();
-        mKeyLoadTimings.clear();
-        mSigningTimings.clear();
-
         final String calculating = "Calculating...";
 
         setText(mTvKeyGen, calculating);
         setText(mTvKeyLoad, calculating);
         setText(mTvSigning, calculating);
+        setText(mTvSigningFresh, calculating);
+        setText(mTvSigningThroughput, calculating);
+        setText(mTvAlgorithmComparison, calculating);
+        setText(mTvResultsFile, calculating);
 
         executeBenchmarks();
     }
 
-    private static final Semaphore sLOCK = new Semaphore(1);
-
-    private void populateViews() {
-        try {
-            sLOCK.acquire();
-        } catch (InterruptedException e) {
-            crash(e);
-        }
-        final LinkedList<Runnable> tasks = new LinkedList<>();
-        tasks.add(new Runnable() {
-            @Override
-            public void run() {
-                getKeyLoadTiming(new AsyncResultCallback<String>() {
-                    @Override
-                    public void onDone(String result) {
-                        tasks.remove().run();
-                    }
-                });
-            }
-        });
-
-        tasks.add(new Runnable() {
-            @Override
-            public void run() {
-                getSigningTiming(new AsyncResultCallback<String>() {
-                    @Override
-                    public void onDone(String result) {
-                        tasks.remove().run();
-                    }
-                });
-            }
-        });
-
-        tasks.add(new Runnable() {
-            @Override
-            public void run() {
-                getIsHardwareIsolated(new AsyncResultCallback<String>() {
-                    @Override
-                    public void onDone(String result) {
-                        setText(mTvHardwareIsolated, result);
-                        // Done!
-                        sLOCK.release();
-                    }
-                });
-            }
-        });
-
-        getKeyGenerationTiming(new AsyncResultCallback<String>() {
-            @Override
-            public void onDone(String result) {
-                tasks.remove().run();
-            }
-        });
-    }
-
-    private IDevicePopManager getRandomPopMgr() {
-        try {
-            final IDevicePopManager popManager = new DevicePopManager(UUID.randomUUID().toString());
-            mPopMgrs.add(popManager);
-            return popManager;
-        } catch (KeyStoreException | CertificateException | NoSuchAlgorithmException | IOException e) {
-            throw new RuntimeException(e);
-        }
-    }
-
-    private void getIsHardwareIsolated(@NonNull final AsyncResultCallback<String> callback) {
-        try {
-            final IDevicePopManager devicePopManager = getRandomPopMgr();
-            devicePopManager.generateAsymmetricKey(MainActivity.this);
-            final Timer.TimerResult<Boolean> result = Timer.execute(new Callable<Boolean>() {
-                @Override
-                public Boolean call() throws Exception {
-                    return SecureHardwareState.TRUE_UNATTESTED
-                            == devicePopManager.getSecureHardwareState();
-                }
-            });
-            mThreadMarshaller.postResult(result.mResult.toString(), callback);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
-    }
-
-    private void getSigningTiming(@NonNull final AsyncResultCallback<String> callback) {
-        try {
-            final IDevicePopManager tmpPoPMgr = getRandomPopMgr();
-            tmpPoPMgr.generateAsymmetricKey(MainActivity.this);
-            final Timer.TimerResult<Void> result = Timer.execute(new Callable<Void>() {
-                @Override
-                public Void call() throws Exception {
-                    tmpPoPMgr.sign(
-                            IDevicePopManager.SigningAlgorithm.SHA_256_WITH_RSA,
-                            "The quick brown fox jumped over the lazy dog."
-                    );
-                    return null;
-                }
-            });
-            mSigningTimings.add(result.mDuration);
-            mThreadMarshaller.postResult(String.valueOf(result.mDuration), callback);
-        } catch (Exception e) {
-            crash(e);
-        }
-    }
-
-    private void getKeyLoadTiming(@NonNull final AsyncResultCallback<String> callback) {
-        // Pregenerate a key, to load it again for measurement.
-        try {
-            final String uuid = UUID.randomUUID().toString();
-            final IDevicePopManager devicePopManager = new DevicePopManager(uuid);
-            devicePopManager.generateAsymmetricKey(MainActivity.this);
-            mPopMgrs.add(devicePopManager);
-            final Timer.TimerResult<Void> result = Timer.execute(new Callable<Void>() {
-                @Override
-                public Void call() throws Exception {
-                    new DevicePopManager(uuid);
-                    return null;
-                }
-            });
-            mKeyLoadTimings.add(result.mDuration);
-            mThreadMarshaller.postResult(String.valueOf(result.mDuration), callback);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
-    }
-
-    private void getKeyGenerationTiming(@NonNull final AsyncResultCallback<String> callback) {
-        final IDevicePopManager tmpPopMgr = getRandomPopMgr();
-        final Timer.TimerResult<Void> result = Timer.execute(new Callable<Void>() {
-            @Override
-            public Void call() {
-                try {
-                    tmpPopMgr.generateAsymmetricKey(MainActivity.this);
-                    return null;
-                } catch (ClientException e) {
-                    throw new RuntimeException(e);
-                }
-            }
-        });
-        mKeyGenerationTimings.add(result.mDuration);
-        mThreadMarshaller.postResult(String.valueOf(result.mDuration), callback);
-    }
-
-    private void crash(final Exception e) {
-        e.printStackTrace();
-        throw new RuntimeException(e);
-    }
-
     private void setText(@NonNull final TextView textView,
                          @NonNull final Object result) {
         runOnUiThread(new Runnable() {
@@ -333,20 +249,4 @@ public class MainActivity extends AppCompatActivity {
             }
         });
     }
-
-    interface AsyncResultCallback<T> {
-        void onDone(T result);
-    }
-
-    class MainThreadMarshaller<T> {
-        void postResult(final T result,
-                        final AsyncResultCallback<T> callback) {
-            runOnUiThread(new Runnable() {
-                @Override
-                public void run() {
-                    callback.onDone(result);
-                }
-            });
-        }
-    }
 }
@@ -0,0 +1,412 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.platform;
+
+import android.content.Context;
+import android.os.Build;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RequiresApi;
+
+import org.json.JSONObject;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The PoP key operations measured by the app. Each single-threaded measurement runs its warm-up
+ * rounds, then its timed iterations, and is summarized as {@link TimingStats}. Signing is
+ * measured both with a key reused across signatures, as the PoP scheme does, and with a freshly
+ * generated key, whose first use may be slower. The RSA key of the PoP scheme is then compared
+ * with an EC P-256 key for generation, load and signing, see {@link KeyAlgorithm}.
+ * <p>
+ * Must not be run on the main thread.
+ */
+class PopBenchmarkSuite {
+
+    static final String KEY_GENERATION = "key_generation";
+    static final String KEY_LOAD = "key_load";
+    static final String SIGNING_REUSED_KEY = "signing_reused_key";
+    static final String SIGNING_FRESH_KEY = "signing_fresh_key";
+    static final String SIGNING_THROUGHPUT = "signing_throughput";
+    static final String ALGORITHM_COMPARISON = "algorithm_comparison";
+    static final String SIGNING = "signing";
+
+    private static final String PAYLOAD = "The quick brown fox jumped over the lazy dog.";
+
+    interface ProgressListener {
+        void onProgress(@NonNull String measurement, int done, int total);
+    }
+
+    private interface Operation {
+        void run() throws Exception;
+    }
+
+    private final Context mContext;
+    private final BenchmarkConfig mConfig;
+    private final ProgressListener mProgressListener;
+    private final List<IDevicePopManager> mPopMgrs = Collections.synchronizedList(new ArrayList<IDevicePopManager>());
+    private final List<String> mKeystoreAliases = new ArrayList<>();
+
+    PopBenchmarkSuite(@NonNull final Context context,
+                      @NonNull final BenchmarkConfig config,
+                      @NonNull final ProgressListener progressListener) {
+        mContext = context.getApplicationContext();
+        mConfig = config;
+        mProgressListener = progressListener;
+    }
+
+    /**
+     * Runs every measurement, then deletes the keys it generated.
+     *
+     * @return The report of the run.
+     */
+    @NonNull
+    JSONObject run() throws Exception {
+        try {
+            final JSONObject results = new JSONObject()
+                    .put(KEY_GENERATION, measureKeyGeneration().toJson())
+                    .put(KEY_LOAD, measureKeyLoad().toJson())
+                    .put(SIGNING_REUSED_KEY, measureSigningWithReusedKey().toJson())
+                    .put(SIGNING_FRESH_KEY, measureSigningWithFreshKey().toJson())
+                    .put(SIGNING_THROUGHPUT, measureSigningThroughput())
+                    .put(ALGORITHM_COMPARISON, measureAlgorithmComparison());
+
+            return new JSONObject()
+                    .put("timestamp", System.currentTimeMillis())
+                    .put("device", getDeviceInfo())
+                    .put("config", mConfig.toJson())
+                    .put("results", results);
+        } finally {
+            for (final IDevicePopManager devicePopManager : mPopMgrs) {
+                devicePopManager.clearAsymmetricKey();
+            }
+            mPopMgrs.clear();
+
+            if (!mKeystoreAliases.isEmpty()) {
+                final KeyStore keyStore = loadKeyStore();
+                for (final String alias : mKeystoreAliases) {
+                    keyStore.deleteEntry(alias);
+                }
+                mKeystoreAliases.clear();
+            }
+        }
+    }
+
+    @NonNull
+    private TimingStats measureKeyGeneration() throws Exception {
+        return measure(KEY_GENERATION, new Callable<Operation>() {
+            @Override
+            public Operation call() throws Exception {
+                final IDevicePopManager devicePopManager = newPopMgr(UUID.randomUUID().toString());
+                return new Operation() {
+                    @Override
+                    public void run() throws Exception {
+                        devicePopManager.generateAsymmetricKey(mContext);
+                    }
+                };
+            }
+        });
+    }
+
+    @NonNull
+    private TimingStats measureKeyLoad() throws Exception {
+        // Pregenerate a key, to load it again for measurement.
+        final String alias = UUID.randomUUID().toString();
+        generateKey(alias);
+
+        return measure(KEY_LOAD, new Callable<Operation>() {
+            @Override
+            public Operation call() {
+                return new Operation() {
+                    @Override
+                    public void run() throws Exception {
+                        new DevicePopManager(alias);
+                    }
+                };
+            }
+        });
+    }
+
+    @NonNull
+    private TimingStats measureSigningWithReusedKey() throws Exception {
+        final IDevicePopManager devicePopManager = generateKey(UUID.randomUUID().toString());
+
+        return measure(SIGNING_REUSED_KEY, new Callable<Operation>() {
+            @Override
+            public Operation call() {
+                return signWith(devicePopManager);
+            }
+        });
+    }
+
+    @NonNull
+    private TimingStats measureSigningWithFreshKey() throws Exception {
+        return measure(SIGNING_FRESH_KEY, new Callable<Operation>() {
+            @Override
+            public Operation call() throws Exception {
+                return signWith(generateKey(UUID.randomUUID().toString()));
+            }
+        });
+    }
+
+    /**
+     * Signs with a shared key from several threads at once, each with its own
+     * {@link DevicePopManager} instance, and reports the aggregate throughput along with the
+     * latency of each signature.
+     */
+    @NonNull
+    private JSONObject measureSigningThroughput() throws Exception {
+        final String alias = UUID.randomUUID().toString();
+        generateKey(alias);
+        final int threads = mConfig.mThreads;
+        final AtomicLong startNanos = new AtomicLong();
+        final CyclicBarrier startBarrier = new CyclicBarrier(threads, new Runnable() {
+            @Override
+            public void run() {
+                startNanos.set(System.nanoTime());
+            }
+        });
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final List<Future<List<Long>>> futures = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(new Callable<List<Long>>() {
+                    @Override
+                    public List<Long> call() throws Exception {
+                        final IDevicePopManager devicePopManager = new DevicePopManager(alias);
+                        final List<Long> durations = new ArrayList<>(mConfig.mOpsPerThread);
+
+                        for (int j = 0; j < mConfig.mWarmupRounds; j++) {
+                            devicePopManager.sign(IDevicePopManager.SigningAlgorithm.SHA_256_WITH_RSA, PAYLOAD);
+                        }
+
+                        startBarrier.await();
+
+                        for (int j = 0; j < mConfig.mOpsPerThread; j++) {
+                            durations.add(Timer.execute(new Callable<String>() {
+                                @Override
+                                public String call() throws Exception {
+                                    return devicePopManager.sign(IDevicePopManager.SigningAlgorithm.SHA_256_WITH_RSA, PAYLOAD);
+                                }
+                            }).mDurationNanos);
+                        }
+
+                        return durations;
+                    }
+                }));
+            }
+
+            final List<Long> durations = new ArrayList<>();
+            for (int i = 0; i < futures.size(); i++) {
+                durations.addAll(futures.get(i).get());
+                mProgressListener.onProgress(SIGNING_THROUGHPUT, i + 1, threads);
+            }
+
+            final long elapsedNanos = System.nanoTime() - startNanos.get();
+
+            return new JSONObject()
+                    .put("threads", threads)
+                    .put("operations", durations.size())
+                    .put("elapsed_ms", elapsedNanos / 1_000_000d)
+                    .put("ops_per_second", durations.size() * 1_000_000_000d / elapsedNanos)
+                    .put("latency", new TimingStats(durations).toJson());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Measures key generation, key load and signing with a reused key for each
+     * {@link KeyAlgorithm}. Keys with an algorithm other than RSA require API 23, so the
+     * comparison is skipped on older devices.
+     */
+    @NonNull
+    private JSONObject measureAlgorithmComparison() throws Exception {
+        final JSONObject comparison = new JSONObject();
+
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M) {
+            return comparison;
+        }
+
+        for (final KeyAlgorithm algorithm : KeyAlgorithm.values()) {
+            comparison.put(algorithm.mName, measureAlgorithm(algorithm));
+        }
+
+        return comparison;
+    }
+
+    @NonNull
+    @RequiresApi(Build.VERSION_CODES.M)
+    private JSONObject measureAlgorithm(@NonNull final KeyAlgorithm algorithm) throws Exception {
+        final String measurement = ALGORITHM_COMPARISON + "/" + algorithm.mName;
+
+        final TimingStats keyGeneration = measure(measurement + "/" + KEY_GENERATION, new Callable<Operation>() {
+            @Override
+            public Operation call() {
+                final String alias = newKeystoreAlias();
+                return new Operation() {
+                    @Override
+                    public void run() throws Exception {
+                        algorithm.generateKey(alias);
+                    }
+                };
+            }
+        });
+
+        final String alias = newKeystoreAlias();
+        algorithm.generateKey(alias);
+
+        final TimingStats keyLoad = measure(measurement + "/" + KEY_LOAD, new Callable<Operation>() {
+            @Override
+            public Operation call() {
+                return new Operation() {
+                    @Override
+                    public void run() throws Exception {
+                        loadKeyStore().getEntry(alias, null);
+                    }
+                };
+            }
+        });
+
+        final PrivateKey privateKey = (PrivateKey) loadKeyStore().getKey(alias, null);
+        final byte[] payload = PAYLOAD.getBytes(StandardCharsets.UTF_8);
+
+        final TimingStats signing = measure(measurement + "/" + SIGNING, new Callable<Operation>() {
+            @Override
+            public Operation call() {
+                return new Operation() {
+                    @Override
+                    public void run() throws Exception {
+                        final Signature signature = Signature.getInstance(algorithm.mSignatureAlgorithm);
+                        signature.initSign(privateKey);
+                        signature.update(payload);
+                        signature.sign();
+                    }
+                };
+            }
+        });
+
+        return new JSONObject()
+                .put(KEY_GENERATION, keyGeneration.toJson())
+                .put(KEY_LOAD, keyLoad.toJson())
+                .put(SIGNING, signing.toJson());
+    }
+
+    /**
+     * Runs the warm-up rounds, then the timed iterations, of a measurement. The set-up returning
+     * the operation of each round is not timed.
+     */
+    @NonNull
+    private TimingStats measure(@NonNull final String measurement,
+                                @NonNull final Callable<Operation> setUp) throws Exception {
+        final int rounds = mConfig.mWarmupRounds + mConfig.mIterations;
+        final List<Long> durations = new ArrayList<>(mConfig.mIterations);
+
+        for (int i = 0; i < rounds; i++) {
+            final Operation operation = setUp.call();
+            final long duration = Timer.execute(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    operation.run();
+                    return null;
+                }
+            }).mDurationNanos;
+
+            if (i >= mConfig.mWarmupRounds) {
+                durations.add(duration);
+            }
+
+            mProgressListener.onProgress(measurement, i + 1, rounds);
+        }
+
+        return new TimingStats(durations);
+    }
+
+    @NonNull
+    private Operation signWith(@NonNull final IDevicePopManager devicePopManager) {
+        return new Operation() {
+            @Override
+            public void run() throws Exception {
+                devicePopManager.sign(IDevicePopManager.SigningAlgorithm.SHA_256_WITH_RSA, PAYLOAD);
+            }
+        };
+    }
+
+    @NonNull
+    private JSONObject getDeviceInfo() throws Exception {
+        return new JSONObject()
+                .put("manufacturer", Build.MANUFACTURER)
+                .put("model", Build.MODEL)
+                .put("os_version", Build.VERSION.RELEASE)
+                .put("api_level", Build.VERSION.SDK_INT)
+                .put("hardware_isolated", isHardwareIsolated());
+    }
+
+    private boolean isHardwareIsolated() throws Exception {
+        return SecureHardwareState.TRUE_UNATTESTED
+                == generateKey(UUID.randomUUID().toString()).getSecureHardwareState();
+    }
+
+    @NonNull
+    private String newKeystoreAlias() {
+        final String alias = UUID.randomUUID().toString();
+        mKeystoreAliases.add(alias);
+        return alias;
+    }
+
+    @NonNull
+    private static KeyStore loadKeyStore() throws Exception {
+        final KeyStore keyStore = KeyStore.getInstance(KeyAlgorithm.ANDROID_KEYSTORE);
+        keyStore.load(null);
+        return keyStore;
+    }
+
+    @NonNull
+    private IDevicePopManager newPopMgr(@NonNull final String alias) throws Exception {
+        final IDevicePopManager devicePopManager = new DevicePopManager(alias);
+        mPopMgrs.add(devicePopManager);
+        return devicePopManager;
+    }
+
+    @NonNull
+    private IDevicePopManager generateKey(@NonNull final String alias) throws Exception {
+        final IDevicePopManager devicePopManager = newPopMgr(alias);
+        devicePopManager.generateAsymmetricKey(mContext);
+        return devicePopManager;
+    }
+}
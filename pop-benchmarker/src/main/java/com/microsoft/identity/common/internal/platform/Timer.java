@@ -25,40 +25,30 @@ package com.microsoft.identity.common.internal.platform;
 import androidx.annotation.NonNull;
 
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
 
 class Timer {
 
     static class TimerResult<T> {
-        long mDuration;
+        long mDurationNanos;
         T mResult;
     }
 
-    private static ExecutorService sExecutorService = Executors.newCachedThreadPool();
+    /**
+     * Runs the callable on the calling thread and times it with the monotonic clock. Handing the
+     * callable to another thread would add the thread switch to the measurement.
+     */
+    static <T> TimerResult<T> execute(@NonNull final Callable<T> callable) throws Exception {
+        final TimerResult<T> result = new TimerResult<>();
 
-    static <T> TimerResult<T> execute(@NonNull final Callable<T> callable) {
-        try {
-            final TimerResult<T> result = new TimerResult<>();
+        // Start timer
+        final long startTime = System.nanoTime();
 
-            // Start timer
-            final long startTime = System.currentTimeMillis();
+        // Execute command
+        result.mResult = callable.call();
 
-            // Execute command
-            final Future<T> future = sExecutorService.submit(callable);
+        // Package result and return
+        result.mDurationNanos = System.nanoTime() - startTime;
 
-            // Get the result
-            result.mResult = future.get();
-
-            // Package result and return
-            result.mDuration = System.currentTimeMillis() - startTime;
-
-            return result;
-        } catch (final ExecutionException | InterruptedException e) {
-            e.printStackTrace();
-            throw new RuntimeException(e);
-        }
+        return result;
     }
 }
@@ -0,0 +1,104 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.platform;
+
+import androidx.annotation.NonNull;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Summary of the timings of one measurement: spread and nearest-rank percentiles, in
+ * milliseconds.
+ */
+class TimingStats {
+
+    private static final double NANOS_PER_MILLI = 1_000_000d;
+
+    final int mCount;
+    final double mMin;
+    final double mMean;
+    final double mStdDev;
+    final double mP50;
+    final double mP95;
+    final double mP99;
+    final double mMax;
+
+    TimingStats(@NonNull final List<Long> durationsNanos) {
+        if (durationsNanos.isEmpty()) {
+            throw new IllegalArgumentException("No timings to summarize.");
+        }
+
+        final long[] sorted = new long[durationsNanos.size()];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = durationsNanos.get(i);
+        }
+        Arrays.sort(sorted);
+
+        double sum = 0;
+        for (final long duration : sorted) {
+            sum += duration;
+        }
+        final double mean = sum / sorted.length;
+
+        double squaredDeviations = 0;
+        for (final long duration : sorted) {
+            squaredDeviations += (duration - mean) * (duration - mean);
+        }
+
+        mCount = sorted.length;
+        mMin = toMillis(sorted[0]);
+        mMean = mean / NANOS_PER_MILLI;
+        mStdDev = Math.sqrt(squaredDeviations / sorted.length) / NANOS_PER_MILLI;
+        mP50 = toMillis(percentile(sorted, 50));
+        mP95 = toMillis(percentile(sorted, 95));
+        mP99 = toMillis(percentile(sorted, 99));
+        mMax = toMillis(sorted[sorted.length - 1]);
+    }
+
+    private static long percentile(@NonNull final long[] sorted, final int percentile) {
+        final int rank = (int) Math.ceil(percentile / 100d * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static double toMillis(final long nanos) {
+        return nanos / NANOS_PER_MILLI;
+    }
+
+    @NonNull
+    JSONObject toJson() throws JSONException {
+        return new JSONObject()
+                .put("unit", "ms")
+                .put("count", mCount)
+                .put("min", mMin)
+                .put("mean", mMean)
+                .put("std_dev", mStdDev)
+                .put("p50", mP50)
+                .put("p95", mP95)
+                .put("p99", mP99)
+                .put("max", mMax);
+    }
+}